@@ -0,0 +1,147 @@
+package br.edu.ifce.ppd.mom.app;
+
+import br.edu.ifce.ppd.mom.gui.SaidaMonitoramento;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoPipeline;
+import br.edu.ifce.ppd.mom.infra.EstatisticasBroker;
+import br.edu.ifce.ppd.mom.metricas.AmostradorBroker;
+import br.edu.ifce.ppd.mom.metricas.Contador;
+import br.edu.ifce.ppd.mom.metricas.HistogramaLatencia;
+import br.edu.ifce.ppd.mom.metricas.RegistroMetricas;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ajusta periodicamente a quantidade de Workers entre os limites da configuração.
+ *
+ * A cada avaliação são observados, no intervalo desde a avaliação anterior:
+ *   - a ocupação média dos Workers (tempo processando / tempo disponível);
+ *   - a profundidade da Fila no Broker (ou a estimativa pelos contadores);
+ *   - a latência ponta a ponta média das mensagens agregadas pelo Monitor.
+ *
+ * Há pressão quando os Workers estão ocupados e a Fila ou a latência passaram do alvo; há
+ * ociosidade quando a ocupação é baixa e a Fila está praticamente vazia.
+ *
+ * NOTA TÉCNICA (histerese): um Worker só é adicionado após 2 avaliações seguidas com pressão e
+ * só é removido após 5 avaliações seguidas de ociosidade; depois de cada ajuste a avaliação
+ * seguinte é ignorada, pois a entrada e saída de consumidores perturba as medições.
+ */
+public class AutoescalonadorWorkers implements AutoCloseable {
+    private static final double OCUPACAO_ALTA = 0.75;
+    private static final double OCUPACAO_BAIXA = 0.30;
+    private static final int AVALIACOES_PARA_AUMENTAR = 2;
+    private static final int AVALIACOES_PARA_REDUZIR = 5;
+
+    private final GerenciadorWorkers gerenciador;
+    private final ConfiguracaoPipeline config;
+    private final AmostradorBroker amostrador;
+    private final HistogramaLatencia latenciaPontaAPonta;
+    private final SaidaMonitoramento gui;
+    private final ScheduledExecutorService agendador;
+
+    private final Contador tempoOcupado;
+    private final Contador mensagensEnviadas;
+    private final Contador recebidasWorkers;
+
+    // Estado da avaliação anterior (usado apenas pela thread do agendador)
+    private long instanteAnterior = System.nanoTime();
+    private long ocupadoAnterior;
+    private long latenciasAnteriores;
+    private long somaLatenciasAnterior;
+    private int avaliacoesComPressao;
+    private int avaliacoesOciosas;
+    private boolean ignorarProxima;
+
+    public AutoescalonadorWorkers(GerenciadorWorkers gerenciador, ConfiguracaoPipeline config, AmostradorBroker amostrador,
+                                  HistogramaLatencia latenciaPontaAPonta, RegistroMetricas registro,
+                                  SaidaMonitoramento gui, long intervaloMs) {
+        this.gerenciador = gerenciador;
+        this.config = config;
+        this.amostrador = amostrador;
+        this.latenciaPontaAPonta = latenciaPontaAPonta;
+        this.gui = gui;
+        this.tempoOcupado = registro.contador(RegistroMetricas.TEMPO_OCUPADO_WORKERS);
+        this.mensagensEnviadas = registro.contador(RegistroMetricas.MENSAGENS_ENVIADAS);
+        this.recebidasWorkers = registro.contador(RegistroMetricas.MENSAGENS_RECEBIDAS_WORKER);
+        this.ocupadoAnterior = tempoOcupado.getValor();
+
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "autoescalonador-workers");
+            t.setDaemon(true);
+            return t;
+        });
+        agendador.scheduleWithFixedDelay(this::avaliar, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void avaliar() {
+        try {
+            long agora = System.nanoTime();
+            long ocupado = tempoOcupado.getValor();
+            long latencias = latenciaPontaAPonta.getTotal();
+            long somaLatencias = latenciaPontaAPonta.getSoma();
+            int workers = gerenciador.getQuantidade();
+
+            double ocupacao = workers == 0 ? 0 : (double) (ocupado - ocupadoAnterior) / ((agora - instanteAnterior) * (double) workers);
+            long novas = latencias - latenciasAnteriores;
+            double latenciaMediaMs = novas <= 0 ? 0 : (somaLatencias - somaLatenciasAnterior) / (double) novas / 1000.0;
+            long fila = profundidadeFila();
+
+            instanteAnterior = agora;
+            ocupadoAnterior = ocupado;
+            latenciasAnteriores = latencias;
+            somaLatenciasAnterior = somaLatencias;
+
+            if (!config.isAutoescalonamento()) return;
+            if (ignorarProxima) {
+                ignorarProxima = false;
+                return;
+            }
+
+            // Com controle de vazão a Fila não cresce indefinidamente: passar do limite inferior
+            // da faixa já indica que os Produtores estão sendo contidos pelos Workers
+            long limiarFila = config.isControleVazaoAtivo() ? config.getFilaAlvoMinima() : 100L * workers;
+            boolean pressao = ocupacao >= OCUPACAO_ALTA && (fila > limiarFila || latenciaMediaMs > config.getLatenciaAlvoMs());
+            boolean ociosidade = ocupacao < OCUPACAO_BAIXA && fila <= limiarFila / 4;
+
+            avaliacoesComPressao = pressao ? avaliacoesComPressao + 1 : 0;
+            avaliacoesOciosas = ociosidade ? avaliacoesOciosas + 1 : 0;
+
+            int alvo = workers;
+            if (avaliacoesComPressao >= AVALIACOES_PARA_AUMENTAR && workers < config.getMaximoWorkers()) {
+                alvo = workers + 1;
+            } else if (avaliacoesOciosas >= AVALIACOES_PARA_REDUZIR && workers > config.getMinimoWorkers()) {
+                alvo = workers - 1;
+            } else if (workers < config.getMinimoWorkers() || workers > config.getMaximoWorkers()) {
+                // Limites alterados em tempo de execução
+                alvo = Math.max(config.getMinimoWorkers(), Math.min(config.getMaximoWorkers(), workers));
+            }
+
+            if (alvo != workers) {
+                gerenciador.ajustarQuantidade(alvo);
+                avaliacoesComPressao = 0;
+                avaliacoesOciosas = 0;
+                ignorarProxima = true;
+                gui.registrarLog(String.format("[Autoescalonamento] Workers %d -> %d (ocupação %.0f%%, fila %d, latência média %.0f ms)",
+                        workers, alvo, ocupacao * 100, fila, latenciaMediaMs));
+            }
+        } catch (RuntimeException e) {
+            // Uma avaliação com falha não pode cancelar o agendamento das próximas
+            gui.registrarLog("[Autoescalonamento] Falha na avaliação: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Profundidade da Fila pela última amostra do Broker ou, sem ela, pelos contadores locais.
+     */
+    private long profundidadeFila() {
+        EstatisticasBroker.Estatisticas fila = amostrador == null ? null : amostrador.getUltimaFila();
+        if (fila != null) return fila.tamanho;
+        return Math.max(0, mensagensEnviadas.getValor() - recebidasWorkers.getValor());
+    }
+
+    @Override
+    public void close() {
+        agendador.shutdownNow();
+    }
+}
@@ -0,0 +1,120 @@
+package br.edu.ifce.ppd.mom.app;
+
+import br.edu.ifce.ppd.mom.gestao.PipelineMXBean;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoPipeline;
+import br.edu.ifce.ppd.mom.metricas.MedidorTaxa;
+import br.edu.ifce.ppd.mom.metricas.RegistroMetricas;
+
+/**
+ * MBean de controle do pipeline: agrega as métricas globais e aplica os ajustes feitos
+ * pelo JConsole à configuração compartilhada (lida a cada uso pelos componentes) e ao
+ * gerenciador de Workers da execução corrente.
+ */
+public class ControlePipeline implements PipelineMXBean {
+    private final ConfiguracaoPipeline config;
+    private final RegistroMetricas registro;
+    private volatile GerenciadorWorkers gerenciador;
+
+    private final MedidorTaxa taxaLeitura = new MedidorTaxa();
+    private final MedidorTaxa taxaProcessamento = new MedidorTaxa();
+
+    public ControlePipeline(ConfiguracaoPipeline config, RegistroMetricas registro) {
+        this.config = config;
+        this.registro = registro;
+    }
+
+    /**
+     * Associa o gerenciador da execução corrente (null quando não há execução ativa).
+     */
+    public void setGerenciador(GerenciadorWorkers gerenciador) {
+        this.gerenciador = gerenciador;
+    }
+
+    @Override
+    public int getQuantidadeWorkers() {
+        GerenciadorWorkers atual = gerenciador;
+        return atual == null ? config.getQuantidadeWorkers() : atual.getQuantidade();
+    }
+
+    @Override
+    public void setQuantidadeWorkers(int quantidade) {
+        GerenciadorWorkers atual = gerenciador;
+        if (atual == null) {
+            // Sem execução ativa: vale para a próxima
+            config.setQuantidadeWorkers(quantidade);
+        } else {
+            atual.ajustarQuantidade(quantidade);
+        }
+    }
+
+    @Override
+    public long getIntervaloAtualizacaoMs() { return config.getIntervaloAtualizacaoMs(); }
+
+    @Override
+    public void setIntervaloAtualizacaoMs(long intervaloMs) { config.setIntervaloAtualizacaoMs(intervaloMs); }
+
+    @Override
+    public int getAmostragemLog() { return config.getAmostragemLog(); }
+
+    @Override
+    public void setAmostragemLog(int umACada) { config.setAmostragemLog(umACada); }
+
+    @Override
+    public long getFilaAlvoMinima() { return config.getFilaAlvoMinima(); }
+
+    @Override
+    public void setFilaAlvoMinima(long mensagens) { config.setFaixaFila(mensagens, config.getFilaAlvoMaxima()); }
+
+    @Override
+    public long getFilaAlvoMaxima() { return config.getFilaAlvoMaxima(); }
+
+    @Override
+    public void setFilaAlvoMaxima(long mensagens) { config.setFaixaFila(config.getFilaAlvoMinima(), mensagens); }
+
+    @Override
+    public int getMemoriaMaximaBroker() { return config.getMemoriaMaximaBroker(); }
+
+    @Override
+    public void setMemoriaMaximaBroker(int percentual) { config.setMemoriaMaximaBroker(percentual); }
+
+    @Override
+    public boolean isAutoescalonamento() { return config.isAutoescalonamento(); }
+
+    @Override
+    public void setAutoescalonamento(boolean ativo) { config.setAutoescalonamento(ativo); }
+
+    @Override
+    public int getMinimoWorkers() { return config.getMinimoWorkers(); }
+
+    @Override
+    public void setMinimoWorkers(int minimo) { config.setLimitesWorkers(minimo, config.getMaximoWorkers()); }
+
+    @Override
+    public int getMaximoWorkers() { return config.getMaximoWorkers(); }
+
+    @Override
+    public void setMaximoWorkers(int maximo) { config.setLimitesWorkers(config.getMinimoWorkers(), maximo); }
+
+    @Override
+    public long getLatenciaAlvoMs() { return config.getLatenciaAlvoMs(); }
+
+    @Override
+    public void setLatenciaAlvoMs(long latenciaMs) { config.setLatenciaAlvoMs(latenciaMs); }
+
+    @Override
+    public double getLinhasLidasPorSegundo() {
+        return taxaLeitura.taxa(registro.contador(RegistroMetricas.LINHAS_LIDAS).getValor());
+    }
+
+    @Override
+    public double getLinhasProcessadasPorSegundo() {
+        return taxaProcessamento.taxa(registro.contador(RegistroMetricas.LINHAS_PROCESSADAS).getValor());
+    }
+
+    @Override
+    public long getMensagensEmTransito() {
+        long enviadas = registro.contador(RegistroMetricas.MENSAGENS_ENVIADAS).getValor();
+        long recebidas = registro.contador(RegistroMetricas.MENSAGENS_RECEBIDAS_WORKER).getValor();
+        return Math.max(0, enviadas - recebidas);
+    }
+}
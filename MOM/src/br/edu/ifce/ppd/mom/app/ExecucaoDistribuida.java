@@ -0,0 +1,415 @@
+package br.edu.ifce.ppd.mom.app;
+
+import br.edu.ifce.ppd.mom.componentes.CanalControleJobs;
+import br.edu.ifce.ppd.mom.componentes.CatalogoJobs;
+import br.edu.ifce.ppd.mom.componentes.ControleVazao;
+import br.edu.ifce.ppd.mom.componentes.DefinicaoJob;
+import br.edu.ifce.ppd.mom.componentes.ProdutorLinhas;
+import br.edu.ifce.ppd.mom.componentes.VisaoResultados;
+import br.edu.ifce.ppd.mom.contagem.ContadorNGramas;
+import br.edu.ifce.ppd.mom.contagem.ContadorVocabulario;
+import br.edu.ifce.ppd.mom.contagem.EstimadorDistintas;
+import br.edu.ifce.ppd.mom.contagem.EstimadorOnline;
+import br.edu.ifce.ppd.mom.contagem.MatrizCoocorrencia;
+import br.edu.ifce.ppd.mom.contagem.MotorContagem;
+import br.edu.ifce.ppd.mom.contagem.TabelaContagem;
+import br.edu.ifce.ppd.mom.contagem.TipoMotor;
+import br.edu.ifce.ppd.mom.gui.SaidaMonitoramento;
+import br.edu.ifce.ppd.mom.infra.BrokerEmbutido;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoJMS;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoPipeline;
+import br.edu.ifce.ppd.mom.metricas.AmostradorBroker;
+import br.edu.ifce.ppd.mom.metricas.RegistroMetricas;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Coordenador sem interface gráfica para execuções com processos Worker dedicados (ProcessoWorker).
+ * Anuncia o job no Tópico de controle, aguarda os processos Worker se apresentarem por heartbeat,
+ * envia o arquivo pela Fila e aguarda o Monitor agregar todas as ocorrências.
+ *
+ * Uso: java -cp SistemaMOM.jar br.edu.ifce.ppd.mom.app.ExecucaoDistribuida --arquivo corpus.txt
+ *        [--broker tcp://localhost:61616] [--embutido] [--palavras Java,Python,ActiveMQ,MOM]
+ *        [--motor REGEX] [--produtores 2] [--lote 1] [--workers-locais 0] [--nos 1] [--timeout-s 300]
+ *        [--jobs 1] [--agregadores 0] [--particoes-monitor 1] [--vocabulario 0] [--sketch 0] [--distintas]
+ *        [--coocorrencias] [--ngramas 0] [--online] [--bloco-kb 64] [--precisao 0]
+ *
+ * Com --jobs N o arquivo é enviado N vezes, cada uma como um novo job anunciado logo após o término
+ * do anterior: os processos Worker trocam de job sem reconectar e reaproveitam o motor compilado.
+ *
+ * Com --vocabulario K o job conta todos os tokens do arquivo (as palavras-chave são ignoradas) e o
+ * Monitor exibe os K termos mais frequentes; o coordenador confere o resultado com uma contagem local.
+ * Com --sketch W a contagem do vocabulário é aproximada (Count-Min Sketch de largura W e Space-Saving),
+ * e o coordenador compara as estimativas com os valores exatos. Com --ngramas N (2 ou 3, junto de
+ * --vocabulario K) os termos contados são os bigramas (e trigramas) de cada linha, sempre na contagem
+ * aproximada (a largura padrão do sketch é usada se --sketch não for informado).
+ * Com --distintas os Workers estimam as palavras distintas do arquivo e das linhas com palavra-chave
+ * (HyperLogLog), e o coordenador compara as estimativas com a contagem exata local.
+ * Com --coocorrencias o Monitor conta as linhas com cada par de palavras-chave, e o coordenador confere os
+ * pares mais frequentes com uma contagem local feita pelo motor de regex.
+ * Com --online o arquivo é enviado em blocos em ordem aleatória e o coordenador registra, a cada meio
+ * segundo, os totais finais estimados com a margem de 95%; ao final, informa quantos intervalos contiveram
+ * o total exato. Com --precisao P (ex: 0.02) o envio para assim que todas as margens ficam abaixo de P
+ * vezes a estimativa.
+ *
+ * Exemplo local com várias JVMs e um único Broker embutido:
+ *   1) ExecucaoDistribuida --embutido --nos 2 --arquivo corpus.txt   (sobe o Broker em tcp://localhost:61616)
+ *   2) ProcessoWorker --workers 2   (em dois outros terminais)
+ */
+public class ExecucaoDistribuida {
+    // Pares de coocorrência conferidos com a contagem local
+    private static final int PARES_CONFERIDOS = 10;
+
+    public static void main(String[] args) throws Exception {
+        String url = ConfiguracaoJMS.getUrlBroker();
+        boolean embutido = false;
+        String arquivo = null;
+        List<String> palavras = Arrays.asList("Java", "Python", "ActiveMQ", "MOM");
+        TipoMotor motor = TipoMotor.REGEX;
+        int produtores = 2;
+        int lote = 1;
+        int workersLocais = 0;
+        int nos = 1;
+        long timeoutSegundos = 300;
+        int jobs = 1;
+        int agregadores = 0;
+        int particoesMonitor = 1;
+        int topVocabulario = 0;
+        int larguraSketch = 0;
+        int nGramas = 0;
+        boolean estimarDistintas = false;
+        boolean contarCoocorrencias = false;
+        boolean online = false;
+        int blocoKb = 64;
+        double precisao = 0;
+        for (int i = 0; i < args.length; i++) {
+            String valor = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--broker": url = valor; i++; break;
+                case "--embutido": embutido = true; break;
+                case "--arquivo": arquivo = valor; i++; break;
+                case "--palavras": palavras = Arrays.asList(valor.split(",")); i++; break;
+                case "--motor": motor = TipoMotor.valueOf(valor); i++; break;
+                case "--produtores": produtores = Integer.parseInt(valor); i++; break;
+                case "--lote": lote = Integer.parseInt(valor); i++; break;
+                case "--workers-locais": workersLocais = Integer.parseInt(valor); i++; break;
+                case "--nos": nos = Integer.parseInt(valor); i++; break;
+                case "--timeout-s": timeoutSegundos = Long.parseLong(valor); i++; break;
+                case "--jobs": jobs = Integer.parseInt(valor); i++; break;
+                case "--agregadores": agregadores = Integer.parseInt(valor); i++; break;
+                case "--particoes-monitor": particoesMonitor = Integer.parseInt(valor); i++; break;
+                case "--vocabulario": topVocabulario = Integer.parseInt(valor); i++; break;
+                case "--sketch": larguraSketch = Integer.parseInt(valor); i++; break;
+                case "--ngramas": nGramas = Integer.parseInt(valor); i++; break;
+                case "--distintas": estimarDistintas = true; break;
+                case "--coocorrencias": contarCoocorrencias = true; break;
+                case "--online": online = true; break;
+                case "--bloco-kb": blocoKb = Integer.parseInt(valor); i++; break;
+                case "--precisao": precisao = Double.parseDouble(valor); i++; break;
+                default: throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+        if (arquivo == null) throw new IllegalArgumentException("Informe o arquivo com --arquivo.");
+
+        BrokerEmbutido broker = embutido ? new BrokerEmbutido("mom-distribuido", false, url) : null;
+        SaidaMonitoramento saida = SaidaMonitoramento.CONSOLE;
+        ConfiguracaoPipeline config = new ConfiguracaoPipeline()
+                .setUrlBroker(url)
+                .setTipoMotor(motor)
+                .setTamanhoLote(lote)
+                .setQuantidadeProdutores(produtores)
+                .setAgregadoresIntermediarios(agregadores)
+                .setParticoesMonitor(particoesMonitor)
+                .setTopVocabulario(topVocabulario)
+                .setLarguraSketch(larguraSketch)
+                .setNGramas(nGramas)
+                .setEstimarDistintas(estimarDistintas)
+                .setContarCoocorrencias(contarCoocorrencias)
+                .setAgregacaoOnline(online)
+                .setTamanhoBlocoOnline(blocoKb * 1024);
+        if (topVocabulario > 0) palavras = new ArrayList<>();
+
+        try (CanalControleJobs canal = new CanalControleJobs(url, saida);
+             AmostradorBroker amostrador = new AmostradorBroker(url, RegistroMetricas.global(), 1000)) {
+            GerenciadorWorkers locais = null;
+            CatalogoJobs catalogoLocal = new CatalogoJobs();
+            for (int j = 0; j < jobs; j++) {
+                DefinicaoJob job = new DefinicaoJob(DefinicaoJob.novoId(), palavras, motor, 1, topVocabulario, larguraSketch,
+                        estimarDistintas, contarCoocorrencias, nGramas, particoesMonitor);
+                config.setJobId(job.getJobId()).setFilaLinhas(job.getFilaLinhas());
+                RegistroMetricas.global().zerar();
+
+                VisaoResultados monitor = VisaoResultados.criar(SaidaMonitoramento.SILENCIOSA, job.getPalavras(), config);
+                Thread tMonitor = new Thread(monitor, "monitor");
+                tMonitor.start();
+                try {
+                    canal.anunciar(job);
+                    catalogoLocal.registrar(job);
+                    if (locais == null && workersLocais > 0) {
+                        config.setQuantidadeWorkers(workersLocais);
+                        locais = new GerenciadorWorkers(job.getPalavras(), saida, config, catalogoLocal);
+                        locais.ajustarQuantidade(workersLocais);
+                    }
+                    long limite = System.currentTimeMillis() + timeoutSegundos * 1000;
+                    if (j == 0) {
+                        // Aguarda os processos Worker confirmarem o primeiro job por heartbeat; nos
+                        // seguintes eles já estão conectados e trocam de job na primeira linha recebida
+                        while (contarNosNoJob(canal, job) < nos && System.currentTimeMillis() < limite) {
+                            Thread.sleep(200);
+                        }
+                        saida.registrarLog("[Coordenador] " + contarNosNoJob(canal, job) + " processo(s) Worker no job " + job.getJobId());
+                    }
+                    executarJob(arquivo, job, config, monitor, amostrador, saida, limite, precisao);
+                    for (CanalControleJobs.EstadoNo no : canal.getNosAtivos(10_000)) {
+                        saida.registrarLog(String.format("[Coordenador]   %-30s workers=%d linhasProcessadas=%d trocasJob=%d motoresCompilados=%d",
+                                no.no, no.workers, no.linhasProcessadas, no.trocasJob, no.motoresCompilados));
+                    }
+                    canal.encerrar(job);
+                    catalogoLocal.encerrar(job.getJobId());
+                } finally {
+                    tMonitor.interrupt();
+                    tMonitor.join(5000);
+                }
+            }
+            if (locais != null) locais.pararTodos();
+        } finally {
+            if (broker != null) broker.close();
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Envia o arquivo pela Fila como o job informado e aguarda o Monitor agregar todas as ocorrências.
+     */
+    private static void executarJob(String arquivo, DefinicaoJob job, ConfiguracaoPipeline config, VisaoResultados monitor,
+                                    AmostradorBroker amostrador, SaidaMonitoramento saida, long limite, double precisao)
+            throws IOException, InterruptedException {
+        TabelaContagem referenciaVocabulario = job.isVocabularioCompleto() ? contarVocabulario(arquivo, job) : null;
+        long[] exatosPorPalavra = referenciaVocabulario == null ? contarPorPalavra(arquivo, job) : null;
+        long esperado = referenciaVocabulario != null ? referenciaVocabulario.getTotal() : Arrays.stream(exatosPorPalavra).sum();
+        long inicio = System.nanoTime();
+        int produtores = config.getQuantidadeProdutores();
+        ControleVazao controleVazao = new ControleVazao(config, amostrador, RegistroMetricas.global());
+        List<Thread> leitores = new ArrayList<>();
+        for (int p = 0; p < produtores; p++) {
+            Thread leitor = new Thread(new ProdutorLinhas(arquivo, p, produtores, saida, config, controleVazao), "produtor-" + p);
+            leitor.start();
+            leitores.add(leitor);
+        }
+        List<Map<String, EstimadorOnline.Intervalo>> acompanhamento = new ArrayList<>();
+        boolean paradaAntecipada = false;
+        if (monitor.getAgregacaoOnline() != null) {
+            paradaAntecipada = acompanharOnline(monitor.getAgregacaoOnline(), leitores, monitor, esperado, precisao,
+                    acompanhamento, saida, limite);
+        }
+        for (Thread leitor : leitores) leitor.join();
+
+        while (!paradaAntecipada && monitor.getTotalGeral() < esperado && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        long linhas = RegistroMetricas.global().contador(RegistroMetricas.LINHAS_LIDAS).getValor();
+        if (job.isEstimarDistintas()) {
+            // Os registradores chegam a cada intervalo de envio dos Workers, depois das ocorrências
+            while (monitor.getPalavrasDistintas().linhas < linhas && System.currentTimeMillis() < limite) {
+                Thread.sleep(10);
+            }
+        }
+        if (job.isContarCoocorrencias()) {
+            while (monitor.getCoocorrencias(0).linhas < linhas && System.currentTimeMillis() < limite) {
+                Thread.sleep(10);
+            }
+        }
+
+        saida.registrarLog(String.format(Locale.ROOT, "[Coordenador] %s: %d linhas em %.2f s (%.0f linhas/s), %d de %d ocorrências%s",
+                job.getJobId(), linhas, segundos, linhas / segundos, monitor.getTotalGeral(), esperado,
+                monitor.getTotalGeral() == esperado ? "" : paradaAntecipada ? " [PARADA ANTECIPADA]" : " [INCOMPLETO]"));
+        saida.registrarLog("[Coordenador] Totais: " + monitor.getTotaisPorTermo());
+        if (monitor.getAgregacaoOnline() != null) {
+            // Cobertura: em quantos dos intervalos registrados o total exato ficou dentro da margem de 95%
+            int intervalos = 0;
+            int cobertos = 0;
+            for (Map<String, EstimadorOnline.Intervalo> estimativas : acompanhamento) {
+                for (int i = 0; i < job.getPalavras().size(); i++) {
+                    EstimadorOnline.Intervalo intervalo = estimativas.get(job.getPalavras().get(i));
+                    if (intervalo == null || Double.isInfinite(intervalo.margem)) continue;
+                    intervalos++;
+                    if (intervalo.contem(exatosPorPalavra[i])) cobertos++;
+                }
+            }
+            saida.registrarLog(String.format("[Coordenador] Agregação online: %d de %d intervalos de 95%% contiveram o total exato",
+                    cobertos, intervalos));
+            if (paradaAntecipada && !acompanhamento.isEmpty()) {
+                Map<String, EstimadorOnline.Intervalo> finais = acompanhamento.get(acompanhamento.size() - 1);
+                StringBuilder sb = new StringBuilder("[Coordenador] Estimativas na parada (exato entre parênteses):");
+                for (int i = 0; i < job.getPalavras().size(); i++) {
+                    EstimadorOnline.Intervalo intervalo = finais.get(job.getPalavras().get(i));
+                    sb.append(String.format(Locale.ROOT, " %s=%d±%.0f (%d)", job.getPalavras().get(i),
+                            intervalo.estimativa, intervalo.margem, exatosPorPalavra[i]));
+                }
+                saida.registrarLog(sb.toString());
+            }
+        }
+        if (referenciaVocabulario != null && job.getLarguraSketch() > 0) {
+            // Estimativas nunca abaixo do valor real; o excesso deve ficar abaixo de (e / largura) * N
+            Map<String, Long> exatos = referenciaVocabulario.maiores(job.getTopVocabulario());
+            int presentes = 0;
+            long maiorExcesso = 0;
+            boolean abaixo = false;
+            for (Map.Entry<String, Long> e : monitor.getTotaisPorTermo().entrySet()) {
+                long real = referenciaVocabulario.obter(e.getKey());
+                if (exatos.containsKey(e.getKey())) presentes++;
+                maiorExcesso = Math.max(maiorExcesso, e.getValue() - real);
+                abaixo |= e.getValue() < real;
+            }
+            saida.registrarLog(String.format("[Coordenador] Vocabulário aproximado: %d de %d termos do top exato; "
+                            + "maior excesso %d (limite %d)%s", presentes, exatos.size(), maiorExcesso,
+                    (long) Math.ceil(Math.E / job.getLarguraSketch() * esperado), abaixo ? " [ESTIMATIVA ABAIXO DO REAL]" : ""));
+        } else if (referenciaVocabulario != null) {
+            boolean confere = referenciaVocabulario.maiores(job.getTopVocabulario()).equals(monitor.getTotaisPorTermo());
+            saida.registrarLog(String.format("[Coordenador] Vocabulário: %d termos distintos; top %d %s a contagem local",
+                    referenciaVocabulario.getTamanho(), job.getTopVocabulario(), confere ? "confere com" : "DIVERGE da"));
+        }
+        if (job.isEstimarDistintas()) {
+            long[] exatas = contarDistintas(arquivo, job);
+            EstimadorDistintas.Estimativa estimativa = monitor.getPalavrasDistintas();
+            saida.registrarLog(String.format(Locale.ROOT, "[Coordenador] Palavras distintas: ~%d (exato %d, erro %.2f%%); "
+                            + "em linhas com palavra-chave: ~%d (exato %d, erro %.2f%%); erro padrão %.1f%%, %d de %d linhas",
+                    estimativa.distintas, exatas[0], erroRelativo(estimativa.distintas, exatas[0]),
+                    estimativa.distintasComPalavraChave, exatas[1], erroRelativo(estimativa.distintasComPalavraChave, exatas[1]),
+                    estimativa.erroPadrao * 100, estimativa.linhas, linhas));
+        }
+        if (job.isContarCoocorrencias()) {
+            MatrizCoocorrencia exata = contarCoocorrencias(arquivo, job);
+            MatrizCoocorrencia.Resumo pares = monitor.getCoocorrencias(PARES_CONFERIDOS);
+            boolean confere = pares.paresPresentes == exata.getParesPresentes()
+                    && pares.maiores.equals(exata.maiores(PARES_CONFERIDOS, job.getPalavras()));
+            saida.registrarLog(String.format("[Coordenador] Coocorrências: %d pares presentes em %d linhas; top %d %s a contagem local: %s",
+                    pares.paresPresentes, pares.linhas, PARES_CONFERIDOS, confere ? "confere com" : "DIVERGE da", pares.maiores));
+        }
+        // Com agregadores intermediários, o Monitor recebe um total por palavra a cada intervalo
+        saida.registrarLog(String.format(Locale.ROOT, "[Coordenador] Monitor aplicou %d mensagens de resultado (%.0f/s)",
+                monitor.getMensagensRecebidas(), monitor.getMensagensRecebidas() / segundos));
+    }
+
+    /**
+     * Registra a cada meio segundo os totais finais estimados pela agregação online, até o Monitor agregar
+     * todas as ocorrências ou, com precisão alvo, até todas as margens ficarem abaixo dela (nesse caso
+     * os Produtores são interrompidos e o método devolve verdadeiro).
+     */
+    private static boolean acompanharOnline(EstimadorOnline online, List<Thread> leitores, VisaoResultados monitor,
+                                            long esperado, double precisao, List<Map<String, EstimadorOnline.Intervalo>> acompanhamento,
+                                            SaidaMonitoramento saida, long limite) throws InterruptedException {
+        while (monitor.getTotalGeral() < esperado && System.currentTimeMillis() < limite) {
+            Thread.sleep(500);
+            if (online.getBlocos() < 2) continue;
+            Map<String, EstimadorOnline.Intervalo> estimativas = online.estimar();
+            acompanhamento.add(estimativas);
+            StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "[Coordenador] %.1f%% processado:", online.getFracao() * 100));
+            boolean precisaoAtingida = precisao > 0;
+            for (Map.Entry<String, EstimadorOnline.Intervalo> e : estimativas.entrySet()) {
+                sb.append(String.format(Locale.ROOT, " %s~%d±%.0f", e.getKey(), e.getValue().estimativa, e.getValue().margem));
+                precisaoAtingida &= e.getValue().getMargemRelativa() <= precisao;
+            }
+            saida.registrarLog(sb.toString());
+            if (precisaoAtingida && online.getFracao() < 1) {
+                saida.registrarLog(String.format(Locale.ROOT, "[Coordenador] Precisão de %.1f%% atingida com %.1f%% do arquivo: "
+                        + "envio interrompido", precisao * 100, online.getFracao() * 100));
+                for (Thread leitor : leitores) leitor.interrupt();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long contarNosNoJob(CanalControleJobs canal, DefinicaoJob job) {
+        return canal.getNosAtivos(10_000).stream().filter(no -> job.getJobId().equals(no.jobId)).count();
+    }
+
+    /**
+     * Ocorrências de cada palavra no arquivo, contadas localmente com o mesmo motor, para detectar o
+     * término (pela soma) e conferir as estimativas da agregação online.
+     */
+    private static long[] contarPorPalavra(String arquivo, DefinicaoJob job) throws IOException {
+        MotorContagem referencia = job.getTipoMotor().criar(job.getPalavras());
+        int[] ocorrencias = new int[job.getPalavras().size()];
+        try (BufferedReader leitor = Files.newBufferedReader(Paths.get(arquivo), StandardCharsets.UTF_8)) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) referencia.contar(linha, ocorrencias);
+        }
+        return Arrays.stream(ocorrencias).asLongStream().toArray();
+    }
+
+    /**
+     * Palavras distintas exatas do arquivo e das linhas com palavra-chave, contadas localmente com as
+     * mesmas regras dos Workers.
+     */
+    private static long[] contarDistintas(String arquivo, DefinicaoJob job) throws IOException {
+        MotorContagem referencia = job.getTipoMotor().criar(job.getPalavras());
+        int[] ocorrencias = new int[job.getPalavras().size()];
+        TabelaContagem todas = new TabelaContagem();
+        TabelaContagem comPalavraChave = new TabelaContagem();
+        ContadorVocabulario contador = new ContadorVocabulario();
+        try (BufferedReader leitor = Files.newBufferedReader(Paths.get(arquivo), StandardCharsets.UTF_8)) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                Arrays.fill(ocorrencias, 0);
+                referencia.contar(linha, ocorrencias);
+                contador.contar(linha, todas);
+                if (Arrays.stream(ocorrencias).anyMatch(qtd -> qtd > 0)) contador.contar(linha, comPalavraChave);
+            }
+        }
+        return new long[]{todas.getTamanho(), comPalavraChave.getTamanho()};
+    }
+
+    /**
+     * Linhas com cada par de palavras-chave, contadas localmente pelo motor de regex (a implementação
+     * padrão de contarPresentes), independente da varredura única dos outros motores.
+     */
+    private static MatrizCoocorrencia contarCoocorrencias(String arquivo, DefinicaoJob job) throws IOException {
+        MotorContagem referencia = TipoMotor.REGEX.criar(job.getPalavras());
+        int[] ocorrencias = new int[job.getPalavras().size()];
+        int[] presentes = new int[job.getPalavras().size()];
+        MatrizCoocorrencia matriz = new MatrizCoocorrencia(job.getPalavras().size());
+        try (BufferedReader leitor = Files.newBufferedReader(Paths.get(arquivo), StandardCharsets.UTF_8)) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                matriz.registrarLinha(presentes, referencia.contarPresentes(linha, ocorrencias, presentes));
+            }
+        }
+        return matriz;
+    }
+
+    private static double erroRelativo(long estimativa, long exato) {
+        return exato == 0 ? 0 : 100.0 * (estimativa - exato) / exato;
+    }
+
+    /**
+     * Vocabulário completo (ou n-gramas) do arquivo, contado localmente com as mesmas regras dos Workers.
+     */
+    private static TabelaContagem contarVocabulario(String arquivo, DefinicaoJob job) throws IOException {
+        TabelaContagem tabela = new TabelaContagem();
+        ContadorVocabulario contador = new ContadorVocabulario();
+        ContadorNGramas contadorNGramas = job.getNGramas() > 0 ? new ContadorNGramas(job.getNGramas()) : null;
+        try (BufferedReader leitor = Files.newBufferedReader(Paths.get(arquivo), StandardCharsets.UTF_8)) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                if (contadorNGramas != null) {
+                    contadorNGramas.contar(linha, tabela);
+                } else {
+                    contador.contar(linha, tabela);
+                }
+            }
+        }
+        return tabela;
+    }
+}
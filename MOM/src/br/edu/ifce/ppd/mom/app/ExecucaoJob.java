@@ -0,0 +1,346 @@
+package br.edu.ifce.ppd.mom.app;
+
+import br.edu.ifce.ppd.mom.componentes.ControleVazao;
+import br.edu.ifce.ppd.mom.componentes.DefinicaoJob;
+import br.edu.ifce.ppd.mom.componentes.ProdutorLinhas;
+import br.edu.ifce.ppd.mom.componentes.VisaoResultados;
+import br.edu.ifce.ppd.mom.contagem.EstimadorDistintas;
+import br.edu.ifce.ppd.mom.contagem.EstimadorOnline;
+import br.edu.ifce.ppd.mom.contagem.MatrizCoocorrencia;
+import br.edu.ifce.ppd.mom.gui.SaidaMonitoramento;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoPipeline;
+import br.edu.ifce.ppd.mom.infra.EstatisticasBroker;
+import br.edu.ifce.ppd.mom.metricas.AmostradorBroker;
+import br.edu.ifce.ppd.mom.metricas.RegistroMetricas;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Um job em execução no SistemaMOM: arquivo, definição (palavras, motor e peso), Produtores e um
+ * Monitor próprio. Vários jobs compartilham os mesmos Workers, mas cada um tem a sua Fila e os seus
+ * totais, e o relatório do Monitor é guardado aqui para ser exibido junto com os dos outros jobs.
+ *
+ * O estado do job em JSON (progresso e totais) é refeito periodicamente por {@link #atualizarSnapshot}
+ * e apenas lido por {@link #getJson()}, de modo que muitos clientes podem consultá-lo sem custo. Quando o
+ * job termina (concluído ou cancelado), {@link #encerrar} para o Monitor e congela o último JSON.
+ */
+public class ExecucaoJob implements SaidaMonitoramento {
+
+    /**
+     * Fases de um job, na ordem em que acontecem.
+     */
+    public enum Situacao { AGUARDANDO, LENDO, PROCESSANDO, CONCLUIDO, CANCELADO }
+
+    // Pares de coocorrência incluídos no JSON (os mais frequentes)
+    private static final int PARES_JSON = 20;
+
+    // Espera máxima pelo fechamento do Monitor no encerramento, antes do JSON final
+    private static final long ESPERA_MONITOR_MS = 3000;
+
+    private final DefinicaoJob job;
+    private final String arquivo;
+    private final ConfiguracaoPipeline config;
+    private final SaidaMonitoramento saida;
+    private final VisaoResultados monitor;
+    private final List<ProdutorLinhas> produtores = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private final long inicioEm = System.currentTimeMillis();
+
+    private volatile String relatorio = "";
+    private volatile boolean leituraIniciada;
+    private volatile long concluidoEm;
+    private volatile boolean cancelado;
+    private volatile long encerradoEm;
+    private volatile String json;
+
+    /**
+     * @param base Configuração do pipeline; o job usa uma cópia com o seu identificador e a sua Fila.
+     */
+    public ExecucaoJob(DefinicaoJob job, String arquivo, ConfiguracaoPipeline base, SaidaMonitoramento saida) {
+        this.job = job;
+        this.arquivo = arquivo;
+        this.saida = saida;
+        this.config = base.copiar()
+                .setJobId(job.getJobId())
+                .setFilaLinhas(job.getFilaLinhas())
+                .setTipoMotor(job.getTipoMotor())
+                .setTopVocabulario(job.getTopVocabulario())
+                .setLarguraSketch(job.getLarguraSketch())
+                .setNGramas(job.getNGramas())
+                .setEstimarDistintas(job.isEstimarDistintas())
+                .setContarCoocorrencias(job.isContarCoocorrencias());
+        this.monitor = VisaoResultados.criar(this, job.getPalavras(), config);
+        atualizarSnapshot(null);
+    }
+
+    /**
+     * Inicia o Monitor e, após um breve intervalo (para os Workers abrirem a Fila do job), os Produtores.
+     */
+    public void iniciar(AmostradorBroker amostrador) {
+        Thread tMonitor = new Thread(monitor, "monitor-" + job.getJobId());
+        tMonitor.start();
+        threads.add(tMonitor);
+
+        Thread tInicio = new Thread(() -> {
+            try { Thread.sleep(1000); } catch (InterruptedException e) { return; }
+            // Controle de vazão próprio: cada job mantém a sua Fila dentro da faixa alvo
+            ControleVazao controleVazao = new ControleVazao(config, amostrador, RegistroMetricas.global());
+            int totalProdutores = config.getQuantidadeProdutores();
+            synchronized (threads) {
+                for (int p = 0; p < totalProdutores; p++) {
+                    ProdutorLinhas produtor = new ProdutorLinhas(arquivo, p, totalProdutores, this, config, controleVazao);
+                    Thread leitor = new Thread(produtor, "produtor-" + job.getJobId() + "-" + p);
+                    leitor.start();
+                    produtores.add(produtor);
+                    threads.add(leitor);
+                }
+                leituraIniciada = true;
+            }
+        }, "inicio-" + job.getJobId());
+        tInicio.start();
+        synchronized (threads) {
+            threads.add(tInicio);
+        }
+    }
+
+    /**
+     * Cancela o job, se ainda não concluído, e o encerra.
+     */
+    public void cancelar(AmostradorBroker amostrador) {
+        if (concluidoEm == 0) cancelado = true;
+        encerrar(amostrador);
+    }
+
+    /**
+     * Interrompe o Monitor e os Produtores do job, espera o Monitor fechar a sua conexão (e a assinatura do
+     * Tópico) e congela o JSON com os totais finais, que deixa de ser refeito.
+     */
+    public void encerrar(AmostradorBroker amostrador) {
+        if (encerradoEm != 0) return;
+        Thread tMonitor;
+        synchronized (threads) {
+            for (Thread t : threads) t.interrupt();
+            tMonitor = threads.isEmpty() ? null : threads.get(0);
+        }
+        try {
+            if (tMonitor != null) tMonitor.join(ESPERA_MONITOR_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        atualizarSnapshot(amostrador);
+        encerradoEm = System.currentTimeMillis();
+    }
+
+    public DefinicaoJob getDefinicao() { return job; }
+
+    public VisaoResultados getMonitor() { return monitor; }
+
+    public boolean isConcluido() { return concluidoEm != 0; }
+
+    public boolean isEncerrado() { return encerradoEm != 0; }
+
+    /**
+     * Momento em que o job foi encerrado (0 enquanto estiver em execução).
+     */
+    public long getEncerradoEm() { return encerradoEm; }
+
+    public Situacao getSituacao() {
+        if (cancelado) return Situacao.CANCELADO;
+        if (concluidoEm != 0) return Situacao.CONCLUIDO;
+        if (!leituraIniciada) return Situacao.AGUARDANDO;
+        return isLeituraConcluida() ? Situacao.PROCESSANDO : Situacao.LENDO;
+    }
+
+    /**
+     * Último estado do job em JSON (gerado por {@link #atualizarSnapshot}, nunca recalculado aqui).
+     */
+    public String getJson() { return json; }
+
+    /**
+     * Verifica se todo o arquivo foi lido e se os resultados de todas as mensagens enviadas já chegaram ao
+     * Monitor. Retorna verdadeiro apenas na primeira vez em que a conclusão é detectada.
+     *
+     * NOTA TÉCNICA: A Fila vazia não basta: os resultados das últimas linhas podem estar no Tópico, num
+     * agregador intermediário ou no acumulado do intervalo de um Worker. A conclusão vem dos avisos de
+     * progresso, que os Workers publicam depois dos resultados e os agregadores repassam depois dos totais.
+     */
+    public boolean verificarConclusao() {
+        if (concluidoEm != 0 || cancelado || !isLeituraConcluida()) return false;
+        if (monitor.getMensagensProcessadas() < getMensagensEnviadas()) return false;
+        concluidoEm = System.currentTimeMillis();
+        return true;
+    }
+
+    /**
+     * Refaz o JSON do job a partir dos contadores dos Produtores, da última amostra da Fila e da
+     * cópia dos totais mantida pelo Monitor (nada muda depois do encerramento).
+     */
+    public void atualizarSnapshot(AmostradorBroker amostrador) {
+        if (encerradoEm != 0) return;
+        EstatisticasBroker.Estatisticas fila = amostrador == null ? null : amostrador.getUltimasFilas().get(job.getFilaLinhas());
+        Map<String, Long> totais = monitor.getUltimosTotais();
+        long total = 0;
+        for (long v : totais.values()) total += v;
+        // No vocabulário completo os totais são apenas o top K; o total é o de todos os tokens
+        if (job.isVocabularioCompleto()) total = monitor.getTotalGeral();
+        long agora = System.currentTimeMillis();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"jobId\":").append(textoJson(job.getJobId()))
+                .append(",\"arquivo\":").append(textoJson(arquivo))
+                .append(",\"palavras\":[");
+        for (int i = 0; i < job.getPalavras().size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(textoJson(job.getPalavras().get(i)));
+        }
+        sb.append("],\"motor\":\"").append(job.getTipoMotor().name())
+                .append("\",\"peso\":").append(job.getPeso())
+                .append(",\"topVocabulario\":").append(job.getTopVocabulario())
+                .append(",\"situacao\":\"").append(getSituacao().name())
+                .append("\",\"inicio\":").append(inicioEm)
+                .append(",\"duracaoMs\":").append((concluidoEm != 0 ? concluidoEm : agora) - inicioEm)
+                .append(",\"linhasLidas\":").append(getLinhasLidas())
+                .append(",\"leituraConcluida\":").append(isLeituraConcluida())
+                .append(",\"mensagensEnviadas\":").append(getMensagensEnviadas())
+                .append(",\"mensagensProcessadas\":").append(monitor.getMensagensProcessadas())
+                .append(",\"mensagensDescartadas\":").append(monitor.getMensagensDescartadas());
+        if (fila != null) {
+            sb.append(",\"fila\":{\"pendentes\":").append(fila.tamanho)
+                    .append(",\"enfileiradas\":").append(fila.enfileiradas)
+                    .append(",\"consumidas\":").append(fila.retiradas).append('}');
+        }
+        sb.append(",\"totalOcorrencias\":").append(total).append(",\"totais\":{");
+        boolean primeiro = true;
+        for (Map.Entry<String, Long> e : totais.entrySet()) {
+            if (!primeiro) sb.append(',');
+            sb.append(textoJson(e.getKey())).append(':').append(e.getValue());
+            primeiro = false;
+        }
+        sb.append('}');
+        EstimadorDistintas.Estimativa distintas = monitor.getPalavrasDistintas();
+        if (distintas != null) {
+            sb.append(String.format(Locale.ROOT, ",\"palavrasDistintas\":{\"estimativa\":%d,\"emLinhasComPalavraChave\":%d,"
+                            + "\"erroPadrao\":%.4f,\"linhasCobertas\":%d}", distintas.distintas,
+                    distintas.distintasComPalavraChave, distintas.erroPadrao, distintas.linhas));
+        }
+        MatrizCoocorrencia.Resumo pares = monitor.getCoocorrencias(PARES_JSON);
+        if (pares != null) {
+            sb.append(",\"coocorrencias\":{\"paresPresentes\":").append(pares.paresPresentes)
+                    .append(",\"linhasCobertas\":").append(pares.linhas).append(",\"maiores\":{");
+            primeiro = true;
+            for (Map.Entry<String, Long> e : pares.maiores.entrySet()) {
+                if (!primeiro) sb.append(',');
+                sb.append(textoJson(e.getKey())).append(':').append(e.getValue());
+                primeiro = false;
+            }
+            sb.append("}}");
+        }
+        EstimadorOnline online = monitor.getAgregacaoOnline();
+        if (online != null) {
+            // Margem de 95% do total final de cada palavra (null enquanto houver menos de dois blocos)
+            sb.append(String.format(Locale.ROOT, ",\"online\":{\"fracaoProcessada\":%.4f,\"blocos\":%d,\"estimativas\":{",
+                    online.getFracao(), online.getBlocos()));
+            primeiro = true;
+            for (Map.Entry<String, EstimadorOnline.Intervalo> e : online.estimar().entrySet()) {
+                if (!primeiro) sb.append(',');
+                double margem = e.getValue().margem;
+                sb.append(textoJson(e.getKey())).append(":{\"estimativa\":").append(e.getValue().estimativa)
+                        .append(",\"margem95\":").append(Double.isInfinite(margem) ? "null" : String.format(Locale.ROOT, "%.1f", margem))
+                        .append('}');
+                primeiro = false;
+            }
+            sb.append("}}");
+        }
+        sb.append(String.format(Locale.ROOT, ",\"latenciaP50Ms\":%.2f,\"latenciaP99Ms\":%.2f,\"atualizadoEm\":%d}",
+                monitor.getLatenciaPontaAPonta().getPercentil(50) / 1000.0,
+                monitor.getLatenciaPontaAPonta().getPercentil(99) / 1000.0, agora));
+        json = sb.toString();
+    }
+
+    /**
+     * Cabeçalho com o progresso do job seguido do último relatório do seu Monitor.
+     */
+    public String resumo(AmostradorBroker amostrador) {
+        long linhas = getLinhasLidas();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "##### %s (peso %d) - %s #####\n",
+                job.getJobId(), job.getPeso(), new File(arquivo).getName()));
+        long fim = concluidoEm != 0 ? concluidoEm : System.currentTimeMillis();
+        sb.append(String.format(Locale.ROOT, "Linhas lidas: %d%s | %.1f s", linhas,
+                isLeituraConcluida() ? " (leitura concluída)" : "", (fim - inicioEm) / 1000.0));
+        EstatisticasBroker.Estatisticas fila = amostrador == null ? null : amostrador.getUltimasFilas().get(job.getFilaLinhas());
+        if (fila != null) {
+            sb.append(String.format(Locale.ROOT, " | Fila: %d pendentes, %d/%d consumidas",
+                    fila.tamanho, fila.retiradas, fila.enfileiradas));
+        }
+        long descartadas = monitor.getMensagensDescartadas();
+        if (descartadas > 0) sb.append(" | ").append(descartadas).append(" mensagens descartadas");
+        Situacao situacao = getSituacao();
+        sb.append(situacao == Situacao.CONCLUIDO || situacao == Situacao.CANCELADO ? " | " + situacao + "\n" : "\n");
+        sb.append(relatorio).append("\n\n");
+        return sb.toString();
+    }
+
+    private boolean isLeituraConcluida() {
+        if (!leituraIniciada) return false;
+        synchronized (threads) {
+            for (Thread t : threads) {
+                if (t.getName().startsWith("produtor-") && t.isAlive()) return false;
+            }
+        }
+        return true;
+    }
+
+    private long getLinhasLidas() {
+        long total = 0;
+        synchronized (threads) {
+            for (ProdutorLinhas p : produtores) total += p.getLinhasEnviadas();
+        }
+        return total;
+    }
+
+    private long getMensagensEnviadas() {
+        long total = 0;
+        synchronized (threads) {
+            for (ProdutorLinhas p : produtores) total += p.getMensagensEnviadas();
+        }
+        return total;
+    }
+
+    /**
+     * Texto entre aspas no formato JSON, com os caracteres especiais escapados.
+     */
+    static String textoJson(String texto) {
+        StringBuilder sb = new StringBuilder(texto.length() + 2).append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    // --- SaidaMonitoramento: logs vão para o painel com o identificador do job; o relatório fica guardado ---
+
+    @Override
+    public void registrarLog(String mensagem) {
+        saida.registrarLog("[" + job.getJobId() + "] " + mensagem);
+    }
+
+    @Override
+    public void atualizarEstatisticas(String texto) {
+        relatorio = texto;
+    }
+}
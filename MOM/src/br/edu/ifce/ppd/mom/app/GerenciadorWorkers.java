@@ -0,0 +1,93 @@
+package br.edu.ifce.ppd.mom.app;
+
+import br.edu.ifce.ppd.mom.componentes.AgregadorIntermediario;
+import br.edu.ifce.ppd.mom.componentes.CatalogoJobs;
+import br.edu.ifce.ppd.mom.componentes.ProcessadorPalavras;
+import br.edu.ifce.ppd.mom.gui.SaidaMonitoramento;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoPipeline;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Mantém o conjunto de Workers de uma execução, permitindo aumentá-lo ou reduzi-lo
+ * sem reiniciar o pipeline.
+ *
+ * NOTA TÉCNICA: Um Worker removido é interrompido e fecha sua conexão; mensagens que ele
+ * ainda não confirmou voltam para a Fila e são entregues a outro Worker. Os novos Workers
+ * recebem identificadores sempre crescentes, para não colidirem com os que ainda estão encerrando.
+ *
+ * Com agregadores intermediários na configuração, eles são iniciados junto com os primeiros Workers
+ * e atendem a Fila de parciais do grupo; a quantidade de agregadores não acompanha a de Workers.
+ */
+public class GerenciadorWorkers {
+    private final List<String> palavras;
+    private final SaidaMonitoramento gui;
+    private final ConfiguracaoPipeline config;
+    private final CatalogoJobs catalogo;
+
+    private final Deque<Thread> workers = new ArrayDeque<>();
+    private final List<Thread> agregadores = new ArrayList<>();
+    private boolean agregadoresIniciados;
+    private int proximoId = 1;
+
+    public GerenciadorWorkers(List<String> palavras, SaidaMonitoramento gui, ConfiguracaoPipeline config) {
+        this(palavras, gui, config, null);
+    }
+
+    /**
+     * Workers que acompanham o job de cada mensagem pelo catálogo (null para contar sempre as mesmas palavras).
+     */
+    public GerenciadorWorkers(List<String> palavras, SaidaMonitoramento gui, ConfiguracaoPipeline config,
+                              CatalogoJobs catalogo) {
+        this.palavras = palavras;
+        this.gui = gui;
+        this.config = config;
+        this.catalogo = catalogo;
+    }
+
+    /**
+     * Inicia ou encerra Workers (os mais recentes primeiro) até atingir a quantidade pedida.
+     */
+    public synchronized void ajustarQuantidade(int quantidade) {
+        if (quantidade < 1) throw new IllegalArgumentException("O pipeline precisa de pelo menos 1 Worker.");
+        if (!agregadoresIniciados) iniciarAgregadores();
+        while (workers.size() < quantidade) {
+            int id = proximoId++;
+            Thread tWorker = new Thread(new ProcessadorPalavras(id, palavras, gui, config, catalogo), "worker-" + id);
+            tWorker.start();
+            workers.addLast(tWorker);
+        }
+        while (workers.size() > quantidade) {
+            workers.removeLast().interrupt();
+        }
+        config.setQuantidadeWorkers(quantidade);
+    }
+
+    private void iniciarAgregadores() {
+        agregadoresIniciados = true;
+        if (config.getFilaParciais() == null) return;
+        for (int i = 1; i <= config.getAgregadoresIntermediarios(); i++) {
+            // Identificadores negativos distinguem os agregadores dos Workers no log do Monitor
+            Thread tAgregador = new Thread(new AgregadorIntermediario(-i, gui, config), "agregador-" + i);
+            tAgregador.start();
+            agregadores.add(tAgregador);
+        }
+    }
+
+    public synchronized int getQuantidade() {
+        return workers.size();
+    }
+
+    /**
+     * Interrompe todos os Workers (e agregadores) desta execução.
+     */
+    public synchronized void pararTodos() {
+        for (Thread t : workers) t.interrupt();
+        workers.clear();
+        for (Thread t : agregadores) t.interrupt();
+        agregadores.clear();
+    }
+}
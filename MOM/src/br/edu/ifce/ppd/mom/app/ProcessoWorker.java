@@ -0,0 +1,230 @@
+package br.edu.ifce.ppd.mom.app;
+
+import br.edu.ifce.ppd.mom.componentes.CatalogoJobs;
+import br.edu.ifce.ppd.mom.componentes.DefinicaoJob;
+import br.edu.ifce.ppd.mom.gui.SaidaMonitoramento;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoJMS;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoPipeline;
+import br.edu.ifce.ppd.mom.metricas.RegistroMetricas;
+
+import javax.jms.*;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processo Worker dedicado, sem interface gráfica, para distribuir a contagem entre várias máquinas.
+ * Conecta-se ao Broker, inicia N consumidores ProcessadorPalavras e aguarda o anúncio dos jobs no
+ * Tópico de controle (palavras-chave, motor e identificador) para consumir as Filas de linhas deles.
+ * Antes do primeiro job os Workers já atendem as consultas síncronas da Fila de consultas.
+ * Periodicamente publica um heartbeat com seus totais no Tópico de heartbeats.
+ *
+ * Os Workers permanecem conectados entre jobs: cada novo anúncio entra no catálogo de jobs e os
+ * Workers trocam de motor conforme o "jobId" das linhas recebidas, reaproveitando motores já
+ * compilados para o mesmo conjunto de palavras.
+ *
+ * Uso: java -cp SistemaMOM.jar br.edu.ifce.ppd.mom.app.ProcessoWorker
+ *        [--broker tcp://servidor:61616] [--workers 4] [--no nome] [--heartbeat-ms 2000] [--agregadores 0]
+ *
+ * Para testar localmente com várias JVMs: inicie BrokerEmbutido em um terminal, alguns
+ * ProcessoWorker em outros e a ExecucaoDistribuida (ou o SistemaMOM) para submeter o job.
+ */
+public class ProcessoWorker {
+    private final String urlBroker;
+    private final int quantidadeWorkers;
+    private final String nome;
+    private final long intervaloHeartbeatMs;
+    private final int agregadores;
+    private final SaidaMonitoramento saida = SaidaMonitoramento.CONSOLE;
+    private final RegistroMetricas registro = RegistroMetricas.global();
+
+    private Connection conexao;
+    private Session sessaoPublicacao;
+    private MessageProducer publicador;
+    private final CatalogoJobs catalogo = new CatalogoJobs();
+    private GerenciadorWorkers gerenciador;
+    private DefinicaoJob jobAtual;
+    private boolean falhaHeartbeat;
+
+    public ProcessoWorker(String urlBroker, int quantidadeWorkers, String nome, long intervaloHeartbeatMs) {
+        this(urlBroker, quantidadeWorkers, nome, intervaloHeartbeatMs, 0);
+    }
+
+    /**
+     * @param agregadores Agregadores intermediários deste processo (0 = Workers publicam direto no Tópico).
+     *                    Eles somam apenas as parciais dos Workers deste processo, numa Fila própria do nó.
+     */
+    public ProcessoWorker(String urlBroker, int quantidadeWorkers, String nome, long intervaloHeartbeatMs, int agregadores) {
+        this.urlBroker = urlBroker;
+        this.quantidadeWorkers = quantidadeWorkers;
+        this.nome = nome;
+        this.intervaloHeartbeatMs = intervaloHeartbeatMs;
+        this.agregadores = agregadores;
+    }
+
+    /**
+     * Conecta-se ao Broker e permanece ativo até o processo ser encerrado.
+     */
+    public void executar() throws JMSException, InterruptedException {
+        conexao = ConfiguracaoJMS.criarFabricaConexao(urlBroker).createConnection();
+        conexao.setExceptionListener(e -> saida.registrarLog("[" + nome + "] Falha na conexão: " + e.getMessage()));
+
+        // Sessão de escuta do Tópico de controle (anúncios e encerramentos de job)
+        Session sessaoControle = conexao.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        MessageConsumer controle = sessaoControle.createConsumer(
+                sessaoControle.createTopic(ConfiguracaoJMS.NOME_TOPICO_CONTROLE),
+                "tipo IN ('" + DefinicaoJob.TIPO_JOB + "', '" + DefinicaoJob.TIPO_FIM_JOB + "')");
+        controle.setMessageListener(this::aoReceberControle);
+
+        // Sessão de publicação (solicitação do job corrente e heartbeats)
+        sessaoPublicacao = conexao.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        publicador = sessaoPublicacao.createProducer(null);
+        publicador.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+        conexao.start();
+        saida.registrarLog("[" + nome + "] Conectado a " + urlBroker + ". Aguardando job...");
+
+        // Um processo iniciado depois do anúncio pede ao coordenador que o repita; os Workers fazem
+        // o mesmo ao receber linhas de um job que ainda não conhecem
+        catalogo.setSolicitante(this::solicitarJob);
+        iniciarWorkers();
+        solicitarJob(null);
+
+        ScheduledExecutorService agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        agendador.scheduleAtFixedRate(this::enviarHeartbeat, 0, intervaloHeartbeatMs, TimeUnit.MILLISECONDS);
+
+        CountDownLatch encerramento = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            agendador.shutdownNow();
+            pararWorkers();
+            try { conexao.close(); } catch (JMSException ignored) {}
+            encerramento.countDown();
+        }));
+        encerramento.await();
+    }
+
+    private synchronized void aoReceberControle(Message msg) {
+        try {
+            String tipo = msg.getStringProperty("tipo");
+            String jobId = msg.getStringProperty("jobId");
+            if (DefinicaoJob.TIPO_JOB.equals(tipo) && msg instanceof MapMessage) {
+                // Reanúncios de jobs já conhecidos (pedidos por outros processos) são ignorados
+                if (catalogo.obter(jobId) != null) return;
+                iniciarJob(DefinicaoJob.deMensagem((MapMessage) msg));
+            } else if (DefinicaoJob.TIPO_FIM_JOB.equals(tipo) && catalogo.obter(jobId) != null) {
+                saida.registrarLog("[" + nome + "] Job " + jobId + " encerrado pelo coordenador.");
+                catalogo.encerrar(jobId);
+                if (jobAtual != null && jobAtual.getJobId().equals(jobId)) jobAtual = null;
+            }
+        } catch (JMSException | IllegalArgumentException e) {
+            saida.registrarLog("[" + nome + "] Mensagem de controle inválida: " + e.getMessage());
+        }
+    }
+
+    private void iniciarJob(DefinicaoJob job) {
+        catalogo.registrar(job);
+        jobAtual = job;
+        // Workers já conectados: a troca acontece na primeira linha do novo job
+        saida.registrarLog("[" + nome + "] Novo job " + job);
+    }
+
+    /**
+     * Inicia os Workers antes do primeiro job: eles atendem as consultas síncronas (ClienteContagem)
+     * desde já e passam a consumir as Filas dos jobs à medida que entram no catálogo.
+     */
+    private synchronized void iniciarWorkers() {
+        ConfiguracaoPipeline config = new ConfiguracaoPipeline()
+                .setUrlBroker(urlBroker)
+                .setAutoescalonamento(false)
+                .setAgregadoresIntermediarios(agregadores)
+                .setGrupoAgregacao(nome.replaceAll("[^A-Za-z0-9_-]", "_"));
+        gerenciador = new GerenciadorWorkers(Collections.emptyList(), saida, config, catalogo);
+        gerenciador.ajustarQuantidade(quantidadeWorkers);
+        saida.registrarLog("[" + nome + "] " + quantidadeWorkers + " workers iniciados"
+                + (agregadores > 0 ? " (" + agregadores + " agregador(es) intermediário(s))." : "."));
+    }
+
+    private synchronized void pararWorkers() {
+        if (gerenciador != null) {
+            gerenciador.pararTodos();
+            gerenciador = null;
+        }
+        jobAtual = null;
+    }
+
+    /**
+     * Pede ao coordenador o anúncio de um job (ou do job corrente, quando jobId é null).
+     */
+    private void solicitarJob(String jobId) {
+        try {
+            Message solicitacao = sessaoPublicacao.createMessage();
+            solicitacao.setStringProperty("tipo", DefinicaoJob.TIPO_SOLICITAR_JOB);
+            if (jobId != null) solicitacao.setStringProperty("jobId", jobId);
+            publicar(sessaoPublicacao.createTopic(ConfiguracaoJMS.NOME_TOPICO_CONTROLE), solicitacao);
+        } catch (JMSException e) {
+            saida.registrarLog("[" + nome + "] Falha ao solicitar o job: " + e.getMessage());
+        }
+    }
+
+    private void enviarHeartbeat() {
+        try {
+            MapMessage heartbeat = sessaoPublicacao.createMapMessage();
+            DefinicaoJob job;
+            int workers;
+            synchronized (this) {
+                job = jobAtual;
+                workers = gerenciador == null ? 0 : gerenciador.getQuantidade();
+            }
+            heartbeat.setString("no", nome);
+            heartbeat.setString("jobId", job == null ? "" : job.getJobId());
+            heartbeat.setInt("workers", workers);
+            heartbeat.setLong("mensagensRecebidas", registro.contador(RegistroMetricas.MENSAGENS_RECEBIDAS_WORKER).getValor());
+            heartbeat.setLong("linhasProcessadas", registro.contador(RegistroMetricas.LINHAS_PROCESSADAS).getValor());
+            heartbeat.setLong("resultadosPublicados", registro.contador(RegistroMetricas.RESULTADOS_PUBLICADOS).getValor());
+            heartbeat.setLong("trocasJob", registro.contador(RegistroMetricas.TROCAS_JOB).getValor());
+            heartbeat.setLong("motoresCompilados", registro.contador(RegistroMetricas.MOTORES_COMPILADOS).getValor());
+            publicar(sessaoPublicacao.createTopic(ConfiguracaoJMS.NOME_TOPICO_HEARTBEAT), heartbeat);
+            falhaHeartbeat = false;
+        } catch (JMSException e) {
+            // Registra apenas a primeira falha de uma sequência (ex: Broker fora do ar). Para reconexão
+            // automática, use uma URL com failover, ex: failover:(tcp://servidor:61616)
+            if (!falhaHeartbeat) saida.registrarLog("[" + nome + "] Falha ao enviar heartbeat: " + e.getMessage());
+            falhaHeartbeat = true;
+        }
+    }
+
+    // A sessão de publicação é compartilhada pela thread principal e pela de heartbeat.
+    // As mensagens expiram após 3 intervalos de heartbeat: avisos antigos não interessam a ninguém
+    private void publicar(Destination destino, Message mensagem) throws JMSException {
+        synchronized (publicador) {
+            publicador.send(destino, mensagem, DeliveryMode.NON_PERSISTENT, Message.DEFAULT_PRIORITY, 3 * intervaloHeartbeatMs);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = ConfiguracaoJMS.getUrlBroker();
+        int workers = 4;
+        // Nome padrão no formato pid@máquina
+        String nome = ManagementFactory.getRuntimeMXBean().getName();
+        long heartbeatMs = 2000;
+        int agregadores = 0;
+        for (int i = 0; i < args.length; i++) {
+            String valor = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--broker": url = valor; i++; break;
+                case "--workers": workers = Integer.parseInt(valor); i++; break;
+                case "--no": nome = valor; i++; break;
+                case "--heartbeat-ms": heartbeatMs = Long.parseLong(valor); i++; break;
+                case "--agregadores": agregadores = Integer.parseInt(valor); i++; break;
+                default: throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+        new ProcessoWorker(url, workers, nome, heartbeatMs, agregadores).executar();
+    }
+}
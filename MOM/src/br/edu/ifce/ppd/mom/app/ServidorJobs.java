@@ -0,0 +1,216 @@
+package br.edu.ifce.ppd.mom.app;
+
+import br.edu.ifce.ppd.mom.contagem.TipoMotor;
+import br.edu.ifce.ppd.mom.gui.SaidaMonitoramento;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoJMS;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoPipeline;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * API HTTP local para submeter jobs e acompanhar o progresso sem a interface gráfica.
+ *
+ *   POST   /jobs        arquivo=...&palavras=Java,MOM[&peso=2][&motor=AHO_CORASICK] -> 201 {"jobId":"..."}
+ *                        (ou arquivo=...&top=20 para contar o vocabulário completo e exibir os 20 mais frequentes,
+ *                        e com &ngramas=3 os bigramas e trigramas mais frequentes, em memória fixa)
+ *   GET    /jobs        estado de todos os jobs da sessão
+ *   GET    /jobs/{id}   progresso, totais por palavra e latência do job
+ *   DELETE /jobs/{id}   cancela o job
+ *
+ * Os parâmetros do POST podem vir no corpo (application/x-www-form-urlencoded) ou na URL.
+ * O servidor escuta apenas na interface local (loopback).
+ *
+ * NOTA TÉCNICA: As consultas devolvem o JSON já pronto mantido pela {@link SessaoJobs}, refeito a cada
+ * meio segundo; nenhuma requisição percorre os totais do Monitor ou consulta o Broker. Assim, muitos
+ * clientes consultando em intervalos curtos não interferem na contagem.
+ *
+ * Uso: java -cp SistemaMOM.jar br.edu.ifce.ppd.mom.app.ServidorJobs
+ *        [--porta 8080] [--broker tcp://servidor:61616] [--workers 4] [--agregadores 0]
+ *        [--particoes-monitor 1] [--distintas] [--coocorrencias] [--online] [--bloco-kb 64]
+ *        [--autoescalonamento]
+ *
+ * Com --distintas os jobs de palavras-chave também estimam as palavras distintas do arquivo e das linhas
+ * com palavra-chave ("palavrasDistintas" no JSON do job), e com --coocorrencias contam as linhas com cada
+ * par de palavras-chave ("coocorrencias" no JSON, com os pares mais frequentes). Com --online os jobs de palavras-chave usam a
+ * agregação online: o arquivo é enviado em blocos em ordem aleatória e o JSON do job traz, em "online",
+ * o total final estimado de cada palavra com a margem de 95%; um cliente satisfeito com a precisão
+ * pode cancelar o job (DELETE) sem esperar o arquivo inteiro.
+ */
+public class ServidorJobs implements AutoCloseable {
+    private static final String PREFIXO = "/jobs";
+
+    private final SessaoJobs sessao;
+    private final TipoMotor motorPadrao;
+    private final HttpServer servidor;
+    private final ExecutorService executor;
+
+    /**
+     * @param motorPadrao Motor usado quando a submissão não informa um.
+     */
+    public ServidorJobs(SessaoJobs sessao, TipoMotor motorPadrao, int porta) throws IOException {
+        this.sessao = sessao;
+        this.motorPadrao = motorPadrao;
+        this.servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), porta), 0);
+        // Poucas threads bastam: as respostas são textos prontos
+        this.executor = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "servidor-jobs");
+            t.setDaemon(true);
+            return t;
+        });
+        servidor.setExecutor(executor);
+        servidor.createContext(PREFIXO, this::tratar);
+        servidor.start();
+    }
+
+    public int getPorta() {
+        return servidor.getAddress().getPort();
+    }
+
+    private void tratar(HttpExchange troca) throws IOException {
+        try {
+            String caminho = troca.getRequestURI().getPath();
+            String id = caminho.length() > PREFIXO.length() + 1 ? caminho.substring(PREFIXO.length() + 1) : null;
+            if (id != null && id.indexOf('/') >= 0) {
+                responder(troca, 404, erro("Recurso não encontrado: " + caminho));
+                return;
+            }
+            String metodo = troca.getRequestMethod();
+            if (id == null && "POST".equals(metodo)) {
+                submeter(troca);
+            } else if (id == null && "GET".equals(metodo)) {
+                responder(troca, 200, sessao.getJsonJobs());
+            } else if (id != null && "GET".equals(metodo)) {
+                ExecucaoJob execucao = sessao.getJob(id);
+                if (execucao == null) responder(troca, 404, erro("Job desconhecido: " + id));
+                else responder(troca, 200, execucao.getJson());
+            } else if (id != null && "DELETE".equals(metodo)) {
+                if (sessao.cancelar(id)) responder(troca, 200, "{\"jobId\":" + ExecucaoJob.textoJson(id) + ",\"cancelado\":true}");
+                else responder(troca, 404, erro("Job desconhecido: " + id));
+            } else {
+                troca.getResponseHeaders().set("Allow", id == null ? "GET, POST" : "GET, DELETE");
+                responder(troca, 405, erro("Método não suportado: " + metodo));
+            }
+        } catch (RuntimeException e) {
+            responder(troca, 500, erro(e.toString()));
+        } finally {
+            troca.close();
+        }
+    }
+
+    private void submeter(HttpExchange troca) throws IOException {
+        Map<String, String> parametros = new HashMap<>();
+        lerParametros(troca.getRequestURI().getRawQuery(), parametros);
+        try (InputStream corpo = troca.getRequestBody()) {
+            lerParametros(new String(corpo.readAllBytes(), StandardCharsets.UTF_8), parametros);
+        }
+
+        String arquivo = parametros.get("arquivo");
+        String palavras = parametros.get("palavras");
+        String top = parametros.get("top");
+        if (arquivo == null || (palavras == null && top == null)) {
+            responder(troca, 400, erro("Informe os parâmetros 'arquivo' e 'palavras' (ou 'top')."));
+            return;
+        }
+        ExecucaoJob execucao;
+        try {
+            int peso = parametros.containsKey("peso") ? Integer.parseInt(parametros.get("peso").trim()) : 1;
+            if (peso < 1) throw new IllegalArgumentException("O peso deve ser maior ou igual a 1.");
+            TipoMotor motor = parametros.containsKey("motor")
+                    ? TipoMotor.valueOf(parametros.get("motor").trim()) : motorPadrao;
+            int topVocabulario = top != null ? Integer.parseInt(top.trim()) : 0;
+            if (topVocabulario < 0) throw new IllegalArgumentException("O top do vocabulário não pode ser negativo.");
+            List<String> lista = palavras == null ? Collections.emptyList() : Arrays.asList(palavras.split(","));
+            int nGramas = parametros.containsKey("ngramas") ? Integer.parseInt(parametros.get("ngramas").trim()) : 0;
+            if (nGramas > 0 && topVocabulario == 0) throw new IllegalArgumentException("Os n-gramas exigem o parâmetro 'top'.");
+            execucao = sessao.submeter(arquivo, lista, motor, peso, topVocabulario, nGramas);
+        } catch (IllegalArgumentException e) {
+            // Inclui NumberFormatException e motor desconhecido
+            responder(troca, 400, erro(e.getMessage()));
+            return;
+        }
+        String id = execucao.getDefinicao().getJobId();
+        troca.getResponseHeaders().set("Location", PREFIXO + "/" + id);
+        responder(troca, 201, "{\"jobId\":" + ExecucaoJob.textoJson(id) + "}");
+    }
+
+    /**
+     * Lê pares chave=valor no formato application/x-www-form-urlencoded.
+     */
+    private static void lerParametros(String texto, Map<String, String> destino) {
+        if (texto == null || texto.isEmpty()) return;
+        for (String par : texto.split("&")) {
+            if (par.isEmpty()) continue;
+            int igual = par.indexOf('=');
+            String chave = URLDecoder.decode(igual < 0 ? par : par.substring(0, igual), StandardCharsets.UTF_8);
+            String valor = igual < 0 ? "" : URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8);
+            destino.put(chave, valor);
+        }
+    }
+
+    private static String erro(String mensagem) {
+        return "{\"erro\":" + ExecucaoJob.textoJson(String.valueOf(mensagem)) + "}";
+    }
+
+    private static void responder(HttpExchange troca, int status, String json) throws IOException {
+        byte[] corpo = json.getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        troca.sendResponseHeaders(status, corpo.length);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(corpo);
+        }
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        executor.shutdownNow();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = ConfiguracaoJMS.getUrlBroker();
+        int porta = 8080;
+        ConfiguracaoPipeline config = new ConfiguracaoPipeline();
+        for (int i = 0; i < args.length; i++) {
+            String valor = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--porta": porta = Integer.parseInt(valor); i++; break;
+                case "--broker": url = valor; i++; break;
+                case "--workers": config.setQuantidadeWorkers(Integer.parseInt(valor)); i++; break;
+                case "--autoescalonamento": config.habilitarAutoescalonamento(); break;
+                case "--agregadores": config.setAgregadoresIntermediarios(Integer.parseInt(valor)); i++; break;
+                case "--particoes-monitor": config.setParticoesMonitor(Integer.parseInt(valor)); i++; break;
+                case "--distintas": config.setEstimarDistintas(true); break;
+                case "--coocorrencias": config.setContarCoocorrencias(true); break;
+                case "--online": config.setAgregacaoOnline(true); break;
+                case "--bloco-kb": config.setTamanhoBlocoOnline(Integer.parseInt(valor) * 1024); i++; break;
+                default: throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+        config.setUrlBroker(url);
+
+        SessaoJobs sessao = new SessaoJobs(config, SaidaMonitoramento.CONSOLE, null);
+        ServidorJobs servidor = new ServidorJobs(sessao, config.getTipoMotor(), porta);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            servidor.close();
+            sessao.close();
+        }));
+        System.out.println("[ServidorJobs] API de jobs em http://localhost:" + servidor.getPorta() + PREFIXO
+                + " (Broker " + url + ")");
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,281 @@
+package br.edu.ifce.ppd.mom.app;
+
+import br.edu.ifce.ppd.mom.componentes.CanalControleJobs;
+import br.edu.ifce.ppd.mom.componentes.CatalogoJobs;
+import br.edu.ifce.ppd.mom.componentes.DefinicaoJob;
+import br.edu.ifce.ppd.mom.contagem.TipoMotor;
+import br.edu.ifce.ppd.mom.gui.SaidaMonitoramento;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoPipeline;
+import br.edu.ifce.ppd.mom.metricas.AmostradorBroker;
+import br.edu.ifce.ppd.mom.metricas.RegistroMetricas;
+
+import javax.jms.JMSException;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conjunto de jobs processados ao mesmo tempo sobre um único conjunto de Workers.
+ * O primeiro job submetido inicia os componentes compartilhados (Workers, autoescalonamento,
+ * Tópico de controle e amostragem do Broker); os seguintes entram no catálogo e disputam os
+ * Workers pelo seu peso. Usado pela interface gráfica (SistemaMOM) e pela API HTTP (ServidorJobs).
+ *
+ * NOTA TÉCNICA: Uma thread de baixa frequência detecta os jobs concluídos e refaz o JSON de cada
+ * job e da lista de jobs. As consultas (ex: clientes HTTP) apenas leem esses textos prontos.
+ * Os jobs concluídos ou cancelados liberam o Monitor e a sua conexão ao serem encerrados; o JSON
+ * final fica disponível por RETENCAO_ENCERRADOS_MS (no máximo MAXIMO_ENCERRADOS jobs) e depois é descartado.
+ */
+public class SessaoJobs implements AutoCloseable {
+    private static final long INTERVALO_ATUALIZACAO_MS = 500;
+    // Por quanto tempo, e quantos, jobs encerrados continuam consultáveis
+    private static final long RETENCAO_ENCERRADOS_MS = 10 * 60 * 1000;
+    private static final int MAXIMO_ENCERRADOS = 100;
+
+    private final ConfiguracaoPipeline config;
+    private final SaidaMonitoramento saida;
+    private final ControlePipeline controle;
+
+    private final Map<String, ExecucaoJob> jobs = new LinkedHashMap<>();
+    private AmostradorBroker amostrador;
+    private CatalogoJobs catalogo;
+    private CanalControleJobs canalControle;
+    private GerenciadorWorkers gerenciadorWorkers;
+    private AutoescalonadorWorkers autoescalonador;
+    private ScheduledExecutorService agendador;
+    private volatile String jsonJobs = "[]";
+
+    /**
+     * @param controle MBean de controle que passa a ajustar os Workers desta sessão (pode ser null).
+     */
+    public SessaoJobs(ConfiguracaoPipeline config, SaidaMonitoramento saida, ControlePipeline controle) {
+        this.config = config;
+        this.saida = saida;
+        this.controle = controle;
+    }
+
+    /**
+     * Inicia um novo job ao lado dos que já estão em execução.
+     *
+     * @throws IllegalArgumentException Se o arquivo não existir ou não houver palavras-chave.
+     */
+    public ExecucaoJob submeter(String arquivo, List<String> palavras, TipoMotor motor, int peso) {
+        return submeter(arquivo, palavras, motor, peso, 0);
+    }
+
+    /**
+     * Inicia um novo job; com "topVocabulario" > 0 o job conta todos os tokens e as palavras são opcionais.
+     */
+    public ExecucaoJob submeter(String arquivo, List<String> palavras, TipoMotor motor, int peso, int topVocabulario) {
+        return submeter(arquivo, palavras, motor, peso, topVocabulario, 0);
+    }
+
+    /**
+     * Inicia um novo job; com "nGramas" 2 ou 3 (e "topVocabulario" > 0) o job conta os bigramas e
+     * trigramas do arquivo em memória fixa, em vez dos tokens.
+     */
+    public synchronized ExecucaoJob submeter(String arquivo, List<String> palavras, TipoMotor motor, int peso,
+                                             int topVocabulario, int nGramas) {
+        if (!new File(arquivo).isFile()) throw new IllegalArgumentException("Arquivo não encontrado: " + arquivo);
+        List<String> validas = new ArrayList<>();
+        for (String p : palavras) {
+            if (!p.trim().isEmpty()) validas.add(p.trim());
+        }
+        if (validas.isEmpty() && topVocabulario <= 0) throw new IllegalArgumentException("Informe pelo menos uma palavra-chave.");
+        if (!isAtiva()) iniciarComponentesCompartilhados(validas);
+
+        // Cada job tem identificador e Fila próprios; o Monitor dele só recebe os seus resultados
+        // A estimativa de palavras distintas e a coocorrência valem para todos os jobs de palavras-chave da sessão
+        DefinicaoJob definicao = new DefinicaoJob(DefinicaoJob.novoId(), validas, motor, peso, topVocabulario, 0,
+                config.isEstimarDistintas(), config.isContarCoocorrencias(), nGramas, config.getParticoesMonitor());
+        ExecucaoJob execucao = new ExecucaoJob(definicao, arquivo, config, saida);
+        jobs.put(definicao.getJobId(), execucao);
+        catalogo.registrar(definicao);
+        if (canalControle != null) {
+            try {
+                canalControle.anunciar(definicao);
+            } catch (JMSException e) {
+                saida.registrarLog("[Controle] Falha ao anunciar o job: " + e.getMessage());
+            }
+        }
+        execucao.iniciar(amostrador);
+        saida.registrarLog("[Sistema] Job " + definicao + " iniciado (" + jobs.size() + " job(s) na sessão).");
+        return execucao;
+    }
+
+    /**
+     * Prepara o que é comum a todos os jobs da sessão: métricas, Workers e Tópico de controle.
+     */
+    private void iniciarComponentesCompartilhados(List<String> palavras) {
+        // Métricas: cada sessão começa do zero
+        RegistroMetricas.global().zerar();
+        amostrador = new AmostradorBroker(config.getUrlBroker(), RegistroMetricas.global(), 1000);
+        catalogo = new CatalogoJobs();
+
+        // Tópico de controle; processos Worker dedicados passam a consumir as mesmas Filas
+        try {
+            canalControle = new CanalControleJobs(config.getUrlBroker(), saida);
+        } catch (JMSException e) {
+            saida.registrarLog("[Controle] Tópico de controle indisponível, apenas Workers locais: " + e.getMessage());
+        }
+
+        // Inicialização dos Workers
+        // Cria-se 4 instâncias (padrão da configuração) para simular o paralelismo no processamento;
+        // a quantidade pode ser alterada durante a execução pelo MBean de controle
+        gerenciadorWorkers = new GerenciadorWorkers(palavras, saida, config, catalogo);
+        gerenciadorWorkers.ajustarQuantidade(config.getQuantidadeWorkers());
+        if (controle != null) controle.setGerenciador(gerenciadorWorkers);
+
+        // Autoescalonamento: reavalia a quantidade de Workers a cada 2 segundos, com a latência de todos os jobs
+        autoescalonador = new AutoescalonadorWorkers(gerenciadorWorkers, config, amostrador,
+                RegistroMetricas.global().histograma(RegistroMetricas.LATENCIA_PONTA_A_PONTA),
+                RegistroMetricas.global(), saida, 2000);
+
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sessao-jobs");
+            t.setDaemon(true);
+            return t;
+        });
+        agendador.scheduleWithFixedDelay(this::atualizar, INTERVALO_ATUALIZACAO_MS, INTERVALO_ATUALIZACAO_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Encerra, no catálogo e no Tópico de controle, os jobs cujos resultados já chegaram todos ao Monitor,
+     * descarta os jobs encerrados há mais tempo e refaz os JSON de consulta dos jobs em execução.
+     */
+    private synchronized void atualizar() {
+        if (!isAtiva()) return;
+        descartarEncerrados();
+        StringBuilder lista = new StringBuilder("[");
+        for (ExecucaoJob execucao : jobs.values()) {
+            if (execucao.verificarConclusao()) {
+                DefinicaoJob definicao = execucao.getDefinicao();
+                encerrarNoCatalogo(definicao);
+                execucao.encerrar(amostrador);
+                saida.registrarLog("[Sistema] Job " + definicao.getJobId() + " concluído: "
+                        + execucao.getMonitor().getTotalGeral() + " ocorrências.");
+            }
+            execucao.atualizarSnapshot(amostrador);
+            if (lista.length() > 1) lista.append(',');
+            lista.append(execucao.getJson());
+        }
+        jsonJobs = lista.append(']').toString();
+    }
+
+    /**
+     * Retira da sessão os jobs encerrados há mais de RETENCAO_ENCERRADOS_MS e, acima de
+     * MAXIMO_ENCERRADOS, os encerrados mais antigos.
+     */
+    private void descartarEncerrados() {
+        int encerrados = 0;
+        for (ExecucaoJob execucao : jobs.values()) {
+            if (execucao.isEncerrado()) encerrados++;
+        }
+        long limite = System.currentTimeMillis() - RETENCAO_ENCERRADOS_MS;
+        Iterator<ExecucaoJob> it = jobs.values().iterator();
+        while (it.hasNext()) {
+            ExecucaoJob execucao = it.next();
+            if (execucao.isEncerrado() && (encerrados > MAXIMO_ENCERRADOS || execucao.getEncerradoEm() < limite)) {
+                it.remove();
+                encerrados--;
+            }
+        }
+    }
+
+    private void encerrarNoCatalogo(DefinicaoJob definicao) {
+        catalogo.encerrar(definicao.getJobId());
+        if (canalControle != null) {
+            try { canalControle.encerrar(definicao); } catch (JMSException ignored) {}
+        }
+    }
+
+    /**
+     * Interrompe a leitura de um job e retira a sua Fila do rodízio dos Workers.
+     *
+     * @return false se o job não existe nesta sessão.
+     */
+    public synchronized boolean cancelar(String jobId) {
+        ExecucaoJob execucao = jobs.get(jobId);
+        if (execucao == null) return false;
+        if (!execucao.isEncerrado()) {
+            execucao.cancelar(amostrador);
+            encerrarNoCatalogo(execucao.getDefinicao());
+            saida.registrarLog("[Sistema] Job " + jobId + " cancelado.");
+        }
+        return true;
+    }
+
+    public synchronized ExecucaoJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    public synchronized boolean isAtiva() {
+        return gerenciadorWorkers != null;
+    }
+
+    /**
+     * JSON com o estado de todos os jobs da sessão (refeito a cada meio segundo).
+     */
+    public String getJsonJobs() {
+        return jsonJobs;
+    }
+
+    /**
+     * Progresso e relatório de cada job em texto, para o painel de estatísticas.
+     */
+    public synchronized String resumo() {
+        StringBuilder sb = new StringBuilder();
+        for (ExecucaoJob execucao : jobs.values()) sb.append(execucao.resumo(amostrador));
+        return sb.toString();
+    }
+
+    /**
+     * Encerra todos os jobs e os componentes compartilhados; o próximo job inicia uma nova sessão.
+     */
+    public synchronized void encerrarTodos() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+            agendador = null;
+        }
+        for (ExecucaoJob execucao : jobs.values()) {
+            boolean emExecucao = !execucao.isEncerrado();
+            execucao.cancelar(amostrador);
+            if (canalControle != null && emExecucao) {
+                try { canalControle.encerrar(execucao.getDefinicao()); } catch (JMSException ignored) {}
+            }
+        }
+        if (!jobs.isEmpty()) {
+            System.out.println("Interrompendo " + jobs.size() + " job(s)...");
+            jobs.clear();
+        }
+        jsonJobs = "[]";
+        if (canalControle != null) {
+            try { canalControle.close(); } catch (JMSException ignored) {}
+            canalControle = null;
+        }
+        if (amostrador != null) {
+            amostrador.close();
+            amostrador = null;
+        }
+        if (autoescalonador != null) {
+            autoescalonador.close();
+            autoescalonador = null;
+        }
+        if (gerenciadorWorkers != null) {
+            if (controle != null) controle.setGerenciador(null);
+            gerenciadorWorkers.pararTodos();
+            gerenciadorWorkers = null;
+        }
+        catalogo = null;
+    }
+
+    @Override
+    public void close() {
+        encerrarTodos();
+    }
+}
@@ -1,34 +1,57 @@
 package br.edu.ifce.ppd.mom.app;
 
-import br.edu.ifce.ppd.mom.componentes.MonitorResultado;
-import br.edu.ifce.ppd.mom.componentes.ProcessadorPalavras;
-import br.edu.ifce.ppd.mom.componentes.ProdutorLinhas;
+import br.edu.ifce.ppd.mom.gestao.RegistroJMX;
 import br.edu.ifce.ppd.mom.gui.PainelDashboard;
+import br.edu.ifce.ppd.mom.gui.SaidaMonitoramento;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoPipeline;
+import br.edu.ifce.ppd.mom.metricas.ExportadorMetricas;
+import br.edu.ifce.ppd.mom.metricas.RegistroMetricas;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Arrays;
-import java.util.List;
 
 /**
  * Classe principal da aplicação (Cliente).
  * Responsável por instanciar a interface gráfica, gerenciar o ciclo de vida das Threads
  * (Produtores, Workers e Monitor) e orquestrar a execução do sistema.
+ *
+ * Vários jobs (arquivo + palavras-chave + peso) podem ser processados ao mesmo tempo: cada um tem
+ * a sua Fila, o seu Monitor e os seus totais, e todos compartilham o mesmo conjunto de Workers,
+ * que consome as Filas em rodízio ponderado pelo peso dos jobs. Com -Dmom.http.porta, os mesmos
+ * jobs também podem ser submetidos e consultados pela API HTTP local ({@link ServidorJobs}).
  */
 public class SistemaMOM extends JFrame {
 
     private JTextField campoPalavras;
     private JTextField campoArquivo;
+    private JTextField campoPeso;
     private JButton botaoIniciar;
-    
-    // Lista para manter referência das threads ativas, permitindo interrompê-las ao reiniciar
-    private List<Thread> threadsAtivas = new ArrayList<>();
+
     private PainelDashboard dashboard; 
 
+    // Junta os relatórios dos Monitores de todos os jobs no painel de estatísticas
+    private final Timer timerJobs = new Timer(1000, e -> atualizarPainelJobs());
+
+    // Parâmetros de execução (quantidade de Workers/Produtores, lote, persistência, etc.)
+    private final ConfiguracaoPipeline config = new ConfiguracaoPipeline();
+
+    // Exportação opcional das métricas para arquivo (-Dmom.metricas.arquivo=metricas.jsonl)
+    private ExportadorMetricas exportadorMetricas;
+
+    // MBean de controle (ajustes em tempo real pelo JConsole) e jobs da sessão corrente, que compartilham
+    // Workers, autoescalonamento, Tópico de controle e amostragem do Broker
+    private final ControlePipeline controle = new ControlePipeline(config, RegistroMetricas.global());
+    private final SessaoJobs sessao = new SessaoJobs(config, new SaidaSessao(), controle);
+
     public SistemaMOM() {
+        // Autoescalonamento dos Workers opcional (-Dmom.autoescalonamento=true)
+        if (Boolean.getBoolean("mom.autoescalonamento")) config.habilitarAutoescalonamento();
+
         setTitle("Sistema de Processamento Distribuído - MOM");
-        setSize(500, 200);
+        setSize(500, 240);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
         setLayout(new GridLayout(4, 1, 10, 10));
@@ -43,19 +66,35 @@ public class SistemaMOM extends JFrame {
         campoPalavras = new JTextField("Java,Python,ActiveMQ,MOM", 25);
         p2.add(campoPalavras);
 
+        JPanel p3 = new JPanel();
+        p3.add(new JLabel("Peso do job (prioridade):"));
+        campoPeso = new JTextField("1", 4);
+        p3.add(campoPeso);
+
+        // Cada clique inicia um novo job ao lado dos que já estão em execução
         botaoIniciar = new JButton("Iniciar Processamento");
-        botaoIniciar.addActionListener(e -> iniciarOuReiniciarSistema());
+        botaoIniciar.addActionListener(e -> iniciarJob());
+        JButton botaoEncerrar = new JButton("Encerrar Todos");
+        botaoEncerrar.addActionListener(e -> pararThreadsAntigas());
+        JPanel p4 = new JPanel();
+        p4.add(botaoIniciar);
+        p4.add(botaoEncerrar);
 
         add(p1);
         add(p2);
-        add(botaoIniciar);
+        add(p3);
+        add(p4);
+
+        RegistroJMX.registrar("Pipeline", "controle", controle);
+        iniciarServidorJobs();
     }
 
     /**
      * Método acionado pelo botão da interface.
-     * Realiza a limpeza do estado anterior e inicializa os componentes do sistema.
+     * No primeiro job a sessão inicializa os componentes compartilhados (Workers, Tópico de controle,
+     * métricas); os seguintes apenas entram no catálogo e passam a disputar os Workers pelo seu peso.
      */
-    private void iniciarOuReiniciarSistema() {
+    private void iniciarJob() {
         String textoArquivo = campoArquivo.getText();
         String textoPalavras = campoPalavras.getText();
 
@@ -63,65 +102,101 @@ public class SistemaMOM extends JFrame {
             JOptionPane.showMessageDialog(this, "Por favor, preencha todos os campos obrigatórios.");
             return;
         }
+        int peso;
+        try {
+            peso = Integer.parseInt(campoPeso.getText().trim());
+            if (peso < 1) throw new NumberFormatException();
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "O peso deve ser um número inteiro maior ou igual a 1.");
+            return;
+        }
 
-        // Limpeza: Interrompe threads de execuções anteriores para evitar conflitos
-        pararThreadsAntigas();
+        if (!sessao.isAtiva() || dashboard == null || !dashboard.isVisible()) abrirDashboard();
+        try {
+            sessao.submeter(textoArquivo, Arrays.asList(textoPalavras.split(",")), config.getTipoMotor(), peso);
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, e.getMessage());
+            return;
+        }
+        timerJobs.start();
+        botaoIniciar.setText("Iniciar Outro Job");
+    }
 
+    /**
+     * Prepara o painel de Dashboard no início de uma sessão.
+     */
+    private void abrirDashboard() {
         // Interface: Prepara o painel de Dashboard se ainda não estiver visível
         if (dashboard == null || !dashboard.isVisible()) {
             dashboard = new PainelDashboard();
+            dashboard.setFonteMetricas(RegistroMetricas.global()::snapshot);
             dashboard.setVisible(true);
         }
         dashboard.limparTela(); 
+        iniciarExportacaoMetricas();
+    }
 
-        List<String> palavras = Arrays.asList(textoPalavras.split(","));
-
-        //Inicialização do Subscriber
-        // Inicia-se primeiro para garantir que nenhuma mensagem seja perdida
-        Thread tSubscriber = new Thread(new MonitorResultado(dashboard, palavras));
-        tSubscriber.start();
-        threadsAtivas.add(tSubscriber);
+    /**
+     * Exibe o progresso e os totais de cada job (a conclusão é detectada pela própria sessão).
+     */
+    private void atualizarPainelJobs() {
+        if (!sessao.isAtiva() || dashboard == null) return;
+        dashboard.atualizarEstatisticas(sessao.resumo());
+    }
 
-        // Inicialização dos Workers
-        // Cria-se 4 instâncias para simular o paralelismo no processamento
-        for (int i = 1; i <= 4; i++) {
-            Thread tWorker = new Thread(new ProcessadorPalavras(i, palavras, dashboard));
-            tWorker.start();
-            threadsAtivas.add(tWorker);
+    /**
+     * Inicia (uma única vez) a gravação periódica de snapshots, se um arquivo foi configurado.
+     */
+    private void iniciarExportacaoMetricas() {
+        String arquivo = System.getProperty("mom.metricas.arquivo");
+        if (arquivo == null || exportadorMetricas != null) return;
+        try {
+            exportadorMetricas = new ExportadorMetricas(RegistroMetricas.global(), Paths.get(arquivo), 1000);
+            dashboard.registrarLog("[Métricas] Exportando snapshots para " + arquivo);
+        } catch (IOException e) {
+            dashboard.registrarLog("[Métricas] Não foi possível exportar para " + arquivo + ": " + e.getMessage());
         }
-
-        // Inicialização dos Produtores
-        // Executado em uma thread separada com atraso para garantir que workers e monitores estejam prontos
-        new Thread(() -> {
-            try { Thread.sleep(1000); } catch (InterruptedException ignored) {}
-            
-            Thread leitorPar = new Thread(new ProdutorLinhas(textoArquivo, ProdutorLinhas.TipoLeitura.PARES, dashboard));
-            Thread leitorImpar = new Thread(new ProdutorLinhas(textoArquivo, ProdutorLinhas.TipoLeitura.IMPARES, dashboard));
-            
-            leitorPar.start();
-            leitorImpar.start();
-            
-            threadsAtivas.add(leitorPar);
-            threadsAtivas.add(leitorImpar);
-        }).start();
-
-        botaoIniciar.setText("Reiniciar Processamento");
     }
 
     /**
-     * Interrompe todas as threads listadas na coleção de threads ativas.
+     * Encerra todos os jobs da sessão e os componentes compartilhados (botão "Encerrar Todos").
      */
     private void pararThreadsAntigas() {
-        if (!threadsAtivas.isEmpty()) {
-            System.out.println("Interrompendo " + threadsAtivas.size() + " threads ativas...");
-            for (Thread t : threadsAtivas) {
-                if (t.isAlive()) {
-                    t.interrupt();
-                }
-            }
-            threadsAtivas.clear();
-            // Pequena pausa para permitir que o SO libere os recursos
-            try { Thread.sleep(500); } catch (InterruptedException ignored) {}
+        timerJobs.stop();
+        sessao.encerrarTodos();
+        botaoIniciar.setText("Iniciar Processamento");
+    }
+
+    /**
+     * Inicia a API HTTP de jobs sobre a mesma sessão, se uma porta foi configurada (-Dmom.http.porta=8080).
+     */
+    private void iniciarServidorJobs() {
+        String porta = System.getProperty("mom.http.porta");
+        if (porta == null) return;
+        try {
+            ServidorJobs servidor = new ServidorJobs(sessao, config.getTipoMotor(), Integer.parseInt(porta));
+            System.out.println("[ServidorJobs] API de jobs em http://localhost:" + servidor.getPorta() + "/jobs");
+        } catch (IOException | NumberFormatException e) {
+            System.out.println("[ServidorJobs] Não foi possível iniciar na porta " + porta + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Logs da sessão: vão para o painel quando ele está aberto (jobs submetidos pela interface)
+     * e para o console caso contrário (jobs submetidos apenas pela API HTTP).
+     */
+    private class SaidaSessao implements SaidaMonitoramento {
+        @Override
+        public void registrarLog(String mensagem) {
+            PainelDashboard painel = dashboard;
+            if (painel != null && painel.isVisible()) painel.registrarLog(mensagem);
+            else SaidaMonitoramento.CONSOLE.registrarLog(mensagem);
+        }
+
+        @Override
+        public void atualizarEstatisticas(String texto) {
+            PainelDashboard painel = dashboard;
+            if (painel != null) painel.atualizarEstatisticas(texto);
         }
     }
 
@@ -0,0 +1,240 @@
+package br.edu.ifce.ppd.mom.benchmark;
+
+import br.edu.ifce.ppd.mom.contagem.MotorContagem;
+import br.edu.ifce.ppd.mom.contagem.TipoMotor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Benchmark isolado dos motores de contagem de palavras-chave (sem Broker e sem GUI).
+ * Para cada cenário (quantidade de palavras, tamanho da linha, densidade de acertos e presença
+ * de texto Unicode) mede o tempo médio por linha de cada motor e grava o resultado em JSON.
+ *
+ * A metodologia segue a do JMH: fase de aquecimento para o JIT, várias iterações de medição
+ * com duração fixa e um "sumidouro" volátil que impede a eliminação do código medido.
+ *
+ * Uso: java -cp SistemaMOM.jar br.edu.ifce.ppd.mom.benchmark.BenchmarkMotores [opções]
+ *   --palavras 4,32,256        quantidades de palavras-chave
+ *   --comprimentos 80,1000     tamanho aproximado das linhas (caracteres)
+ *   --densidades 0,0.05,0.3    fração dos tokens que são palavras-chave
+ *   --unicode false,true       gera texto com acentos e caracteres não ASCII
+ *   --motores REGEX,AHO_CORASICK,...
+ *   --aquecimento-ms 300 --medicao-ms 500 --iteracoes 5 --linhas 2000 --semente 42
+ *   --saida resultados.json    (padrão: saída padrão)
+ */
+public class BenchmarkMotores {
+
+    private static final String[] SILABAS_ASCII = {
+        "ba", "ca", "de", "fi", "go", "lu", "ma", "ne", "po", "ra", "si", "to", "vu", "za", "tra", "pro", "men", "sis"
+    };
+    private static final String[] SILABAS_UNICODE = {
+        "ção", "ões", "mã", "é", "lí", "pú", "cê", "çu", "nh", "lh", "â", "ô", "ü", "á"
+    };
+    private static final String[] PALAVRAS_BASE = { "Java", "Python", "ActiveMQ", "MOM" };
+
+    // Impede que o JIT descarte as contagens por considerá-las não utilizadas
+    private static volatile long sumidouro;
+
+    private int[] quantidadesPalavras = { 4, 32, 256 };
+    private int[] comprimentos = { 80, 1000 };
+    private double[] densidades = { 0.0, 0.05, 0.3 };
+    private boolean[] variantesUnicode = { false, true };
+    private List<TipoMotor> motores = new ArrayList<>(Arrays.asList(TipoMotor.values()));
+    private long aquecimentoMs = 300;
+    private long medicaoMs = 500;
+    private int iteracoes = 5;
+    private int linhasPorCenario = 2000;
+    private long semente = 42;
+    private String saida;
+
+    public static void main(String[] args) throws IOException {
+        BenchmarkMotores benchmark = new BenchmarkMotores();
+        benchmark.lerArgumentos(args);
+        benchmark.executar();
+    }
+
+    private void lerArgumentos(String[] args) {
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String valor = args[i + 1];
+            switch (args[i]) {
+                case "--palavras": quantidadesPalavras = Arrays.stream(valor.split(",")).mapToInt(Integer::parseInt).toArray(); break;
+                case "--comprimentos": comprimentos = Arrays.stream(valor.split(",")).mapToInt(Integer::parseInt).toArray(); break;
+                case "--densidades": densidades = Arrays.stream(valor.split(",")).mapToDouble(Double::parseDouble).toArray(); break;
+                case "--unicode": {
+                    String[] partes = valor.split(",");
+                    variantesUnicode = new boolean[partes.length];
+                    for (int k = 0; k < partes.length; k++) variantesUnicode[k] = Boolean.parseBoolean(partes[k]);
+                    break;
+                }
+                case "--motores": {
+                    motores = new ArrayList<>();
+                    for (String nome : valor.split(",")) motores.add(TipoMotor.valueOf(nome.trim()));
+                    break;
+                }
+                case "--aquecimento-ms": aquecimentoMs = Long.parseLong(valor); break;
+                case "--medicao-ms": medicaoMs = Long.parseLong(valor); break;
+                case "--iteracoes": iteracoes = Integer.parseInt(valor); break;
+                case "--linhas": linhasPorCenario = Integer.parseInt(valor); break;
+                case "--semente": semente = Long.parseLong(valor); break;
+                case "--saida": saida = valor; break;
+                default: throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+    }
+
+    private void executar() throws IOException {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"jvm\": \"").append(System.getProperty("java.vm.name")).append(' ')
+            .append(System.getProperty("java.version")).append("\",\n");
+        json.append("  \"aquecimentoMs\": ").append(aquecimentoMs)
+            .append(", \"medicaoMs\": ").append(medicaoMs)
+            .append(", \"iteracoes\": ").append(iteracoes)
+            .append(", \"semente\": ").append(semente).append(",\n");
+        json.append("  \"resultados\": [");
+
+        boolean primeiro = true;
+        for (int qtdPalavras : quantidadesPalavras) {
+            for (int comprimento : comprimentos) {
+                for (double densidade : densidades) {
+                    for (boolean unicode : variantesUnicode) {
+                        Random aleatorio = new Random(semente);
+                        List<String> palavras = gerarPalavrasChave(qtdPalavras, unicode, aleatorio);
+                        String[] linhas = gerarLinhas(palavras, comprimento, densidade, unicode, aleatorio);
+                        long bytesCenario = 0;
+                        for (String l : linhas) bytesCenario += l.getBytes(StandardCharsets.UTF_8).length;
+                        long[] referencia = totais(TipoMotor.REGEX.criar(palavras), linhas);
+
+                        for (TipoMotor tipo : motores) {
+                            MotorContagem motor = tipo.criar(palavras);
+                            boolean consistente = Arrays.equals(referencia, totais(motor, linhas));
+                            double[] nsPorLinha = medir(motor, linhas);
+
+                            double media = Arrays.stream(nsPorLinha).average().orElse(0);
+                            double desvio = Math.sqrt(Arrays.stream(nsPorLinha)
+                                    .map(v -> (v - media) * (v - media)).sum() / Math.max(1, nsPorLinha.length - 1));
+                            double bytesPorLinha = (double) bytesCenario / linhas.length;
+
+                            System.err.printf(Locale.ROOT, "%-16s palavras=%-4d linha=%-5d densidade=%-5.2f unicode=%-5b %12.1f ns/linha%s%n",
+                                    tipo, qtdPalavras, comprimento, densidade, unicode, media, consistente ? "" : "  [DIVERGENTE]");
+
+                            json.append(primeiro ? "\n" : ",\n");
+                            primeiro = false;
+                            json.append(String.format(Locale.ROOT,
+                                    "    {\"motor\": \"%s\", \"palavras\": %d, \"comprimentoLinha\": %d, \"densidade\": %s, "
+                                    + "\"unicode\": %b, \"nsPorLinhaMedia\": %.2f, \"nsPorLinhaDesvio\": %.2f, "
+                                    + "\"linhasPorSegundo\": %.1f, \"mbPorSegundo\": %.3f, \"consistenteComRegex\": %b}",
+                                    tipo, qtdPalavras, comprimento, densidade, unicode, media, desvio,
+                                    1e9 / media, bytesPorLinha * 1e9 / media / (1024 * 1024), consistente));
+                        }
+                    }
+                }
+            }
+        }
+        json.append("\n  ]\n}\n");
+
+        if (saida == null) {
+            System.out.print(json);
+        } else {
+            Files.write(Paths.get(saida), json.toString().getBytes(StandardCharsets.UTF_8));
+            System.err.println("Resultados gravados em " + saida);
+        }
+    }
+
+    /**
+     * Executa o aquecimento e depois as iterações de medição.
+     * Cada iteração processa o conjunto de linhas repetidamente até esgotar o tempo configurado.
+     *
+     * @return Nanossegundos médios por linha em cada iteração.
+     */
+    private double[] medir(MotorContagem motor, String[] linhas) {
+        int[] ocorrencias = new int[motor.getPalavras().size()];
+        executarPor(motor, linhas, ocorrencias, aquecimentoMs);
+        double[] resultado = new double[iteracoes];
+        for (int it = 0; it < iteracoes; it++) {
+            long inicio = System.nanoTime();
+            long processadas = executarPor(motor, linhas, ocorrencias, medicaoMs);
+            resultado[it] = (double) (System.nanoTime() - inicio) / processadas;
+        }
+        return resultado;
+    }
+
+    private static long executarPor(MotorContagem motor, String[] linhas, int[] ocorrencias, long duracaoMs) {
+        long limite = System.nanoTime() + duracaoMs * 1_000_000L;
+        long processadas = 0;
+        long soma = 0;
+        do {
+            for (String linha : linhas) {
+                motor.contar(linha, ocorrencias);
+            }
+            processadas += linhas.length;
+            for (int i = 0; i < ocorrencias.length; i++) {
+                soma += ocorrencias[i];
+                ocorrencias[i] = 0;
+            }
+        } while (System.nanoTime() < limite);
+        sumidouro += soma;
+        return processadas;
+    }
+
+    private static long[] totais(MotorContagem motor, String[] linhas) {
+        int[] ocorrencias = new int[motor.getPalavras().size()];
+        for (String linha : linhas) motor.contar(linha, ocorrencias);
+        return Arrays.stream(ocorrencias).asLongStream().toArray();
+    }
+
+    private List<String> gerarPalavrasChave(int quantidade, boolean unicode, Random aleatorio) {
+        Set<String> palavras = new LinkedHashSet<>(Arrays.asList(PALAVRAS_BASE).subList(0, Math.min(quantidade, PALAVRAS_BASE.length)));
+        while (palavras.size() < quantidade) {
+            String palavra = gerarPalavra(unicode, aleatorio);
+            palavras.add(Character.toUpperCase(palavra.charAt(0)) + palavra.substring(1));
+        }
+        return new ArrayList<>(palavras);
+    }
+
+    /**
+     * Gera linhas com o tamanho aproximado pedido, onde cada token tem probabilidade "densidade"
+     * de ser uma palavra-chave (com a caixa alterada aleatoriamente).
+     */
+    private String[] gerarLinhas(List<String> palavras, int comprimento, double densidade, boolean unicode, Random aleatorio) {
+        String[] linhas = new String[linhasPorCenario];
+        StringBuilder sb = new StringBuilder(comprimento + 32);
+        for (int i = 0; i < linhas.length; i++) {
+            sb.setLength(0);
+            while (sb.length() < comprimento) {
+                if (sb.length() > 0) sb.append(aleatorio.nextInt(12) == 0 ? ", " : " ");
+                if (aleatorio.nextDouble() < densidade) {
+                    String palavra = palavras.get(aleatorio.nextInt(palavras.size()));
+                    sb.append(aleatorio.nextBoolean() ? palavra : palavra.toUpperCase(Locale.ROOT));
+                } else {
+                    sb.append(gerarPalavra(unicode, aleatorio));
+                }
+            }
+            sb.append('.');
+            linhas[i] = sb.toString();
+        }
+        return linhas;
+    }
+
+    private static String gerarPalavra(boolean unicode, Random aleatorio) {
+        StringBuilder sb = new StringBuilder();
+        int silabas = 1 + aleatorio.nextInt(4);
+        for (int s = 0; s < silabas; s++) {
+            if (unicode && aleatorio.nextInt(3) == 0) {
+                sb.append(SILABAS_UNICODE[aleatorio.nextInt(SILABAS_UNICODE.length)]);
+            } else {
+                sb.append(SILABAS_ASCII[aleatorio.nextInt(SILABAS_ASCII.length)]);
+            }
+        }
+        return sb.toString();
+    }
+}
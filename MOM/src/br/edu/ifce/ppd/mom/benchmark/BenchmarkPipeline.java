@@ -0,0 +1,272 @@
+package br.edu.ifce.ppd.mom.benchmark;
+
+import br.edu.ifce.ppd.mom.componentes.ControleVazao;
+import br.edu.ifce.ppd.mom.componentes.MonitorResultado;
+import br.edu.ifce.ppd.mom.componentes.ProcessadorPalavras;
+import br.edu.ifce.ppd.mom.componentes.ProdutorLinhas;
+import br.edu.ifce.ppd.mom.contagem.MotorContagem;
+import br.edu.ifce.ppd.mom.contagem.TipoMotor;
+import br.edu.ifce.ppd.mom.gui.SaidaMonitoramento;
+import br.edu.ifce.ppd.mom.infra.BrokerEmbutido;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoPipeline;
+import br.edu.ifce.ppd.mom.infra.EstatisticasBroker;
+import br.edu.ifce.ppd.mom.metricas.AmostradorBroker;
+import br.edu.ifce.ppd.mom.metricas.HistogramaLatencia;
+import br.edu.ifce.ppd.mom.metricas.LatenciaPorEtapa;
+import br.edu.ifce.ppd.mom.metricas.RegistroMetricas;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark ponta a ponta do pipeline completo (ProdutorLinhas -> ProcessadorPalavras -> MonitorResultado)
+ * sobre um Broker ActiveMQ embutido, sem interface gráfica.
+ * Cada combinação de parâmetros é executada em um Broker novo, e o término é detectado quando o
+ * Monitor agrega o total de ocorrências calculado previamente sobre o corpus.
+ *
+ * Uso: java -cp SistemaMOM.jar br.edu.ifce.ppd.mom.benchmark.BenchmarkPipeline [opções]
+ *   --corpus arquivo.txt           (padrão: corpus gerado com --linhas linhas)
+ *   --linhas 20000 --semente 42     (parâmetros do GeradorCorpus)
+ *   --palavras Java,Python,ActiveMQ,MOM
+ *   --produtores 2  --workers 1,4  --lotes 1,50
+ *   --persistente false,true  --ack AUTO,CLIENT,DUPS_OK,TRANSACTED
+ *   --faixa-fila 0:0,500:2000      (faixa alvo do controle de vazão; 0:0 = sem controle)
+ *   --motor REGEX  --timeout-s 300  --saida resultados.json
+ */
+public class BenchmarkPipeline {
+
+    private String corpus;
+    private int linhasGeradas = 20000;
+    private long semente = 42;
+    private List<String> palavras = Arrays.asList("Java", "Python", "ActiveMQ", "MOM");
+    private int[] produtores = { 2 };
+    private int[] workers = { 1, 4 };
+    private int[] lotes = { 1, 50 };
+    private boolean[] persistencias = { false, true };
+    private String[] modosAck = { "AUTO" };
+    private String[] faixasFila = { "0:0" };
+    private TipoMotor motor = TipoMotor.REGEX;
+    private long timeoutSegundos = 300;
+    private String saida;
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkPipeline benchmark = new BenchmarkPipeline();
+        benchmark.lerArgumentos(args);
+        benchmark.executar();
+        System.exit(0);
+    }
+
+    private void lerArgumentos(String[] args) {
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String valor = args[i + 1];
+            switch (args[i]) {
+                case "--corpus": corpus = valor; break;
+                case "--linhas": linhasGeradas = Integer.parseInt(valor); break;
+                case "--semente": semente = Long.parseLong(valor); break;
+                case "--palavras": palavras = Arrays.asList(valor.split(",")); break;
+                case "--produtores": produtores = inteiros(valor); break;
+                case "--workers": workers = inteiros(valor); break;
+                case "--lotes": lotes = inteiros(valor); break;
+                case "--persistente": {
+                    String[] partes = valor.split(",");
+                    persistencias = new boolean[partes.length];
+                    for (int k = 0; k < partes.length; k++) persistencias[k] = Boolean.parseBoolean(partes[k]);
+                    break;
+                }
+                case "--ack": modosAck = valor.split(","); break;
+                case "--faixa-fila": faixasFila = valor.split(","); break;
+                case "--motor": motor = TipoMotor.valueOf(valor); break;
+                case "--timeout-s": timeoutSegundos = Long.parseLong(valor); break;
+                case "--saida": saida = valor; break;
+                default: throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+    }
+
+    private static int[] inteiros(String valor) {
+        return Arrays.stream(valor.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private void executar() throws Exception {
+        Path arquivo = corpus != null ? Paths.get(corpus) : gerarCorpus();
+        long[] contagemLinhas = new long[1];
+        long esperado = calcularTotalEsperado(arquivo, contagemLinhas);
+        System.err.println("Corpus: " + arquivo + " (" + contagemLinhas[0] + " linhas, " + esperado + " ocorrências esperadas)");
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"corpus\": \"").append(arquivo.toString().replace("\\", "\\\\")).append("\",\n");
+        json.append("  \"linhas\": ").append(contagemLinhas[0]).append(", \"ocorrenciasEsperadas\": ").append(esperado)
+            .append(", \"motor\": \"").append(motor).append("\",\n");
+        json.append("  \"execucoes\": [");
+
+        boolean primeiro = true;
+        for (int qtdProdutores : produtores) {
+            for (int qtdWorkers : workers) {
+                for (int lote : lotes) {
+                    for (boolean persistente : persistencias) {
+                        for (String ack : modosAck) {
+                            for (String faixa : faixasFila) {
+                                String[] limites = faixa.split(":");
+                                ConfiguracaoPipeline config = new ConfiguracaoPipeline()
+                                        .setQuantidadeProdutores(qtdProdutores)
+                                        .setQuantidadeWorkers(qtdWorkers)
+                                        .setTamanhoLote(lote)
+                                        .setEntregaPersistente(persistente)
+                                        .setModoConfirmacao(ConfiguracaoPipeline.modoConfirmacaoPorNome(ack))
+                                        .setTipoMotor(motor)
+                                        .setFaixaFila(Long.parseLong(limites[0]), Long.parseLong(limites[1]));
+                                String resultado = executarCenario(arquivo, config, contagemLinhas[0], esperado);
+                                json.append(primeiro ? "\n" : ",\n").append(resultado);
+                                primeiro = false;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        json.append("\n  ]\n}\n");
+
+        if (saida == null) {
+            System.out.print(json);
+        } else {
+            Files.write(Paths.get(saida), json.toString().getBytes(StandardCharsets.UTF_8));
+            System.err.println("Resultados gravados em " + saida);
+        }
+        if (corpus == null) Files.deleteIfExists(arquivo);
+    }
+
+    /**
+     * Executa uma combinação de parâmetros em um Broker novo e devolve o objeto JSON do resultado.
+     */
+    private String executarCenario(Path arquivo, ConfiguracaoPipeline config, long linhas, long esperado) throws Exception {
+        try (BrokerEmbutido broker = new BrokerEmbutido("mom-benchmark", config.isEntregaPersistente(), null)) {
+            config.setUrlBroker(broker.getUrlVm());
+            RegistroMetricas.global().zerar();
+            SaidaMonitoramento saidaSilenciosa = SaidaMonitoramento.SILENCIOSA;
+
+            // Mesma ordem de inicialização do SistemaMOM: Monitor, Workers e, por fim, Produtores
+            List<Thread> servicos = new ArrayList<>();
+            MonitorResultado monitor = new MonitorResultado(saidaSilenciosa, palavras, config);
+            servicos.add(new Thread(monitor, "monitor"));
+            for (int i = 1; i <= config.getQuantidadeWorkers(); i++) {
+                servicos.add(new Thread(new ProcessadorPalavras(i, palavras, saidaSilenciosa, config), "worker-" + i));
+            }
+            for (Thread t : servicos) t.start();
+            Thread.sleep(1000);
+
+            // Amostragem do pico de memória ocupada por mensagens no Broker
+            AtomicLong picoMemoria = new AtomicLong();
+            Thread amostrador = new Thread(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    picoMemoria.accumulateAndGet(broker.getUsoMemoria(), Math::max);
+                    try { Thread.sleep(10); } catch (InterruptedException e) { return; }
+                }
+            }, "amostrador-memoria");
+            amostrador.setDaemon(true);
+            amostrador.start();
+
+            // Profundidade da Fila e do Tópico segundo o plugin de estatísticas do Broker
+            AmostradorBroker estatisticas = new AmostradorBroker(broker.getUrlVm(), RegistroMetricas.global(), 100);
+
+            ControleVazao controleVazao = new ControleVazao(config, estatisticas, RegistroMetricas.global());
+            long inicio = System.nanoTime();
+            List<Thread> leitores = new ArrayList<>();
+            for (int p = 0; p < config.getQuantidadeProdutores(); p++) {
+                Thread leitor = new Thread(new ProdutorLinhas(arquivo.toString(), p, config.getQuantidadeProdutores(),
+                        saidaSilenciosa, config, controleVazao), "produtor-" + p);
+                leitor.start();
+                leitores.add(leitor);
+            }
+            for (Thread leitor : leitores) leitor.join();
+            long fimLeitura = System.nanoTime();
+
+            long limite = System.nanoTime() + timeoutSegundos * 1_000_000_000L;
+            while (monitor.getTotalGeral() < esperado && System.nanoTime() < limite) {
+                Thread.sleep(1);
+            }
+            long fim = System.nanoTime();
+            long obtido = monitor.getTotalGeral();
+
+            estatisticas.amostrar();
+            estatisticas.close();
+            EstatisticasBroker.Estatisticas fila = estatisticas.getUltimaFila();
+            amostrador.interrupt();
+            for (Thread t : servicos) t.interrupt();
+            for (Thread t : servicos) t.join(5000);
+
+            double segundos = (fim - inicio) / 1e9;
+            HistogramaLatencia latencia = monitor.getLatenciaPontaAPonta();
+            System.err.printf(Locale.ROOT, "produtores=%d workers=%d lote=%d persistente=%b ack=%s -> %.0f linhas/s, p99=%.2f ms%s%n",
+                    config.getQuantidadeProdutores(), config.getQuantidadeWorkers(), config.getTamanhoLote(),
+                    config.isEntregaPersistente(), ConfiguracaoPipeline.nomeModoConfirmacao(config.getModoConfirmacao()),
+                    linhas / segundos, latencia.getPercentil(99) / 1000.0, obtido == esperado ? "" : "  [INCOMPLETO]");
+
+            // Mediana e p99 de cada etapa do pipeline
+            StringBuilder etapas = new StringBuilder();
+            for (LatenciaPorEtapa.Etapa etapa : LatenciaPorEtapa.Etapa.values()) {
+                HistogramaLatencia h = monitor.getLatencias().getEtapa(etapa);
+                if (etapas.length() > 0) etapas.append(", ");
+                etapas.append(String.format(Locale.ROOT, "\"%s\": {\"p50Ms\": %.3f, \"p99Ms\": %.3f}",
+                        etapa, h.getPercentil(50) / 1000.0, h.getPercentil(99) / 1000.0));
+            }
+
+            return String.format(Locale.ROOT,
+                    "    {\"produtores\": %d, \"workers\": %d, \"tamanhoLote\": %d, \"persistente\": %b, \"ack\": \"%s\", "
+                    + "\"faixaFila\": \"%d:%d\", \"pausasProdutor\": %d, "
+                    + "\"duracaoMs\": %.1f, \"leituraMs\": %.1f, \"linhasPorSegundo\": %.1f, "
+                    + "\"latenciaP50Ms\": %.3f, \"latenciaP99Ms\": %.3f, \"latenciaP999Ms\": %.3f, \"latenciaMaxMs\": %.3f, "
+                    + "\"memoriaBrokerPicoBytes\": %d, \"memoriaBrokerLimiteBytes\": %d, "
+                    + "\"filaProfundidadeMaxima\": %d, \"topicoEmVooMaximo\": %d, \"filaEnfileiradas\": %d, "
+                    + "\"filaRetiradas\": %d, \"filaConsumidores\": %d, "
+                    + "\"ocorrenciasAgregadas\": %d, \"completo\": %b, \"etapas\": {%s}}",
+                    config.getQuantidadeProdutores(), config.getQuantidadeWorkers(), config.getTamanhoLote(),
+                    config.isEntregaPersistente(), ConfiguracaoPipeline.nomeModoConfirmacao(config.getModoConfirmacao()),
+                    config.getFilaAlvoMinima(), config.getFilaAlvoMaxima(),
+                    RegistroMetricas.global().contador(RegistroMetricas.PAUSAS_PRODUTOR).getValor(),
+                    (fim - inicio) / 1e6, (fimLeitura - inicio) / 1e6, linhas / segundos,
+                    latencia.getPercentil(50) / 1000.0, latencia.getPercentil(99) / 1000.0,
+                    latencia.getPercentil(99.9) / 1000.0, latencia.getMaximo() / 1000.0,
+                    picoMemoria.get(), broker.getLimiteMemoria(),
+                    estatisticas.getPicoFila(), estatisticas.getPicoTopicoEmVoo(),
+                    fila == null ? -1 : fila.enfileiradas, fila == null ? -1 : fila.retiradas,
+                    fila == null ? -1 : fila.consumidores, obtido, obtido == esperado, etapas);
+        }
+    }
+
+    /**
+     * Conta as ocorrências do corpus localmente, com o mesmo motor dos Workers,
+     * para saber quando o Monitor terminou de agregar todos os resultados.
+     */
+    private long calcularTotalEsperado(Path arquivo, long[] contagemLinhas) throws IOException {
+        MotorContagem referencia = motor.criar(palavras);
+        int[] ocorrencias = new int[palavras.size()];
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                referencia.contar(linha, ocorrencias);
+                contagemLinhas[0]++;
+            }
+        }
+        return Arrays.stream(ocorrencias).asLongStream().sum();
+    }
+
+    // Corpus sintético determinístico (mesma semente, mesmo arquivo)
+    private Path gerarCorpus() throws IOException {
+        Path arquivo = Files.createTempFile("mom-corpus-", ".txt");
+        new GeradorCorpus()
+                .setLinhasMaximas(linhasGeradas)
+                .setSemente(semente)
+                .setPalavras(palavras)
+                .gerar(arquivo);
+        return arquivo;
+    }
+}
@@ -0,0 +1,294 @@
+package br.edu.ifce.ppd.mom.benchmark;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Gerador de corpus sintético para testes de carga.
+ * Escreve o arquivo em fluxo (sem manter o conteúdo em memória), o que permite gerar arquivos de
+ * vários GB. A frequência das palavras segue uma distribuição de Zipf sobre um vocabulário em
+ * português (com acentos), o tamanho das linhas segue uma distribuição log-normal e as
+ * palavras-chave são inseridas com a densidade pedida.
+ *
+ * Com a mesma semente e os mesmos parâmetros o arquivo gerado é idêntico byte a byte,
+ * o que torna comparáveis as execuções de benchmark entre versões do código.
+ * As palavras-chave nunca aparecem no vocabulário de preenchimento, então as contagens
+ * informadas no resumo são exatamente as que o sistema deve encontrar.
+ *
+ * Uso: java -cp SistemaMOM.jar br.edu.ifce.ppd.mom.benchmark.GeradorCorpus --saida corpus.txt [opções]
+ *   --tamanho 2G | --linhas 1000000      limite do arquivo (o primeiro atingido encerra)
+ *   --semente 42
+ *   --vocabulario 50000  --zipf 1.0      tamanho do vocabulário e expoente da distribuição
+ *   --tokens-linha 12  --desvio-linha 0.6  mediana e desvio (log-normal) de tokens por linha
+ *   --palavras Java,Python,ActiveMQ,MOM  --densidade 0.01
+ *   --acentos 0.3                         fração do vocabulário gerado com acentuação
+ *   --linhas-vazias 0.01  --linhas-longas 0.0001  --tokens-linha-longa 50000
+ */
+public class GeradorCorpus {
+
+    // Palavras mais frequentes do português, ocupando as primeiras posições do ranking de Zipf
+    private static final String[] PALAVRAS_COMUNS = {
+        "de", "a", "o", "que", "e", "do", "da", "em", "um", "para", "é", "com", "não", "uma", "os", "no",
+        "se", "na", "por", "mais", "as", "dos", "como", "mas", "foi", "ao", "ele", "das", "tem", "à", "seu",
+        "sua", "ou", "ser", "quando", "muito", "há", "nos", "já", "está", "eu", "também", "só", "pelo",
+        "pela", "até", "isso", "ela", "entre", "era", "depois", "sem", "mesmo", "aos", "ter", "seus", "quem",
+        "nas", "me", "esse", "eles", "estão", "você", "tinha", "foram", "essa", "num", "nem", "suas", "meu",
+        "às", "minha", "têm", "numa", "pelos", "elas", "havia", "seja", "qual", "será", "nós", "tenho",
+        "lhe", "deles", "essas", "esses", "pelas", "este", "fosse", "dele", "sistema", "mensagem", "fila",
+        "processamento", "distribuído", "tópico", "aplicação", "computação", "informação", "comunicação"
+    };
+    private static final String[] SILABAS = {
+        "ba", "be", "ca", "co", "da", "de", "di", "fa", "fe", "ga", "la", "le", "li", "lo", "ma", "me", "mi",
+        "na", "ne", "no", "pa", "pe", "po", "ra", "re", "ri", "ro", "sa", "se", "si", "ta", "te", "ti", "to",
+        "va", "ve", "vi", "tra", "pro", "per", "con", "des", "men", "ção", "ões", "nh", "lh"
+    };
+    private static final String[] SILABAS_ACENTUADAS = {
+        "á", "â", "ã", "é", "ê", "í", "ó", "ô", "õ", "ú", "ç", "pá", "tê", "lú", "mã", "cõ", "fí"
+    };
+
+    private String saida;
+    private long tamanhoMaximo = Long.MAX_VALUE;
+    private long linhasMaximas = Long.MAX_VALUE;
+    private long semente = 42;
+    private int tamanhoVocabulario = 50000;
+    private double expoenteZipf = 1.0;
+    private double tokensPorLinha = 12;
+    private double desvioLinha = 0.6;
+    private List<String> palavras = Arrays.asList("Java", "Python", "ActiveMQ", "MOM");
+    private double densidade = 0.01;
+    private double fracaoAcentos = 0.3;
+    private double fracaoVazias = 0.01;
+    private double fracaoLongas = 0.0001;
+    private int tokensLinhaLonga = 50000;
+
+    /**
+     * Totais do corpus gerado, incluindo a contagem exata de cada palavra-chave.
+     */
+    public static class Resumo {
+        public long linhas;
+        public long bytes;
+        public long[] ocorrencias;
+
+        public long totalOcorrencias() {
+            return Arrays.stream(ocorrencias).sum();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        GeradorCorpus gerador = new GeradorCorpus();
+        gerador.lerArgumentos(args);
+        if (gerador.saida == null) throw new IllegalArgumentException("Informe o arquivo de destino com --saida.");
+        if (gerador.tamanhoMaximo == Long.MAX_VALUE && gerador.linhasMaximas == Long.MAX_VALUE) {
+            gerador.linhasMaximas = 100000;
+        }
+
+        long inicio = System.nanoTime();
+        Resumo resumo = gerador.gerar(Paths.get(gerador.saida));
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        System.err.printf(Locale.ROOT, "Corpus %s: %d linhas, %.1f MB em %.1f s (%.1f MB/s)%n", gerador.saida,
+                resumo.linhas, resumo.bytes / 1048576.0, segundos, resumo.bytes / 1048576.0 / segundos);
+        for (int i = 0; i < gerador.palavras.size(); i++) {
+            System.err.printf("  %-15s : %d%n", gerador.palavras.get(i), resumo.ocorrencias[i]);
+        }
+    }
+
+    private void lerArgumentos(String[] args) {
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String valor = args[i + 1];
+            switch (args[i]) {
+                case "--saida": saida = valor; break;
+                case "--tamanho": setTamanhoMaximo(lerTamanho(valor)); break;
+                case "--linhas": setLinhasMaximas(Long.parseLong(valor)); break;
+                case "--semente": setSemente(Long.parseLong(valor)); break;
+                case "--vocabulario": tamanhoVocabulario = Integer.parseInt(valor); break;
+                case "--zipf": expoenteZipf = Double.parseDouble(valor); break;
+                case "--tokens-linha": tokensPorLinha = Double.parseDouble(valor); break;
+                case "--desvio-linha": desvioLinha = Double.parseDouble(valor); break;
+                case "--palavras": setPalavras(Arrays.asList(valor.split(","))); break;
+                case "--densidade": setDensidade(Double.parseDouble(valor)); break;
+                case "--acentos": fracaoAcentos = Double.parseDouble(valor); break;
+                case "--linhas-vazias": fracaoVazias = Double.parseDouble(valor); break;
+                case "--linhas-longas": fracaoLongas = Double.parseDouble(valor); break;
+                case "--tokens-linha-longa": tokensLinhaLonga = Integer.parseInt(valor); break;
+                default: throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+    }
+
+    // Aceita sufixos K, M e G (potências de 1024)
+    private static long lerTamanho(String valor) {
+        String v = valor.trim().toUpperCase(Locale.ROOT);
+        long multiplicador = 1;
+        char sufixo = v.charAt(v.length() - 1);
+        if (sufixo == 'K' || sufixo == 'M' || sufixo == 'G') {
+            multiplicador = sufixo == 'K' ? 1L << 10 : sufixo == 'M' ? 1L << 20 : 1L << 30;
+            v = v.substring(0, v.length() - 1);
+        }
+        return (long) (Double.parseDouble(v) * multiplicador);
+    }
+
+    public GeradorCorpus setTamanhoMaximo(long bytes) {
+        this.tamanhoMaximo = bytes;
+        return this;
+    }
+
+    public GeradorCorpus setLinhasMaximas(long linhas) {
+        this.linhasMaximas = linhas;
+        return this;
+    }
+
+    public GeradorCorpus setSemente(long semente) {
+        this.semente = semente;
+        return this;
+    }
+
+    public GeradorCorpus setPalavras(List<String> palavras) {
+        this.palavras = palavras;
+        return this;
+    }
+
+    public GeradorCorpus setDensidade(double densidade) {
+        this.densidade = densidade;
+        return this;
+    }
+
+    /**
+     * Gera o corpus no destino indicado.
+     */
+    public Resumo gerar(Path destino) throws IOException {
+        SplittableRandom aleatorio = new SplittableRandom(semente);
+        // As palavras são codificadas em UTF-8 uma única vez e gravadas diretamente como bytes
+        String[] vocabulario = gerarVocabulario(aleatorio);
+        byte[][] vocabularioUtf8 = new byte[vocabulario.length][];
+        for (int i = 0; i < vocabulario.length; i++) {
+            vocabularioUtf8[i] = vocabulario[i].getBytes(StandardCharsets.UTF_8);
+        }
+        double[] acumulada = distribuicaoZipf(vocabulario.length);
+
+        // Variações de caixa das palavras-chave (a contagem ignora maiúsculas/minúsculas ASCII)
+        byte[][][] variantes = new byte[palavras.size()][][];
+        for (int p = 0; p < palavras.size(); p++) {
+            String palavra = palavras.get(p).trim();
+            variantes[p] = new byte[][] {
+                palavra.getBytes(StandardCharsets.UTF_8),
+                palavra.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8),
+                palavra.toUpperCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8)
+            };
+        }
+        byte[] espaco = { ' ' };
+        byte[] virgula = { ',', ' ' };
+
+        Resumo resumo = new Resumo();
+        resumo.ocorrencias = new long[palavras.size()];
+        try (OutputStream escritor = new BufferedOutputStream(Files.newOutputStream(destino), 1 << 16)) {
+            while (resumo.linhas < linhasMaximas && resumo.bytes < tamanhoMaximo) {
+                double sorteio = aleatorio.nextDouble();
+                int tokens;
+                if (sorteio < fracaoVazias) {
+                    tokens = 0;
+                } else if (sorteio < fracaoVazias + fracaoLongas) {
+                    tokens = tokensLinhaLonga;
+                } else {
+                    // Log-normal com mediana tokensPorLinha; desvio zero produz linhas de tamanho fixo
+                    tokens = Math.max(1, (int) Math.round(tokensPorLinha * Math.exp(desvioLinha * normal(aleatorio))));
+                }
+
+                for (int t = 0; t < tokens; t++) {
+                    if (t > 0) {
+                        byte[] separador = aleatorio.nextInt(15) == 0 ? virgula : espaco;
+                        escritor.write(separador);
+                        resumo.bytes += separador.length;
+                    }
+                    byte[] token;
+                    if (!palavras.isEmpty() && aleatorio.nextDouble() < densidade) {
+                        int p = aleatorio.nextInt(palavras.size());
+                        token = variantes[p][aleatorio.nextInt(3)];
+                        resumo.ocorrencias[p]++;
+                    } else {
+                        token = vocabularioUtf8[sortearZipf(acumulada, aleatorio)];
+                    }
+                    escritor.write(token);
+                    resumo.bytes += token.length;
+                }
+                if (tokens > 0) {
+                    escritor.write('.');
+                    resumo.bytes++;
+                }
+                escritor.write('\n');
+                resumo.bytes++;
+                resumo.linhas++;
+            }
+        }
+        return resumo;
+    }
+
+    /**
+     * Monta o vocabulário: palavras comuns do português no topo do ranking, seguidas por palavras
+     * geradas a partir de sílabas (parte delas acentuada). Palavras-chave são excluídas.
+     */
+    private String[] gerarVocabulario(SplittableRandom aleatorio) {
+        Set<String> proibidas = new HashSet<>();
+        for (String p : palavras) proibidas.add(p.trim().toLowerCase(Locale.ROOT));
+
+        Set<String> usadas = new HashSet<>();
+        List<String> vocabulario = new ArrayList<>(tamanhoVocabulario);
+        for (String comum : PALAVRAS_COMUNS) {
+            if (vocabulario.size() >= tamanhoVocabulario) break;
+            if (!proibidas.contains(comum) && usadas.add(comum)) vocabulario.add(comum);
+        }
+        while (vocabulario.size() < tamanhoVocabulario) {
+            StringBuilder sb = new StringBuilder();
+            int silabas = 2 + aleatorio.nextInt(4);
+            boolean acentuada = aleatorio.nextDouble() < fracaoAcentos;
+            int posicaoAcento = aleatorio.nextInt(silabas);
+            for (int s = 0; s < silabas; s++) {
+                sb.append(acentuada && s == posicaoAcento
+                        ? SILABAS_ACENTUADAS[aleatorio.nextInt(SILABAS_ACENTUADAS.length)]
+                        : SILABAS[aleatorio.nextInt(SILABAS.length)]);
+            }
+            String palavra = sb.toString();
+            if (!proibidas.contains(palavra.toLowerCase(Locale.ROOT)) && usadas.add(palavra)) vocabulario.add(palavra);
+        }
+        return vocabulario.toArray(new String[0]);
+    }
+
+    // Função de distribuição acumulada de Zipf: P(k) proporcional a 1 / k^s
+    private double[] distribuicaoZipf(int n) {
+        double[] acumulada = new double[n];
+        double soma = 0;
+        for (int k = 0; k < n; k++) {
+            soma += 1.0 / Math.pow(k + 1, expoenteZipf);
+            acumulada[k] = soma;
+        }
+        for (int k = 0; k < n; k++) acumulada[k] /= soma;
+        return acumulada;
+    }
+
+    // Sorteio por inversão da distribuição acumulada (busca binária)
+    private static int sortearZipf(double[] acumulada, SplittableRandom aleatorio) {
+        double u = aleatorio.nextDouble();
+        int indice = Arrays.binarySearch(acumulada, u);
+        if (indice < 0) indice = -indice - 1;
+        return Math.min(indice, acumulada.length - 1);
+    }
+
+    // Normal padrão pelo método de Box-Muller (SplittableRandom não oferece nextGaussian)
+    private static double normal(SplittableRandom aleatorio) {
+        double u1 = 1.0 - aleatorio.nextDouble();
+        double u2 = aleatorio.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+}
@@ -0,0 +1,387 @@
+package br.edu.ifce.ppd.mom.benchmark;
+
+import br.edu.ifce.ppd.mom.contagem.ContadorVocabulario;
+import br.edu.ifce.ppd.mom.contagem.EstimadorDistintas;
+import br.edu.ifce.ppd.mom.contagem.EstimadorOnline;
+import br.edu.ifce.ppd.mom.contagem.HyperLogLog;
+import br.edu.ifce.ppd.mom.contagem.MatrizCoocorrencia;
+import br.edu.ifce.ppd.mom.contagem.MotorContagem;
+import br.edu.ifce.ppd.mom.contagem.ResumoFrequentes;
+import br.edu.ifce.ppd.mom.contagem.TabelaContagem;
+import br.edu.ifce.ppd.mom.contagem.TipoMotor;
+import br.edu.ifce.ppd.mom.contagem.VocabularioAproximado;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Verificações das estruturas de contagem (sem Broker e sem GUI): cada uma é comparada com uma
+ * referência exata calculada de forma ingênua sobre o mesmo texto sintético, e as estruturas que se
+ * somam entre Workers são conferidas também depois de serializadas e somadas.
+ *
+ * - TabelaContagem: totais por termo, serialização e partições, top K.
+ * - Vocabulário aproximado: limites do Count-Min Sketch e do Space-Saving após a soma de três Workers.
+ * - HyperLogLog e EstimadorDistintas: erro dentro de 3 erros padrão, união igual à contagem única.
+ * - EstimadorOnline: total exato com o arquivo inteiro e cobertura do intervalo de 95% com 25% dele.
+ * - MatrizCoocorrencia: pares iguais aos da referência após a soma serializada.
+ * - Motores: palavras e frases contadas igualmente pela regex, pelo Aho-Corasick e pela varredura.
+ *
+ * Termina com código 1 se alguma verificação falhar.
+ *
+ * Uso: java -cp SistemaMOM.jar br.edu.ifce.ppd.mom.benchmark.VerificacoesContagem [--semente 42]
+ */
+public class VerificacoesContagem {
+
+    private static final String[] SILABAS = { "ba", "ca", "de", "fi", "go", "lu", "ma", "ne", "po", "ra", "si", "to" };
+    private static final String[] SEPARADORES = { " ", " ", " ", "  ", ", ", ". ", "; ", "\t", " (", ") " };
+
+    private final Random aleatorio;
+    private int verificacoes;
+    private int falhas;
+
+    public VerificacoesContagem(long semente) {
+        this.aleatorio = new Random(semente);
+    }
+
+    public static void main(String[] args) {
+        long semente = 42;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--semente")) semente = Long.parseLong(args[i + 1]);
+        }
+        VerificacoesContagem verificacoes = new VerificacoesContagem(semente);
+        verificacoes.executar();
+        System.out.println(verificacoes.verificacoes + " verificações, " + verificacoes.falhas + " falha(s).");
+        if (verificacoes.falhas > 0) System.exit(1);
+    }
+
+    public void executar() {
+        List<String> linhas = gerarLinhas(20000);
+        verificarTabelaContagem(linhas);
+        verificarVocabularioAproximado(linhas);
+        verificarHyperLogLog(linhas);
+        verificarEstimadorOnline();
+        verificarCoocorrencias();
+        verificarMotoresFrases();
+    }
+
+    private void verificarTabelaContagem(List<String> linhas) {
+        Map<String, Long> referencia = contarReferencia(linhas);
+        long total = somar(referencia);
+        TabelaContagem tabela = new TabelaContagem();
+        ContadorVocabulario contador = new ContadorVocabulario();
+        for (String linha : linhas) contador.contar(linha, tabela);
+
+        verificar("TabelaContagem: quantidade de termos", tabela.getTamanho() == referencia.size(),
+                tabela.getTamanho() + " termos, esperados " + referencia.size());
+        verificar("TabelaContagem: total de tokens", tabela.getTotal() == total, tabela.getTotal() + " tokens, esperados " + total);
+        verificar("TabelaContagem: contagem de cada termo", iguais(tabela, referencia), "contagem divergente");
+
+        // Serializada inteira e em partições, somadas em tabelas novas
+        byte[] serializada = tabela.serializar();
+        TabelaContagem inteira = new TabelaContagem();
+        inteira.somarSerializado(serializada, serializada.length);
+        verificar("TabelaContagem: soma da tabela serializada", iguais(inteira, referencia), "contagem divergente");
+        TabelaContagem particionada = new TabelaContagem();
+        Set<String> vistos = new HashSet<>();
+        boolean disjuntas = true;
+        for (byte[] parte : tabela.serializarParticoes(4)) {
+            if (parte == null) continue;
+            TabelaContagem tabelaParte = new TabelaContagem();
+            tabelaParte.somarSerializado(parte, parte.length);
+            for (int e = 0; e < tabelaParte.getTamanho(); e++) disjuntas &= vistos.add(tabelaParte.getTermo(e));
+            particionada.somarSerializado(parte, parte.length);
+        }
+        verificar("TabelaContagem: partições disjuntas e completas", disjuntas && iguais(particionada, referencia),
+                "termo repetido entre partições ou contagem divergente");
+
+        List<Long> maiores = new ArrayList<>(tabela.maiores(10).values());
+        verificar("TabelaContagem: top 10", maiores.equals(maioresValores(referencia, 10)),
+                maiores + ", esperados " + maioresValores(referencia, 10));
+    }
+
+    /**
+     * Três Workers com o seu vocabulário aproximado, somados num quarto como faz o Monitor. O sketch nunca
+     * subestima e, com a confiança do sketch, não excede o erro máximo; o resumo de frequentes mantém o
+     * valor real entre os seus limites e contém todo termo com frequência acima de N / capacidade.
+     */
+    private void verificarVocabularioAproximado(List<String> linhas) {
+        Map<String, Long> referencia = contarReferencia(linhas);
+        long total = somar(referencia);
+        int capacidade = ResumoFrequentes.capacidadePara(10);
+        VocabularioAproximado monitor = new VocabularioAproximado(1024, capacidade);
+        ContadorVocabulario contador = new ContadorVocabulario();
+        int porWorker = (linhas.size() + 2) / 3;
+        for (int inicio = 0; inicio < linhas.size(); inicio += porWorker) {
+            VocabularioAproximado worker = new VocabularioAproximado(1024, capacidade);
+            for (String linha : linhas.subList(inicio, Math.min(inicio + porWorker, linhas.size()))) contador.contar(linha, worker);
+            byte[] serializado = worker.serializar();
+            monitor.somarSerializado(serializado, serializado.length);
+        }
+        verificar("Vocabulário aproximado: total após a soma", monitor.getTotal() == total,
+                monitor.getTotal() + " tokens, esperados " + total);
+
+        long erroMaximo = monitor.getSketch().getErroMaximo();
+        int subestimados = 0;
+        int excedidos = 0;
+        for (Map.Entry<String, Long> termo : referencia.entrySet()) {
+            long estimativa = monitor.estimar(termo.getKey());
+            if (estimativa < termo.getValue()) subestimados++;
+            if (estimativa - termo.getValue() > erroMaximo) excedidos++;
+        }
+        double toleravel = (1 - monitor.getSketch().getConfianca()) * referencia.size();
+        verificar("Count-Min Sketch: nenhuma estimativa abaixo do real", subestimados == 0, subestimados + " termos subestimados");
+        verificar("Count-Min Sketch: excesso acima de e/largura · N só na taxa da confiança", excedidos <= Math.ceil(toleravel),
+                excedidos + " termos acima do erro máximo " + erroMaximo + ", toleráveis " + Math.ceil(toleravel));
+
+        List<ResumoFrequentes.Estimativa> frequentes = monitor.maiores(capacidade);
+        Set<String> monitorados = new HashSet<>();
+        int foraDosLimites = 0;
+        for (ResumoFrequentes.Estimativa estimativa : frequentes) {
+            monitorados.add(estimativa.termo);
+            long real = referencia.getOrDefault(estimativa.termo, 0L);
+            if (real > estimativa.estimativa || real < estimativa.minimo) foraDosLimites++;
+        }
+        verificar("Space-Saving: valor real entre os limites de cada candidato", foraDosLimites == 0,
+                foraDosLimites + " candidatos fora dos limites");
+        List<String> ausentes = new ArrayList<>();
+        for (Map.Entry<String, Long> termo : referencia.entrySet()) {
+            if (termo.getValue() > total / capacidade && !monitorados.contains(termo.getKey())) ausentes.add(termo.getKey());
+        }
+        verificar("Space-Saving: termos acima de N / capacidade monitorados", ausentes.isEmpty(), "ausentes: " + ausentes);
+    }
+
+    private void verificarHyperLogLog(List<String> linhas) {
+        int distintos = 100_000;
+        HyperLogLog primeiro = new HyperLogLog();
+        HyperLogLog segundo = new HyperLogLog();
+        HyperLogLog unico = new HyperLogLog();
+        for (int i = 0; i < distintos; i++) {
+            byte[] termo = ("termo" + i).getBytes(StandardCharsets.UTF_8);
+            // Metade dos termos do segundo também está no primeiro
+            if (i < distintos * 3 / 4) primeiro.adicionar(termo, 0, termo.length);
+            if (i >= distintos / 2) segundo.adicionar(termo, 0, termo.length);
+            unico.adicionar(termo, 0, termo.length);
+        }
+        primeiro.unir(segundo);
+        verificar("HyperLogLog: união igual ao estimador único", primeiro.estimar() == unico.estimar(),
+                primeiro.estimar() + " contra " + unico.estimar());
+        verificarErro("HyperLogLog: " + distintos + " termos distintos", unico.estimar(), distintos, unico.getErroPadrao());
+
+        // Como nos Workers: cada metade das linhas num estimador, o segundo serializado e unido ao primeiro
+        Map<String, Long> referencia = contarReferencia(linhas);
+        EstimadorDistintas monitor = new EstimadorDistintas();
+        EstimadorDistintas worker = new EstimadorDistintas();
+        for (int i = 0; i < linhas.size(); i++) (i % 2 == 0 ? monitor : worker).registrarLinha(linhas.get(i), false);
+        byte[] serializado = worker.serializar();
+        monitor.unirSerializado(serializado, serializado.length);
+        verificarErro("EstimadorDistintas: palavras distintas após a união", monitor.getDistintas(), referencia.size(),
+                monitor.getErroPadrao());
+    }
+
+    /**
+     * Blocos de tamanhos variados com ocorrências proporcionais aos bytes. Com todos os blocos a estimativa
+     * é o total exato e a margem é zero; com 25% deles, em ordem aleatória, o intervalo de 95% deve conter
+     * o total na maior parte das repetições.
+     */
+    private void verificarEstimadorOnline() {
+        int quantidadeBlocos = 400;
+        long[] bytes = new long[quantidadeBlocos];
+        long[] ocorrencias = new long[quantidadeBlocos];
+        long tamanhoArquivo = 0;
+        long totalReal = 0;
+        for (int b = 0; b < quantidadeBlocos; b++) {
+            bytes[b] = 2048 + aleatorio.nextInt(4096);
+            ocorrencias[b] = Math.max(0, Math.round(bytes[b] / 400.0 + aleatorio.nextGaussian() * 3));
+            tamanhoArquivo += bytes[b];
+            totalReal += ocorrencias[b];
+        }
+        List<String> termos = Collections.singletonList("termo");
+
+        EstimadorOnline completo = new EstimadorOnline(termos);
+        for (int b = 0; b < quantidadeBlocos; b++) completo.registrar(bytes[b], new long[] {ocorrencias[b]}, tamanhoArquivo);
+        EstimadorOnline.Intervalo intervaloFinal = completo.estimar().get("termo");
+        verificar("EstimadorOnline: arquivo inteiro dá o total exato", intervaloFinal.estimativa == totalReal && intervaloFinal.margem < 1e-6,
+                intervaloFinal.estimativa + " ± " + intervaloFinal.margem + ", esperado " + totalReal);
+
+        int repeticoes = 200;
+        int cobertos = 0;
+        List<Integer> ordem = new ArrayList<>();
+        for (int b = 0; b < quantidadeBlocos; b++) ordem.add(b);
+        for (int r = 0; r < repeticoes; r++) {
+            Collections.shuffle(ordem, aleatorio);
+            EstimadorOnline parcial = new EstimadorOnline(termos);
+            for (int b : ordem.subList(0, quantidadeBlocos / 4)) parcial.registrar(bytes[b], new long[] {ocorrencias[b]}, tamanhoArquivo);
+            if (parcial.estimar().get("termo").contem(totalReal)) cobertos++;
+        }
+        // Margem folgada em relação aos 95% nominais pelo número finito de repetições
+        verificar("EstimadorOnline: cobertura do intervalo de 95% com 25% dos blocos", cobertos >= repeticoes * 0.88,
+                cobertos + " de " + repeticoes + " intervalos contêm o total");
+    }
+
+    private void verificarCoocorrencias() {
+        int termos = 7;
+        long[][] referencia = new long[termos][termos];
+        MatrizCoocorrencia monitor = new MatrizCoocorrencia(termos);
+        MatrizCoocorrencia worker = new MatrizCoocorrencia(termos);
+        int[] presentes = new int[termos];
+        List<Integer> indices = new ArrayList<>();
+        for (int t = 0; t < termos; t++) indices.add(t);
+        for (int linha = 0; linha < 5000; linha++) {
+            Collections.shuffle(indices, aleatorio);
+            int quantidade = aleatorio.nextInt(termos + 1);
+            for (int i = 0; i < quantidade; i++) presentes[i] = indices.get(i);
+            for (int i = 0; i < quantidade; i++) {
+                for (int j = 0; j < quantidade; j++) {
+                    if (presentes[i] < presentes[j]) referencia[presentes[i]][presentes[j]]++;
+                }
+            }
+            (linha % 2 == 0 ? monitor : worker).registrarLinha(presentes, quantidade);
+        }
+        byte[] serializada = worker.serializar();
+        worker.limpar();
+        monitor.somarSerializado(serializada, serializada.length);
+
+        int divergentes = 0;
+        for (int a = 0; a < termos; a++) {
+            for (int b = a + 1; b < termos; b++) {
+                if (monitor.obter(a, b) != referencia[a][b] || monitor.obter(b, a) != referencia[a][b]) divergentes++;
+            }
+        }
+        verificar("MatrizCoocorrencia: pares após a soma serializada", divergentes == 0, divergentes + " pares divergentes");
+        verificar("MatrizCoocorrencia: limpeza zera os pares alterados", worker.isVazia() && worker.obter(0, 1) == 0,
+                worker.getParesPresentes() + " pares após limpar");
+    }
+
+    /**
+     * Linhas com palavras e frases separadas por espaços variados, pontuação e maiúsculas aleatórias: o
+     * Aho-Corasick e a varredura de tokens devem contar exatamente o mesmo que a regex, também em
+     * contarPresentes.
+     */
+    private void verificarMotoresFrases() {
+        List<String> palavras = Arrays.asList("Java", "Python", "ActiveMQ", "MOM", "message broker",
+                "message oriented middleware", "fila de mensagens", "fila");
+        String[] trechos = { "java", "python", "activemq", "mom", "message", "broker", "oriented", "middleware",
+                "fila", "de", "mensagens", "javascript", "moms", "filas", "brokers", "o" };
+        MotorContagem referencia = TipoMotor.REGEX.criar(palavras);
+        List<TipoMotor> motores = Arrays.asList(TipoMotor.AHO_CORASICK, TipoMotor.VARREDURA_TOKENS);
+        for (TipoMotor tipo : motores) {
+            MotorContagem motor = tipo.criar(palavras);
+            Random sorteio = new Random(aleatorio.nextLong());
+            String divergencia = null;
+            int linhasComFrase = 0;
+            for (int n = 0; n < 5000 && divergencia == null; n++) {
+                StringBuilder linha = new StringBuilder();
+                int tokens = 1 + sorteio.nextInt(20);
+                for (int t = 0; t < tokens; t++) {
+                    if (t > 0) linha.append(SEPARADORES[sorteio.nextInt(SEPARADORES.length)]);
+                    linha.append(variarCaixa(trechos[sorteio.nextInt(trechos.length)], sorteio));
+                }
+                String texto = linha.toString();
+                int[] esperado = new int[palavras.size()];
+                int[] obtido = new int[palavras.size()];
+                int[] presentes = new int[palavras.size()];
+                referencia.contar(texto, esperado);
+                int quantidade = motor.contarPresentes(texto, obtido, presentes);
+                if (esperado[4] + esperado[5] + esperado[6] > 0) linhasComFrase++;
+                Set<Integer> indices = new HashSet<>();
+                for (int i = 0; i < quantidade; i++) indices.add(presentes[i]);
+                Set<Integer> esperados = new HashSet<>();
+                for (int i = 0; i < esperado.length; i++) if (esperado[i] > 0) esperados.add(i);
+                if (!Arrays.equals(esperado, obtido) || quantidade != indices.size() || !indices.equals(esperados)) {
+                    divergencia = "\"" + texto + "\": " + Arrays.toString(obtido) + ", esperado " + Arrays.toString(esperado);
+                }
+            }
+            verificar("Motor " + tipo + ": palavras e frases iguais à regex (" + linhasComFrase + " linhas com frases)",
+                    divergencia == null, divergencia);
+        }
+    }
+
+    // ---- Referências e utilitários ----
+
+    // Linhas ASCII com frequências desiguais de termos (uma raiz rara, outra comum), separadas por pontuação
+    private List<String> gerarLinhas(int quantidade) {
+        List<String> vocabulario = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder termo = new StringBuilder();
+            int silabas = 1 + aleatorio.nextInt(4);
+            for (int s = 0; s < silabas; s++) termo.append(SILABAS[aleatorio.nextInt(SILABAS.length)]);
+            vocabulario.add(termo.toString());
+        }
+        List<String> linhas = new ArrayList<>(quantidade);
+        for (int n = 0; n < quantidade; n++) {
+            StringBuilder linha = new StringBuilder();
+            int tokens = 1 + aleatorio.nextInt(15);
+            for (int t = 0; t < tokens; t++) {
+                if (t > 0) linha.append(SEPARADORES[aleatorio.nextInt(SEPARADORES.length)]);
+                // Distribuição próxima da de Zipf: índices pequenos são muito mais frequentes
+                int indice = (int) Math.floor(Math.pow(vocabulario.size(), aleatorio.nextDouble())) - 1;
+                linha.append(variarCaixa(vocabulario.get(indice), aleatorio));
+            }
+            linhas.add(linha.toString());
+        }
+        return linhas;
+    }
+
+    private static String variarCaixa(String termo, Random sorteio) {
+        switch (sorteio.nextInt(4)) {
+            case 0: return termo.toUpperCase();
+            case 1: return Character.toUpperCase(termo.charAt(0)) + termo.substring(1);
+            default: return termo;
+        }
+    }
+
+    // Tokens pelas regras do ContadorVocabulario, restritas ao texto ASCII gerado aqui
+    private static Map<String, Long> contarReferencia(List<String> linhas) {
+        Map<String, Long> contagem = new HashMap<>();
+        for (String linha : linhas) {
+            for (String token : linha.split("[^A-Za-z]+")) {
+                if (!token.isEmpty()) contagem.merge(token.toLowerCase(), 1L, Long::sum);
+            }
+        }
+        return contagem;
+    }
+
+    private static long somar(Map<String, Long> contagem) {
+        long total = 0;
+        for (long valor : contagem.values()) total += valor;
+        return total;
+    }
+
+    private static boolean iguais(TabelaContagem tabela, Map<String, Long> referencia) {
+        if (tabela.getTamanho() != referencia.size()) return false;
+        for (Map.Entry<String, Long> termo : referencia.entrySet()) {
+            if (tabela.obter(termo.getKey()) != termo.getValue()) return false;
+        }
+        return true;
+    }
+
+    private static List<Long> maioresValores(Map<String, Long> contagem, int k) {
+        List<Long> valores = new ArrayList<>(contagem.values());
+        valores.sort(Collections.reverseOrder());
+        return new ArrayList<>(valores.subList(0, Math.min(k, valores.size())));
+    }
+
+    private void verificarErro(String descricao, long estimativa, long real, double erroPadrao) {
+        double erro = Math.abs(estimativa - real) / (double) real;
+        verificar(descricao, erro <= 3 * erroPadrao, String.format("estimativa %d, real %d, erro %.2f%% (limite %.2f%%)",
+                estimativa, real, 100 * erro, 300 * erroPadrao));
+    }
+
+    private void verificar(String descricao, boolean condicao, String detalhe) {
+        verificacoes++;
+        if (condicao) {
+            System.out.println("[OK] " + descricao);
+        } else {
+            falhas++;
+            System.out.println("[FALHA] " + descricao + ": " + detalhe);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package br.edu.ifce.ppd.mom.componentes;
+
+import br.edu.ifce.ppd.mom.contagem.MatrizCoocorrencia;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoJMS;
+
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.Session;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Coocorrência: os índices das palavras-chave presentes em cada linha, vindos da mesma passagem do motor,
+ * somam 1 a cada par numa matriz de deltas. Apenas os pares alterados desde o último envio são
+ * serializados e zerados.
+ *
+ * NOTA TÉCNICA: A matriz é criada no primeiro par encontrado; a mensagem é enviada mesmo sem pares,
+ * para que as linhas cobertas cheguem ao Monitor.
+ */
+class AcumuladoCoocorrencias implements AcumuladoWorker {
+    private final int termos;
+    private MatrizCoocorrencia coocorrencias;
+
+    AcumuladoCoocorrencias(int termos) {
+        this.termos = termos;
+    }
+
+    int getTermos() { return termos; }
+
+    @Override
+    public void acumular(String texto, int[] presentes, int quantidade) {
+        if (quantidade < 2) return;
+        if (coocorrencias == null) coocorrencias = new MatrizCoocorrencia(termos);
+        coocorrencias.registrarLinha(presentes, quantidade);
+    }
+
+    @Override
+    public List<BytesMessage> publicar(Session sessao, long linhas) throws JMSException {
+        if (linhas == 0) return Collections.emptyList();
+        BytesMessage resultado = sessao.createBytesMessage();
+        if (coocorrencias != null && !coocorrencias.isVazia()) resultado.writeBytes(coocorrencias.serializar());
+        resultado.setStringProperty("tipoResultado", ConfiguracaoJMS.TIPO_RESULTADO_COOCORRENCIAS);
+        resultado.setLongProperty("linhas", linhas);
+        limpar();
+        return Collections.singletonList(resultado);
+    }
+
+    @Override
+    public void limpar() {
+        if (coocorrencias != null) coocorrencias.limpar();
+    }
+}
@@ -0,0 +1,40 @@
+package br.edu.ifce.ppd.mom.componentes;
+
+import br.edu.ifce.ppd.mom.contagem.EstimadorDistintas;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoJMS;
+
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.Session;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Palavras distintas: os tokens de cada linha alimentam os HyperLogLog do Worker, com as linhas que têm
+ * alguma palavra-chave à parte. A mensagem leva as linhas cobertas, o que permite ao Monitor saber
+ * quando os registradores de todo o arquivo chegaram.
+ */
+class AcumuladoDistintas implements AcumuladoWorker {
+    private final EstimadorDistintas distintas = new EstimadorDistintas();
+
+    @Override
+    public void acumular(String texto, int[] presentes, int quantidade) {
+        distintas.registrarLinha(texto, quantidade > 0);
+    }
+
+    @Override
+    public List<BytesMessage> publicar(Session sessao, long linhas) throws JMSException {
+        if (linhas == 0) return Collections.emptyList();
+        BytesMessage resultado = sessao.createBytesMessage();
+        resultado.writeBytes(distintas.serializar());
+        resultado.setStringProperty("tipoResultado", ConfiguracaoJMS.TIPO_RESULTADO_DISTINTAS);
+        resultado.setLongProperty("linhas", linhas);
+        distintas.limpar();
+        return Collections.singletonList(resultado);
+    }
+
+    @Override
+    public void limpar() {
+        distintas.limpar();
+    }
+}
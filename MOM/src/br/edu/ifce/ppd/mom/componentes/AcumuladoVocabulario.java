@@ -0,0 +1,75 @@
+package br.edu.ifce.ppd.mom.componentes;
+
+import br.edu.ifce.ppd.mom.contagem.ContadorNGramas;
+import br.edu.ifce.ppd.mom.contagem.ContadorVocabulario;
+import br.edu.ifce.ppd.mom.contagem.TabelaContagem;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoJMS;
+
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.Session;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vocabulário completo de uma mensagem: os tokens (ou, nos jobs de n-gramas, os n-gramas) são somados
+ * numa tabela reutilizada, publicada serializada numa única mensagem ou, com o Monitor particionado, numa
+ * mensagem por partição, com o número da partição em "hashTermo" (o seletor "hashTermo % M = k" a entrega
+ * à partição k).
+ */
+class AcumuladoVocabulario implements AcumuladoWorker {
+    private final ContadorVocabulario contador = new ContadorVocabulario();
+    private final ContadorNGramas contadorNGramas;
+    private final int particoes;
+    private final TabelaContagem tabela = new TabelaContagem();
+
+    /**
+     * @param nGramas Maior n-grama contado, ou 0 para contar os tokens.
+     * @param particoes Partições do Monitor (1 sem particionamento).
+     */
+    AcumuladoVocabulario(int nGramas, int particoes) {
+        this.contadorNGramas = nGramas > 0 ? new ContadorNGramas(nGramas) : null;
+        this.particoes = Math.max(particoes, 1);
+    }
+
+    boolean isCompativel(int nGramas, int particoes) {
+        int tamanho = contadorNGramas == null ? 0 : contadorNGramas.getTamanhoMaximo();
+        return tamanho == nGramas && this.particoes == Math.max(particoes, 1);
+    }
+
+    @Override
+    public void acumular(String texto, int[] presentes, int quantidade) {
+        if (contadorNGramas != null) {
+            contadorNGramas.contar(texto, tabela);
+        } else {
+            contador.contar(texto, tabela);
+        }
+    }
+
+    @Override
+    public List<BytesMessage> publicar(Session sessao, long linhas) throws JMSException {
+        List<BytesMessage> mensagens = new ArrayList<>();
+        if (tabela.getTamanho() == 0) return mensagens;
+        byte[][] partes = particoes > 1 ? tabela.serializarParticoes(particoes) : new byte[][] {tabela.serializar()};
+        for (int particao = 0; particao < partes.length; particao++) {
+            if (partes[particao] == null) continue;
+            BytesMessage resultado = sessao.createBytesMessage();
+            resultado.writeBytes(partes[particao]);
+            resultado.setStringProperty("tipoResultado", ConfiguracaoJMS.TIPO_RESULTADO_VOCABULARIO);
+            if (particoes > 1) {
+                resultado.setIntProperty("hashTermo", particao);
+            } else {
+                resultado.setIntProperty("termos", tabela.getTamanho());
+                resultado.setLongProperty("tokens", tabela.getTotal());
+            }
+            mensagens.add(resultado);
+        }
+        tabela.limpar();
+        return mensagens;
+    }
+
+    @Override
+    public void limpar() {
+        tabela.limpar();
+    }
+}
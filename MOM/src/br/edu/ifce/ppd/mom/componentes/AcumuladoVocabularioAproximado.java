@@ -0,0 +1,63 @@
+package br.edu.ifce.ppd.mom.componentes;
+
+import br.edu.ifce.ppd.mom.contagem.ContadorNGramas;
+import br.edu.ifce.ppd.mom.contagem.ContadorVocabulario;
+import br.edu.ifce.ppd.mom.contagem.ResumoFrequentes;
+import br.edu.ifce.ppd.mom.contagem.VocabularioAproximado;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoJMS;
+
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.Session;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Vocabulário aproximado: os tokens (ou n-gramas) somam-se ao sketch e ao resumo de frequentes do
+ * Worker, em memória fixa, e o acumulado de vários envios sai numa única mensagem.
+ */
+class AcumuladoVocabularioAproximado implements AcumuladoWorker {
+    private final ContadorVocabulario contador = new ContadorVocabulario();
+    private final ContadorNGramas contadorNGramas;
+    private final VocabularioAproximado vocabulario;
+
+    /**
+     * @param topVocabulario K do top K do job, que define a capacidade do resumo de frequentes.
+     * @param nGramas Maior n-grama contado, ou 0 para contar os tokens.
+     */
+    AcumuladoVocabularioAproximado(int larguraSketch, int topVocabulario, int nGramas) {
+        this.contadorNGramas = nGramas > 0 ? new ContadorNGramas(nGramas) : null;
+        this.vocabulario = new VocabularioAproximado(larguraSketch, ResumoFrequentes.capacidadePara(topVocabulario));
+    }
+
+    boolean isCompativel(int larguraSketch, int topVocabulario, int nGramas) {
+        int tamanho = contadorNGramas == null ? 0 : contadorNGramas.getTamanhoMaximo();
+        return tamanho == nGramas && vocabulario.getSketch().getLargura() == larguraSketch
+                && vocabulario.getFrequentes().getCapacidade() == ResumoFrequentes.capacidadePara(topVocabulario);
+    }
+
+    @Override
+    public void acumular(String texto, int[] presentes, int quantidade) {
+        if (contadorNGramas != null) {
+            contadorNGramas.contar(texto, vocabulario);
+        } else {
+            contador.contar(texto, vocabulario);
+        }
+    }
+
+    @Override
+    public List<BytesMessage> publicar(Session sessao, long linhas) throws JMSException {
+        if (vocabulario.isVazio()) return Collections.emptyList();
+        BytesMessage resultado = sessao.createBytesMessage();
+        resultado.writeBytes(vocabulario.serializar());
+        resultado.setStringProperty("tipoResultado", ConfiguracaoJMS.TIPO_RESULTADO_VOCABULARIO_APROXIMADO);
+        resultado.setLongProperty("tokens", vocabulario.getTotal());
+        vocabulario.limpar();
+        return Collections.singletonList(resultado);
+    }
+
+    @Override
+    public void limpar() {
+        vocabulario.limpar();
+    }
+}
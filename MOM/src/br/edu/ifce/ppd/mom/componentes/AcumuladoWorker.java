@@ -0,0 +1,38 @@
+package br.edu.ifce.ppd.mom.componentes;
+
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.Session;
+import java.util.List;
+
+/**
+ * Acumulado de um modo de contagem do {@link ProcessadorPalavras} (vocabulário completo ou aproximado,
+ * palavras distintas, coocorrências): recebe o texto das mensagens de linhas e é publicado em mensagens
+ * binárias com a propriedade tipoResultado do modo. O Worker acrescenta as propriedades comuns
+ * (origemWorkerId, jobId, carimbos de tempo) e escolhe quando publicar: a cada mensagem no vocabulário
+ * completo, a cada intervalo nos demais modos.
+ *
+ * NOTA: As implementações não são thread-safe; o Worker as usa sob a sua trava dos acumulados.
+ */
+interface AcumuladoWorker {
+
+    /**
+     * Soma um texto ao acumulado. Nos modos de palavras-chave o texto é uma linha, e presentes traz os
+     * índices das 'quantidade' palavras-chave que o motor encontrou nela; nos modos de vocabulário é a
+     * mensagem inteira (linha ou lote) e presentes é ignorado.
+     */
+    void acumular(String texto, int[] presentes, int quantidade);
+
+    /**
+     * Escreve o acumulado em mensagens e recomeça do zero.
+     *
+     * @param linhas Linhas somadas desde o último envio.
+     * @return As mensagens a enviar, possivelmente nenhuma.
+     */
+    List<BytesMessage> publicar(Session sessao, long linhas) throws JMSException;
+
+    /**
+     * Descarta o acumulado sem publicá-lo.
+     */
+    void limpar();
+}
@@ -0,0 +1,234 @@
+package br.edu.ifce.ppd.mom.componentes;
+
+import br.edu.ifce.ppd.mom.contagem.TabelaContagem;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoJMS;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoPipeline;
+import br.edu.ifce.ppd.mom.gui.SaidaMonitoramento;
+import br.edu.ifce.ppd.mom.metricas.Contador;
+import br.edu.ifce.ppd.mom.metricas.RegistroMetricas;
+
+import javax.jms.*;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Camada intermediária entre os Workers e o Monitor. Consome os resultados parciais publicados por
+ * um grupo de Workers na Fila de parciais, soma-os por job e palavra e, a cada intervalo de agregação,
+ * encaminha ao Tópico de resultados uma única mensagem por job e palavra com o total do período.
+ * Assim, a quantidade de mensagens que o Monitor aplica por segundo depende do número de agregadores,
+ * jobs e palavras, e não do número de Workers ou de linhas.
+ *
+ * As mensagens encaminhadas têm o mesmo formato das dos Workers (termo, ocorrencias, origemWorkerId e
+ * a propriedade jobId), então o Monitor não precisa saber se há agregadores no caminho. O carimbo
+ * tsLeitura encaminhado é o da parcial mais antiga do período, de modo que a latência ponta a ponta
+ * medida no Monitor inclui o tempo de espera no agregador.
+ *
+ * Nos jobs de vocabulário completo, as tabelas binárias dos lotes são somadas numa tabela por job, e o
+ * período é encaminhado como uma única tabela serializada. Com o Monitor particionado, os Workers enviam
+ * uma tabela por partição ("hashTermo" = número da partição) e a soma é feita por job e partição.
+ *
+ * Os avisos de progresso dos Workers (mensagens de linhas já processadas) são somados por job e
+ * encaminhados depois dos totais do período, pois só valem quando as contagens a que se referem chegaram
+ * ao Monitor. Cada Worker marca as suas parciais e avisos com o mesmo grupo de mensagens (JMSXGroupID),
+ * então o Broker entrega todos eles ao mesmo agregador, na ordem de envio: o aviso nunca chega a um
+ * agregador enquanto as parciais que ele cobre esperam em outro.
+ *
+ * NOTA TÉCNICA: O consumo das parciais e o envio dos totais usam a mesma sessão transacionada, com um
+ * commit por intervalo. Se o agregador parar antes do commit, as parciais do período voltam para a
+ * Fila e são somadas por outro agregador: nada é perdido nem contado duas vezes.
+ */
+public class AgregadorIntermediario implements Runnable {
+    // Parciais entregues antecipadamente a cada agregador (o consumo é rápido: apenas somas em memória)
+    private static final int PREFETCH_PARCIAIS = 500;
+
+    private final int idAgregador;
+    private final SaidaMonitoramento gui;
+    private final ConfiguracaoPipeline config;
+
+    // Totais do período corrente por job e palavra, na ordem em que apareceram
+    private final Map<String, Parcial> pendentes = new LinkedHashMap<>();
+    // Mensagens de linhas processadas por job, avisadas pelos Workers no período corrente
+    private final Map<String, Long> progressoPendente = new LinkedHashMap<>();
+    // Das mensagens acima, as descartadas pelos Workers sem contagem
+    private final Map<String, Long> descartesPendentes = new HashMap<>();
+    private int parciaisNoPeriodo;
+
+    private final Contador parciaisAgregadas = RegistroMetricas.global().contador(RegistroMetricas.PARCIAIS_AGREGADAS);
+    private final Contador deltasEncaminhados = RegistroMetricas.global().contador(RegistroMetricas.DELTAS_ENCAMINHADOS);
+
+    /**
+     * @param idAgregador Identificador enviado como origemWorkerId nas mensagens encaminhadas.
+     */
+    public AgregadorIntermediario(int idAgregador, SaidaMonitoramento gui, ConfiguracaoPipeline config) {
+        this.idAgregador = idAgregador;
+        this.gui = gui;
+        this.config = config;
+    }
+
+    @Override
+    public void run() {
+        String fila = config.getFilaParciais();
+        gui.registrarLog("[Agregador " + idAgregador + "] Somando parciais de " + fila + " a cada "
+                + config.getIntervaloAgregacaoMs() + " ms.");
+        try (Connection conexao = ConfiguracaoJMS.criarFabricaConexao(config.getUrlBroker()).createConnection()) {
+            conexao.start();
+            Session sessao = conexao.createSession(true, Session.SESSION_TRANSACTED);
+            MessageConsumer consumidor = sessao.createConsumer(
+                    sessao.createQueue(fila + "?consumer.prefetchSize=" + PREFETCH_PARCIAIS));
+            MessageProducer publicador = sessao.createProducer(sessao.createTopic(ConfiguracaoJMS.NOME_TOPICO_RESULTADOS));
+            publicador.setDeliveryMode(config.isEntregaPersistente() ? DeliveryMode.PERSISTENT : DeliveryMode.NON_PERSISTENT);
+
+            long proximoEnvio = System.currentTimeMillis() + config.getIntervaloAgregacaoMs();
+            while (!Thread.currentThread().isInterrupted()) {
+                long espera = proximoEnvio - System.currentTimeMillis();
+                if (espera > 0) {
+                    Message msg = consumidor.receive(espera);
+                    if (msg instanceof MapMessage) acumular((MapMessage) msg);
+                    else if (msg instanceof BytesMessage) acumularVocabulario((BytesMessage) msg);
+                    continue;
+                }
+                if (parciaisNoPeriodo > 0) encaminhar(sessao, publicador);
+                proximoEnvio = System.currentTimeMillis() + config.getIntervaloAgregacaoMs();
+            }
+            gui.registrarLog("[Agregador " + idAgregador + "] Encerrado.");
+        } catch (JMSException e) {
+            // Interrompido durante o receive(): as parciais ainda não encaminhadas voltam para a Fila
+            if (Thread.currentThread().isInterrupted()) {
+                gui.registrarLog("[Agregador " + idAgregador + "] Encerrado.");
+            } else {
+                gui.registrarLog("[Agregador " + idAgregador + "] Falha na conexão JMS: " + e.getMessage());
+            }
+        }
+    }
+
+    private void acumular(MapMessage msg) throws JMSException {
+        String jobId = msg.getStringProperty("jobId");
+        if (ConfiguracaoJMS.TIPO_RESULTADO_PROGRESSO.equals(msg.getStringProperty("tipoResultado"))) {
+            progressoPendente.merge(jobId, msg.getLong("mensagens"), Long::sum);
+            if (msg.itemExists("descartadas")) descartesPendentes.merge(jobId, msg.getLong("descartadas"), Long::sum);
+            parciaisNoPeriodo++;
+            return;
+        }
+        String termo = msg.getString("termo");
+        String chave = jobId == null ? termo : jobId + '\u0000' + termo;
+        Parcial parcial = pendentes.get(chave);
+        if (parcial == null) {
+            parcial = new Parcial(jobId, termo);
+            pendentes.put(chave, parcial);
+        }
+        parcial.ocorrencias += msg.getLong("ocorrencias");
+        registrarParcial(parcial, msg);
+    }
+
+    private void acumularVocabulario(BytesMessage msg) throws JMSException {
+        if (!ConfiguracaoJMS.TIPO_RESULTADO_VOCABULARIO.equals(msg.getStringProperty("tipoResultado"))) return;
+        String jobId = msg.getStringProperty("jobId");
+        int particao = msg.propertyExists("hashTermo") ? msg.getIntProperty("hashTermo") : -1;
+        // O prefixo '\u0001' separa as tabelas de vocabulário das chaves job + palavra
+        String chave = "\u0001" + jobId + '\u0000' + particao;
+        Parcial parcial = pendentes.get(chave);
+        if (parcial == null) {
+            parcial = new Parcial(jobId, null);
+            parcial.vocabulario = new TabelaContagem();
+            parcial.particao = particao;
+            pendentes.put(chave, parcial);
+        }
+        byte[] dados = new byte[(int) msg.getBodyLength()];
+        msg.readBytes(dados);
+        parcial.vocabulario.somarSerializado(dados, dados.length);
+        registrarParcial(parcial, msg);
+    }
+
+    // Carimbos e contadores comuns a palavras-chave e vocabulário
+    private void registrarParcial(Parcial parcial, Message msg) throws JMSException {
+        if (msg.propertyExists("tsLeitura")) {
+            long tsLeitura = msg.getLongProperty("tsLeitura");
+            if (parcial.tsLeitura == 0 || tsLeitura < parcial.tsLeitura) parcial.tsLeitura = tsLeitura;
+        }
+        // Guarda o rastreio completo da primeira parcial que o tiver, para a latência por etapa
+        if (parcial.rastreio == null && msg.propertyExists("tsPublicacao")) parcial.rastreio = msg;
+        parciaisNoPeriodo++;
+        parciaisAgregadas.incrementar();
+    }
+
+    /**
+     * Publica um total por job e palavra e confirma, na mesma transação, as parciais somadas.
+     */
+    private void encaminhar(Session sessao, MessageProducer publicador) throws JMSException {
+        try {
+            for (Parcial parcial : pendentes.values()) {
+                Message total;
+                if (parcial.vocabulario != null) {
+                    BytesMessage tabela = sessao.createBytesMessage();
+                    tabela.writeBytes(parcial.vocabulario.serializar());
+                    tabela.setStringProperty("tipoResultado", ConfiguracaoJMS.TIPO_RESULTADO_VOCABULARIO);
+                    tabela.setIntProperty("origemWorkerId", idAgregador);
+                    tabela.setIntProperty("termos", parcial.vocabulario.getTamanho());
+                    tabela.setLongProperty("tokens", parcial.vocabulario.getTotal());
+                    if (parcial.particao >= 0) tabela.setIntProperty("hashTermo", parcial.particao);
+                    total = tabela;
+                } else {
+                    if (parcial.ocorrencias == 0) continue;
+                    MapMessage mapa = sessao.createMapMessage();
+                    mapa.setString("termo", parcial.termo);
+                    mapa.setLong("ocorrencias", parcial.ocorrencias);
+                    mapa.setInt("origemWorkerId", idAgregador);
+                    mapa.setIntProperty("hashTermo", ConfiguracaoJMS.hashTermo(parcial.termo));
+                    total = mapa;
+                }
+                if (parcial.jobId != null) total.setStringProperty("jobId", parcial.jobId);
+                if (parcial.tsLeitura != 0) total.setLongProperty("tsLeitura", parcial.tsLeitura);
+                if (parcial.rastreio != null) {
+                    for (String etapa : new String[] {"tsEnvio", "tsRecebimento", "tsContagem", "tsPublicacao"}) {
+                        if (parcial.rastreio.propertyExists(etapa)) {
+                            total.setLongProperty(etapa, parcial.rastreio.getLongProperty(etapa));
+                        }
+                    }
+                }
+                publicador.send(total);
+                deltasEncaminhados.incrementar();
+            }
+            // Os avisos de progresso seguem os totais, na mesma transação
+            for (Map.Entry<String, Long> progresso : progressoPendente.entrySet()) {
+                MapMessage aviso = sessao.createMapMessage();
+                aviso.setLong("mensagens", progresso.getValue());
+                Long descartadas = descartesPendentes.get(progresso.getKey());
+                if (descartadas != null) aviso.setLong("descartadas", descartadas);
+                aviso.setInt("origemWorkerId", idAgregador);
+                aviso.setStringProperty("tipoResultado", ConfiguracaoJMS.TIPO_RESULTADO_PROGRESSO);
+                if (progresso.getKey() != null) aviso.setStringProperty("jobId", progresso.getKey());
+                publicador.send(aviso);
+            }
+            sessao.commit();
+        } catch (JMSException e) {
+            try { sessao.rollback(); } catch (JMSException ignored) {}
+            throw e;
+        } finally {
+            // Após um rollback as parciais são reentregues, por isso o acumulado é sempre descartado
+            pendentes.clear();
+            progressoPendente.clear();
+            descartesPendentes.clear();
+            parciaisNoPeriodo = 0;
+        }
+    }
+
+    /**
+     * Soma do período para um job e uma palavra (ou, com "vocabulario", para todos os termos do job ou da partição).
+     */
+    private static class Parcial {
+        final String jobId;
+        final String termo;
+        long ocorrencias;
+        TabelaContagem vocabulario;
+        // Partição do Monitor da tabela de vocabulário (-1 sem particionamento)
+        int particao = -1;
+        long tsLeitura;
+        Message rastreio;
+
+        Parcial(String jobId, String termo) {
+            this.jobId = jobId;
+            this.termo = termo;
+        }
+    }
+}
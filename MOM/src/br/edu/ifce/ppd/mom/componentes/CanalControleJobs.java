@@ -0,0 +1,142 @@
+package br.edu.ifce.ppd.mom.componentes;
+
+import br.edu.ifce.ppd.mom.gui.SaidaMonitoramento;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoJMS;
+
+import javax.jms.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lado coordenador do Tópico de controle: anuncia os jobs ativos aos processos Worker dedicados
+ * (e os reanuncia sempre que um processo recém-iniciado os solicita) e acompanha os heartbeats
+ * publicados por eles.
+ */
+public class CanalControleJobs implements AutoCloseable {
+
+    /**
+     * Último heartbeat recebido de um processo Worker.
+     */
+    public static class EstadoNo {
+        public final String no;
+        public final String jobId;
+        public final int workers;
+        public final long linhasProcessadas;
+        public final long resultadosPublicados;
+        public final long trocasJob;
+        public final long motoresCompilados;
+        public final long recebidoEm;
+
+        EstadoNo(MapMessage msg) throws JMSException {
+            no = msg.getString("no");
+            jobId = msg.getString("jobId");
+            workers = msg.getInt("workers");
+            linhasProcessadas = msg.getLong("linhasProcessadas");
+            resultadosPublicados = msg.getLong("resultadosPublicados");
+            // Campos ausentes nos heartbeats de versões anteriores do ProcessoWorker
+            trocasJob = msg.itemExists("trocasJob") ? msg.getLong("trocasJob") : 0;
+            motoresCompilados = msg.itemExists("motoresCompilados") ? msg.getLong("motoresCompilados") : 0;
+            recebidoEm = System.currentTimeMillis();
+        }
+    }
+
+    private final SaidaMonitoramento gui;
+    private final Connection conexao;
+    private final Session sessao;
+    private final MessageProducer publicador;
+    private final Map<String, EstadoNo> nos = new ConcurrentHashMap<>();
+    private final Map<String, DefinicaoJob> ativos = new LinkedHashMap<>();
+
+    public CanalControleJobs(String urlBroker, SaidaMonitoramento gui) throws JMSException {
+        this.gui = gui;
+        conexao = ConfiguracaoJMS.criarFabricaConexao(urlBroker).createConnection();
+        try {
+            // Os Listeners abaixo e o método anunciar() usam sessões diferentes, pois uma sessão
+            // JMS não pode ser usada por duas threads ao mesmo tempo
+            sessao = conexao.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            publicador = sessao.createProducer(sessao.createTopic(ConfiguracaoJMS.NOME_TOPICO_CONTROLE));
+            publicador.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+
+            Session sessaoEscuta = conexao.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            MessageConsumer solicitacoes = sessaoEscuta.createConsumer(
+                    sessaoEscuta.createTopic(ConfiguracaoJMS.NOME_TOPICO_CONTROLE),
+                    "tipo = '" + DefinicaoJob.TIPO_SOLICITAR_JOB + "'");
+            solicitacoes.setMessageListener(this::reanunciar);
+
+            Session sessaoHeartbeat = conexao.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            MessageConsumer heartbeats = sessaoHeartbeat.createConsumer(
+                    sessaoHeartbeat.createTopic(ConfiguracaoJMS.NOME_TOPICO_HEARTBEAT));
+            heartbeats.setMessageListener(this::registrarHeartbeat);
+
+            conexao.start();
+        } catch (JMSException e) {
+            conexao.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Publica o job para todos os processos Worker conectados.
+     */
+    public synchronized void anunciar(DefinicaoJob job) throws JMSException {
+        ativos.put(job.getJobId(), job);
+        publicador.send(job.paraMensagem(sessao));
+        gui.registrarLog("[Controle] Job anunciado: " + job);
+    }
+
+    /**
+     * Avisa que o job terminou: os processos Worker descartam as linhas que ainda restarem dele e
+     * permanecem conectados, prontos para o próximo anúncio.
+     */
+    public synchronized void encerrar(DefinicaoJob job) throws JMSException {
+        ativos.remove(job.getJobId());
+        Message fim = sessao.createMessage();
+        fim.setStringProperty("tipo", DefinicaoJob.TIPO_FIM_JOB);
+        fim.setStringProperty("jobId", job.getJobId());
+        publicador.send(fim);
+    }
+
+    /**
+     * Repete o anúncio do job pedido, ou de todos os jobs ativos se a solicitação não indicar um.
+     */
+    private synchronized void reanunciar(Message solicitacao) {
+        try {
+            String jobId = solicitacao.getStringProperty("jobId");
+            for (DefinicaoJob job : ativos.values()) {
+                if (jobId == null || jobId.equals(job.getJobId())) publicador.send(job.paraMensagem(sessao));
+            }
+        } catch (JMSException e) {
+            gui.registrarLog("[Controle] Falha ao reanunciar o job: " + e.getMessage());
+        }
+    }
+
+    private void registrarHeartbeat(Message msg) {
+        if (!(msg instanceof MapMessage)) return;
+        try {
+            EstadoNo estado = new EstadoNo((MapMessage) msg);
+            if (nos.put(estado.no, estado) == null) {
+                gui.registrarLog("[Controle] Processo Worker conectado: " + estado.no + " (" + estado.workers + " workers)");
+            }
+        } catch (JMSException ignored) {}
+    }
+
+    /**
+     * Processos Worker que enviaram heartbeat nos últimos janelaMs milissegundos.
+     */
+    public List<EstadoNo> getNosAtivos(long janelaMs) {
+        long limite = System.currentTimeMillis() - janelaMs;
+        List<EstadoNo> ativos = new ArrayList<>();
+        for (EstadoNo estado : nos.values()) {
+            if (estado.recebidoEm >= limite) ativos.add(estado);
+        }
+        return ativos;
+    }
+
+    @Override
+    public void close() throws JMSException {
+        conexao.close();
+    }
+}
@@ -0,0 +1,100 @@
+package br.edu.ifce.ppd.mom.componentes;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Jobs conhecidos por um processo Worker, alimentado pelos anúncios do Tópico de controle.
+ * Os Workers consultam o catálogo pelo "jobId" de cada mensagem da Fila e trocam de motor
+ * sem reconectar ao Broker, de modo que jobs seguidos começam a ser processados imediatamente.
+ *
+ * NOTA TÉCNICA: Uma linha pode chegar antes do anúncio do seu job (ex: processo iniciado no meio
+ * da execução). Nesse caso o Worker aguarda o anúncio por um tempo limitado, após pedir ao
+ * coordenador que o repita, e devolve a linha à Fila se ele não chegar. Jobs já encerrados são
+ * lembrados para que as linhas restantes deles sejam descartadas sem espera.
+ *
+ * Com vários jobs ativos ao mesmo tempo, cada Worker consome a Fila de cada job do catálogo; a versão
+ * do catálogo muda a cada registro ou encerramento, avisando os Workers para revisarem seus consumidores.
+ */
+public class CatalogoJobs {
+    private static final int JOBS_ENCERRADOS_LEMBRADOS = 64;
+
+    // Ordem de registro: é a ordem do rodízio entre as Filas dos jobs
+    private final Map<String, DefinicaoJob> ativos = new LinkedHashMap<>();
+    private final Map<String, Boolean> encerrados = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> maisAntigo) {
+            return size() > JOBS_ENCERRADOS_LEMBRADOS;
+        }
+    };
+    private volatile Consumer<String> solicitante = jobId -> {};
+    private volatile long versao;
+
+    /**
+     * Ação executada quando um Worker encontra um job desconhecido (normalmente pedir o reanúncio).
+     */
+    public void setSolicitante(Consumer<String> solicitante) {
+        this.solicitante = solicitante;
+    }
+
+    public synchronized void registrar(DefinicaoJob job) {
+        ativos.put(job.getJobId(), job);
+        encerrados.remove(job.getJobId());
+        versao++;
+        notifyAll();
+    }
+
+    public synchronized void encerrar(String jobId) {
+        ativos.remove(jobId);
+        encerrados.put(jobId, Boolean.TRUE);
+        versao++;
+        notifyAll();
+    }
+
+    public synchronized DefinicaoJob obter(String jobId) {
+        return ativos.get(jobId);
+    }
+
+    /**
+     * Cópia dos jobs ativos, na ordem em que foram registrados.
+     */
+    public synchronized List<DefinicaoJob> getAtivos() {
+        return new ArrayList<>(ativos.values());
+    }
+
+    /**
+     * Verdadeiro se o job foi encerrado (entre os últimos lembrados) e não voltou a ser registrado.
+     */
+    public synchronized boolean isEncerrado(String jobId) {
+        return encerrados.containsKey(jobId);
+    }
+
+    public long getVersao() {
+        return versao;
+    }
+
+    /**
+     * Retorna a definição do job, aguardando o anúncio por até timeoutMs se ele ainda não chegou.
+     * Retorna null se o job foi encerrado ou se o anúncio não chegou a tempo.
+     */
+    public DefinicaoJob aguardar(String jobId, long timeoutMs) throws InterruptedException {
+        synchronized (this) {
+            DefinicaoJob job = ativos.get(jobId);
+            if (job != null || encerrados.containsKey(jobId)) return job;
+        }
+        solicitante.accept(jobId);
+        long limite = System.currentTimeMillis() + timeoutMs;
+        synchronized (this) {
+            DefinicaoJob job;
+            long restante;
+            while ((job = ativos.get(jobId)) == null && !encerrados.containsKey(jobId)
+                    && (restante = limite - System.currentTimeMillis()) > 0) {
+                wait(restante);
+            }
+            return job;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package br.edu.ifce.ppd.mom.componentes;
+
+import br.edu.ifce.ppd.mom.contagem.TipoMotor;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoJMS;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoPipeline;
+import br.edu.ifce.ppd.mom.metricas.HistogramaLatencia;
+import br.edu.ifce.ppd.mom.metricas.RegistroMetricas;
+
+import javax.jms.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contagem síncrona (pedido/resposta) para entradas pequenas, sem o fluxo de publicação no Tópico e
+ * sem Monitor: o texto é dividido em partes enviadas à Fila de consultas, os Workers respondem cada
+ * parte à Fila temporária deste cliente e as respostas são somadas até a última chegar.
+ *
+ * Todas as partes de uma consulta levam o mesmo JMSCorrelationID (repetido pelos Workers nas
+ * respostas) e a propriedade "parte", que descarta respostas repetidas numa eventual reentrega.
+ *
+ * NOTA TÉCNICA: Uma única Fila temporária atende todas as consultas do cliente; as respostas são
+ * encaminhadas pelo JMSCorrelationID. Os pedidos expiram no Broker junto com o tempo limite da
+ * consulta, para que partes de consultas abandonadas não ocupem os Workers.
+ */
+public class ClienteContagem implements AutoCloseable {
+    public static final int LINHAS_POR_PARTE_PADRAO = 500;
+    public static final long TEMPO_LIMITE_PADRAO_MS = 30_000;
+
+    private final TipoMotor motor;
+    private final int linhasPorParte;
+    private final long tempoLimiteMs;
+    private final String prefixoCorrelacao = "consulta-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+    private final AtomicLong sequencia = new AtomicLong();
+    private final Map<String, Consulta> pendentes = new ConcurrentHashMap<>();
+    private final HistogramaLatencia latencia = RegistroMetricas.global().histograma(RegistroMetricas.LATENCIA_CONSULTA);
+
+    private final Connection conexao;
+    // A sessão de envio é usada pelas threads que chamam contar(); a de respostas, pela thread do Listener
+    private final Session sessaoEnvio;
+    private final MessageProducer produtor;
+    private final TemporaryQueue filaRespostas;
+
+    public ClienteContagem(ConfiguracaoPipeline config) throws JMSException {
+        this(config, LINHAS_POR_PARTE_PADRAO, TEMPO_LIMITE_PADRAO_MS);
+    }
+
+    /**
+     * @param linhasPorParte Linhas por mensagem de pedido (cada parte pode ir para um Worker diferente).
+     * @param tempoLimiteMs  Tempo máximo de uma consulta; depois dele o resultado falha com TimeoutException.
+     */
+    public ClienteContagem(ConfiguracaoPipeline config, int linhasPorParte, long tempoLimiteMs) throws JMSException {
+        if (linhasPorParte < 1) throw new IllegalArgumentException("Cada parte deve ter pelo menos 1 linha.");
+        this.motor = config.getTipoMotor();
+        this.linhasPorParte = linhasPorParte;
+        this.tempoLimiteMs = tempoLimiteMs;
+
+        conexao = ConfiguracaoJMS.criarFabricaConexao(config.getUrlBroker()).createConnection();
+        try {
+            sessaoEnvio = conexao.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            produtor = sessaoEnvio.createProducer(sessaoEnvio.createQueue(ConfiguracaoJMS.NOME_FILA_CONSULTAS));
+            produtor.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+            produtor.setTimeToLive(tempoLimiteMs);
+
+            Session sessaoRespostas = conexao.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            filaRespostas = sessaoRespostas.createTemporaryQueue();
+            sessaoRespostas.createConsumer(filaRespostas).setMessageListener(this::receberResposta);
+            conexao.start();
+        } catch (JMSException e) {
+            conexao.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Conta as palavras-chave no arquivo (lido inteiro na memória: destinado a entradas pequenas).
+     * O resultado traz uma entrada por palavra-chave, na ordem informada.
+     */
+    public CompletableFuture<Map<String, Long>> contar(String arquivo, List<String> palavras) {
+        List<String> linhas;
+        try {
+            linhas = Files.readAllLines(Paths.get(arquivo), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return contarLinhas(linhas, palavras);
+    }
+
+    /**
+     * Distribui as linhas em partes pela Fila de consultas e junta as respostas dos Workers.
+     */
+    public CompletableFuture<Map<String, Long>> contarLinhas(List<String> linhas, List<String> palavras) {
+        // Sem vazias nem repetidas, que os Workers recusam
+        Set<String> distintas = new LinkedHashSet<>();
+        for (String p : palavras) {
+            if (!p.trim().isEmpty()) distintas.add(p.trim());
+        }
+        List<String> validas = new ArrayList<>(distintas);
+        if (validas.isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Informe pelo menos uma palavra-chave."));
+        }
+        int partes = (linhas.size() + linhasPorParte - 1) / linhasPorParte;
+        Consulta consulta = new Consulta(validas, partes);
+        if (partes == 0) {
+            consulta.concluir();
+            return consulta.futuro;
+        }
+
+        String id = prefixoCorrelacao + sequencia.incrementAndGet();
+        pendentes.put(id, consulta);
+        consulta.futuro.whenComplete((r, erro) -> pendentes.remove(id));
+        try {
+            enviarPartes(id, linhas, validas);
+        } catch (JMSException e) {
+            consulta.futuro.completeExceptionally(e);
+            return consulta.futuro;
+        }
+        return consulta.futuro.orTimeout(tempoLimiteMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void enviarPartes(String id, List<String> linhas, List<String> palavras) throws JMSException {
+        String textoPalavras = String.join("\n", palavras);
+        synchronized (sessaoEnvio) {
+            for (int parte = 0, inicio = 0; inicio < linhas.size(); parte++, inicio += linhasPorParte) {
+                List<String> trecho = linhas.subList(inicio, Math.min(inicio + linhasPorParte, linhas.size()));
+                TextMessage pedido = sessaoEnvio.createTextMessage(String.join("\n", trecho));
+                pedido.setJMSCorrelationID(id);
+                pedido.setJMSReplyTo(filaRespostas);
+                pedido.setIntProperty("parte", parte);
+                pedido.setIntProperty("qtdLinhas", trecho.size());
+                pedido.setStringProperty("palavras", textoPalavras);
+                pedido.setStringProperty("motor", motor.name());
+                produtor.send(pedido);
+            }
+        }
+    }
+
+    private void receberResposta(Message msg) {
+        Consulta consulta = null;
+        try {
+            consulta = pendentes.get(msg.getJMSCorrelationID());
+            // Resposta de uma consulta já concluída, expirada ou de outro cliente: ignorada
+            if (consulta != null) consulta.receber((MapMessage) msg);
+        } catch (JMSException | RuntimeException e) {
+            if (consulta != null) consulta.futuro.completeExceptionally(e);
+        }
+    }
+
+    public int getConsultasPendentes() {
+        return pendentes.size();
+    }
+
+    @Override
+    public void close() throws JMSException {
+        for (Consulta consulta : pendentes.values()) consulta.futuro.cancel(false);
+        conexao.close();
+    }
+
+    /**
+     * Estado de uma consulta em andamento: totais acumulados e partes já respondidas.
+     */
+    private class Consulta {
+        private final List<String> palavras;
+        private final int partes;
+        private final long[] totais;
+        private final BitSet recebidas = new BitSet();
+        private final long inicio = System.nanoTime();
+        private final CompletableFuture<Map<String, Long>> futuro = new CompletableFuture<>();
+
+        Consulta(List<String> palavras, int partes) {
+            this.palavras = palavras;
+            this.partes = partes;
+            this.totais = new long[palavras.size()];
+        }
+
+        synchronized void receber(MapMessage resposta) throws JMSException {
+            if (resposta.propertyExists("erro")) {
+                futuro.completeExceptionally(new IllegalArgumentException(resposta.getStringProperty("erro")));
+                return;
+            }
+            int parte = resposta.getIntProperty("parte");
+            if (recebidas.get(parte)) return;
+            recebidas.set(parte);
+            for (int i = 0; i < totais.length; i++) totais[i] += resposta.getLong(palavras.get(i));
+            if (recebidas.cardinality() == partes) concluir();
+        }
+
+        void concluir() {
+            Map<String, Long> resultado = new LinkedHashMap<>();
+            for (int i = 0; i < totais.length; i++) resultado.merge(palavras.get(i), totais[i], Long::sum);
+            latencia.registrar((System.nanoTime() - inicio) / 1000);
+            futuro.complete(Collections.unmodifiableMap(resultado));
+        }
+    }
+
+    /**
+     * Consulta pela linha de comando, com Workers já ativos (SistemaMOM, ServidorJobs ou ProcessoWorker).
+     * Uso: ClienteContagem --arquivo texto.txt --palavras Java,MOM [--broker url] [--motor TIPO] [--repeticoes N]
+     */
+    public static void main(String[] args) throws Exception {
+        ConfiguracaoPipeline config = new ConfiguracaoPipeline();
+        String arquivo = null;
+        List<String> palavras = Arrays.asList("Java", "Python", "ActiveMQ", "MOM");
+        int repeticoes = 1;
+        for (int i = 0; i < args.length; i++) {
+            String valor = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--arquivo": arquivo = valor; i++; break;
+                case "--palavras": palavras = Arrays.asList(valor.split(",")); i++; break;
+                case "--broker": config.setUrlBroker(valor); i++; break;
+                case "--motor": config.setTipoMotor(TipoMotor.valueOf(valor)); i++; break;
+                case "--repeticoes": repeticoes = Integer.parseInt(valor); i++; break;
+                default: throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+        if (arquivo == null) throw new IllegalArgumentException("Informe o arquivo com --arquivo.");
+
+        try (ClienteContagem cliente = new ClienteContagem(config)) {
+            for (int r = 0; r < repeticoes; r++) {
+                long inicio = System.nanoTime();
+                Map<String, Long> totais = cliente.contar(arquivo, palavras).get();
+                System.out.printf("%s em %.1f ms%n", totais, (System.nanoTime() - inicio) / 1e6);
+            }
+            HistogramaLatencia h = RegistroMetricas.global().histograma(RegistroMetricas.LATENCIA_CONSULTA);
+            System.out.println("Latência das consultas: " + h.resumo("us"));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package br.edu.ifce.ppd.mom.componentes;
+
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoPipeline;
+import br.edu.ifce.ppd.mom.infra.EstatisticasBroker;
+import br.edu.ifce.ppd.mom.metricas.AmostradorBroker;
+import br.edu.ifce.ppd.mom.metricas.Contador;
+import br.edu.ifce.ppd.mom.metricas.HistogramaLatencia;
+import br.edu.ifce.ppd.mom.metricas.RegistroMetricas;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Controle de vazão (backpressure) compartilhado pelos Produtores de um job.
+ * Mantém a profundidade da Fila do job (config.getFilaLinhas()) dentro da faixa alvo da configuração,
+ * independentemente das Filas dos outros jobs em execução: acima do limite superior
+ * (ou com a memória do Broker acima do percentual máximo) os Produtores aguardam até a Fila
+ * baixar ao limite inferior. O limite inferior garante que os Workers nunca fiquem sem trabalho,
+ * e o superior evita que o Broker atinja o limite de memória (flow control) ou envie mensagens ao disco.
+ *
+ * NOTA TÉCNICA: A profundidade vem do plugin de estatísticas do Broker. Entre duas consultas ela é
+ * estimada somando à última profundidade lida as mensagens enviadas desde então pelos Produtores
+ * deste controle (estimativa pessimista, pois ignora o consumo), e o Broker só é consultado de novo
+ * quando essa estimativa ultrapassa o limite superior. Sem o plugin, usa-se o progresso dos Workers
+ * do próprio processo (mensagens enviadas menos mensagens recebidas, somando todas as Filas).
+ */
+public class ControleVazao {
+    private static final long PAUSA_MS = 10;
+
+    private final ConfiguracaoPipeline config;
+    private final AmostradorBroker amostrador;
+    private final Contador mensagensEnviadas;
+    private final Contador recebidasWorkers;
+    // Produtores do job, que se registram ao serem criados com este controle
+    private final List<ProdutorLinhas> produtores = new CopyOnWriteArrayList<>();
+    private final Contador pausas;
+    private final HistogramaLatencia tempoPausa;
+
+    // Última profundidade lida do Broker e o total de mensagens enviadas naquele instante
+    private long profundidadeBase;
+    private long enviadasNaBase;
+    private boolean baseValida;
+
+    /**
+     * @param amostrador Fonte das estatísticas do Broker (pode ser null para usar apenas o progresso dos Workers).
+     */
+    public ControleVazao(ConfiguracaoPipeline config, AmostradorBroker amostrador, RegistroMetricas registro) {
+        this.config = config;
+        this.amostrador = amostrador;
+        this.mensagensEnviadas = registro.contador(RegistroMetricas.MENSAGENS_ENVIADAS);
+        this.recebidasWorkers = registro.contador(RegistroMetricas.MENSAGENS_RECEBIDAS_WORKER);
+        this.pausas = registro.contador(RegistroMetricas.PAUSAS_PRODUTOR);
+        this.tempoPausa = registro.histograma(RegistroMetricas.TEMPO_PAUSA_PRODUTOR);
+    }
+
+    void registrar(ProdutorLinhas produtor) {
+        produtores.add(produtor);
+    }
+
+    // Mensagens enviadas à Fila do job pelos Produtores deste controle
+    private long enviadasDoJob() {
+        long total = 0;
+        for (ProdutorLinhas p : produtores) total += p.getMensagensEnviadas();
+        return total;
+    }
+
+    /**
+     * Chamado pelo Produtor antes de cada envio. Retorna imediatamente enquanto a Fila estiver
+     * abaixo do limite superior; caso contrário, bloqueia até ela baixar ao limite inferior.
+     */
+    public void aguardarCapacidade() throws InterruptedException {
+        if (!config.isControleVazaoAtivo() || !excedeLimite(config.getFilaAlvoMaxima(), false)) return;
+
+        long inicio = System.nanoTime();
+        pausas.incrementar();
+        do {
+            Thread.sleep(PAUSA_MS);
+            // Desligado em tempo de execução (JMX): libera os Produtores imediatamente
+            if (!config.isControleVazaoAtivo()) break;
+        } while (excedeLimite(config.getFilaAlvoMinima(), true));
+        tempoPausa.registrar((System.nanoTime() - inicio) / 1000);
+    }
+
+    /**
+     * Verifica se a profundidade (ou a memória do Broker) está acima do limite.
+     *
+     * @param consultar Quando verdadeiro, sempre consulta o Broker em vez de usar a estimativa.
+     */
+    private synchronized boolean excedeLimite(long limite, boolean consultar) {
+        long enviadas = enviadasDoJob();
+        if (!consultar && baseValida && profundidadeBase + (enviadas - enviadasNaBase) <= limite) {
+            return false;
+        }
+        if (amostrador != null && amostrador.amostrar() != null) {
+            // Fila do job ainda não criada no Broker: nenhuma mensagem pendente
+            EstatisticasBroker.Estatisticas fila = amostrador.getUltimasFilas().get(config.getFilaLinhas());
+            profundidadeBase = fila == null ? 0 : fila.tamanho;
+            enviadasNaBase = enviadas;
+            baseValida = true;
+            EstatisticasBroker.Estatisticas broker = amostrador.getUltimoBroker();
+            boolean memoriaCheia = broker != null && broker.percentualMemoria >= config.getMemoriaMaximaBroker();
+            return profundidadeBase > limite || memoriaCheia;
+        }
+        // Sem estatísticas do Broker: só é possível estimar se os Workers estão neste processo
+        baseValida = false;
+        long recebidas = recebidasWorkers.getValor();
+        return recebidas > 0 && mensagensEnviadas.getValor() - recebidas > limite;
+    }
+}
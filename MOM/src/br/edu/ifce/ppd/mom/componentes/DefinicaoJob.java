@@ -0,0 +1,207 @@
+package br.edu.ifce.ppd.mom.componentes;
+
+import br.edu.ifce.ppd.mom.contagem.ContadorNGramas;
+import br.edu.ifce.ppd.mom.contagem.MatrizCoocorrencia;
+import br.edu.ifce.ppd.mom.contagem.TipoMotor;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoJMS;
+
+import javax.jms.JMSException;
+import javax.jms.MapMessage;
+import javax.jms.Session;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Descrição de um job anunciada no Tópico de controle: identificador, palavras-chave e motor
+ * de contagem. É tudo o que um processo Worker dedicado precisa para começar a consumir a Fila.
+ *
+ * Cada job tem a sua própria Fila de linhas e um peso: os Workers consomem as Filas dos jobs ativos
+ * em rodízio, retirando até "peso" mensagens de cada uma por volta.
+ *
+ * Um job de vocabulário completo ("topVocabulario" > 0) conta todos os tokens do arquivo em vez das
+ * palavras-chave, e o Monitor exibe os termos mais frequentes. Com "larguraSketch" > 0 a contagem do
+ * vocabulário é aproximada, em memória fixa (Count-Min Sketch e Space-Saving). Com "nGramas" > 0 o job
+ * conta os bigramas (e trigramas, com 3) em vez dos tokens, sempre na contagem aproximada. Na contagem
+ * exata, com "particoesMonitor" > 1 os Workers dividem a tabela de cada mensagem entre as partições do
+ * Monitor, pelo hash de cada termo.
+ *
+ * Num job de palavras-chave, "estimarDistintas" pede também a estimativa das palavras distintas do
+ * arquivo e das linhas com palavra-chave (HyperLogLog), e "contarCoocorrencias" a contagem das linhas
+ * com cada par de palavras-chave.
+ */
+public class DefinicaoJob {
+    // Valores da propriedade "tipo" das mensagens do Tópico de controle
+    public static final String TIPO_JOB = "JOB";
+    public static final String TIPO_FIM_JOB = "FIM_JOB";
+    public static final String TIPO_SOLICITAR_JOB = "SOLICITAR_JOB";
+
+    private final String jobId;
+    private final List<String> palavras;
+    private final TipoMotor tipoMotor;
+    private final int peso;
+    private final int topVocabulario;
+    private final int larguraSketch;
+    private final boolean estimarDistintas;
+    private final boolean contarCoocorrencias;
+    private final int nGramas;
+    private final int particoesMonitor;
+
+    public DefinicaoJob(String jobId, List<String> palavras, TipoMotor tipoMotor) {
+        this(jobId, palavras, tipoMotor, 1);
+    }
+
+    public DefinicaoJob(String jobId, List<String> palavras, TipoMotor tipoMotor, int peso) {
+        this(jobId, palavras, tipoMotor, peso, 0);
+    }
+
+    /**
+     * @param topVocabulario Quantidade de termos mais frequentes exibidos (0 = contar as palavras-chave).
+     */
+    public DefinicaoJob(String jobId, List<String> palavras, TipoMotor tipoMotor, int peso, int topVocabulario) {
+        this(jobId, palavras, tipoMotor, peso, topVocabulario, 0);
+    }
+
+    /**
+     * @param larguraSketch Largura do Count-Min Sketch do vocabulário aproximado (0 = contagem exata).
+     */
+    public DefinicaoJob(String jobId, List<String> palavras, TipoMotor tipoMotor, int peso, int topVocabulario,
+                        int larguraSketch) {
+        this(jobId, palavras, tipoMotor, peso, topVocabulario, larguraSketch, false);
+    }
+
+    /**
+     * @param estimarDistintas Estimar as palavras distintas (apenas em jobs de palavras-chave).
+     */
+    public DefinicaoJob(String jobId, List<String> palavras, TipoMotor tipoMotor, int peso, int topVocabulario,
+                        int larguraSketch, boolean estimarDistintas) {
+        this(jobId, palavras, tipoMotor, peso, topVocabulario, larguraSketch, estimarDistintas, false);
+    }
+
+    /**
+     * @param contarCoocorrencias Contar os pares de palavras-chave na mesma linha (apenas em jobs de
+     *                            palavras-chave).
+     */
+    public DefinicaoJob(String jobId, List<String> palavras, TipoMotor tipoMotor, int peso, int topVocabulario,
+                        int larguraSketch, boolean estimarDistintas, boolean contarCoocorrencias) {
+        this(jobId, palavras, tipoMotor, peso, topVocabulario, larguraSketch, estimarDistintas, contarCoocorrencias, 0);
+    }
+
+    /**
+     * @param nGramas Maior n-grama contado no vocabulário (0 = tokens, 2 ou 3); sem largura de sketch,
+     *                usa a {@link ContadorNGramas#LARGURA_SKETCH_PADRAO}.
+     */
+    public DefinicaoJob(String jobId, List<String> palavras, TipoMotor tipoMotor, int peso, int topVocabulario,
+                        int larguraSketch, boolean estimarDistintas, boolean contarCoocorrencias, int nGramas) {
+        this(jobId, palavras, tipoMotor, peso, topVocabulario, larguraSketch, estimarDistintas, contarCoocorrencias, nGramas, 1);
+    }
+
+    /**
+     * @param particoesMonitor Partições do Monitor do job; no vocabulário exato, os Workers enviam uma
+     *                         tabela por partição (nos outros modos o valor é ignorado).
+     */
+    public DefinicaoJob(String jobId, List<String> palavras, TipoMotor tipoMotor, int peso, int topVocabulario,
+                        int larguraSketch, boolean estimarDistintas, boolean contarCoocorrencias, int nGramas,
+                        int particoesMonitor) {
+        if (peso < 1) throw new IllegalArgumentException("O peso do job deve ser pelo menos 1.");
+        this.jobId = jobId;
+        List<String> normalizadas = new ArrayList<>();
+        // Frases com um único espaço entre os termos, como os motores as procuram
+        for (String p : palavras) normalizadas.add(p.trim().replaceAll("\\s+", " "));
+        this.palavras = Collections.unmodifiableList(normalizadas);
+        this.tipoMotor = tipoMotor;
+        this.peso = peso;
+        this.topVocabulario = Math.max(topVocabulario, 0);
+        this.nGramas = this.topVocabulario > 0 ? Math.max(nGramas, 0) : 0;
+        if (this.nGramas == 1 || this.nGramas > ContadorNGramas.TAMANHO_MAXIMO) {
+            throw new IllegalArgumentException("Os n-gramas devem ter tamanho 2 ou " + ContadorNGramas.TAMANHO_MAXIMO + ".");
+        }
+        this.larguraSketch = this.topVocabulario == 0 ? 0
+                : this.nGramas > 0 && larguraSketch <= 0 ? ContadorNGramas.LARGURA_SKETCH_PADRAO : Math.max(larguraSketch, 0);
+        this.estimarDistintas = this.topVocabulario == 0 && estimarDistintas;
+        this.contarCoocorrencias = this.topVocabulario == 0 && contarCoocorrencias && normalizadas.size() > 1;
+        if (this.contarCoocorrencias && MatrizCoocorrencia.pares(normalizadas.size()) > MatrizCoocorrencia.MAXIMO_PARES) {
+            throw new IllegalArgumentException("A coocorrência aceita no máximo " + MatrizCoocorrencia.MAXIMO_PARES
+                    + " pares; " + normalizadas.size() + " palavras-chave formam " + MatrizCoocorrencia.pares(normalizadas.size()) + ".");
+        }
+        this.particoesMonitor = this.topVocabulario > 0 && this.larguraSketch == 0 ? Math.max(particoesMonitor, 1) : 1;
+    }
+
+    /**
+     * Gera um identificador curto e único para um novo job.
+     */
+    public static String novoId() {
+        return "job-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public String getJobId() { return jobId; }
+
+    public List<String> getPalavras() { return palavras; }
+
+    public TipoMotor getTipoMotor() { return tipoMotor; }
+
+    public int getPeso() { return peso; }
+
+    public int getTopVocabulario() { return topVocabulario; }
+
+    public boolean isVocabularioCompleto() { return topVocabulario > 0; }
+
+    public int getLarguraSketch() { return larguraSketch; }
+
+    public boolean isEstimarDistintas() { return estimarDistintas; }
+
+    public boolean isContarCoocorrencias() { return contarCoocorrencias; }
+
+    public int getNGramas() { return nGramas; }
+
+    /**
+     * Partições entre as quais as tabelas do vocabulário exato são divididas (1 nos outros modos).
+     */
+    public int getParticoesMonitor() { return particoesMonitor; }
+
+    public String getFilaLinhas() { return ConfiguracaoJMS.nomeFilaJob(jobId); }
+
+    /**
+     * Mensagem de anúncio (as palavras seguem separadas por '\n', pois não podem conter quebras de linha).
+     */
+    public MapMessage paraMensagem(Session sessao) throws JMSException {
+        MapMessage msg = sessao.createMapMessage();
+        msg.setStringProperty("tipo", TIPO_JOB);
+        msg.setStringProperty("jobId", jobId);
+        msg.setString("palavras", String.join("\n", palavras));
+        msg.setString("motor", tipoMotor.name());
+        msg.setInt("peso", peso);
+        if (topVocabulario > 0) msg.setInt("topVocabulario", topVocabulario);
+        if (larguraSketch > 0) msg.setInt("larguraSketch", larguraSketch);
+        if (estimarDistintas) msg.setBoolean("estimarDistintas", true);
+        if (contarCoocorrencias) msg.setBoolean("contarCoocorrencias", true);
+        if (nGramas > 0) msg.setInt("nGramas", nGramas);
+        if (particoesMonitor > 1) msg.setInt("particoesMonitor", particoesMonitor);
+        return msg;
+    }
+
+    public static DefinicaoJob deMensagem(MapMessage msg) throws JMSException {
+        String palavras = msg.getString("palavras");
+        return new DefinicaoJob(msg.getStringProperty("jobId"),
+                palavras.isEmpty() ? Collections.emptyList() : Arrays.asList(palavras.split("\n")),
+                TipoMotor.valueOf(msg.getString("motor")),
+                msg.itemExists("peso") ? msg.getInt("peso") : 1,
+                msg.itemExists("topVocabulario") ? msg.getInt("topVocabulario") : 0,
+                msg.itemExists("larguraSketch") ? msg.getInt("larguraSketch") : 0,
+                msg.itemExists("estimarDistintas") && msg.getBoolean("estimarDistintas"),
+                msg.itemExists("contarCoocorrencias") && msg.getBoolean("contarCoocorrencias"),
+                msg.itemExists("nGramas") ? msg.getInt("nGramas") : 0,
+                msg.itemExists("particoesMonitor") ? msg.getInt("particoesMonitor") : 1);
+    }
+
+    @Override
+    public String toString() {
+        String alvo = topVocabulario == 0 ? palavras + (estimarDistintas ? " + distintas" : "")
+                + (contarCoocorrencias ? " + coocorrências" : "")
+                : "[" + (nGramas > 0 ? "n-gramas até " + nGramas : "vocabulário " + (larguraSketch > 0 ? "aproximado" : "completo"))
+                        + ", top " + topVocabulario + (particoesMonitor > 1 ? ", " + particoesMonitor + " partições" : "") + "]";
+        return jobId + " " + alvo + " (" + tipoMotor + (peso > 1 ? ", peso " + peso : "") + ")";
+    }
+}
@@ -0,0 +1,262 @@
+package br.edu.ifce.ppd.mom.componentes;
+
+import br.edu.ifce.ppd.mom.contagem.EstimadorDistintas;
+import br.edu.ifce.ppd.mom.contagem.EstimadorOnline;
+import br.edu.ifce.ppd.mom.contagem.MatrizCoocorrencia;
+import br.edu.ifce.ppd.mom.gestao.MonitorMXBean;
+import br.edu.ifce.ppd.mom.gestao.RegistroJMX;
+import br.edu.ifce.ppd.mom.gui.SaidaMonitoramento;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoPipeline;
+import br.edu.ifce.ppd.mom.metricas.HistogramaLatencia;
+import br.edu.ifce.ppd.mom.metricas.MedidorTaxa;
+
+import javax.management.ObjectName;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Agregação particionada por termo: M Monitores assinam o Tópico de resultados, cada um com o seletor
+ * "hashTermo % M = k", e portanto cada termo é somado por exatamente uma partição. O Broker distribui
+ * os resultados entre as partições e cada uma aplica as suas atualizações na própria thread, o que
+ * permite agregar vocabulários com milhares de termos sem um único assinante como gargalo.
+ *
+ * Esta classe é a visão combinada: inicia as partições e, no intervalo de atualização do painel,
+ * junta as cópias de totais de cada uma num único relatório (os conjuntos de termos são disjuntos,
+ * então a junção é apenas a união dos mapas). No vocabulário completo, cada partição soma as tabelas
+ * da sua parte dos termos e guarda o seu top K; o top K do job é o dos K maiores dessa união.
+ *
+ * NOTA TÉCNICA: As partições podem rodar em outros processos (basta o mesmo seletor); aqui elas
+ * ficam no mesmo processo, em threads e conexões separadas.
+ */
+public class MonitorParticionado implements VisaoResultados, MonitorMXBean {
+    // Espera máxima pelo encerramento de cada partição antes do relatório final
+    private static final long ESPERA_PARTICOES_MS = 2000;
+
+    private final SaidaMonitoramento gui;
+    private final ConfiguracaoPipeline config;
+    private final List<MonitorResultado> particoes = new ArrayList<>();
+    private final MedidorTaxa taxaResultados = new MedidorTaxa();
+
+    private volatile Map<String, Long> ultimosTotais = Collections.emptyMap();
+
+    public MonitorParticionado(SaidaMonitoramento gui, List<String> palavrasIniciais, ConfiguracaoPipeline config) {
+        this.gui = gui;
+        this.config = config;
+        // Cada partição registra o log normalmente, mas o relatório exibido é o combinado
+        SaidaMonitoramento saidaParticao = new SaidaMonitoramento() {
+            @Override
+            public void registrarLog(String mensagem) { gui.registrarLog(mensagem); }
+
+            @Override
+            public void atualizarEstatisticas(String texto) {}
+        };
+        for (int k = 0; k < config.getParticoesMonitor(); k++) {
+            particoes.add(new MonitorResultado(saidaParticao, palavrasIniciais, config, k, config.getParticoesMonitor()));
+        }
+        atualizarTela();
+    }
+
+    @Override
+    public void run() {
+        String nome = config.getJobId() == null ? "monitor" : "monitor-" + config.getJobId();
+        ObjectName nomeJmx = RegistroJMX.registrar("Monitor", nome, this);
+        List<Thread> threads = new ArrayList<>();
+        for (int k = 0; k < particoes.size(); k++) {
+            Thread t = new Thread(particoes.get(k), nome + "-p" + k);
+            t.start();
+            threads.add(t);
+        }
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(Math.max(config.getIntervaloAtualizacaoMs(), 50));
+                atualizarTela();
+            }
+        } catch (InterruptedException e) {
+            // Encerramento normal: as partições são interrompidas abaixo
+        } finally {
+            for (Thread t : threads) t.interrupt();
+            // Espera as partições fecharem as conexões, para que o relatório final tenha tudo o que chegou
+            boolean interrompido = Thread.interrupted();
+            for (Thread t : threads) {
+                try { t.join(ESPERA_PARTICOES_MS); } catch (InterruptedException e) { interrompido = true; }
+            }
+            atualizarTela();
+            if (interrompido) Thread.currentThread().interrupt();
+            RegistroJMX.remover(nomeJmx);
+        }
+    }
+
+    /**
+     * Junta as cópias de totais das partições e atualiza o painel com o relatório combinado.
+     */
+    private void atualizarTela() {
+        boolean vocabulario = config.isVocabularioCompleto();
+        List<Map<String, Long>> porParticao = new ArrayList<>();
+        for (MonitorResultado particao : particoes) porParticao.add(particao.getUltimosTotais());
+        Map<String, Long> totais = juntar(porParticao);
+        long totalGeral = 0;
+        for (long v : totais.values()) totalGeral += v;
+        if (vocabulario) totalGeral = getTotalGeral();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(vocabulario ? "=== VOCABULÁRIO (TOP " + config.getTopVocabulario() + ", " : "=== ESTATÍSTICAS EM TEMPO REAL (")
+                .append(particoes.size()).append(" partições) ===\n\n");
+        totais.forEach((k, v) -> sb.append(String.format("%-15s : %d\n", k, v)));
+        sb.append("\n------------------------------\n");
+        if (vocabulario) {
+            long distintos = 0;
+            for (MonitorResultado particao : particoes) distintos += particao.getTermosVocabulario();
+            sb.append(String.format("%-15s : %d\n", "TERMOS DISTINTOS", distintos));
+        }
+        sb.append(String.format("%-15s : %d", vocabulario ? "TOTAL DE TOKENS" : "TOTAL GERAL", totalGeral));
+        EstimadorDistintas.Estimativa distintas = getPalavrasDistintas();
+        if (distintas != null) sb.append(MonitorResultado.formatarDistintas(distintas));
+        MatrizCoocorrencia.Resumo pares = getCoocorrencias(MonitorResultado.PARES_PAINEL);
+        if (pares != null) sb.append(MonitorResultado.formatarCoocorrencias(pares));
+
+        sb.append("\n\n=== PARTIÇÕES ===\n");
+        for (int k = 0; k < particoes.size(); k++) {
+            MonitorResultado particao = particoes.get(k);
+            sb.append(String.format("p%-3d %5d termos, %d mensagens\n", k,
+                    vocabulario ? particao.getTermosVocabulario() : particao.getUltimosTotais().size(),
+                    particao.getMensagensRecebidas()));
+        }
+        HistogramaLatencia latencia = getLatenciaPontaAPonta();
+        if (latencia.getTotal() > 0) {
+            sb.append("\n=== LATÊNCIA PONTA A PONTA ===\n").append(latencia.resumo("us"));
+        }
+        gui.atualizarEstatisticas(sb.toString());
+        ultimosTotais = Collections.unmodifiableMap(totais);
+    }
+
+    /**
+     * União dos totais das partições ou, no vocabulário, os K maiores entre os top K delas: cada termo
+     * está numa única partição, então os K mais frequentes do job estão todos nessa união.
+     */
+    private Map<String, Long> juntar(List<Map<String, Long>> porParticao) {
+        if (!config.isVocabularioCompleto()) {
+            Map<String, Long> totais = new TreeMap<>();
+            for (Map<String, Long> parte : porParticao) totais.putAll(parte);
+            return totais;
+        }
+        List<Map.Entry<String, Long>> termos = new ArrayList<>();
+        for (Map<String, Long> parte : porParticao) termos.addAll(parte.entrySet());
+        termos.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Long> maiores = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> termo : termos.subList(0, Math.min(config.getTopVocabulario(), termos.size()))) {
+            maiores.put(termo.getKey(), termo.getValue());
+        }
+        return maiores;
+    }
+
+    public List<MonitorResultado> getParticoes() {
+        return Collections.unmodifiableList(particoes);
+    }
+
+    @Override
+    public Map<String, Long> getUltimosTotais() {
+        return ultimosTotais;
+    }
+
+    /**
+     * Latência ponta a ponta de todas as partições, consolidada num novo histograma.
+     */
+    @Override
+    public HistogramaLatencia getLatenciaPontaAPonta() {
+        HistogramaLatencia combinado = new HistogramaLatencia();
+        for (MonitorResultado particao : particoes) combinado.somar(particao.getLatenciaPontaAPonta());
+        return combinado;
+    }
+
+    // --- Atributos JMX (soma das partições) ---
+
+    @Override
+    public long getTotalGeral() {
+        long total = 0;
+        for (MonitorResultado particao : particoes) total += particao.getTotalGeral();
+        return total;
+    }
+
+    @Override
+    public Map<String, Long> getTotaisPorTermo() {
+        List<Map<String, Long>> porParticao = new ArrayList<>();
+        for (MonitorResultado particao : particoes) porParticao.add(particao.getTotaisPorTermo());
+        return juntar(porParticao);
+    }
+
+    /**
+     * As palavras distintas ficam na partição 0, que recebe todos os registradores dos Workers.
+     */
+    @Override
+    public EstimadorDistintas.Estimativa getPalavrasDistintas() {
+        return particoes.get(0).getPalavrasDistintas();
+    }
+
+    /**
+     * Assim como as palavras distintas, a matriz de coocorrência fica na partição 0.
+     */
+    @Override
+    public MatrizCoocorrencia.Resumo getCoocorrencias(int limite) {
+        return particoes.get(0).getCoocorrencias(limite);
+    }
+
+    /**
+     * A agregação online usa um Monitor único (ver {@link VisaoResultados#criar}).
+     */
+    @Override
+    public EstimadorOnline getAgregacaoOnline() {
+        return null;
+    }
+
+    @Override
+    public long getMensagensRecebidas() {
+        long total = 0;
+        for (MonitorResultado particao : particoes) total += particao.getMensagensRecebidas();
+        return total;
+    }
+
+    /**
+     * Todas as partições recebem os avisos de progresso: os resultados estão completos apenas quando
+     * chegaram à partição mais atrasada.
+     */
+    @Override
+    public long getMensagensProcessadas() {
+        long menor = Long.MAX_VALUE;
+        for (MonitorResultado particao : particoes) menor = Math.min(menor, particao.getMensagensProcessadas());
+        return menor;
+    }
+
+    @Override
+    public long getMensagensDescartadas() {
+        long maior = 0;
+        for (MonitorResultado particao : particoes) maior = Math.max(maior, particao.getMensagensDescartadas());
+        return maior;
+    }
+
+    @Override
+    public double getResultadosPorSegundo() { return taxaResultados.taxa(getMensagensRecebidas()); }
+
+    @Override
+    public long getAtualizacoesPendentes() {
+        long total = 0;
+        for (MonitorResultado particao : particoes) total += particao.getAtualizacoesPendentes();
+        return total;
+    }
+
+    @Override
+    public long getIdadeUltimaMensagemMs() {
+        long menor = -1;
+        for (MonitorResultado particao : particoes) {
+            long idade = particao.getIdadeUltimaMensagemMs();
+            if (idade >= 0 && (menor < 0 || idade < menor)) menor = idade;
+        }
+        return menor;
+    }
+
+    @Override
+    public long getLatenciaPontaAPontaP99Us() { return getLatenciaPontaAPonta().getPercentil(99); }
+}
@@ -1,30 +1,155 @@
 package br.edu.ifce.ppd.mom.componentes;
 
+import br.edu.ifce.ppd.mom.contagem.EstimadorDistintas;
+import br.edu.ifce.ppd.mom.contagem.EstimadorOnline;
+import br.edu.ifce.ppd.mom.contagem.MatrizCoocorrencia;
+import br.edu.ifce.ppd.mom.contagem.ResumoFrequentes;
+import br.edu.ifce.ppd.mom.contagem.TabelaContagem;
+import br.edu.ifce.ppd.mom.contagem.VocabularioAproximado;
 import br.edu.ifce.ppd.mom.infra.ConfiguracaoJMS;
-import br.edu.ifce.ppd.mom.gui.PainelDashboard;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoPipeline;
+import br.edu.ifce.ppd.mom.infra.Relogio;
+import br.edu.ifce.ppd.mom.eventos.EventoAgregacaoAplicada;
+import br.edu.ifce.ppd.mom.gestao.MonitorMXBean;
+import br.edu.ifce.ppd.mom.gestao.RegistroJMX;
+import br.edu.ifce.ppd.mom.gui.SaidaMonitoramento;
+import br.edu.ifce.ppd.mom.metricas.HistogramaLatencia;
+import br.edu.ifce.ppd.mom.metricas.LatenciaPorEtapa;
+import br.edu.ifce.ppd.mom.metricas.Contador;
+import br.edu.ifce.ppd.mom.metricas.MedidorTaxa;
+import br.edu.ifce.ppd.mom.metricas.RegistroMetricas;
 
 import javax.jms.*;
+import javax.management.ObjectName;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Componente "Subscriber" (Assinante).
  * Responsável por escutar o Tópico de resultados e agregar as estatísticas em tempo real
  * para exibição na interface gráfica.
+ *
+ * Também pode atuar como uma das partições de um {@link MonitorParticionado}: nesse caso o seletor
+ * "hashTermo % M = k" faz o Broker entregar apenas os resultados dos termos desta partição.
+ *
+ * Num job de vocabulário completo, os resultados chegam como tabelas binárias (uma por lote ou período
+ * de agregação), somadas numa {@link TabelaContagem}; o painel e as consultas exibem os termos mais
+ * frequentes, e o total geral é a quantidade de tokens. No vocabulário aproximado, os Workers enviam
+ * periodicamente o sketch e o resumo de frequentes que acumularam, somados num {@link VocabularioAproximado}
+ * de tamanho fixo, e cada termo do top K é exibido com os limites inferior e superior da sua frequência.
+ *
+ * Num job de palavras-chave com estimativa de palavras distintas, os Workers enviam também os registradores
+ * HyperLogLog que acumularam; o Monitor une-os num {@link EstimadorDistintas} (com partições, apenas a
+ * partição 0 os recebe). Da mesma forma, com a contagem de coocorrências, os Workers enviam os pares de
+ * palavras-chave que contaram no intervalo, somados numa {@link MatrizCoocorrencia} indexada pela ordem
+ * das palavras do job.
+ *
+ * Na agregação online, cada resultado traz as ocorrências de todas as palavras-chave num bloco do arquivo;
+ * além dos totais parciais, o painel exibe o total final estimado de cada palavra com o intervalo de
+ * confiança de 95% ({@link EstimadorOnline}), que se estreita à medida que os blocos são processados.
+ *
+ * Em todos os modos, os Workers avisam periodicamente quantas mensagens de linhas já processaram, depois de
+ * publicar os resultados delas (os avisos chegam a todas as partições); a soma
+ * ({@link #getMensagensProcessadas}) indica quando o job está completo.
  */
-public class MonitorResultado implements Runnable {
-    private final PainelDashboard gui;
+public class MonitorResultado implements VisaoResultados, MonitorMXBean {
+    // Pares de coocorrência exibidos no painel
+    static final int PARES_PAINEL = 10;
+
+    private final SaidaMonitoramento gui;
+    private final ConfiguracaoPipeline config;
+    private final int particao;
+    private final int totalParticoes;
     
-    // Utiliza ConcurrentHashMap para garantir thread-safety, pois as mensagens chegam assincronamente
-    private final Map<String, Integer> contadorGlobal = new ConcurrentHashMap<>();
+    // Utiliza ConcurrentHashMap para garantir thread-safety, pois as mensagens chegam assincronamente.
+    // Cada termo tem um LongAdder próprio: a soma não aloca objetos (ao contrário de merge com Integer),
+    // não estoura em 2^31 e pode ser lida pelo painel e pelo JMX sem bloquear o Listener
+    private final Map<String, LongAdder> contadorGlobal = new ConcurrentHashMap<>();
     private Connection conexao;
 
-    public MonitorResultado(PainelDashboard gui, List<String> palavrasIniciais) {
+    // Vocabulário completo, exato ou aproximado (ambos null no modo de palavras-chave). O Listener soma
+    // nele e o painel extrai o top K, sempre sob travaVocabulario
+    private final TabelaContagem vocabulario;
+    private final VocabularioAproximado vocabularioAproximado;
+    private final Object travaVocabulario = new Object();
+    private byte[] bufferVocabulario = new byte[8192];
+    private volatile long totalTokens;
+
+    // Palavras distintas (null se o job não as estima), unidas sob travaVocabulario, e as linhas cobertas
+    private final EstimadorDistintas distintas;
+    private long linhasDistintas;
+
+    // Coocorrência (null se o job não a conta ou fora da partição 0), somada sob travaVocabulario
+    private final MatrizCoocorrencia coocorrencias;
+    private long linhasCoocorrencias;
+
+    // Agregação online (null nos outros modos): blocos processados e totais finais extrapolados
+    private final EstimadorOnline online;
+    // Palavras do job na ordem do pedido, que é a dos índices da agregação online e da coocorrência
+    private final List<String> palavrasJob;
+
+    // Latência de cada etapa, da leitura da linha no Produtor até a agregação aqui no Monitor
+    private final LatenciaPorEtapa latencias = new LatenciaPorEtapa();
+
+    // Métricas do Monitor: volume recebido e atraso entre a publicação do Worker e a agregação
+    private final Contador mensagensRecebidas = RegistroMetricas.global().contador(RegistroMetricas.MENSAGENS_RECEBIDAS_MONITOR);
+    private final HistogramaLatencia atrasoAgregacao = RegistroMetricas.global().histograma(RegistroMetricas.ATRASO_AGREGACAO);
+    // Latência ponta a ponta de todos os jobs juntos (cada Monitor também tem a do seu job)
+    private final HistogramaLatencia latenciaTodosJobs = RegistroMetricas.global().histograma(RegistroMetricas.LATENCIA_PONTA_A_PONTA);
+
+    // Estado exposto via JMX (o Listener é a única thread que escreve nos campos voláteis)
+    private volatile long mensagensDesteMonitor;
+    // Soma dos avisos de progresso: mensagens de linhas cujos resultados já chegaram a este Monitor,
+    // e quantas delas foram descartadas sem contagem
+    private volatile long mensagensProcessadas;
+    private volatile long mensagensDescartadas;
+    private volatile long ultimaMensagemEm;
+    private final AtomicLong atualizacoesPendentes = new AtomicLong();
+    private final MedidorTaxa taxaResultados = new MedidorTaxa();
+
+    // Cópia imutável dos totais, refeita a cada atualização do painel. Consultas externas frequentes
+    // (ex: clientes da API HTTP) leem esta cópia em vez de percorrer o mapa de contagem
+    private volatile Map<String, Long> ultimosTotais = Collections.emptyMap();
+
+    public MonitorResultado(SaidaMonitoramento gui, List<String> palavrasIniciais) {
+        this(gui, palavrasIniciais, new ConfiguracaoPipeline());
+    }
+
+    public MonitorResultado(SaidaMonitoramento gui, List<String> palavrasIniciais, ConfiguracaoPipeline config) {
+        this(gui, palavrasIniciais, config, 0, 1);
+    }
+
+    /**
+     * Monitor que agrega apenas os termos da partição indicada (termos com hashTermo % totalParticoes == particao).
+     */
+    public MonitorResultado(SaidaMonitoramento gui, List<String> palavrasIniciais, ConfiguracaoPipeline config,
+                            int particao, int totalParticoes) {
         this.gui = gui;
-        // Inicializa o mapa de contagem com zero para todas as palavras solicitadas
+        this.config = config;
+        this.particao = particao;
+        this.totalParticoes = totalParticoes;
+        boolean aproximado = config.isVocabularioCompleto() && config.getLarguraSketch() > 0;
+        this.vocabulario = config.isVocabularioCompleto() && !aproximado ? new TabelaContagem() : null;
+        // O resumo do Monitor monitora mais termos que o de cada Worker, pois soma os resumos de todos
+        this.vocabularioAproximado = aproximado ? new VocabularioAproximado(config.getLarguraSketch(),
+                4 * ResumoFrequentes.capacidadePara(config.getTopVocabulario())) : null;
+        this.distintas = config.isEstimarDistintas() && particao == 0 ? new EstimadorDistintas() : null;
+        this.palavrasJob = new ArrayList<>();
+        for (String p : palavrasIniciais) palavrasJob.add(p.trim());
+        this.online = config.isAgregacaoOnline() ? new EstimadorOnline(palavrasJob) : null;
+        this.coocorrencias = config.isContarCoocorrencias() && particao == 0 && palavrasJob.size() > 1
+                ? new MatrizCoocorrencia(palavrasJob.size()) : null;
+        // Inicializa o mapa de contagem com zero para todas as palavras solicitadas (as desta partição)
         for(String p : palavrasIniciais) {
-            contadorGlobal.put(p.trim(), 0);
+            if (ConfiguracaoJMS.hashTermo(p.trim()) % totalParticoes == particao) contadorGlobal.put(p.trim(), new LongAdder());
         }
         atualizarTela();
     }
@@ -32,39 +157,105 @@ public class MonitorResultado implements Runnable {
     @Override
     public void run() {
         gui.registrarLog("[Subscriber] Monitor de resultados ativo e aguardando dados...");
+        // Com vários jobs simultâneos há um Monitor por job
+        String nome = config.getJobId() == null ? "monitor" : "monitor-" + config.getJobId();
+        ObjectName nomeJmx = RegistroJMX.registrar("Monitor", totalParticoes > 1 ? nome + "-p" + particao : nome, this);
         try {
-            conexao = ConfiguracaoJMS.criarFabricaConexao().createConnection();
+            conexao = ConfiguracaoJMS.criarFabricaConexao(config.getUrlBroker()).createConnection();
             conexao.start();
             Session sessao = conexao.createSession(false, Session.AUTO_ACKNOWLEDGE);
 
-            // Conecta-se ao Tópico para receber as atualizações dos Workers
+            // Conecta-se ao Tópico para receber as atualizações dos Workers. Com um job definido, o
+            // seletor faz o Broker entregar apenas os resultados dele (os totais de cada job ficam isolados)
             Destination topico = sessao.createTopic(ConfiguracaoJMS.NOME_TOPICO_RESULTADOS);
-            MessageConsumer assinante = sessao.createConsumer(topico);
+            MessageConsumer assinante = sessao.createConsumer(topico, seletor());
 
             // Listener que processa cada mensagem de resultado recebida
             assinante.setMessageListener(msg -> {
-                if (msg instanceof MapMessage) {
+                if (msg instanceof BytesMessage) {
+                    try {
+                        String tipo = msg.getStringProperty("tipoResultado");
+                        if (ConfiguracaoJMS.TIPO_RESULTADO_DISTINTAS.equals(tipo)) {
+                            aplicarDistintas((BytesMessage) msg);
+                        } else if (ConfiguracaoJMS.TIPO_RESULTADO_COOCORRENCIAS.equals(tipo)) {
+                            aplicarCoocorrencias((BytesMessage) msg);
+                        } else if (config.isVocabularioCompleto()) {
+                            aplicarVocabulario((BytesMessage) msg);
+                        }
+                    } catch (JMSException e) { e.printStackTrace(); }
+                } else if (msg instanceof MapMessage) {
                     try {
+                        // Resultados de outro job (ex: de uma execução anterior ainda na Fila) são descartados
+                        String jobId = msg.getStringProperty("jobId");
+                        if (jobId != null && config.getJobId() != null && !jobId.equals(config.getJobId())) return;
+
                         MapMessage map = (MapMessage) msg;
+                        String tipo = msg.getStringProperty("tipoResultado");
+                        if (ConfiguracaoJMS.TIPO_RESULTADO_PROGRESSO.equals(tipo)) {
+                            // Listener é a única thread que escreve: a soma não precisa ser atômica
+                            mensagensProcessadas += map.getLong("mensagens");
+                            if (map.itemExists("descartadas")) mensagensDescartadas += map.getLong("descartadas");
+                            return;
+                        }
+                        if (ConfiguracaoJMS.TIPO_RESULTADO_AMOSTRA.equals(tipo)) {
+                            aplicarAmostra(map);
+                            return;
+                        }
                         String termo = map.getString("termo");
-                        int qtd = map.getInt("ocorrencias");
+                        // Lido como long: Workers enviam int, agregadores intermediários podem enviar long
+                        long qtd = map.getLong("ocorrencias");
                         int workerId = map.getInt("origemWorkerId");
 
+                        EventoAgregacaoAplicada evento = new EventoAgregacaoAplicada();
+                        evento.begin();
+
                         // Atualiza o contador global de forma atômica (soma o valor atual com o novo)
-                        contadorGlobal.merge(termo, qtd, Integer::sum);
+                        LongAdder contador = contadorGlobal.get(termo);
+                        if (contador == null) contador = contadorGlobal.computeIfAbsent(termo, t -> new LongAdder());
+                        contador.add(qtd);
+                        long agregadoEm = Relogio.agoraMicros();
+                        latencias.registrar(msg, agregadoEm);
+                        if (msg.propertyExists("tsLeitura")) {
+                            latenciaTodosJobs.registrar(agregadoEm - msg.getLongProperty("tsLeitura"));
+                        }
+
+                        if (evento.shouldCommit()) {
+                            evento.workerId = workerId;
+                            evento.termo = termo;
+                            evento.ocorrencias = qtd;
+                            evento.latenciaPontaAPonta = msg.propertyExists("tsLeitura")
+                                    ? agregadoEm - msg.getLongProperty("tsLeitura") : 0;
+                            evento.commit();
+                        }
+                        mensagensRecebidas.incrementar();
+                        atrasoAgregacao.registrar((System.currentTimeMillis() - msg.getJMSTimestamp()) * 1000);
+                        long recebidas = ++mensagensDesteMonitor;
+                        ultimaMensagemEm = System.currentTimeMillis();
                         
-                        // Registra log visual da operação
-                        gui.registrarLog("[Subscriber] Worker " + workerId + " notificou: " + termo + " (+" + qtd + ")");
+                        // Registra log visual da operação (1 a cada N mensagens, conforme a amostragem configurada)
+                        if (recebidas % config.getAmostragemLog() == 0) {
+                            gui.registrarLog("[Subscriber] Worker " + workerId + " notificou: " + termo + " (+" + qtd + ")");
+                        }
                         
-                        // Solicita atualização da interface visual
-                        atualizarTela();
+                        // Solicita atualização da interface visual: imediata ou no próximo ciclo do laço abaixo
+                        if (config.getIntervaloAtualizacaoMs() == 0) {
+                            atualizarTela();
+                        } else {
+                            atualizacoesPendentes.incrementAndGet();
+                        }
                     } catch (JMSException e) { e.printStackTrace(); }
                 }
             });
 
-            // Mantém o monitor ativo aguardando notificações
-            synchronized (this) {
-                wait();
+            // Mantém o monitor ativo aguardando notificações e atualiza o painel no intervalo configurado,
+            // agrupando todas as mensagens recebidas nesse período em uma única atualização
+            while (!Thread.currentThread().isInterrupted()) {
+                synchronized (this) {
+                    wait(Math.max(config.getIntervaloAtualizacaoMs(), 50));
+                }
+                if (atualizacoesPendentes.getAndSet(0) > 0) {
+                    atualizarTela();
+                }
             }
 
         } catch (InterruptedException e) {
@@ -73,31 +264,443 @@ public class MonitorResultado implements Runnable {
             gui.registrarLog("[Subscriber] Erro interno: " + e.getMessage());
         } finally {
             try { if (conexao != null) conexao.close(); } catch (Exception ignored) {}
+            // Com a conexão fechada não chegam mais resultados: o relatório final tem tudo o que foi recebido
+            atualizarTela();
+            RegistroJMX.remover(nomeJmx);
+        }
+    }
+
+    /**
+     * Soma ao vocabulário do job a tabela serializada de um lote (ou de um período do agregador) ou,
+     * no modo aproximado, o sketch e o resumo de frequentes enviados por um Worker.
+     */
+    private void aplicarVocabulario(BytesMessage msg) throws JMSException {
+        String jobId = msg.getStringProperty("jobId");
+        if (jobId != null && config.getJobId() != null && !jobId.equals(config.getJobId())) return;
+        String tipoEsperado = vocabularioAproximado != null
+                ? ConfiguracaoJMS.TIPO_RESULTADO_VOCABULARIO_APROXIMADO : ConfiguracaoJMS.TIPO_RESULTADO_VOCABULARIO;
+        if (!tipoEsperado.equals(msg.getStringProperty("tipoResultado"))) return;
+
+        int tamanho = (int) msg.getBodyLength();
+        if (tamanho > bufferVocabulario.length) bufferVocabulario = new byte[Math.max(tamanho, bufferVocabulario.length * 2)];
+        msg.readBytes(bufferVocabulario, tamanho);
+        synchronized (travaVocabulario) {
+            if (vocabularioAproximado != null) {
+                vocabularioAproximado.somarSerializado(bufferVocabulario, tamanho);
+                totalTokens = vocabularioAproximado.getTotal();
+            } else {
+                vocabulario.somarSerializado(bufferVocabulario, tamanho);
+                totalTokens = vocabulario.getTotal();
+            }
+        }
+
+        long agregadoEm = Relogio.agoraMicros();
+        latencias.registrar(msg, agregadoEm);
+        if (msg.propertyExists("tsLeitura")) {
+            latenciaTodosJobs.registrar(agregadoEm - msg.getLongProperty("tsLeitura"));
+        }
+        mensagensRecebidas.incrementar();
+        atrasoAgregacao.registrar((System.currentTimeMillis() - msg.getJMSTimestamp()) * 1000);
+        long recebidas = ++mensagensDesteMonitor;
+        ultimaMensagemEm = System.currentTimeMillis();
+        if (recebidas % config.getAmostragemLog() == 0) {
+            gui.registrarLog("[Subscriber] Worker " + msg.getIntProperty("origemWorkerId") + " notificou vocabulário (+"
+                    + (msg.propertyExists("tokens") ? msg.getLongProperty("tokens") : 0) + " tokens)");
+        }
+        if (config.getIntervaloAtualizacaoMs() == 0) {
+            atualizarTela();
+        } else {
+            atualizacoesPendentes.incrementAndGet();
+        }
+    }
+
+    /**
+     * Agregação online: soma as ocorrências do bloco aos totais e registra o bloco na amostra.
+     */
+    private void aplicarAmostra(MapMessage msg) throws JMSException {
+        if (online == null) return;
+        long[] valores = new long[palavrasJob.size()];
+        for (int i = 0; i < valores.length; i++) {
+            String termo = palavrasJob.get(i);
+            valores[i] = msg.itemExists(termo) ? msg.getLong(termo) : 0;
+            if (valores[i] == 0) continue;
+            LongAdder contador = contadorGlobal.get(termo);
+            if (contador == null) contador = contadorGlobal.computeIfAbsent(termo, t -> new LongAdder());
+            contador.add(valores[i]);
+        }
+        online.registrar(msg.getLongProperty("bytesBloco"), valores, msg.getLongProperty("tamanhoArquivo"));
+
+        long agregadoEm = Relogio.agoraMicros();
+        latencias.registrar(msg, agregadoEm);
+        if (msg.propertyExists("tsLeitura")) {
+            latenciaTodosJobs.registrar(agregadoEm - msg.getLongProperty("tsLeitura"));
+        }
+        mensagensRecebidas.incrementar();
+        atrasoAgregacao.registrar((System.currentTimeMillis() - msg.getJMSTimestamp()) * 1000);
+        long recebidas = ++mensagensDesteMonitor;
+        ultimaMensagemEm = System.currentTimeMillis();
+        if (recebidas % config.getAmostragemLog() == 0) {
+            gui.registrarLog(String.format(Locale.ROOT, "[Subscriber] Worker %d notificou um bloco (%.1f%% do arquivo processado)",
+                    msg.getIntProperty("origemWorkerId"), online.getFracao() * 100));
+        }
+        if (config.getIntervaloAtualizacaoMs() == 0) {
+            atualizarTela();
+        } else {
+            atualizacoesPendentes.incrementAndGet();
         }
     }
 
+    /**
+     * Une às palavras distintas do job os registradores enviados por um Worker.
+     *
+     * NOTA TÉCNICA: Estas mensagens não entram na latência por etapa: o carimbo de leitura é o da linha
+     * mais antiga do intervalo acumulado pelo Worker, e não o de um resultado.
+     */
+    private void aplicarDistintas(BytesMessage msg) throws JMSException {
+        String jobId = msg.getStringProperty("jobId");
+        if (distintas == null || (jobId != null && config.getJobId() != null && !jobId.equals(config.getJobId()))) return;
+        int tamanho = (int) msg.getBodyLength();
+        if (tamanho > bufferVocabulario.length) bufferVocabulario = new byte[Math.max(tamanho, bufferVocabulario.length * 2)];
+        msg.readBytes(bufferVocabulario, tamanho);
+        synchronized (travaVocabulario) {
+            distintas.unirSerializado(bufferVocabulario, tamanho);
+            linhasDistintas += msg.getLongProperty("linhas");
+        }
+        registrarResumoAplicado();
+    }
+
+    /**
+     * Soma à matriz do job os pares de palavras-chave contados por um Worker desde o seu último envio
+     * (corpo vazio quando o intervalo não teve linhas com dois termos).
+     */
+    private void aplicarCoocorrencias(BytesMessage msg) throws JMSException {
+        String jobId = msg.getStringProperty("jobId");
+        if (coocorrencias == null || (jobId != null && config.getJobId() != null && !jobId.equals(config.getJobId()))) return;
+        int tamanho = (int) msg.getBodyLength();
+        if (tamanho > bufferVocabulario.length) bufferVocabulario = new byte[Math.max(tamanho, bufferVocabulario.length * 2)];
+        if (tamanho > 0) msg.readBytes(bufferVocabulario, tamanho);
+        synchronized (travaVocabulario) {
+            if (tamanho > 0) coocorrencias.somarSerializado(bufferVocabulario, tamanho);
+            linhasCoocorrencias += msg.getLongProperty("linhas");
+        }
+        registrarResumoAplicado();
+    }
+
+    // Métricas e atualização do painel após um acumulado de Worker (sem latência por etapa)
+    private void registrarResumoAplicado() {
+        mensagensRecebidas.incrementar();
+        ++mensagensDesteMonitor;
+        ultimaMensagemEm = System.currentTimeMillis();
+        if (config.getIntervaloAtualizacaoMs() == 0) {
+            atualizarTela();
+        } else {
+            atualizacoesPendentes.incrementAndGet();
+        }
+    }
+
+    /**
+     * Seletor JMS do assinante: o job configurado e, se particionado, os termos desta partição
+     * (null quando o Monitor recebe todos os resultados).
+     */
+    private String seletor() {
+        StringBuilder sb = new StringBuilder();
+        if (config.getJobId() != null) sb.append("jobId = '").append(config.getJobId()).append('\'');
+        if (totalParticoes > 1) {
+            if (sb.length() > 0) sb.append(" AND ");
+            // Os avisos de progresso vão para todas as partições; os acumulados sem termo (palavras
+            // distintas, coocorrências), apenas para a partição 0
+            String semTermo = "'" + ConfiguracaoJMS.TIPO_RESULTADO_PROGRESSO + "'";
+            if (particao == 0 && (config.isEstimarDistintas() || config.isContarCoocorrencias())) {
+                semTermo += ", '" + ConfiguracaoJMS.TIPO_RESULTADO_DISTINTAS + "', '" + ConfiguracaoJMS.TIPO_RESULTADO_COOCORRENCIAS + "'";
+            }
+            sb.append("(hashTermo % ").append(totalParticoes).append(" = ").append(particao)
+                    .append(" OR tipoResultado IN (").append(semTermo).append("))");
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+
+    /**
+     * Soma de todas as ocorrências agregadas até o momento (no vocabulário completo, a de todos os tokens).
+     */
+    @Override
+    public long getTotalGeral() {
+        if (config.isVocabularioCompleto()) return totalTokens;
+        long total = 0;
+        for (LongAdder contador : contadorGlobal.values()) total += contador.sum();
+        return total;
+    }
+
+    @Override
+    public HistogramaLatencia getLatenciaPontaAPonta() {
+        return latencias.getPontaAPonta();
+    }
+
+    public LatenciaPorEtapa getLatencias() {
+        return latencias;
+    }
+
+    /**
+     * Totais por termo na última atualização do painel (no máximo um intervalo de atualização atrasados).
+     */
+    @Override
+    public Map<String, Long> getUltimosTotais() {
+        return ultimosTotais;
+    }
+
+    @Override
+    public long getMensagensProcessadas() {
+        return mensagensProcessadas;
+    }
+
+    @Override
+    public long getMensagensDescartadas() {
+        return mensagensDescartadas;
+    }
+
+    // --- Atributos JMX ---
+
+    /**
+     * Termos distintos na tabela do vocabulário completo (0 nos outros modos).
+     */
+    int getTermosVocabulario() {
+        if (vocabulario == null) return 0;
+        synchronized (travaVocabulario) {
+            return vocabulario.getTamanho();
+        }
+    }
+
+    /**
+     * Totais por palavra-chave ou, no vocabulário completo, os termos mais frequentes em ordem decrescente.
+     */
+    @Override
+    public Map<String, Long> getTotaisPorTermo() {
+        if (vocabularioAproximado != null) {
+            Map<String, Long> estimativas = new LinkedHashMap<>();
+            for (ResumoFrequentes.Estimativa e : getEstimativasVocabulario()) estimativas.put(e.termo, e.estimativa);
+            return estimativas;
+        }
+        if (vocabulario != null) {
+            synchronized (travaVocabulario) {
+                return vocabulario.maiores(config.getTopVocabulario());
+            }
+        }
+        Map<String, Long> totais = new TreeMap<>();
+        contadorGlobal.forEach((termo, total) -> totais.put(termo, total.sum()));
+        return totais;
+    }
+
+    /**
+     * Top K do vocabulário aproximado, com os limites de cada termo (vazio nos outros modos).
+     */
+    public List<ResumoFrequentes.Estimativa> getEstimativasVocabulario() {
+        if (vocabularioAproximado == null) return Collections.emptyList();
+        synchronized (travaVocabulario) {
+            return vocabularioAproximado.maiores(config.getTopVocabulario());
+        }
+    }
+
+    /**
+     * Palavras distintas estimadas até o momento (null se o job não as estima ou se esta não é a partição 0).
+     */
+    @Override
+    public EstimadorDistintas.Estimativa getPalavrasDistintas() {
+        if (distintas == null) return null;
+        synchronized (travaVocabulario) {
+            return distintas.estimar(linhasDistintas);
+        }
+    }
+
+    /**
+     * Os pares de palavras-chave em mais linhas até o momento (null se o job não conta coocorrências ou
+     * se esta não é a partição 0).
+     */
+    @Override
+    public MatrizCoocorrencia.Resumo getCoocorrencias(int limite) {
+        if (coocorrencias == null) return null;
+        synchronized (travaVocabulario) {
+            return coocorrencias.resumir(limite, palavrasJob, linhasCoocorrencias);
+        }
+    }
+
+    /**
+     * Estimador da agregação online (null se o job não a usa).
+     */
+    @Override
+    public EstimadorOnline getAgregacaoOnline() {
+        return online;
+    }
+
+    @Override
+    public long getMensagensRecebidas() { return mensagensDesteMonitor; }
+
+    @Override
+    public double getResultadosPorSegundo() { return taxaResultados.taxa(mensagensDesteMonitor); }
+
+    @Override
+    public long getAtualizacoesPendentes() { return atualizacoesPendentes.get(); }
+
+    @Override
+    public long getIdadeUltimaMensagemMs() {
+        long ultima = ultimaMensagemEm;
+        return ultima == 0 ? -1 : System.currentTimeMillis() - ultima;
+    }
+
+    @Override
+    public long getLatenciaPontaAPontaP99Us() { return latencias.getPontaAPonta().getPercentil(99); }
+
     /**
      * Formata os dados acumulados e atualiza o painel de estatísticas da GUI.
      * ALTERAÇÃO REALIZADA: Adicionado cálculo e exibição do TOTAL GERAL.
      */
     private void atualizarTela() {
+        if (vocabularioAproximado != null) {
+            atualizarTelaVocabularioAproximado();
+            return;
+        }
+        if (vocabulario != null) {
+            atualizarTelaVocabulario();
+            return;
+        }
+        // Uma única leitura dos contadores alimenta o painel e a cópia para consultas externas,
+        // de modo que o total exibido é sempre a soma dos valores exibidos
+        Map<String, Long> totais = getTotaisPorTermo();
         StringBuilder sb = new StringBuilder();
         sb.append("=== ESTATÍSTICAS EM TEMPO REAL ===\n\n");
         
         // Itera sobre o mapa e formata a saída para cada palavra
-        contadorGlobal.forEach((k, v) -> sb.append(String.format("%-15s : %d\n", k, v)));
+        if (online != null) {
+            // Agregação online: total parcial seguido do total final estimado e da margem de 95%
+            Map<String, EstimadorOnline.Intervalo> estimativas = online.estimar();
+            totais.forEach((k, v) -> sb.append(String.format("%-15s : %d%s\n", k, v, formatarIntervalo(estimativas.get(k)))));
+        } else {
+            totais.forEach((k, v) -> sb.append(String.format("%-15s : %d\n", k, v)));
+        }
 
         // --- CÁLCULO DA SOMA TOTAL ---
-        // Utiliza Stream API para somar todos os valores (inteiros) presentes no mapa
-        int totalGeral = contadorGlobal.values().stream()
-                                       .mapToInt(Integer::intValue)
-                                       .sum();
+        // Soma em long: em corpora grandes o total ultrapassa o limite de int
+        long totalGeral = totais.values().stream()
+                                .mapToLong(Long::longValue)
+                                .sum();
 
         // Adiciona uma linha divisória e o total formatado
         sb.append("\n------------------------------\n");
         sb.append(String.format("%-15s : %d", "TOTAL GERAL", totalGeral));
+        EstimadorDistintas.Estimativa estimativa = getPalavrasDistintas();
+        if (estimativa != null) sb.append(formatarDistintas(estimativa));
+        MatrizCoocorrencia.Resumo pares = getCoocorrencias(PARES_PAINEL);
+        if (pares != null) sb.append(formatarCoocorrencias(pares));
+        if (online != null) {
+            sb.append(String.format(Locale.ROOT, "\n%-15s : %.1f%% do arquivo (%d blocos)", "PROCESSADO",
+                    online.getFracao() * 100, online.getBlocos()));
+        }
+
+        // Decomposição da latência (exibida assim que houver resultados rastreados)
+        if (latencias.getPontaAPonta().getTotal() > 0) {
+            sb.append("\n\n=== LATÊNCIA POR ETAPA ===\n");
+            sb.append(latencias.resumo());
+        }
 
         // Envia o texto completo para o Dashboard
         gui.atualizarEstatisticas(sb.toString());
+        ultimosTotais = Collections.unmodifiableMap(totais);
+    }
+
+    // Total final estimado de um termo na agregação online ("" antes do primeiro bloco)
+    private static String formatarIntervalo(EstimadorOnline.Intervalo intervalo) {
+        if (intervalo == null) return "";
+        if (Double.isInfinite(intervalo.margem)) return String.format("   (final ~%d)", intervalo.estimativa);
+        return String.format(Locale.ROOT, "   (final ~%d ± %.0f)", intervalo.estimativa, intervalo.margem);
+    }
+
+    /**
+     * Linhas do painel com as palavras distintas estimadas (também usadas pelo {@link MonitorParticionado}).
+     */
+    static String formatarDistintas(EstimadorDistintas.Estimativa estimativa) {
+        return String.format(Locale.ROOT, "\n%-15s : ~%d (erro padrão %.1f%%)\n%-15s : ~%d",
+                "PALAVRAS DISTINTAS", estimativa.distintas, estimativa.erroPadrao * 100,
+                "  EM LINHAS C/ CHAVE", estimativa.distintasComPalavraChave);
+    }
+
+    /**
+     * Linhas do painel com os pares mais frequentes (também usadas pelo {@link MonitorParticionado}).
+     */
+    static String formatarCoocorrencias(MatrizCoocorrencia.Resumo resumo) {
+        StringBuilder sb = new StringBuilder("\n\n=== COOCORRÊNCIAS NA MESMA LINHA ===\n");
+        resumo.maiores.forEach((par, linhas) -> sb.append(String.format("%-25s : %d\n", par, linhas)));
+        sb.append(String.format("%-25s : %d", "PARES PRESENTES", resumo.paresPresentes));
+        return sb.toString();
+    }
+
+    /**
+     * Painel do vocabulário completo: os termos mais frequentes, a quantidade de termos distintos e de tokens.
+     *
+     * NOTA TÉCNICA: A seleção do top K percorre a tabela inteira sob o lock, bloqueando o Listener por
+     * alguns milissegundos com milhões de termos; por isso é feita no máximo uma vez por intervalo.
+     */
+    private void atualizarTelaVocabulario() {
+        Map<String, Long> maiores;
+        int distintos;
+        long tokens;
+        long bytes;
+        synchronized (travaVocabulario) {
+            maiores = vocabulario.maiores(config.getTopVocabulario());
+            distintos = vocabulario.getTamanho();
+            tokens = vocabulario.getTotal();
+            bytes = vocabulario.getBytesOcupados();
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== VOCABULÁRIO (TOP ").append(config.getTopVocabulario()).append(") ===\n\n");
+        maiores.forEach((k, v) -> sb.append(String.format("%-15s : %d\n", k, v)));
+        sb.append("\n------------------------------\n");
+        sb.append(String.format("%-15s : %d\n", "TERMOS DISTINTOS", distintos));
+        sb.append(String.format("%-15s : %d\n", "TOTAL DE TOKENS", tokens));
+        sb.append(String.format("%-15s : %.1f MB", "TABELA", bytes / (1024.0 * 1024.0)));
+        if (latencias.getPontaAPonta().getTotal() > 0) {
+            sb.append("\n\n=== LATÊNCIA POR ETAPA ===\n");
+            sb.append(latencias.resumo());
+        }
+        gui.atualizarEstatisticas(sb.toString());
+        ultimosTotais = Collections.unmodifiableMap(maiores);
+    }
+
+    /**
+     * Painel do vocabulário aproximado: cada termo do top K com a estimativa (limite superior) e o limite
+     * inferior, além do erro máximo do sketch para qualquer termo.
+     */
+    private void atualizarTelaVocabularioAproximado() {
+        List<ResumoFrequentes.Estimativa> maiores;
+        long tokens;
+        long erroMaximo;
+        double confianca;
+        long bytes;
+        synchronized (travaVocabulario) {
+            maiores = vocabularioAproximado.maiores(config.getTopVocabulario());
+            tokens = vocabularioAproximado.getTotal();
+            erroMaximo = vocabularioAproximado.getSketch().getErroMaximo();
+            confianca = vocabularioAproximado.getSketch().getConfianca();
+            bytes = vocabularioAproximado.getBytesOcupados();
+        }
+        Map<String, Long> estimativas = new LinkedHashMap<>();
+        StringBuilder sb = new StringBuilder();
+        // Nos jobs de n-gramas os termos são bigramas e trigramas
+        boolean nGramas = config.getNGramas() > 0;
+        sb.append(nGramas ? "=== N-GRAMAS ATÉ " + config.getNGramas() + " (TOP " : "=== VOCABULÁRIO APROXIMADO (TOP ")
+                .append(config.getTopVocabulario()).append(") ===\n\n");
+        for (ResumoFrequentes.Estimativa e : maiores) {
+            sb.append(String.format("%-15s : %d", e.termo, e.estimativa));
+            if (e.minimo < e.estimativa) sb.append(String.format(" (mín. %d)", e.minimo));
+            sb.append('\n');
+            estimativas.put(e.termo, e.estimativa);
+        }
+        sb.append("\n------------------------------\n");
+        sb.append(String.format("%-15s : %d\n", nGramas ? "TOTAL DE N-GRAMAS" : "TOTAL DE TOKENS", tokens));
+        sb.append(String.format(Locale.ROOT, "%-15s : +%d (confiança %.1f%%)\n", "ERRO MÁXIMO", erroMaximo, confianca * 100));
+        sb.append(String.format(Locale.ROOT, "%-15s : %.1f MB (fixa)", "MEMÓRIA", bytes / (1024.0 * 1024.0)));
+        if (latencias.getPontaAPonta().getTotal() > 0) {
+            sb.append("\n\n=== LATÊNCIA POR ETAPA ===\n");
+            sb.append(latencias.resumo());
+        }
+        gui.atualizarEstatisticas(sb.toString());
+        ultimosTotais = Collections.unmodifiableMap(estimativas);
     }
-}
\ No newline at end of file
+}
@@ -1,111 +1,922 @@
 package br.edu.ifce.ppd.mom.componentes;
 
+import br.edu.ifce.ppd.mom.contagem.CacheMotores;
+import br.edu.ifce.ppd.mom.contagem.MotorContagem;
+import br.edu.ifce.ppd.mom.contagem.TipoMotor;
+import br.edu.ifce.ppd.mom.eventos.EventoLinhasProcessadas;
+import br.edu.ifce.ppd.mom.eventos.EventoResultadoPublicado;
 import br.edu.ifce.ppd.mom.infra.ConfiguracaoJMS;
-import br.edu.ifce.ppd.mom.gui.PainelDashboard;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoPipeline;
+import br.edu.ifce.ppd.mom.infra.Relogio;
+import br.edu.ifce.ppd.mom.gestao.RegistroJMX;
+import br.edu.ifce.ppd.mom.gestao.WorkerMXBean;
+import br.edu.ifce.ppd.mom.gui.SaidaMonitoramento;
+import br.edu.ifce.ppd.mom.metricas.Contador;
+import br.edu.ifce.ppd.mom.metricas.HistogramaLatencia;
+import br.edu.ifce.ppd.mom.metricas.MedidorTaxa;
+import br.edu.ifce.ppd.mom.metricas.RegistroMetricas;
 
 import javax.jms.*;
+import javax.management.ObjectName;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Componente Worker responsável pelo processamento dos dados.
  * Ele consome linhas da Fila, conta as palavras-chave e publica os resultados em um Tópico.
  */
-public class ProcessadorPalavras implements Runnable {
+public class ProcessadorPalavras implements Runnable, WorkerMXBean {
+    // Tempo máximo de espera pelo anúncio de um job desconhecido antes de devolver a linha à Fila
+    private static final long ESPERA_ANUNCIO_MS = 5000;
+
+    // Destino de uma mensagem de linhas conforme o job dela (ver selecionarJob)
+    private enum SelecaoJob { PROCESSAR, DESCARTAR, DEVOLVER }
+
+    // Espera na Fila da vez quando nenhuma Fila de job tinha mensagens na última volta do rodízio
+    private static final long ESPERA_FILAS_VAZIAS_MS = 20;
+
+    // Consultas síncronas são entregues uma a uma, para que as partes de um pedido se espalhem pelos Workers
+    private static final int PREFETCH_CONSULTAS = 1;
+
+    // Intervalo entre os envios do acumulado do Worker (sketch e resumo de frequentes no vocabulário
+    // aproximado, registradores do HyperLogLog na estimativa de palavras distintas, pares de coocorrência)
+    // e dos avisos de progresso
+    private static final long INTERVALO_RESUMO_MS = 1000;
+
     private final int idWorker;
-    private final List<String> palavrasAlvo;
-    private final PainelDashboard gui;
+    private final List<String> palavrasPadrao;
+    private final SaidaMonitoramento gui;
+    private final ConfiguracaoPipeline config;
+    private final CatalogoJobs catalogo;
     private Connection conexao;
 
-    public ProcessadorPalavras(int id, List<String> palavrasAlvo, PainelDashboard gui) {
+    // Envia as respostas das consultas síncronas (produtor sem destino fixo: usa o JMSReplyTo de cada pedido)
+    private MessageProducer produtorRespostas;
+
+    // Motor de contagem exclusivo deste Worker (os motores não são thread-safe). Com um catálogo de
+    // jobs, o motor acompanha o "jobId" de cada mensagem e vem do cache, sem recompilar a cada troca
+    private final CacheMotores cacheMotores = new CacheMotores();
+    private MotorContagem motor;
+    private List<String> palavrasAlvo;
+    private int[] ocorrencias;
+    private String jobCorrente;
+    private volatile TipoMotor tipoMotor;
+
+    // Vocabulário completo: os tokens (ou n-gramas) de cada mensagem são somados num acumulado publicado a
+    // cada mensagem, pela sessão dela
+    private boolean vocabularioCompleto;
+    private AcumuladoVocabulario vocabularioExato;
+
+    // Acumulados publicados a cada intervalo por uma sessão própria: vocabulário aproximado (sketch e
+    // resumo de frequentes), palavras distintas (HyperLogLog) e coocorrências (pares de palavras-chave).
+    // Protegidos por travaResumo porque, no modo Listener, a thread principal envia os acumulados quando
+    // deixam de chegar mensagens. Cada um é reaproveitado pelos jobs seguintes com os mesmos parâmetros
+    private final Object travaResumo = new Object();
+    private AcumuladoVocabularioAproximado vocabularioAproximado;
+    private AcumuladoDistintas distintas;
+    private AcumuladoCoocorrencias coocorrencias;
+    // Acumulados do job corrente: o do vocabulário aproximado ou os alimentados linha a linha pelo motor
+    private List<AcumuladoWorker> acumuladosJob = Collections.emptyList();
+    private int[] presentes;
+
+    // Acumulados pendentes de envio, do job jobResumo (os do job corrente já podem ser os do próximo job
+    // quando são enviados), e as linhas somadas a eles desde o último envio
+    private List<AcumuladoWorker> acumuladosResumo = Collections.emptyList();
+    private boolean resumoPendente;
+    private String jobResumo;
+    private long linhasResumo;
+    private long tsLeituraResumo;
+    private long proximoEnvioResumo;
+    private Session sessaoResumos;
+    private MessageProducer produtorResumos;
+
+    // Progresso por job: mensagens de linhas processadas e confirmadas desde o último aviso ao Monitor
+    // (também protegido por travaResumo). O aviso segue o caminho dos resultados: com agregadores, vai para
+    // a Fila de parciais no mesmo grupo de mensagens (JMSXGroupID) dos resultados deste Worker
+    private final Map<String, Long> progressoPendente = new LinkedHashMap<>();
+    // Das mensagens acima, as confirmadas sem contagem (linhas descartadas)
+    private final Map<String, Long> descartesPendentes = new HashMap<>();
+    private long proximoEnvioProgresso;
+    private MessageProducer produtorProgresso;
+    private String grupoParciais;
+
+    // Métricas do Worker: totais compartilhados e linhas processadas por este Worker
+    private final Contador mensagensRecebidas = RegistroMetricas.global().contador(RegistroMetricas.MENSAGENS_RECEBIDAS_WORKER);
+    private final Contador linhasProcessadas = RegistroMetricas.global().contador(RegistroMetricas.LINHAS_PROCESSADAS);
+    private final Contador resultadosPublicados = RegistroMetricas.global().contador(RegistroMetricas.RESULTADOS_PUBLICADOS);
+    private final HistogramaLatencia tempoContagemLinha = RegistroMetricas.global().histograma(RegistroMetricas.TEMPO_CONTAGEM_LINHA);
+    private final Contador linhasDesteWorker;
+    private final Contador tempoOcupado = RegistroMetricas.global().contador(RegistroMetricas.TEMPO_OCUPADO_WORKERS);
+    private final Contador trocasJob = RegistroMetricas.global().contador(RegistroMetricas.TROCAS_JOB);
+    private final Contador motoresCompilados = RegistroMetricas.global().contador(RegistroMetricas.MOTORES_COMPILADOS);
+    private final Contador linhasDescartadas = RegistroMetricas.global().contador(RegistroMetricas.LINHAS_DESCARTADAS);
+    private final Contador consultasRespondidas = RegistroMetricas.global().contador(RegistroMetricas.CONSULTAS_RESPONDIDAS);
+
+    // Estado exposto via JMX. Só a thread do Listener escreve, por isso basta 'volatile'
+    private volatile long mensagensDesteWorker;
+    private volatile long resultadosDesteWorker;
+    private volatile boolean processando;
+    private volatile long ultimaMensagemEm;
+    private final MedidorTaxa taxaLinhas = new MedidorTaxa();
+
+    public ProcessadorPalavras(int id, List<String> palavrasAlvo, SaidaMonitoramento gui) {
+        this(id, palavrasAlvo, gui, new ConfiguracaoPipeline());
+    }
+
+    public ProcessadorPalavras(int id, List<String> palavrasAlvo, SaidaMonitoramento gui, ConfiguracaoPipeline config) {
+        this(id, palavrasAlvo, gui, config, null);
+    }
+
+    /**
+     * Cria um Worker que segue o job de cada mensagem, consultando o catálogo alimentado pelo
+     * Tópico de controle. As palavras informadas são as do job da configuração (config.getJobId()).
+     */
+    public ProcessadorPalavras(int id, List<String> palavrasAlvo, SaidaMonitoramento gui, ConfiguracaoPipeline config,
+                               CatalogoJobs catalogo) {
         this.idWorker = id;
-        this.palavrasAlvo = palavrasAlvo;
+        this.palavrasPadrao = palavrasAlvo;
         this.gui = gui;
+        this.config = config;
+        this.catalogo = catalogo;
+        this.linhasDesteWorker = RegistroMetricas.global().contador(RegistroMetricas.linhasProcessadasWorker(id));
+        usarMotor(config.getJobId(), config.getTipoMotor(), palavrasAlvo, config.getTopVocabulario(), config.getLarguraSketch(),
+                config.isEstimarDistintas(), config.isContarCoocorrencias(), config.getNGramas(), config.getParticoesMonitor());
     }
 
     @Override
     public void run() {
         gui.registrarLog("[Worker " + idWorker + "] Serviço iniciado. Aguardando mensagens...");
+        ObjectName nomeJmx = RegistroJMX.registrar("Worker", "worker-" + idWorker, this);
         try {
             // Configura a conexão com o middleware de mensageria
-            conexao = ConfiguracaoJMS.criarFabricaConexao().createConnection();
+            conexao = ConfiguracaoJMS.criarFabricaConexao(config.getUrlBroker()).createConnection();
             conexao.start();
-            Session sessao = conexao.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            // O modo de confirmação é configurável (AUTO, CLIENT, DUPS_OK ou sessão transacionada)
+            Session sessao = config.isSessaoTransacionada()
+                    ? conexao.createSession(true, Session.SESSION_TRANSACTED)
+                    : conexao.createSession(false, config.getModoConfirmacao());
 
-            // Consumidor: Conecta-se à Fila para receber as linhas de texto pendentes
-            Destination filaOrigem = sessao.createQueue(ConfiguracaoJMS.NOME_FILA_LINHAS);
-            MessageConsumer consumidor = sessao.createConsumer(filaOrigem);
-
-            // Produtor: Conecta-se ao Tópico para publicar as estatísticas encontradas
-            Destination topicoDestino = sessao.createTopic(ConfiguracaoJMS.NOME_TOPICO_RESULTADOS);
+            // Produtor: Conecta-se ao Tópico para publicar as estatísticas encontradas (ou à Fila de
+            // parciais, quando agregadores intermediários somam os resultados antes do Monitor)
+            Destination topicoDestino = config.getFilaParciais() == null
+                    ? sessao.createTopic(ConfiguracaoJMS.NOME_TOPICO_RESULTADOS)
+                    : sessao.createQueue(config.getFilaParciais());
             MessageProducer publicador = sessao.createProducer(topicoDestino);
+            // Com agregadores, as parciais e os avisos de progresso deste Worker vão sempre ao mesmo agregador
+            if (config.getFilaParciais() != null) grupoParciais = "worker-" + idWorker;
+            publicador.setDeliveryMode(config.isEntregaPersistente() ? DeliveryMode.PERSISTENT : DeliveryMode.NON_PERSISTENT);
+            produtorRespostas = sessao.createProducer(null);
+            produtorRespostas.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+            MessageConsumer consultas = sessao.createConsumer(sessao.createQueue(
+                    ConfiguracaoJMS.NOME_FILA_CONSULTAS + "?consumer.prefetchSize=" + PREFETCH_CONSULTAS));
+
+            if (catalogo == null) {
+                // Consumidor: Conecta-se à Fila para receber as linhas de texto pendentes
+                // (o prefetch limita quantas mensagens ficam reservadas a este Worker)
+                MessageConsumer consumidor = criarConsumidor(sessao, config.getFilaLinhas());
+
+                // Configura um Listener assíncrono para processar mensagens assim que chegarem
+                consumidor.setMessageListener(msg -> tratarMensagem(msg, sessao, publicador));
+                // As consultas síncronas chegam pela mesma sessão, que entrega uma mensagem de cada vez
+                consultas.setMessageListener(msg -> tratarMensagem(msg, sessao, publicador));
 
-            // Configura um Listener assíncrono para processar mensagens assim que chegarem
-            consumidor.setMessageListener(msg -> {
-                try {
-                    if (msg instanceof TextMessage) {
-                        String textoLinha = ((TextMessage) msg).getText();
-                        // Delega o processamento da linha para o método auxiliar
-                        processarLinha(textoLinha, sessao, publicador);
+                // Mantém a thread em espera para que o Listener continue ativo, acordando periodicamente
+                // para enviar o acumulado do intervalo (vocabulário aproximado, palavras distintas) quando não
+                // chegam mais mensagens
+                while (true) {
+                    synchronized (this) {
+                        wait(INTERVALO_RESUMO_MS);
                     }
-                } catch (JMSException e) {
-                    // Exceções de conexão podem ocorrer no encerramento, são ignoradas aqui
+                    enviarResumoVencido();
                 }
-            });
-
-            // Mantém a thread em estado de espera (bloqueada) para que o Listener continue ativo
-            synchronized (this) {
-                wait();
+            } else {
+                // Com catálogo de jobs, a própria thread consome as Filas de todos os jobs ativos
+                consumirFilasDosJobs(sessao, consultas, publicador);
             }
 
         } catch (InterruptedException e) {
             gui.registrarLog("[Worker " + idWorker + "] Encerrando execução a pedido do usuário...");
         } catch (JMSException e) {
-            gui.registrarLog("[Worker " + idWorker + "] Falha na conexão JMS: " + e.getMessage());
+            // Interrompido durante um receive(): é o encerramento normal do Worker
+            if (Thread.currentThread().isInterrupted()) {
+                gui.registrarLog("[Worker " + idWorker + "] Encerrando execução a pedido do usuário...");
+            } else {
+                gui.registrarLog("[Worker " + idWorker + "] Falha na conexão JMS: " + e.getMessage());
+            }
         } finally {
+            encerrarResumo();
             // Garante o fechamento adequado dos recursos de rede
             try { if (conexao != null) conexao.close(); } catch (Exception ignored) {}
+            RegistroJMX.remover(nomeJmx);
+        }
+    }
+
+    private MessageConsumer criarConsumidor(Session sessao, String fila) throws JMSException {
+        return sessao.createConsumer(sessao.createQueue(fila + "?consumer.prefetchSize=" + config.getPrefetchWorkers()));
+    }
+
+    /**
+     * Laço dos Workers ligados a um catálogo: cada job ativo tem a sua Fila, consumida em rodízio
+     * ponderado. Na sua vez, um job cede até "peso" mensagens antes de passar a vez ao próximo, de modo
+     * que um arquivo enorme não impede que jobs pequenos avancem. Filas vazias passam a vez imediatamente.
+     *
+     * As consultas síncronas têm prioridade: a Fila de consultas é verificada antes de cada mensagem de job.
+     *
+     * NOTA TÉCNICA: receiveNoWait() apenas retira do buffer de prefetch local, sem ida ao Broker. Quando
+     * uma volta inteira não encontra mensagens, o Worker espera alguns milissegundos na Fila da vez.
+     */
+    private void consumirFilasDosJobs(Session sessao, MessageConsumer consultas, MessageProducer publicador)
+            throws JMSException, InterruptedException {
+        Map<String, MessageConsumer> consumidores = new HashMap<>();
+        List<DefinicaoJob> jobs = new ArrayList<>();
+        long versao = -1;
+        int vez = 0;
+        int creditos = 0;
+        int filasVazias = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                enviarResumoVencido();
+                Message consulta = consultas.receiveNoWait();
+                if (consulta != null) {
+                    tratarMensagem(consulta, sessao, publicador);
+                    continue;
+                }
+                if (catalogo.getVersao() != versao) {
+                    versao = catalogo.getVersao();
+                    jobs = catalogo.getAtivos();
+                    atualizarConsumidores(sessao, jobs, consumidores);
+                    vez = 0;
+                    creditos = 0;
+                    filasVazias = 0;
+                }
+                if (jobs.isEmpty()) {
+                    // Sem jobs, espera por consultas; o catálogo é verificado novamente a cada intervalo curto
+                    consulta = consultas.receive(ESPERA_FILAS_VAZIAS_MS);
+                    if (consulta != null) tratarMensagem(consulta, sessao, publicador);
+                    continue;
+                }
+                DefinicaoJob job = jobs.get(vez);
+                if (creditos == 0) creditos = job.getPeso();
+                MessageConsumer consumidor = consumidores.get(job.getJobId());
+                Message msg = filasVazias >= jobs.size()
+                        ? consumidor.receive(ESPERA_FILAS_VAZIAS_MS)
+                        : consumidor.receiveNoWait();
+                if (msg == null) {
+                    filasVazias++;
+                    creditos = 0;
+                } else {
+                    filasVazias = 0;
+                    tratarMensagem(msg, sessao, publicador);
+                    creditos--;
+                }
+                if (creditos == 0) vez = (vez + 1) % jobs.size();
+            }
+        } finally {
+            for (MessageConsumer c : consumidores.values()) {
+                try { c.close(); } catch (JMSException ignored) {}
+            }
+        }
+    }
+
+    /**
+     * Abre consumidores para os jobs novos e fecha os dos jobs que saíram do catálogo
+     * (mensagens pré-carregadas e não confirmadas voltam para a Fila do job).
+     */
+    private void atualizarConsumidores(Session sessao, List<DefinicaoJob> jobs, Map<String, MessageConsumer> consumidores)
+            throws JMSException {
+        Map<String, MessageConsumer> anteriores = new HashMap<>(consumidores);
+        consumidores.clear();
+        for (DefinicaoJob job : jobs) {
+            MessageConsumer consumidor = anteriores.remove(job.getJobId());
+            consumidores.put(job.getJobId(), consumidor != null ? consumidor : criarConsumidor(sessao, job.getFilaLinhas()));
+        }
+        for (MessageConsumer encerrado : anteriores.values()) encerrado.close();
+    }
+
+    /**
+     * Processa uma mensagem da Fila e confirma o consumo conforme o modo configurado.
+     */
+    private void tratarMensagem(Message msg, Session sessao, MessageProducer publicador) {
+        long recebidoEm = Relogio.agoraMicros();
+        long inicioProcessamento = System.nanoTime();
+        mensagensRecebidas.incrementar();
+        mensagensDesteWorker++;
+        ultimaMensagemEm = System.currentTimeMillis();
+        processando = true;
+        boolean contada = false;
+        boolean descartada = false;
+        try {
+            boolean consulta = msg.getJMSReplyTo() != null;
+            SelecaoJob selecao = consulta ? SelecaoJob.PROCESSAR : selecionarJob(msg);
+            if (selecao == SelecaoJob.DEVOLVER) {
+                devolverMensagem(msg, sessao);
+                return;
+            }
+            if (consulta) {
+                // Consulta síncrona: a contagem volta para quem pediu, sem passar pelo Tópico de resultados
+                responderConsulta(msg, sessao);
+            } else if (selecao == SelecaoJob.DESCARTAR) {
+                // Linha de um job encerrado: confirmada sem contagem
+                linhasDescartadas.adicionar(msg.propertyExists("qtdLinhas") ? msg.getIntProperty("qtdLinhas") : 1);
+                descartada = true;
+            } else if (msg instanceof TextMessage) {
+                String textoLinha = ((TextMessage) msg).getText();
+                // Delega o processamento da linha (ou lote de linhas) para o método auxiliar
+                processarLinha(textoLinha, msg, recebidoEm, sessao, publicador);
+                contada = true;
+            }
+            // Confirma o consumo somente após publicar os resultados, conforme o modo configurado
+            confirmar(msg, sessao);
+            if (contada || descartada) registrarProgresso(msg, descartada);
+        } catch (JMSException e) {
+            // Exceções de conexão podem ocorrer no encerramento, são ignoradas aqui
+            if (config.isSessaoTransacionada()) {
+                try { sessao.rollback(); } catch (JMSException ignored) {}
+            }
+        } catch (RuntimeException e) {
+            // Mensagem que o Worker não consegue processar: confirmada sem contagem, para que não volte
+            // à Fila indefinidamente nem encerre a thread do Worker
+            gui.registrarLog("[Worker " + idWorker + "] Mensagem descartada por falha no processamento: " + e);
+            descartarComFalha(msg, sessao);
+        } finally {
+            processando = false;
+            // Tempo ocupado de todos os Workers, usado pelo autoescalonamento para medir a ocupação
+            tempoOcupado.adicionar(System.nanoTime() - inicioProcessamento);
+        }
+    }
+
+    private void confirmar(Message msg, Session sessao) throws JMSException {
+        if (config.isSessaoTransacionada()) {
+            sessao.commit();
+        } else if (config.getModoConfirmacao() == Session.CLIENT_ACKNOWLEDGE) {
+            msg.acknowledge();
         }
     }
 
+    /**
+     * Confirma uma mensagem cujo processamento falhou e, se for de linhas, a informa como descartada no
+     * progresso do job.
+     */
+    private void descartarComFalha(Message msg, Session sessao) {
+        try {
+            confirmar(msg, sessao);
+            if (msg.getJMSReplyTo() == null) {
+                linhasDescartadas.adicionar(msg.propertyExists("qtdLinhas") ? msg.getIntProperty("qtdLinhas") : 1);
+                registrarProgresso(msg, true);
+            }
+        } catch (JMSException e) {
+            if (config.isSessaoTransacionada()) {
+                try { sessao.rollback(); } catch (JMSException ignored) {}
+            }
+        }
+    }
+
+    // --- Atributos JMX ---
+
+    @Override
+    public int getIdWorker() { return idWorker; }
+
+    @Override
+    public String getMotor() { return tipoMotor.name(); }
+
+    @Override
+    public long getMensagensRecebidas() { return mensagensDesteWorker; }
+
+    @Override
+    public long getLinhasProcessadas() { return linhasDesteWorker.getValor(); }
+
+    @Override
+    public long getResultadosPublicados() { return resultadosDesteWorker; }
+
+    @Override
+    public double getLinhasPorSegundo() { return taxaLinhas.taxa(linhasDesteWorker.getValor()); }
+
+    @Override
+    public int getMensagensEmProcessamento() { return processando ? 1 : 0; }
+
+    @Override
+    public long getIdadeUltimaMensagemMs() {
+        long ultima = ultimaMensagemEm;
+        return ultima == 0 ? -1 : System.currentTimeMillis() - ultima;
+    }
+
+    /**
+     * Prepara o motor do job da mensagem. Sem catálogo, ou sem "jobId", o Worker conta sempre com as
+     * palavras recebidas na construção (comportamento original).
+     *
+     * @return DESCARTAR se a mensagem pertence a um job encerrado; DEVOLVER se o anúncio do job não chegou
+     *         a tempo ou se o Worker foi interrompido durante a espera.
+     */
+    private SelecaoJob selecionarJob(Message msg) throws JMSException {
+        String jobId = msg.getStringProperty("jobId");
+        if (catalogo == null || jobId == null || jobId.equals(jobCorrente)) return SelecaoJob.PROCESSAR;
+        if (jobId.equals(config.getJobId())) {
+            usarMotor(jobId, config.getTipoMotor(), palavrasPadrao, config.getTopVocabulario(), config.getLarguraSketch(),
+                    config.isEstimarDistintas(), config.isContarCoocorrencias(), config.getNGramas(), config.getParticoesMonitor());
+            return SelecaoJob.PROCESSAR;
+        }
+        DefinicaoJob job;
+        try {
+            job = catalogo.aguardar(jobId, ESPERA_ANUNCIO_MS);
+        } catch (InterruptedException e) {
+            // Worker sendo encerrado: a linha volta à Fila e a thread principal trata a interrupção
+            Thread.currentThread().interrupt();
+            return SelecaoJob.DEVOLVER;
+        }
+        if (job == null) return catalogo.isEncerrado(jobId) ? SelecaoJob.DESCARTAR : SelecaoJob.DEVOLVER;
+        usarMotor(jobId, job.getTipoMotor(), job.getPalavras(), job.getTopVocabulario(), job.getLarguraSketch(),
+                job.isEstimarDistintas(), job.isContarCoocorrencias(), job.getNGramas(), job.getParticoesMonitor());
+        return SelecaoJob.PROCESSAR;
+    }
+
+    /**
+     * Devolve à Fila uma linha que este Worker não pôde processar, para que ela seja entregue de novo
+     * (a este ou a outro Worker) em vez de perdida.
+     *
+     * NOTA TÉCNICA: Com sessão transacionada ou CLIENT_ACKNOWLEDGE, rollback()/recover() fazem o Broker
+     * reentregar a mensagem. Nos modos de confirmação automática o receive() já a confirmou, então ela é
+     * reenviada à própria Fila. A interrupção é suspensa durante a devolução.
+     */
+    private void devolverMensagem(Message msg, Session sessao) throws JMSException {
+        boolean interrompido = Thread.interrupted();
+        try {
+            if (config.isSessaoTransacionada()) {
+                sessao.rollback();
+            } else if (config.getModoConfirmacao() == Session.CLIENT_ACKNOWLEDGE) {
+                sessao.recover();
+            } else {
+                produtorRespostas.send(msg.getJMSDestination(), msg, msg.getJMSDeliveryMode(), msg.getJMSPriority(),
+                        Message.DEFAULT_TIME_TO_LIVE);
+            }
+        } finally {
+            if (interrompido) Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Conta o trecho de uma consulta síncrona com o motor indicado no pedido (obtido do cache, sem alterar
+     * o job corrente do Worker) e responde à Fila temporária do solicitante com o mesmo JMSCorrelationID.
+     * Um pedido inválido recebe uma resposta com a propriedade "erro", para que o cliente falhe na hora em
+     * vez de esperar o tempo limite.
+     */
+    private void responderConsulta(Message pedido, Session sessao) throws JMSException {
+        String textoPalavras = pedido.getStringProperty("palavras");
+        String nomeMotor = pedido.getStringProperty("motor");
+        String erro = validarConsulta(textoPalavras, nomeMotor);
+        if (erro != null) {
+            MapMessage resposta = sessao.createMapMessage();
+            resposta.setJMSCorrelationID(pedido.getJMSCorrelationID());
+            resposta.setStringProperty("erro", erro);
+            resposta.setIntProperty("origemWorkerId", idWorker);
+            produtorRespostas.send(pedido.getJMSReplyTo(), resposta);
+            gui.registrarLog("[Worker " + idWorker + "] Consulta recusada: " + erro);
+            return;
+        }
+        List<String> palavras = Arrays.asList(textoPalavras.split("\n"));
+        TipoMotor tipo = TipoMotor.valueOf(nomeMotor);
+        MotorContagem motorConsulta = cacheMotores.obter(tipo, palavras);
+        int[] contagem = new int[palavras.size()];
+        String texto = pedido instanceof TextMessage ? ((TextMessage) pedido).getText() : null;
+        int linhas = 0;
+        long inicioContagem = System.nanoTime();
+        if (texto != null && !texto.isEmpty()) {
+            int inicio = 0;
+            int fim;
+            while ((fim = texto.indexOf('\n', inicio)) >= 0) {
+                motorConsulta.contar(texto.substring(inicio, fim), contagem);
+                inicio = fim + 1;
+                linhas++;
+            }
+            motorConsulta.contar(texto.substring(inicio), contagem);
+            linhas++;
+            tempoContagemLinha.registrar((System.nanoTime() - inicioContagem) / linhas);
+            linhasProcessadas.adicionar(linhas);
+            linhasDesteWorker.adicionar(linhas);
+        }
+
+        // Uma entrada por palavra-chave, na ordem do pedido; "parte" identifica o trecho no pedido
+        MapMessage resposta = sessao.createMapMessage();
+        for (int i = 0; i < contagem.length; i++) resposta.setLong(palavras.get(i), contagem[i]);
+        resposta.setJMSCorrelationID(pedido.getJMSCorrelationID());
+        resposta.setIntProperty("parte", pedido.getIntProperty("parte"));
+        resposta.setIntProperty("linhas", linhas);
+        resposta.setIntProperty("origemWorkerId", idWorker);
+        produtorRespostas.send(pedido.getJMSReplyTo(), resposta);
+        consultasRespondidas.incrementar();
+    }
+
+    /**
+     * Verifica as palavras-chave (uma por linha) e o motor de uma consulta. As palavras são os nomes das
+     * entradas do MapMessage de resposta, que não podem ser vazios nem repetidos.
+     *
+     * @return A descrição do problema, ou null se o pedido é válido.
+     */
+    private static String validarConsulta(String palavras, String motor) {
+        if (palavras == null || motor == null) return "Consulta sem palavras-chave ou sem motor.";
+        Set<String> vistas = new HashSet<>();
+        for (String palavra : palavras.split("\n", -1)) {
+            if (palavra.trim().isEmpty()) return "Palavra-chave vazia na consulta.";
+            if (!vistas.add(palavra)) return "Palavra-chave repetida na consulta: " + palavra;
+        }
+        try {
+            TipoMotor.valueOf(motor);
+        } catch (IllegalArgumentException e) {
+            return "Motor desconhecido: " + motor;
+        }
+        return null;
+    }
+
+    private void usarMotor(String jobId, TipoMotor tipo, List<String> palavras, int topVocabulario, int larguraSketch,
+                           boolean estimarDistintas, boolean contarCoocorrencias, int nGramas,
+                           int particoesMonitor) {
+        long compilacoes = cacheMotores.getCompilacoes();
+        motor = cacheMotores.obter(tipo, palavras);
+        if (cacheMotores.getCompilacoes() > compilacoes) motoresCompilados.incrementar();
+        if (ocorrencias == null || ocorrencias.length != palavras.size()) ocorrencias = new int[palavras.size()];
+        if (jobCorrente != null) trocasJob.incrementar();
+        palavrasAlvo = palavras;
+        tipoMotor = tipo;
+        jobCorrente = jobId;
+        vocabularioCompleto = topVocabulario > 0;
+        if (presentes == null || presentes.length < palavras.size()) presentes = new int[palavras.size()];
+        // Um acumulado trocado aqui continua nos pendentes até iniciarResumo enviá-lo
+        List<AcumuladoWorker> acumulados = new ArrayList<>(2);
+        if (vocabularioCompleto && larguraSketch == 0) {
+            if (vocabularioExato == null || !vocabularioExato.isCompativel(nGramas, particoesMonitor)) {
+                vocabularioExato = new AcumuladoVocabulario(nGramas, particoesMonitor);
+            }
+        } else if (vocabularioCompleto) {
+            if (vocabularioAproximado == null
+                    || !vocabularioAproximado.isCompativel(larguraSketch, topVocabulario, nGramas)) {
+                vocabularioAproximado = new AcumuladoVocabularioAproximado(larguraSketch, topVocabulario, nGramas);
+            }
+            acumulados.add(vocabularioAproximado);
+        } else {
+            if (estimarDistintas) {
+                if (distintas == null) distintas = new AcumuladoDistintas();
+                acumulados.add(distintas);
+            }
+            if (contarCoocorrencias && palavras.size() > 1) {
+                if (coocorrencias == null || coocorrencias.getTermos() != palavras.size()) {
+                    coocorrencias = new AcumuladoCoocorrencias(palavras.size());
+                }
+                acumulados.add(coocorrencias);
+            }
+        }
+        acumuladosJob = acumulados;
+    }
+
     /**
      * Analisa o texto recebido e envia notificações para cada palavra encontrada.
      * * NOTA TÉCNICA: Para garantir consistência entre o monitoramento do ActiveMQ (Messages Enqueued)
      * e o Dashboard da aplicação, este método envia uma mensagem individual para CADA ocorrência.
      * Exemplo: Se "Java" aparece 3 vezes, enviam-se 3 mensagens contendo valor 1.
+     * Quando a mensagem traz um lote de várias linhas (separadas por '\n'), a contagem do lote é
+     * publicada em uma única mensagem por palavra, com o total de ocorrências do lote.
      */
-    private void processarLinha(String linha, Session sessao, MessageProducer publicador) throws JMSException {
-        for (String palavraChave : palavrasAlvo) {
-            int ocorrencias = contarNoTexto(linha, palavraChave);
-            
-            // Itera sobre o número total de ocorrências encontradas na linha
-            for (int i = 0; i < ocorrencias; i++) {
+    private void processarLinha(String texto, Message origem, long recebidoEm, Session sessao, MessageProducer publicador) throws JMSException {
+        if (vocabularioCompleto) {
+            processarVocabulario(texto, origem, recebidoEm, sessao, publicador);
+            return;
+        }
+        // Conta todas as palavras-chave da(s) linha(s) de uma só vez através do motor configurado
+        Arrays.fill(ocorrencias, 0);
+        boolean lote = origem.propertyExists("qtdLinhas") && origem.getIntProperty("qtdLinhas") > 1;
+        int linhas = 1;
+        EventoLinhasProcessadas eventoContagem = new EventoLinhasProcessadas();
+        eventoContagem.begin();
+        long inicioContagem = System.nanoTime();
+        synchronized (travaResumo) {
+            if (acumulaPorLinha()) iniciarResumo(origem);
+            if (lote) {
+                int inicio = 0;
+                int fim;
+                while ((fim = texto.indexOf('\n', inicio)) >= 0) {
+                    contarLinha(texto.substring(inicio, fim));
+                    inicio = fim + 1;
+                    linhas++;
+                }
+                contarLinha(texto.substring(inicio));
+            } else {
+                contarLinha(texto);
+            }
+            if (acumulaPorLinha()) linhasResumo += linhas;
+        }
+
+        long contadoEm = Relogio.agoraMicros();
+        eventoContagem.end();
+        if (eventoContagem.shouldCommit()) {
+            eventoContagem.workerId = idWorker;
+            eventoContagem.linhas = linhas;
+            eventoContagem.caracteres = texto.length();
+            long encontradas = 0;
+            for (int qtd : ocorrencias) encontradas += qtd;
+            eventoContagem.ocorrencias = encontradas;
+            eventoContagem.commit();
+        }
+        tempoContagemLinha.registrar((System.nanoTime() - inicioContagem) / linhas);
+        linhasProcessadas.adicionar(linhas);
+        linhasDesteWorker.adicionar(linhas);
+
+        // Carimbos do Produtor repassados aos resultados para a medição de latência por etapa
+        long tsLeitura = origem.propertyExists("tsLeitura") ? origem.getLongProperty("tsLeitura") : 0;
+        long tsEnvio = origem.propertyExists("tsEnvio") ? origem.getLongProperty("tsEnvio") : 0;
+        boolean rastreioPendente = tsLeitura != 0;
+        String jobId = origem.getStringProperty("jobId");
+        if (origem.propertyExists("bytesBloco")) {
+            publicarAmostra(origem, recebidoEm, contadoEm);
+            if (acumulaPorLinha()) enviarResumoVencido();
+            return;
+        }
+
+        for (int indice = 0; indice < ocorrencias.length; indice++) {
+            String palavraChave = palavrasAlvo.get(indice);
+            if (ocorrencias[indice] == 0) continue;
+
+            // Em lotes, uma única mensagem carrega o total; caso contrário, uma mensagem por ocorrência
+            int mensagens = lote ? 1 : ocorrencias[indice];
+            int valor = lote ? ocorrencias[indice] : 1;
+
+            for (int i = 0; i < mensagens; i++) {
                 // Cria uma mensagem do tipo Map para estruturar os dados (chave-valor)
                 MapMessage mapaResultados = sessao.createMapMessage();
                 
                 mapaResultados.setString("termo", palavraChave);
-                // Define valor unitário para que o contador de mensagens do Broker reflita o total real
-                mapaResultados.setInt("ocorrencias", 1); 
+                // Valor unitário (linha única) para que o contador de mensagens do Broker reflita o total real
+                mapaResultados.setInt("ocorrencias", valor); 
                 mapaResultados.setInt("origemWorkerId", idWorker);
+                if (jobId != null) mapaResultados.setStringProperty("jobId", jobId);
+                if (grupoParciais != null) mapaResultados.setStringProperty("JMSXGroupID", grupoParciais);
+                mapaResultados.setIntProperty("hashTermo", ConfiguracaoJMS.hashTermo(palavraChave));
+                if (tsLeitura != 0) mapaResultados.setLongProperty("tsLeitura", tsLeitura);
+                if (rastreioPendente) {
+                    // Somente o primeiro resultado da mensagem leva o rastreio completo das etapas
+                    if (tsEnvio != 0) mapaResultados.setLongProperty("tsEnvio", tsEnvio);
+                    mapaResultados.setLongProperty("tsRecebimento", recebidoEm);
+                    mapaResultados.setLongProperty("tsContagem", contadoEm);
+                    mapaResultados.setLongProperty("tsPublicacao", Relogio.agoraMicros());
+                    rastreioPendente = false;
+                }
                 
                 // Publica a mensagem no Tópico de resultados
+                EventoResultadoPublicado eventoPublicacao = new EventoResultadoPublicado();
+                eventoPublicacao.begin();
                 publicador.send(mapaResultados);
+                if (eventoPublicacao.shouldCommit()) {
+                    eventoPublicacao.workerId = idWorker;
+                    eventoPublicacao.termo = palavraChave;
+                    eventoPublicacao.ocorrencias = valor;
+                    eventoPublicacao.commit();
+                }
+                resultadosPublicados.incrementar();
+                resultadosDesteWorker++;
+            }
+        }
+        if (acumulaPorLinha()) enviarResumoVencido();
+    }
+
+    /**
+     * Agregação online: publica numa única mensagem as ocorrências de todas as palavras-chave no bloco,
+     * inclusive as nulas, com os bytes do bloco. O Monitor trata cada bloco como uma unidade da amostra.
+     *
+     * NOTA TÉCNICA: A mensagem vai direto ao Tópico de resultados pela sessão dos resumos, mesmo com
+     * agregadores intermediários, pois somar blocos desfaria as unidades da amostra.
+     */
+    private void publicarAmostra(Message origem, long recebidoEm, long contadoEm) throws JMSException {
+        synchronized (travaResumo) {
+            abrirSessaoResumos();
+            MapMessage amostra = sessaoResumos.createMapMessage();
+            for (int indice = 0; indice < ocorrencias.length; indice++) {
+                amostra.setLong(palavrasAlvo.get(indice), ocorrencias[indice]);
+            }
+            amostra.setStringProperty("tipoResultado", ConfiguracaoJMS.TIPO_RESULTADO_AMOSTRA);
+            amostra.setIntProperty("origemWorkerId", idWorker);
+            amostra.setLongProperty("bytesBloco", origem.getLongProperty("bytesBloco"));
+            amostra.setLongProperty("tamanhoArquivo", origem.getLongProperty("tamanhoArquivo"));
+            String jobId = origem.getStringProperty("jobId");
+            if (jobId != null) amostra.setStringProperty("jobId", jobId);
+            if (origem.propertyExists("tsLeitura")) {
+                amostra.setLongProperty("tsLeitura", origem.getLongProperty("tsLeitura"));
+                if (origem.propertyExists("tsEnvio")) amostra.setLongProperty("tsEnvio", origem.getLongProperty("tsEnvio"));
+                amostra.setLongProperty("tsRecebimento", recebidoEm);
+                amostra.setLongProperty("tsContagem", contadoEm);
+                amostra.setLongProperty("tsPublicacao", Relogio.agoraMicros());
             }
+            produtorResumos.send(amostra);
         }
+        resultadosPublicados.incrementar();
+        resultadosDesteWorker++;
+    }
+
+    // Nos jobs de palavras-chave, palavras distintas e coocorrências são acumuladas linha a linha
+    private boolean acumulaPorLinha() {
+        return !acumuladosJob.isEmpty();
     }
 
     /**
-     * Realiza a contagem de ocorrências utilizando Expressões Regulares (Regex).
-     * Utiliza limites de palavra (\b) para evitar falsos positivos em substrings.
+     * Conta as palavras-chave de uma linha e, estimando as palavras distintas ou contando coocorrências,
+     * registra os tokens e os pares de palavras presentes nela (chamado com travaResumo).
      */
-    private int contarNoTexto(String texto, String alvo) {
-        if (texto == null || alvo == null) return 0;
-        int count = 0;
-        // Compila o padrão regex ignorando maiúsculas/minúsculas
-        Pattern p = Pattern.compile("\\b" + Pattern.quote(alvo) + "\\b", Pattern.CASE_INSENSITIVE);
-        Matcher m = p.matcher(texto);
-        while (m.find()) count++;
-        return count;
+    private void contarLinha(String linha) {
+        if (!acumulaPorLinha()) {
+            motor.contar(linha, ocorrencias);
+            return;
+        }
+        int quantidade = motor.contarPresentes(linha, ocorrencias, presentes);
+        for (AcumuladoWorker acumulado : acumuladosResumo) acumulado.acumular(linha, presentes, quantidade);
+    }
+
+    /**
+     * Vocabulário completo: conta todos os tokens do texto (linha ou lote) e publica a tabela da mensagem
+     * serializada numa única BytesMessage, com a propriedade tipoResultado = VOCABULARIO.
+     *
+     * NOTA TÉCNICA: A redução acontece por mensagem, então lotes maiores (--lote) geram tabelas com mais
+     * repetições somadas e menos bytes por token; os agregadores intermediários, quando presentes,
+     * somam as tabelas de vários lotes antes do Monitor.
+     */
+    private void processarVocabulario(String texto, Message origem, long recebidoEm, Session sessao,
+                                      MessageProducer publicador) throws JMSException {
+        // Os tokens nunca atravessam '\n', então o lote pode ser varrido de uma só vez
+        int linhas = origem.propertyExists("qtdLinhas") ? Math.max(origem.getIntProperty("qtdLinhas"), 1) : 1;
+        long inicioContagem = System.nanoTime();
+        // No vocabulário aproximado, o acumulado do job (sketch e resumo de frequentes) sai a cada intervalo
+        if (!acumuladosJob.isEmpty()) {
+            acumularAproximado(texto, origem, linhas);
+            tempoContagemLinha.registrar((System.nanoTime() - inicioContagem) / linhas);
+            linhasProcessadas.adicionar(linhas);
+            linhasDesteWorker.adicionar(linhas);
+            enviarResumoVencido();
+            return;
+        }
+        vocabularioExato.limpar();
+        vocabularioExato.acumular(texto, null, 0);
+        long contadoEm = Relogio.agoraMicros();
+        tempoContagemLinha.registrar((System.nanoTime() - inicioContagem) / linhas);
+        linhasProcessadas.adicionar(linhas);
+        linhasDesteWorker.adicionar(linhas);
+
+        String jobId = origem.getStringProperty("jobId");
+        boolean rastreioPendente = origem.propertyExists("tsLeitura");
+        for (BytesMessage resultado : vocabularioExato.publicar(sessao, linhas)) {
+            resultado.setIntProperty("origemWorkerId", idWorker);
+            if (jobId != null) resultado.setStringProperty("jobId", jobId);
+            if (grupoParciais != null) resultado.setStringProperty("JMSXGroupID", grupoParciais);
+            if (origem.propertyExists("tsLeitura")) resultado.setLongProperty("tsLeitura", origem.getLongProperty("tsLeitura"));
+            if (rastreioPendente) {
+                // Somente a primeira parte leva o rastreio completo das etapas
+                if (origem.propertyExists("tsEnvio")) resultado.setLongProperty("tsEnvio", origem.getLongProperty("tsEnvio"));
+                resultado.setLongProperty("tsRecebimento", recebidoEm);
+                resultado.setLongProperty("tsContagem", contadoEm);
+                resultado.setLongProperty("tsPublicacao", Relogio.agoraMicros());
+                rastreioPendente = false;
+            }
+            publicador.send(resultado);
+            resultadosPublicados.incrementar();
+            resultadosDesteWorker++;
+        }
+    }
+
+    /**
+     * Vocabulário aproximado: soma os tokens ao sketch e ao resumo de frequentes do Worker. O acumulado é
+     * publicado a cada INTERVALO_RESUMO_MS, ao trocar de job e no encerramento, e não a cada mensagem.
+     *
+     * NOTA TÉCNICA: As mensagens de linhas são confirmadas antes do envio do acumulado; um Worker que
+     * falhar sem encerrar perde as contagens do último intervalo. É o custo da memória fixa por Worker,
+     * aceitável numa contagem que já é aproximada.
+     */
+    private void acumularAproximado(String texto, Message origem, int linhas) throws JMSException {
+        synchronized (travaResumo) {
+            iniciarResumo(origem);
+            for (AcumuladoWorker acumulado : acumuladosResumo) acumulado.acumular(texto, null, 0);
+            linhasResumo += linhas;
+        }
+    }
+
+    /**
+     * Associa o acumulado ao job da mensagem (chamado com travaResumo). O acumulado pertence a um único
+     * job: o do job anterior é enviado antes.
+     */
+    private void iniciarResumo(Message origem) throws JMSException {
+        String jobId = origem.getStringProperty("jobId");
+        if (resumoPendente && !Objects.equals(jobId, jobResumo)) enviarResumo();
+        if (!resumoPendente) {
+            resumoPendente = true;
+            jobResumo = jobId;
+            acumuladosResumo = acumuladosJob;
+            tsLeituraResumo = 0;
+            proximoEnvioResumo = System.currentTimeMillis() + INTERVALO_RESUMO_MS;
+        }
+        if (origem.propertyExists("tsLeitura")) {
+            long tsLeitura = origem.getLongProperty("tsLeitura");
+            if (tsLeituraResumo == 0 || tsLeitura < tsLeituraResumo) tsLeituraResumo = tsLeitura;
+        }
+    }
+
+    private void enviarResumoVencido() throws JMSException {
+        synchronized (travaResumo) {
+            long agora = System.currentTimeMillis();
+            if (resumoPendente && agora >= proximoEnvioResumo) enviarResumo();
+            if (!progressoPendente.isEmpty() && agora >= proximoEnvioProgresso) enviarProgresso();
+        }
+    }
+
+    /**
+     * Soma uma mensagem de linhas ao progresso do seu job. Chamado após a confirmação, pois numa sessão
+     * transacionada os resultados só chegam ao Broker no commit. As mensagens descartadas também contam
+     * no progresso (o job não fica esperando por elas) e são informadas à parte.
+     */
+    private void registrarProgresso(Message origem, boolean descartada) throws JMSException {
+        String jobId = origem.getStringProperty("jobId");
+        synchronized (travaResumo) {
+            if (progressoPendente.isEmpty()) proximoEnvioProgresso = System.currentTimeMillis() + INTERVALO_RESUMO_MS;
+            progressoPendente.merge(jobId, 1L, Long::sum);
+            if (descartada) descartesPendentes.merge(jobId, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Avisa ao Monitor quantas mensagens de cada job foram processadas desde o último aviso (chamado com
+     * travaResumo). O acumulado pendente é enviado antes, de modo que o aviso chega depois de tudo o que
+     * as mensagens avisadas produziram: o Monitor só considera o job concluído quando a soma dos avisos
+     * alcança as mensagens enviadas pelos Produtores.
+     *
+     * NOTA TÉCNICA: Os resultados e os avisos saem pela mesma conexão e, portanto, chegam ao Broker na
+     * ordem de envio, embora por sessões diferentes.
+     */
+    private void enviarProgresso() throws JMSException {
+        enviarResumo();
+        abrirSessaoResumos();
+        for (Map.Entry<String, Long> pendente : progressoPendente.entrySet()) {
+            MapMessage aviso = sessaoResumos.createMapMessage();
+            aviso.setLong("mensagens", pendente.getValue());
+            Long descartadas = descartesPendentes.get(pendente.getKey());
+            if (descartadas != null) aviso.setLong("descartadas", descartadas);
+            aviso.setInt("origemWorkerId", idWorker);
+            aviso.setStringProperty("tipoResultado", ConfiguracaoJMS.TIPO_RESULTADO_PROGRESSO);
+            if (pendente.getKey() != null) aviso.setStringProperty("jobId", pendente.getKey());
+            if (grupoParciais != null) aviso.setStringProperty("JMSXGroupID", grupoParciais);
+            produtorProgresso.send(aviso);
+        }
+        progressoPendente.clear();
+        descartesPendentes.clear();
+    }
+
+    /**
+     * Publica o acumulado do intervalo (chamado com travaResumo) e recomeça do zero: o sketch e o resumo
+     * de frequentes, os registradores das palavras distintas e/ou os pares de coocorrência, cada um numa
+     * mensagem binária.
+     */
+    private void enviarResumo() throws JMSException {
+        if (!resumoPendente) return;
+        abrirSessaoResumos();
+        for (AcumuladoWorker acumulado : acumuladosResumo) {
+            for (BytesMessage resultado : acumulado.publicar(sessaoResumos, linhasResumo)) publicarResumo(resultado);
+        }
+        linhasResumo = 0;
+        resumoPendente = false;
+    }
+
+    // Sessão própria para o Tópico de resultados, criada no primeiro envio (chamado com travaResumo)
+    private void abrirSessaoResumos() throws JMSException {
+        if (sessaoResumos != null) return;
+        sessaoResumos = conexao.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        produtorResumos = sessaoResumos.createProducer(sessaoResumos.createTopic(ConfiguracaoJMS.NOME_TOPICO_RESULTADOS));
+        produtorResumos.setDeliveryMode(config.isEntregaPersistente() ? DeliveryMode.PERSISTENT : DeliveryMode.NON_PERSISTENT);
+        // Os avisos de progresso vão para o mesmo destino dos resultados (Tópico ou Fila de parciais)
+        produtorProgresso = config.getFilaParciais() == null ? produtorResumos
+                : sessaoResumos.createProducer(sessaoResumos.createQueue(config.getFilaParciais()));
+        produtorProgresso.setDeliveryMode(config.isEntregaPersistente() ? DeliveryMode.PERSISTENT : DeliveryMode.NON_PERSISTENT);
+    }
+
+    private void publicarResumo(BytesMessage resultado) throws JMSException {
+        resultado.setIntProperty("origemWorkerId", idWorker);
+        if (jobResumo != null) resultado.setStringProperty("jobId", jobResumo);
+        if (tsLeituraResumo != 0) resultado.setLongProperty("tsLeitura", tsLeituraResumo);
+        produtorResumos.send(resultado);
+        resultadosPublicados.incrementar();
+        resultadosDesteWorker++;
+    }
+
+    // Envia o acumulado e o progresso no encerramento do Worker (a interrupção é suspensa durante o envio)
+    private void encerrarResumo() {
+        boolean interrompido = Thread.interrupted();
+        try {
+            synchronized (travaResumo) {
+                if (conexao != null && !progressoPendente.isEmpty()) enviarProgresso();
+                else if (resumoPendente && conexao != null) enviarResumo();
+            }
+        } catch (JMSException e) {
+            gui.registrarLog("[Worker " + idWorker + "] Acumulado do intervalo não enviado: " + e.getMessage());
+        } finally {
+            if (interrompido) Thread.currentThread().interrupt();
+        }
     }
-}
\ No newline at end of file
+}
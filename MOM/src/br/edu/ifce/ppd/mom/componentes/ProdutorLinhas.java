@@ -1,47 +1,121 @@
 package br.edu.ifce.ppd.mom.componentes;
 
+import br.edu.ifce.ppd.mom.eventos.EventoLoteLido;
 import br.edu.ifce.ppd.mom.infra.ConfiguracaoJMS;
-import br.edu.ifce.ppd.mom.gui.PainelDashboard;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoPipeline;
+import br.edu.ifce.ppd.mom.infra.Relogio;
+import br.edu.ifce.ppd.mom.gestao.ProdutorMXBean;
+import br.edu.ifce.ppd.mom.gestao.RegistroJMX;
+import br.edu.ifce.ppd.mom.gui.SaidaMonitoramento;
+import br.edu.ifce.ppd.mom.metricas.Contador;
+import br.edu.ifce.ppd.mom.metricas.HistogramaLatencia;
+import br.edu.ifce.ppd.mom.metricas.MedidorTaxa;
+import br.edu.ifce.ppd.mom.metricas.RegistroMetricas;
 
 import javax.jms.*;
+import javax.management.ObjectName;
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
 
 /**
  * Componente responsável pela leitura do arquivo de texto e envio das linhas para a fila JMS.
  * Atua como o "Produtor" no modelo MOM.
+ *
+ * Na agregação online o arquivo é dividido em blocos de bytes enviados em ordem aleatória (um bloco
+ * por mensagem), para que qualquer prefixo do processamento seja uma amostra aleatória do arquivo.
  */
-public class ProdutorLinhas implements Runnable {
-    
+public class ProdutorLinhas implements Runnable, ProdutorMXBean {
+
     // Enumeração para definir a estratégia de leitura: apenas linhas pares ou ímpares.
     // Isso permite instanciar duas threads lendo o mesmo arquivo de forma particionada.
     public enum TipoLeitura { PARES, IMPARES }
 
     private final String caminhoArquivo;
-    private final TipoLeitura tipo;
-    private final PainelDashboard gui;
+    private final SaidaMonitoramento gui;
+    private final ConfiguracaoPipeline config;
+    private final ControleVazao controleVazao;
+
+    // Particionamento genérico: esta instância envia as linhas n tais que (n - 1) % totalParticoes == particao
+    private final int particao;
+    private final int totalParticoes;
+    private final String descricao;
+
+    // Métricas do Produtor (referências obtidas uma única vez, fora do laço de leitura)
+    private final Contador linhasLidas = RegistroMetricas.global().contador(RegistroMetricas.LINHAS_LIDAS);
+    private final Contador bytesLidos = RegistroMetricas.global().contador(RegistroMetricas.BYTES_LIDOS);
+    private final Contador mensagensEnviadas = RegistroMetricas.global().contador(RegistroMetricas.MENSAGENS_ENVIADAS);
+    private final HistogramaLatencia latenciaEnvio = RegistroMetricas.global().histograma(RegistroMetricas.LATENCIA_ENVIO);
+
+    // Estado exposto via JMX (escrito apenas pela thread de leitura)
+    private volatile long linhasDesteProdutor;
+    private volatile long mensagensDesteProdutor;
+    private volatile long ultimoEnvioEm;
+    private final MedidorTaxa taxaLinhas = new MedidorTaxa();
+
+    // Agregação online: buffer do bloco lido e bytes das suas linhas (com as quebras), o peso do bloco
+    private byte[] bufferBloco = new byte[0];
+    private long bytesBloco;
+
+    public ProdutorLinhas(String caminhoArquivo, TipoLeitura tipo, SaidaMonitoramento gui) {
+        this(caminhoArquivo, tipo == TipoLeitura.IMPARES ? 0 : 1, 2, gui, new ConfiguracaoPipeline(), null, tipo.name());
+    }
+
+    /**
+     * Cria um produtor responsável por uma das N partições do arquivo,
+     * permitindo qualquer quantidade de threads de leitura.
+     */
+    public ProdutorLinhas(String caminhoArquivo, int particao, int totalParticoes, SaidaMonitoramento gui, ConfiguracaoPipeline config) {
+        this(caminhoArquivo, particao, totalParticoes, gui, config, null);
+    }
 
-    public ProdutorLinhas(String caminhoArquivo, TipoLeitura tipo, PainelDashboard gui) {
+    /**
+     * Cria um produtor que respeita o controle de vazão compartilhado (null para enviar sem pausas).
+     */
+    public ProdutorLinhas(String caminhoArquivo, int particao, int totalParticoes, SaidaMonitoramento gui,
+                          ConfiguracaoPipeline config, ControleVazao controleVazao) {
+        this(caminhoArquivo, particao, totalParticoes, gui, config, controleVazao,
+                "PARTICAO " + (particao + 1) + "/" + totalParticoes);
+    }
+
+    private ProdutorLinhas(String caminhoArquivo, int particao, int totalParticoes, SaidaMonitoramento gui,
+                           ConfiguracaoPipeline config, ControleVazao controleVazao, String descricao) {
         this.caminhoArquivo = caminhoArquivo;
-        this.tipo = tipo;
+        this.particao = particao;
+        this.totalParticoes = totalParticoes;
         this.gui = gui;
+        this.config = config;
+        this.controleVazao = controleVazao;
+        this.descricao = descricao;
+        if (controleVazao != null) controleVazao.registrar(this);
     }
 
     @Override
     public void run() {
-        gui.registrarLog("[Produtor] Iniciando leitura do arquivo (Modo: " + tipo + ")...");
-        
+        gui.registrarLog("[Produtor] Iniciando leitura do arquivo (Modo: " + descricao + ")...");
+        ObjectName nomeJmx = RegistroJMX.registrar("Produtor", descricao, this);
+
         // Estabelece a conexão com o provedor de mensagens (ActiveMQ)
-        try (Connection conexao = ConfiguracaoJMS.criarFabricaConexao().createConnection()) {
+        try (Connection conexao = ConfiguracaoJMS.criarFabricaConexao(config.getUrlBroker()).createConnection()) {
             conexao.start();
-            
+
             // Criação da sessão - sem transação, com confirmação automática de recebimento
             Session sessao = conexao.createSession(false, Session.AUTO_ACKNOWLEDGE);
-            
+
             // Define o destino como uma Fila, pois queremos que cada linha seja processada apenas uma vez
-            Destination filaDestino = sessao.createQueue(ConfiguracaoJMS.NOME_FILA_LINHAS);
+            Destination filaDestino = sessao.createQueue(config.getFilaLinhas());
             MessageProducer produtor = sessao.createProducer(filaDestino);
+            produtor.setDeliveryMode(config.isEntregaPersistente() ? DeliveryMode.PERSISTENT : DeliveryMode.NON_PERSISTENT);
 
             File arquivo = new File(caminhoArquivo);
             if (!arquivo.exists()) {
@@ -49,8 +123,22 @@ public class ProdutorLinhas implements Runnable {
                 return;
             }
 
-            // Inicia a leitura do arquivo linha a linha
-            try (BufferedReader leitor = new BufferedReader(new FileReader(arquivo))) {
+            if (config.isAgregacaoOnline()) {
+                enviarBlocosAleatorios(sessao, produtor, arquivo);
+                gui.registrarLog("[Produtor] Leitura " + descricao + " finalizada com sucesso.");
+                return;
+            }
+
+            // Acumula as linhas desta partição até completar o lote configurado
+            StringBuilder lote = new StringBuilder();
+            int linhasNoLote = 0;
+            long primeiraLinhaLote = 0;
+            long inicioLote = 0;
+            EventoLoteLido eventoLote = null;
+
+            // Inicia a leitura do arquivo linha a linha (UTF-8, independente da codificação padrão do SO)
+            try (BufferedReader leitor = new BufferedReader(new InputStreamReader(
+                    new EntradaContada(new FileInputStream(arquivo), bytesLidos), StandardCharsets.UTF_8))) {
                 String conteudoLinha;
                 long contadorLinha = 1;
 
@@ -59,29 +147,249 @@ public class ProdutorLinhas implements Runnable {
                     if (Thread.currentThread().isInterrupted()) break;
 
                     // Lógica para determinar se a linha atual deve ser processada por esta instância
-                    boolean ehPar = (contadorLinha % 2 == 0);
-                    boolean deveProcessar = (tipo == TipoLeitura.PARES && ehPar) || 
-                                          (tipo == TipoLeitura.IMPARES && !ehPar);
+                    boolean deveProcessar = (contadorLinha - 1) % totalParticoes == particao;
 
                     if (deveProcessar) {
-                        // Cria a mensagem de texto contendo o conteúdo da linha
-                        TextMessage mensagem = sessao.createTextMessage(conteudoLinha);
-                        
-                        // Adiciona uma propriedade extra (metadado) para fins de rastreabilidade
-                        mensagem.setIntProperty("linha", (int) contadorLinha);
-                        
-                        // Envia a mensagem para a fila no Broker
-                        produtor.send(mensagem);
+                        linhasLidas.incrementar();
+                        if (linhasNoLote == 0) {
+                            primeiraLinhaLote = contadorLinha;
+                            inicioLote = Relogio.agoraMicros();
+                            // Evento JFR do lote (custo desprezível quando não há gravação ativa)
+                            eventoLote = new EventoLoteLido();
+                            eventoLote.begin();
+                        } else {
+                            lote.append('\n');
+                        }
+                        lote.append(conteudoLinha);
+                        linhasNoLote++;
+
+                        if (linhasNoLote >= config.getTamanhoLote()) {
+                            enviarLote(sessao, produtor, lote, linhasNoLote, primeiraLinhaLote, inicioLote, eventoLote);
+                            linhasNoLote = 0;
+                        }
                     }
                     contadorLinha++;
                 }
             }
-            gui.registrarLog("[Produtor] Leitura " + tipo + " finalizada com sucesso.");
+
+            // Envia o lote parcial que restou no fim do arquivo
+            if (linhasNoLote > 0 && !Thread.currentThread().isInterrupted()) {
+                enviarLote(sessao, produtor, lote, linhasNoLote, primeiraLinhaLote, inicioLote, eventoLote);
+            }
+            gui.registrarLog("[Produtor] Leitura " + descricao + " finalizada com sucesso.");
 
         } catch (JMSException e) {
-            gui.registrarLog("[Erro] Falha na comunicação JMS no Produtor " + tipo + ": " + e.getMessage());
+            gui.registrarLog("[Erro] Falha na comunicação JMS no Produtor " + descricao + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            // Interrompido enquanto aguardava o controle de vazão
+            gui.registrarLog("[Produtor] Leitura " + descricao + " interrompida.");
         } catch (Exception e) {
             e.printStackTrace();
+        } finally {
+            RegistroJMX.remover(nomeJmx);
+        }
+    }
+
+    // --- Atributos JMX ---
+
+    @Override
+    public String getDescricao() { return descricao; }
+
+    @Override
+    public long getLinhasEnviadas() { return linhasDesteProdutor; }
+
+    @Override
+    public long getMensagensEnviadas() { return mensagensDesteProdutor; }
+
+    @Override
+    public double getLinhasPorSegundo() { return taxaLinhas.taxa(linhasDesteProdutor); }
+
+    @Override
+    public long getIdadeUltimoEnvioMs() {
+        long ultimo = ultimoEnvioEm;
+        return ultimo == 0 ? -1 : System.currentTimeMillis() - ultimo;
+    }
+
+    /**
+     * Envia um lote de linhas como uma única mensagem de texto (linhas separadas por '\n').
+     * Com lote de 1 linha a mensagem é idêntica ao formato original.
+     */
+    private void enviarLote(Session sessao, MessageProducer produtor, StringBuilder lote, int linhasNoLote,
+                            long primeiraLinha, long inicioLote, EventoLoteLido evento) throws JMSException, InterruptedException {
+        // Cria a mensagem de texto contendo o conteúdo da(s) linha(s)
+        TextMessage mensagem = sessao.createTextMessage(lote.toString());
+
+        // Adiciona propriedades extras (metadados) para fins de rastreabilidade
+        mensagem.setIntProperty("linha", (int) primeiraLinha);
+        enviarMensagem(produtor, mensagem, lote, linhasNoLote, primeiraLinha, inicioLote, evento);
+    }
+
+    /**
+     * Completa os metadados comuns (quantidade de linhas, job e carimbos de rastreio) e envia a mensagem,
+     * respeitando o controle de vazão.
+     */
+    private void enviarMensagem(MessageProducer produtor, TextMessage mensagem, StringBuilder lote, int linhasNoLote,
+                                long primeiraLinha, long inicioLote, EventoLoteLido evento) throws JMSException, InterruptedException {
+        // Aguarda a Fila baixar à faixa alvo antes de enviar mais trabalho (controle de vazão)
+        if (controleVazao != null) controleVazao.aguardarCapacidade();
+
+        mensagem.setIntProperty("qtdLinhas", linhasNoLote);
+        if (config.getJobId() != null) mensagem.setStringProperty("jobId", config.getJobId());
+        // Carimbos de rastreio: leitura da primeira linha do lote e envio ao Broker
+        mensagem.setLongProperty("tsLeitura", inicioLote);
+        mensagem.setLongProperty("tsEnvio", Relogio.agoraMicros());
+
+        // Envia a mensagem para a fila no Broker
+        long inicioEnvio = System.nanoTime();
+        produtor.send(mensagem);
+        long envioUs = (System.nanoTime() - inicioEnvio) / 1000;
+        latenciaEnvio.registrar(envioUs);
+        if (evento.shouldCommit()) {
+            evento.particao = descricao;
+            evento.primeiraLinha = primeiraLinha;
+            evento.linhas = linhasNoLote;
+            evento.caracteres = lote.length();
+            evento.envio = envioUs;
+            evento.commit();
+        }
+        mensagensEnviadas.incrementar();
+        mensagensDesteProdutor++;
+        linhasDesteProdutor += linhasNoLote;
+        ultimoEnvioEm = System.currentTimeMillis();
+        lote.setLength(0);
+    }
+
+    /**
+     * Agregação online: divide o arquivo em blocos de config.getTamanhoBlocoOnline() bytes e envia os desta
+     * partição, um por mensagem, numa permutação aleatória comum a todos os Produtores do job (a semente
+     * vem do jobId). Cada bloco leva as linhas que começam dentro dele; as propriedades "bytesBloco" e
+     * "tamanhoArquivo" permitem ao Monitor extrapolar os totais a partir dos blocos já processados.
+     *
+     * NOTA TÉCNICA: O controle de vazão e o lote (--lote) valem por mensagem; aqui o tamanho de cada
+     * mensagem é o do bloco, e não uma quantidade de linhas.
+     */
+    private void enviarBlocosAleatorios(Session sessao, MessageProducer produtor, File arquivo)
+            throws IOException, JMSException, InterruptedException {
+        long tamanhoArquivo = arquivo.length();
+        int tamanhoBloco = config.getTamanhoBlocoOnline();
+        int blocos = (int) ((tamanhoArquivo + tamanhoBloco - 1) / tamanhoBloco);
+        int[] ordem = new int[blocos];
+        for (int i = 0; i < blocos; i++) ordem[i] = i;
+        Random aleatorio = new Random(config.getJobId() == null ? 0 : config.getJobId().hashCode());
+        for (int i = blocos - 1; i > 0; i--) {
+            int j = aleatorio.nextInt(i + 1);
+            int troca = ordem[i];
+            ordem[i] = ordem[j];
+            ordem[j] = troca;
+        }
+
+        StringBuilder texto = new StringBuilder();
+        try (FileChannel canal = FileChannel.open(arquivo.toPath(), StandardOpenOption.READ)) {
+            for (int k = particao; k < blocos; k += totalParticoes) {
+                if (Thread.currentThread().isInterrupted()) break;
+                long inicioLeitura = Relogio.agoraMicros();
+                EventoLoteLido evento = new EventoLoteLido();
+                evento.begin();
+                long inicio = (long) ordem[k] * tamanhoBloco;
+                int linhas = lerBloco(canal, inicio, Math.min(inicio + tamanhoBloco, tamanhoArquivo), texto);
+                // Um bloco sem início de linha (dentro de uma linha maior que o bloco) não gera mensagem
+                if (linhas == 0) continue;
+                linhasLidas.adicionar(linhas);
+                bytesLidos.adicionar(bytesBloco);
+
+                TextMessage mensagem = sessao.createTextMessage(texto.toString());
+                mensagem.setIntProperty("bloco", ordem[k]);
+                mensagem.setLongProperty("bytesBloco", bytesBloco);
+                mensagem.setLongProperty("tamanhoArquivo", tamanhoArquivo);
+                enviarMensagem(produtor, mensagem, texto, linhas, -1, inicioLeitura, evento);
+            }
+        }
+    }
+
+    /**
+     * Lê as linhas que começam em [inicio, fim): da primeira linha iniciada a partir de "inicio" até a
+     * quebra que encerra a linha iniciada antes de "fim". As linhas vão para "texto" separadas por '\n'
+     * (sem '\r', como no readLine), e os bytes delas ficam em bytesBloco.
+     *
+     * @return Quantidade de linhas do bloco.
+     */
+    private int lerBloco(FileChannel canal, long inicio, long fim, StringBuilder texto) throws IOException {
+        texto.setLength(0);
+        bytesBloco = 0;
+        // Lê a partir do byte anterior ao bloco, para saber se o bloco começa no início de uma linha
+        long base = Math.max(inicio - 1, 0);
+        int lidos = lerAte(canal, base, 0, (int) (fim - base));
+        int primeira = 0;
+        if (inicio > 0) {
+            int quebra = indiceQuebra(0, lidos);
+            if (quebra < 0 || base + quebra + 1 >= fim) return 0;
+            primeira = quebra + 1;
+        }
+        // Continua lendo até a quebra que encerra a última linha (ou o fim do arquivo)
+        int ultima = (int) (fim - 1 - base);
+        int quebraFinal;
+        while ((quebraFinal = indiceQuebra(Math.max(ultima, primeira), lidos)) < 0) {
+            int antes = lidos;
+            lidos = lerAte(canal, base, lidos, lidos + 4096);
+            if (lidos == antes) break;
+        }
+        int limite = quebraFinal < 0 ? lidos : quebraFinal;
+        bytesBloco = (quebraFinal < 0 ? lidos : quebraFinal + 1) - primeira;
+
+        String conteudo = new String(bufferBloco, primeira, limite - primeira, StandardCharsets.UTF_8);
+        if (conteudo.indexOf('\r') >= 0) {
+            conteudo = conteudo.replace("\r\n", "\n");
+            if (conteudo.endsWith("\r")) conteudo = conteudo.substring(0, conteudo.length() - 1);
+        }
+        texto.append(conteudo);
+        int linhas = 1;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) == '\n') linhas++;
+        }
+        return linhas;
+    }
+
+    // Lê do arquivo (a partir de base + de) até preencher bufferBloco[de, ate) ou atingir o fim do arquivo
+    private int lerAte(FileChannel canal, long base, int de, int ate) throws IOException {
+        if (bufferBloco.length < ate) bufferBloco = Arrays.copyOf(bufferBloco, Math.max(ate, bufferBloco.length * 2));
+        ByteBuffer destino = ByteBuffer.wrap(bufferBloco, de, ate - de);
+        while (destino.hasRemaining()) {
+            if (canal.read(destino, base + destino.position()) < 0) break;
+        }
+        return destino.position();
+    }
+
+    private int indiceQuebra(int de, int ate) {
+        for (int i = de; i < ate; i++) {
+            if (bufferBloco[i] == '\n') return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Fluxo de entrada que soma ao contador os bytes efetivamente lidos do disco.
+     * A contagem é feita por bloco lido (não por linha), com custo desprezível.
+     */
+    private static class EntradaContada extends FilterInputStream {
+        private final Contador contador;
+
+        EntradaContada(InputStream entrada, Contador contador) {
+            super(entrada);
+            this.contador = contador;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) contador.incrementar();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int inicio, int tamanho) throws IOException {
+            int lidos = super.read(buffer, inicio, tamanho);
+            if (lidos > 0) contador.adicionar(lidos);
+            return lidos;
         }
     }
-}
\ No newline at end of file
+}
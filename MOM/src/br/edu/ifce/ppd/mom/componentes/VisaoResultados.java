@@ -0,0 +1,72 @@
+package br.edu.ifce.ppd.mom.componentes;
+
+import br.edu.ifce.ppd.mom.contagem.EstimadorDistintas;
+import br.edu.ifce.ppd.mom.contagem.EstimadorOnline;
+import br.edu.ifce.ppd.mom.contagem.MatrizCoocorrencia;
+import br.edu.ifce.ppd.mom.gui.SaidaMonitoramento;
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoPipeline;
+import br.edu.ifce.ppd.mom.metricas.HistogramaLatencia;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Totais agregados de um job, como vistos por quem acompanha a execução (painel, API HTTP, coordenador).
+ * Implementada pelo {@link MonitorResultado} (um único assinante) e pelo {@link MonitorParticionado}
+ * (vários assinantes, cada um com uma parte dos termos).
+ */
+public interface VisaoResultados extends Runnable {
+
+    long getTotalGeral();
+
+    Map<String, Long> getTotaisPorTermo();
+
+    /**
+     * Totais por termo na última atualização do painel (cópia imutável, barata de consultar).
+     */
+    Map<String, Long> getUltimosTotais();
+
+    long getMensagensRecebidas();
+
+    /**
+     * Mensagens de linhas do job cujos resultados já chegaram, segundo os avisos de progresso dos Workers
+     * (repassados pelos agregadores depois dos totais). Quando alcança as mensagens enviadas pelos
+     * Produtores, os totais do job estão completos.
+     */
+    long getMensagensProcessadas();
+
+    /**
+     * Das mensagens processadas, quantas os Workers confirmaram sem contar (linhas descartadas de um job
+     * encerrado ou que falharam no processamento): os totais do job não incluem essas linhas.
+     */
+    long getMensagensDescartadas();
+
+    /**
+     * Palavras distintas estimadas do job (null se o job não as estima).
+     */
+    EstimadorDistintas.Estimativa getPalavrasDistintas();
+
+    /**
+     * Os "limite" pares de palavras-chave em mais linhas (null se o job não conta coocorrências).
+     */
+    MatrizCoocorrencia.Resumo getCoocorrencias(int limite);
+
+    /**
+     * Totais finais extrapolados na agregação online (null se o job não a usa).
+     */
+    EstimadorOnline getAgregacaoOnline();
+
+    HistogramaLatencia getLatenciaPontaAPonta();
+
+    /**
+     * Cria o Monitor conforme a configuração: único ou particionado por hash do termo. No vocabulário
+     * exato, os Workers dividem as tabelas entre as partições. O vocabulário aproximado e a agregação
+     * online usam sempre um Monitor único: o sketch e cada bloco da amostra são indivisíveis.
+     */
+    static VisaoResultados criar(SaidaMonitoramento gui, List<String> palavras, ConfiguracaoPipeline config) {
+        boolean indivisivel = config.isAgregacaoOnline() || (config.isVocabularioCompleto() && config.getLarguraSketch() > 0);
+        return config.getParticoesMonitor() > 1 && !indivisivel
+                ? new MonitorParticionado(gui, palavras, config)
+                : new MonitorResultado(gui, palavras, config);
+    }
+}
@@ -0,0 +1,81 @@
+package br.edu.ifce.ppd.mom.contagem;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache LRU de motores já compilados, indexado pelo hash do conjunto de palavras-chave e do motor.
+ * Permite que um Worker alterne entre jobs sem recompilar o autômato (ou as regex) a cada troca:
+ * jobs seguidos com as mesmas palavras reaproveitam o motor, mesmo tendo identificadores diferentes.
+ *
+ * NOTA: Assim como os motores, o cache NÃO é thread-safe. Cada Worker mantém o seu.
+ */
+public class CacheMotores {
+    public static final int CAPACIDADE_PADRAO = 8;
+
+    private final Map<String, MotorContagem> motores;
+    private long acertos;
+    private long compilacoes;
+
+    public CacheMotores() {
+        this(CAPACIDADE_PADRAO);
+    }
+
+    public CacheMotores(int capacidade) {
+        // accessOrder = true: a iteração começa pelo motor usado há mais tempo, que é o descartado
+        this.motores = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MotorContagem> maisAntigo) {
+                return size() > capacidade;
+            }
+        };
+    }
+
+    /**
+     * Retorna o motor do conjunto de palavras, compilando-o apenas na primeira vez.
+     */
+    public MotorContagem obter(TipoMotor tipo, List<String> palavras) {
+        String chave = chave(tipo, palavras);
+        MotorContagem motor = motores.get(chave);
+        if (motor != null) {
+            acertos++;
+            return motor;
+        }
+        motor = tipo.criar(palavras);
+        motores.put(chave, motor);
+        compilacoes++;
+        return motor;
+    }
+
+    public long getAcertos() { return acertos; }
+
+    public long getCompilacoes() { return compilacoes; }
+
+    public int getTamanho() { return motores.size(); }
+
+    /**
+     * Hash (SHA-256, 16 dígitos hexadecimais) do motor e das palavras-chave na ordem informada.
+     * A ordem faz parte da chave porque define os índices do vetor de ocorrências.
+     */
+    public static String chave(TipoMotor tipo, List<String> palavras) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(tipo.name().getBytes(StandardCharsets.UTF_8));
+            for (String p : palavras) {
+                sha.update((byte) '\n');
+                sha.update(p.getBytes(StandardCharsets.UTF_8));
+            }
+            byte[] resumo = sha.digest();
+            StringBuilder sb = new StringBuilder(16);
+            for (int i = 0; i < 8; i++) sb.append(String.format("%02x", resumo[i]));
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Toda JVM é obrigada a oferecer SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package br.edu.ifce.ppd.mom.contagem;
+
+/**
+ * Funções auxiliares que reproduzem as regras de caracteres da regex original.
+ * O java.util.regex considera "caractere de palavra" qualquer letra/dígito Unicode ou '_'
+ * e, com CASE_INSENSITIVE (sem UNICODE_CASE), ignora a caixa apenas de letras ASCII.
+ */
+final class Caracteres {
+
+    private Caracteres() {}
+
+    /**
+     * Converte apenas letras ASCII para minúsculas, como a flag CASE_INSENSITIVE.
+     */
+    static char minusculoAscii(char c) {
+        return (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    /**
+     * Espaços que separam os termos de uma frase: os mesmos do \s da regex (sem UNICODE_CHARACTER_CLASS).
+     */
+    static boolean ehEspaco(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Palavra-chave com as sequências de espaços trocadas por um único ' ' e sem espaços nas pontas.
+     */
+    static String normalizarEspacos(String palavra) {
+        StringBuilder sb = new StringBuilder(palavra.length());
+        boolean espaco = false;
+        for (int i = 0; i < palavra.length(); i++) {
+            char c = palavra.charAt(i);
+            if (ehEspaco(c)) {
+                espaco = sb.length() > 0;
+            } else {
+                if (espaco) sb.append(' ');
+                espaco = false;
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    static boolean ehPalavra(int codePoint) {
+        return codePoint == '_' || Character.isLetterOrDigit(codePoint);
+    }
+
+    /**
+     * Equivalente ao \b: verdadeiro quando apenas um dos lados da posição é caractere de palavra.
+     * Marcas não espaçadas (acentos combinantes) contam como palavra se seguirem uma letra/dígito.
+     */
+    static boolean ehLimite(CharSequence texto, int posicao) {
+        boolean esquerda = posicao > 0 && palavraAntes(texto, posicao);
+        boolean direita = posicao < texto.length() && palavraEm(texto, posicao);
+        return esquerda ^ direita;
+    }
+
+    private static boolean palavraAntes(CharSequence texto, int posicao) {
+        int cp = Character.codePointBefore(texto, posicao);
+        return ehPalavra(cp) || (Character.getType(cp) == Character.NON_SPACING_MARK
+                && possuiBase(texto, posicao - Character.charCount(cp)));
+    }
+
+    private static boolean palavraEm(CharSequence texto, int posicao) {
+        int cp = Character.codePointAt(texto, posicao);
+        return ehPalavra(cp) || (Character.getType(cp) == Character.NON_SPACING_MARK
+                && possuiBase(texto, posicao));
+    }
+
+    // Procura para trás, ignorando marcas combinantes, uma letra ou dígito que sirva de base
+    private static boolean possuiBase(CharSequence texto, int posicao) {
+        for (int x = posicao; x >= 0; x--) {
+            int cp = Character.codePointAt(texto, x);
+            if (Character.isLetterOrDigit(cp)) return true;
+            if (Character.getType(cp) != Character.NON_SPACING_MARK) return false;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+package br.edu.ifce.ppd.mom.contagem;
+
+/**
+ * Funções auxiliares das estruturas de contagem de termos em bytes: hash de 64 bits e inteiros
+ * de tamanho variável (varint) usados nos formatos serializados trocados entre os processos.
+ */
+final class Codificacao {
+
+    private Codificacao() {}
+
+    /**
+     * Tamanho máximo de um long em varint.
+     */
+    static final int MAXIMO_VARINT = 10;
+
+    /**
+     * FNV-1a de 64 bits seguido da mistura final do MurmurHash3 (fmix64).
+     */
+    static long hash64(byte[] chave, int inicio, int tamanho) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = inicio; i < inicio + tamanho; i++) {
+            h = (h ^ (chave[i] & 0xFF)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    static int escreverVarint(byte[] saida, int pos, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            saida[pos++] = (byte) ((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        saida[pos++] = (byte) valor;
+        return pos;
+    }
+
+    /**
+     * Lê um varint a partir de pos[0], avançando a posição.
+     */
+    static long lerVarint(byte[] dados, int[] pos) {
+        long valor = 0;
+        for (int deslocamento = 0; ; deslocamento += 7) {
+            byte b = dados[pos[0]++];
+            valor |= (long) (b & 0x7F) << deslocamento;
+            if (b >= 0) return valor;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package br.edu.ifce.ppd.mom.contagem;
+
+import java.util.Arrays;
+
+/**
+ * Contagem de n-gramas: sequências de 2 até "tamanhoMaximo" tokens consecutivos da mesma linha, com os
+ * tokens delimitados pelo {@link ContadorVocabulario} e unidos por um único espaço (ex: "message broker").
+ * Cada n-grama é entregue ao {@link DestinoTokens} como um token comum, então a contagem segue pelo mesmo
+ * caminho do vocabulário, normalmente o aproximado ({@link VocabularioAproximado}), pois a quantidade de
+ * n-gramas distintos cresce muito mais que a de palavras.
+ *
+ * NOTA TÉCNICA: Os tokens anteriores da linha são copiados para vetores reutilizados e o n-grama é
+ * montado num vetor próprio; a contagem não aloca memória por token. Um n-grama nunca atravessa '\n',
+ * então o texto pode ser um lote de linhas.
+ *
+ * NOTA: Não é thread-safe.
+ */
+public class ContadorNGramas implements DestinoTokens {
+    public static final int TAMANHO_MAXIMO = 3;
+    // Largura do sketch quando o job de n-gramas não informa uma (4 × 16384 contadores, 512 KB)
+    public static final int LARGURA_SKETCH_PADRAO = 16384;
+
+    private final int tamanhoMaximo;
+    private final ContadorVocabulario tokenizador = new ContadorVocabulario();
+
+    // Últimos tokens da linha, do mais recente (0) para o mais antigo
+    private final byte[][] anteriores;
+    private final int[] tamanhosAnteriores;
+    private int guardados;
+
+    private byte[] ngrama = new byte[128];
+    private DestinoTokens destino;
+    private int ngramas;
+
+    /**
+     * @param tamanhoMaximo Maior n-grama contado: 2 (bigramas) ou 3 (bigramas e trigramas).
+     */
+    public ContadorNGramas(int tamanhoMaximo) {
+        if (tamanhoMaximo < 2 || tamanhoMaximo > TAMANHO_MAXIMO) {
+            throw new IllegalArgumentException("O tamanho dos n-gramas deve estar entre 2 e " + TAMANHO_MAXIMO + ".");
+        }
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.anteriores = new byte[tamanhoMaximo - 1][64];
+        this.tamanhosAnteriores = new int[tamanhoMaximo - 1];
+    }
+
+    public int getTamanhoMaximo() { return tamanhoMaximo; }
+
+    /**
+     * Soma ao destino uma ocorrência de cada n-grama do texto (uma linha ou um lote separado por '\n').
+     *
+     * @return Quantidade de n-gramas do texto.
+     */
+    public int contar(String texto, DestinoTokens destino) {
+        if (texto == null) return 0;
+        this.destino = destino;
+        ngramas = 0;
+        int n = texto.length();
+        int inicio = 0;
+        while (inicio <= n) {
+            int fim = texto.indexOf('\n', inicio);
+            if (fim < 0) fim = n;
+            guardados = 0;
+            tokenizador.contar(texto, inicio, fim, this);
+            inicio = fim + 1;
+        }
+        this.destino = null;
+        return ngramas;
+    }
+
+    /**
+     * Recebe cada token do tokenizador e entrega os n-gramas que terminam nele.
+     */
+    @Override
+    public void adicionar(byte[] chave, int inicio, int tamanho, long valor) {
+        for (int anteriorMaisAntigo = 0; anteriorMaisAntigo < guardados; anteriorMaisAntigo++) {
+            int pos = 0;
+            for (int k = anteriorMaisAntigo; k >= 0; k--) {
+                pos = acrescentar(anteriores[k], 0, tamanhosAnteriores[k], pos);
+                ngrama[pos++] = ' ';
+            }
+            pos = acrescentar(chave, inicio, tamanho, pos);
+            destino.adicionar(ngrama, 0, pos, valor);
+            ngramas++;
+        }
+
+        // O token atual passa a ser o anterior mais recente, reaproveitando o vetor do mais antigo
+        int ultimo = anteriores.length - 1;
+        byte[] livre = anteriores[ultimo];
+        System.arraycopy(anteriores, 0, anteriores, 1, ultimo);
+        System.arraycopy(tamanhosAnteriores, 0, tamanhosAnteriores, 1, ultimo);
+        if (livre.length < tamanho) livre = new byte[Math.max(tamanho, 2 * livre.length)];
+        System.arraycopy(chave, inicio, livre, 0, tamanho);
+        anteriores[0] = livre;
+        tamanhosAnteriores[0] = tamanho;
+        if (guardados < anteriores.length) guardados++;
+    }
+
+    // Copia os bytes para o n-grama a partir de pos, ampliando o vetor se necessário (deixa espaço para ' ')
+    private int acrescentar(byte[] origem, int inicio, int tamanho, int pos) {
+        if (pos + tamanho + 1 > ngrama.length) ngrama = Arrays.copyOf(ngrama, Math.max(pos + tamanho + 1, 2 * ngrama.length));
+        System.arraycopy(origem, inicio, ngrama, pos, tamanho);
+        return pos + tamanho;
+    }
+}
@@ -0,0 +1,78 @@
+package br.edu.ifce.ppd.mom.contagem;
+
+import java.util.Arrays;
+
+/**
+ * Contagem do vocabulário completo: delimita os tokens da linha com as mesmas regras do
+ * {@link MotorVarreduraTokens} (sequências máximas de caracteres de palavra, letras ASCII em minúsculas)
+ * e soma cada um num {@link DestinoTokens} (a {@link TabelaContagem} exata ou o {@link VocabularioAproximado}).
+ *
+ * O token é codificado em UTF-8 diretamente num vetor de bytes reutilizado, que o destino consulta sem
+ * criar Strings: a contagem não aloca memória por token.
+ *
+ * NOTA: Não é thread-safe (o vetor do token é compartilhado entre as chamadas).
+ */
+public class ContadorVocabulario {
+    private byte[] token = new byte[64];
+
+    /**
+     * Soma ao destino uma ocorrência de cada token da linha.
+     *
+     * @return Quantidade de tokens da linha.
+     */
+    public int contar(String linha, DestinoTokens destino) {
+        if (linha == null) return 0;
+        return contar(linha, 0, linha.length(), destino);
+    }
+
+    /**
+     * Soma ao destino uma ocorrência de cada token do trecho [inicio, fim) do texto.
+     *
+     * @return Quantidade de tokens do trecho.
+     */
+    public int contar(String linha, int inicio, int fim, DestinoTokens destino) {
+        int n = fim;
+        int tokens = 0;
+        int i = inicio;
+        while (i < n) {
+            int cp = linha.codePointAt(i);
+            if (!Caracteres.ehPalavra(cp)) {
+                i += Character.charCount(cp);
+                continue;
+            }
+            int tamanho = 0;
+            boolean apoiada = false;
+            while (i < n) {
+                cp = linha.codePointAt(i);
+                if (!Caracteres.ehPalavra(cp) && !(apoiada && Character.getType(cp) == Character.NON_SPACING_MARK)) break;
+                apoiada = Character.isLetterOrDigit(cp) || (apoiada && Character.getType(cp) == Character.NON_SPACING_MARK);
+                tamanho = codificar(cp < 0x80 ? Caracteres.minusculoAscii((char) cp) : cp, tamanho);
+                i += Character.charCount(cp);
+            }
+            destino.adicionar(token, 0, tamanho, 1);
+            tokens++;
+        }
+        return tokens;
+    }
+
+    // Acrescenta o code point ao token em UTF-8, ampliando o vetor se necessário
+    private int codificar(int cp, int pos) {
+        if (pos + 4 > token.length) token = Arrays.copyOf(token, token.length * 2);
+        if (cp < 0x80) {
+            token[pos++] = (byte) cp;
+        } else if (cp < 0x800) {
+            token[pos++] = (byte) (0xC0 | (cp >> 6));
+            token[pos++] = (byte) (0x80 | (cp & 0x3F));
+        } else if (cp < 0x10000) {
+            token[pos++] = (byte) (0xE0 | (cp >> 12));
+            token[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            token[pos++] = (byte) (0x80 | (cp & 0x3F));
+        } else {
+            token[pos++] = (byte) (0xF0 | (cp >> 18));
+            token[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+            token[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            token[pos++] = (byte) (0x80 | (cp & 0x3F));
+        }
+        return pos;
+    }
+}
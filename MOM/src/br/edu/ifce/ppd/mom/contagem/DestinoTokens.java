@@ -0,0 +1,10 @@
+package br.edu.ifce.ppd.mom.contagem;
+
+/**
+ * Estrutura que recebe os tokens delimitados pelo {@link ContadorVocabulario}, cada um como uma
+ * sequência de bytes UTF-8 num vetor que é reutilizado entre as chamadas (a estrutura copia o que guardar).
+ */
+public interface DestinoTokens {
+
+    void adicionar(byte[] chave, int inicio, int tamanho, long valor);
+}
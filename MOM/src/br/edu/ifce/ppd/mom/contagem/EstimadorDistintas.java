@@ -0,0 +1,100 @@
+package br.edu.ifce.ppd.mom.contagem;
+
+import java.util.Arrays;
+
+/**
+ * Palavras distintas de um job, estimadas por dois {@link HyperLogLog}: um com os tokens de todas as
+ * linhas e outro apenas com os das linhas que contêm alguma palavra-chave. Os tokens seguem as regras do
+ * {@link ContadorVocabulario}, e nenhum termo é guardado: a memória é a dos registradores (8 KB).
+ *
+ * NOTA: Não é thread-safe.
+ */
+public class EstimadorDistintas implements DestinoTokens {
+    private final HyperLogLog todas = new HyperLogLog();
+    private final HyperLogLog comPalavraChave = new HyperLogLog();
+    private final ContadorVocabulario tokenizador = new ContadorVocabulario();
+    private boolean linhaComPalavraChave;
+
+    /**
+     * Registra os tokens de uma linha, também no estimador das linhas com palavra-chave se for o caso.
+     */
+    public void registrarLinha(String linha, boolean temPalavraChave) {
+        linhaComPalavraChave = temPalavraChave;
+        tokenizador.contar(linha, this);
+    }
+
+    @Override
+    public void adicionar(byte[] chave, int inicio, int tamanho, long valor) {
+        long hash = Codificacao.hash64(chave, inicio, tamanho);
+        todas.adicionarHash(hash);
+        if (linhaComPalavraChave) comPalavraChave.adicionarHash(hash);
+    }
+
+    /**
+     * Estimativa das palavras distintas de todo o texto registrado.
+     */
+    public long getDistintas() {
+        return todas.estimar();
+    }
+
+    /**
+     * Estimativa das palavras distintas nas linhas com pelo menos uma palavra-chave.
+     */
+    public long getDistintasComPalavraChave() {
+        return comPalavraChave.estimar();
+    }
+
+    public double getErroPadrao() {
+        return todas.getErroPadrao();
+    }
+
+    /**
+     * As duas estimativas do momento, com as linhas que os registradores cobrem (contadas por quem chama).
+     */
+    public Estimativa estimar(long linhas) {
+        return new Estimativa(getDistintas(), getDistintasComPalavraChave(), getErroPadrao(), linhas);
+    }
+
+    public boolean isVazio() {
+        return todas.isVazio();
+    }
+
+    public void limpar() {
+        todas.limpar();
+        comPalavraChave.limpar();
+    }
+
+    /**
+     * Os dois estimadores serializados em sequência (pouco mais de 8 KB).
+     */
+    public byte[] serializar() {
+        byte[] saida = new byte[todas.tamanhoSerializado() + comPalavraChave.tamanhoSerializado()];
+        int pos = todas.serializar(saida, 0);
+        pos = comPalavraChave.serializar(saida, pos);
+        return Arrays.copyOf(saida, pos);
+    }
+
+    public void unirSerializado(byte[] dados, int tamanho) {
+        int[] pos = {0};
+        todas.unirSerializado(dados, pos);
+        comPalavraChave.unirSerializado(dados, pos);
+        if (pos[0] > tamanho) throw new IllegalArgumentException("Estimador serializado incompleto.");
+    }
+
+    /**
+     * Palavras distintas estimadas num instante.
+     */
+    public static final class Estimativa {
+        public final long distintas;
+        public final long distintasComPalavraChave;
+        public final double erroPadrao;
+        public final long linhas;
+
+        public Estimativa(long distintas, long distintasComPalavraChave, double erroPadrao, long linhas) {
+            this.distintas = distintas;
+            this.distintasComPalavraChave = distintasComPalavraChave;
+            this.erroPadrao = erroPadrao;
+            this.linhas = linhas;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package br.edu.ifce.ppd.mom.contagem;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Agregação online: extrapola o total final de cada termo a partir dos blocos do arquivo já processados.
+ * Os Produtores enviam os blocos em ordem aleatória, então os blocos processados até um instante são uma
+ * amostra aleatória (sem reposição) do arquivo, e o total de um termo é estimado pela razão
+ * ocorrências / bytes da amostra multiplicada pelo tamanho do arquivo.
+ *
+ * O intervalo de confiança de 95% vem da variância do estimador de razão,
+ * B² · (1 - f) · n · s² / (Σb)², onde B é o tamanho do arquivo, f a fração de bytes processada, n a
+ * quantidade de blocos e s² a variância amostral dos resíduos x - R·b de cada bloco. O intervalo
+ * estreita-se à medida que a amostra cresce e se anula quando o arquivo inteiro foi processado.
+ *
+ * NOTA TÉCNICA: Bastam três somas por termo (Σx, Σx², Σxb) e duas por job (Σb, Σb²); nenhum bloco é
+ * guardado. Os métodos são sincronizados: o Listener registra e o painel e a API HTTP consultam.
+ */
+public class EstimadorOnline {
+    // Quantil da normal para 95% de confiança
+    private static final double Z_95 = 1.96;
+
+    private final List<String> termos;
+    private final double[] somas;
+    private final double[] somasQuadrados;
+    private final double[] somasProdutos;
+    private long blocos;
+    private double somaBytes;
+    private double somaBytesQuadrados;
+    private long tamanhoArquivo;
+
+    public EstimadorOnline(List<String> termos) {
+        this.termos = termos;
+        this.somas = new double[termos.size()];
+        this.somasQuadrados = new double[termos.size()];
+        this.somasProdutos = new double[termos.size()];
+    }
+
+    /**
+     * Registra um bloco processado: os seus bytes e as ocorrências de cada termo (na ordem dos termos).
+     */
+    public synchronized void registrar(long bytes, long[] ocorrencias, long tamanhoArquivo) {
+        this.tamanhoArquivo = tamanhoArquivo;
+        blocos++;
+        somaBytes += bytes;
+        somaBytesQuadrados += (double) bytes * bytes;
+        for (int i = 0; i < somas.length; i++) {
+            double x = ocorrencias[i];
+            somas[i] += x;
+            somasQuadrados[i] += x * x;
+            somasProdutos[i] += x * bytes;
+        }
+    }
+
+    /**
+     * Fração do arquivo (em bytes) já processada.
+     */
+    public synchronized double getFracao() {
+        return tamanhoArquivo == 0 ? 0 : Math.min(somaBytes / tamanhoArquivo, 1);
+    }
+
+    public synchronized long getBlocos() { return blocos; }
+
+    /**
+     * Estimativa do total final e margem de 95% de cada termo (margem infinita com menos de dois blocos).
+     */
+    public synchronized Map<String, Intervalo> estimar() {
+        Map<String, Intervalo> estimativas = new LinkedHashMap<>();
+        double fracao = tamanhoArquivo == 0 ? 0 : Math.min(somaBytes / tamanhoArquivo, 1);
+        for (int i = 0; i < somas.length; i++) {
+            if (somaBytes == 0) {
+                estimativas.put(termos.get(i), new Intervalo(0, Double.POSITIVE_INFINITY));
+                continue;
+            }
+            double razao = somas[i] / somaBytes;
+            double total = razao * tamanhoArquivo;
+            double margem = Double.POSITIVE_INFINITY;
+            if (blocos > 1) {
+                double residuos = somasQuadrados[i] - 2 * razao * somasProdutos[i] + razao * razao * somaBytesQuadrados;
+                double variancia = Math.max(residuos, 0) / (blocos - 1);
+                double varianciaTotal = (double) tamanhoArquivo * tamanhoArquivo * (1 - fracao) * blocos * variancia
+                        / (somaBytes * somaBytes);
+                margem = Z_95 * Math.sqrt(varianciaTotal);
+            }
+            estimativas.put(termos.get(i), new Intervalo(Math.round(total), margem));
+        }
+        return estimativas;
+    }
+
+    /**
+     * Total final estimado e margem de erro (metade do intervalo de 95%).
+     */
+    public static final class Intervalo {
+        public final long estimativa;
+        public final double margem;
+
+        public Intervalo(long estimativa, double margem) {
+            this.estimativa = estimativa;
+            this.margem = margem;
+        }
+
+        /**
+         * Margem relativa à estimativa (infinita se a estimativa for zero e a margem não).
+         */
+        public double getMargemRelativa() {
+            if (margem == 0) return 0;
+            return estimativa == 0 ? Double.POSITIVE_INFINITY : margem / estimativa;
+        }
+
+        public boolean contem(long valor) {
+            return Math.abs(valor - estimativa) <= margem;
+        }
+    }
+}
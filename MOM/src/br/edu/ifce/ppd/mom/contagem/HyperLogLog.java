@@ -0,0 +1,120 @@
+package br.edu.ifce.ppd.mom.contagem;
+
+import java.util.Arrays;
+
+/**
+ * Estimativa da quantidade de termos distintos pelo HyperLogLog: o hash de cada termo escolhe um dos
+ * 2^precisao registradores pelos bits iniciais e guarda nele a maior posição do primeiro bit 1 dos bits
+ * restantes. A estimativa vem da média harmônica dos registradores, com erro padrão de
+ * 1,04 / sqrt(2^precisao) (1,6% com a precisão padrão), em memória fixa de um byte por registrador.
+ *
+ * A união de dois estimadores é o máximo registrador a registrador, então cada Worker mantém os seus e
+ * o Monitor une os recebidos sem nunca guardar os termos.
+ *
+ * NOTA TÉCNICA: Com hash de 64 bits não há correção para cardinalidades grandes; abaixo de 2,5 vezes o
+ * número de registradores, e com registradores vazios, usa-se a contagem linear (mais precisa).
+ */
+public class HyperLogLog {
+    // 4096 registradores (4 KB)
+    public static final int PRECISAO_PADRAO = 12;
+
+    private final int precisao;
+    private final byte[] registradores;
+
+    public HyperLogLog() {
+        this(PRECISAO_PADRAO);
+    }
+
+    public HyperLogLog(int precisao) {
+        if (precisao < 4 || precisao > 18) throw new IllegalArgumentException("Precisão fora de 4..18: " + precisao);
+        this.precisao = precisao;
+        this.registradores = new byte[1 << precisao];
+    }
+
+    public void adicionar(byte[] chave, int inicio, int tamanho) {
+        adicionarHash(Codificacao.hash64(chave, inicio, tamanho));
+    }
+
+    void adicionarHash(long hash) {
+        int indice = (int) (hash >>> (64 - precisao));
+        // O bit extra limita a posição quando todos os bits restantes são zero
+        long restante = (hash << precisao) | (1L << (precisao - 1));
+        byte posicao = (byte) (Long.numberOfLeadingZeros(restante) + 1);
+        if (posicao > registradores[indice]) registradores[indice] = posicao;
+    }
+
+    /**
+     * Quantidade estimada de termos distintos adicionados.
+     */
+    public long estimar() {
+        int m = registradores.length;
+        double soma = 0;
+        int vazios = 0;
+        for (byte r : registradores) {
+            soma += 1.0 / (1L << r);
+            if (r == 0) vazios++;
+        }
+        double alfa = 0.7213 / (1 + 1.079 / m);
+        double estimativa = alfa * m * m / soma;
+        if (estimativa <= 2.5 * m && vazios > 0) estimativa = m * Math.log((double) m / vazios);
+        return Math.round(estimativa);
+    }
+
+    /**
+     * Erro padrão relativo da estimativa.
+     */
+    public double getErroPadrao() {
+        return 1.04 / Math.sqrt(registradores.length);
+    }
+
+    public int getPrecisao() { return precisao; }
+
+    public int getBytesOcupados() { return registradores.length; }
+
+    public boolean isVazio() {
+        for (byte r : registradores) {
+            if (r != 0) return false;
+        }
+        return true;
+    }
+
+    public void unir(HyperLogLog outro) {
+        verificarPrecisao(outro.precisao);
+        for (int i = 0; i < registradores.length; i++) {
+            if (outro.registradores[i] > registradores[i]) registradores[i] = outro.registradores[i];
+        }
+    }
+
+    public void limpar() {
+        Arrays.fill(registradores, (byte) 0);
+    }
+
+    // --- Serialização: precisão seguida dos registradores, um byte cada ---
+
+    int tamanhoSerializado() {
+        return 1 + registradores.length;
+    }
+
+    int serializar(byte[] saida, int pos) {
+        saida[pos++] = (byte) precisao;
+        System.arraycopy(registradores, 0, saida, pos, registradores.length);
+        return pos + registradores.length;
+    }
+
+    /**
+     * Une a este o estimador serializado a partir de pos[0], avançando a posição.
+     */
+    void unirSerializado(byte[] dados, int[] pos) {
+        verificarPrecisao(dados[pos[0]++]);
+        for (int i = 0; i < registradores.length; i++) {
+            byte r = dados[pos[0]++];
+            if (r > registradores[i]) registradores[i] = r;
+        }
+    }
+
+    private void verificarPrecisao(int outraPrecisao) {
+        if (outraPrecisao != precisao) {
+            throw new IllegalArgumentException("Estimadores de precisões diferentes: " + precisao + " e " + outraPrecisao);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package br.edu.ifce.ppd.mom.contagem;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Coocorrência de palavras-chave: quantas linhas contêm cada par de palavras (ao menos uma ocorrência de
+ * cada). Os pares ficam numa matriz triangular de longs indexada pelos índices das palavras, sem a
+ * diagonal: o par (a, b), com a < b, ocupa a posição b·(b-1)/2 + a, e n palavras ocupam n·(n-1)/2
+ * posições. Com 500 palavras são 124.750 pares (cerca de 1 MB); o limite de um vetor Java, MAXIMO_PARES,
+ * admite até 65.536 palavras.
+ *
+ * A matriz guarda também quais posições deixaram de ser zero, então os Workers a usam como acumulador de
+ * deltas: a serialização e a limpeza percorrem apenas os pares alterados, e o Monitor soma os deltas
+ * recebidos na sua matriz.
+ *
+ * NOTA: Não é thread-safe.
+ */
+public class MatrizCoocorrencia {
+    // Maior vetor que a JVM aloca com segurança
+    public static final int MAXIMO_PARES = Integer.MAX_VALUE - 8;
+
+    private final int termos;
+    private final long[] contagens;
+
+    // Posições diferentes de zero, na ordem em que apareceram
+    private int[] alteradas = new int[64];
+    private int quantidadeAlteradas;
+
+    public MatrizCoocorrencia(int termos) {
+        if (termos < 2) throw new IllegalArgumentException("A coocorrência precisa de pelo menos 2 palavras.");
+        long pares = pares(termos);
+        if (pares > MAXIMO_PARES) {
+            throw new IllegalArgumentException("A coocorrência de " + termos + " palavras teria " + pares
+                    + " pares, acima do limite de " + MAXIMO_PARES + ".");
+        }
+        this.termos = termos;
+        this.contagens = new long[(int) pares];
+    }
+
+    /**
+     * Quantidade de pares de "termos" palavras, calculada em long.
+     */
+    public static long pares(int termos) {
+        return (long) termos * (termos - 1) / 2;
+    }
+
+    /**
+     * Posição do par (a, b) na matriz, para a != b em qualquer ordem (o produto é feito em long: a partir
+     * de cerca de 46 mil palavras ele ultrapassa o limite de int, embora a posição caiba).
+     */
+    public static int indice(int a, int b) {
+        int maior = Math.max(a, b);
+        return (int) (pares(maior) + Math.min(a, b));
+    }
+
+    /**
+     * Soma 1 a cada par das palavras encontradas numa linha (índices sem repetição, como os devolvidos por
+     * {@link MotorContagem#contarPresentes}).
+     */
+    public void registrarLinha(int[] presentes, int quantidade) {
+        for (int i = 1; i < quantidade; i++) {
+            for (int j = 0; j < i; j++) adicionar(indice(presentes[i], presentes[j]), 1);
+        }
+    }
+
+    private void adicionar(int posicao, long valor) {
+        if (contagens[posicao] == 0) {
+            if (quantidadeAlteradas == alteradas.length) {
+                alteradas = Arrays.copyOf(alteradas, (int) Math.min(2L * alteradas.length, contagens.length));
+            }
+            alteradas[quantidadeAlteradas++] = posicao;
+        }
+        contagens[posicao] += valor;
+    }
+
+    public long obter(int a, int b) {
+        return contagens[indice(a, b)];
+    }
+
+    public int getTermos() { return termos; }
+
+    /**
+     * Quantidade de pares com pelo menos uma linha em comum.
+     */
+    public int getParesPresentes() { return quantidadeAlteradas; }
+
+    public boolean isVazia() { return quantidadeAlteradas == 0; }
+
+    public long getBytesOcupados() {
+        return 8L * contagens.length + 4L * alteradas.length;
+    }
+
+    /**
+     * Os k pares em mais linhas, em ordem decrescente, com as chaves no formato "a + b".
+     */
+    public Map<String, Long> maiores(int k, List<String> palavras) {
+        PriorityQueue<Integer> heap = new PriorityQueue<>((x, y) -> Long.compare(contagens[x], contagens[y]));
+        for (int i = 0; i < quantidadeAlteradas; i++) {
+            int posicao = alteradas[i];
+            if (heap.size() < k) {
+                heap.add(posicao);
+            } else if (k > 0 && contagens[posicao] > contagens[heap.peek()]) {
+                heap.poll();
+                heap.add(posicao);
+            }
+        }
+        Integer[] ordem = heap.toArray(new Integer[0]);
+        Arrays.sort(ordem, (x, y) -> contagens[x] != contagens[y] ? Long.compare(contagens[y], contagens[x]) : Integer.compare(x, y));
+        Map<String, Long> pares = new LinkedHashMap<>();
+        for (int posicao : ordem) {
+            // Inverte b·(b-1)/2 + a: b é o maior inteiro com b·(b-1)/2 <= posição
+            int b = (int) ((1 + Math.sqrt(1 + 8.0 * posicao)) / 2);
+            while (pares(b) > posicao) b--;
+            while (pares(b + 1) <= posicao) b++;
+            int a = (int) (posicao - pares(b));
+            pares.put(palavras.get(a) + " + " + palavras.get(b), contagens[posicao]);
+        }
+        return pares;
+    }
+
+    /**
+     * Os k pares mais frequentes do momento, com as linhas que a matriz cobre (contadas por quem chama).
+     */
+    public Resumo resumir(int k, List<String> palavras, long linhas) {
+        return new Resumo(maiores(k, palavras), quantidadeAlteradas, linhas);
+    }
+
+    /**
+     * Zera apenas os pares alterados.
+     */
+    public void limpar() {
+        for (int i = 0; i < quantidadeAlteradas; i++) contagens[alteradas[i]] = 0;
+        quantidadeAlteradas = 0;
+    }
+
+    // --- Serialização esparsa: termos, quantidade e pares (diferença para a posição anterior, valor) ---
+
+    public byte[] serializar() {
+        Arrays.sort(alteradas, 0, quantidadeAlteradas);
+        byte[] saida = new byte[2 * Codificacao.MAXIMO_VARINT + quantidadeAlteradas * 2 * Codificacao.MAXIMO_VARINT];
+        int pos = Codificacao.escreverVarint(saida, 0, termos);
+        pos = Codificacao.escreverVarint(saida, pos, quantidadeAlteradas);
+        int anterior = 0;
+        for (int i = 0; i < quantidadeAlteradas; i++) {
+            int posicao = alteradas[i];
+            pos = Codificacao.escreverVarint(saida, pos, posicao - anterior);
+            pos = Codificacao.escreverVarint(saida, pos, contagens[posicao]);
+            anterior = posicao;
+        }
+        return Arrays.copyOf(saida, pos);
+    }
+
+    /**
+     * Soma a esta matriz os pares serializados de outra com a mesma quantidade de palavras.
+     */
+    public void somarSerializado(byte[] dados, int tamanho) {
+        int[] pos = {0};
+        int termosRecebidos = (int) Codificacao.lerVarint(dados, pos);
+        if (termosRecebidos != termos) {
+            throw new IllegalArgumentException("Matrizes de tamanhos diferentes: " + termos + " e " + termosRecebidos + " palavras");
+        }
+        long quantidade = Codificacao.lerVarint(dados, pos);
+        int posicao = 0;
+        for (long i = 0; i < quantidade; i++) {
+            posicao += (int) Codificacao.lerVarint(dados, pos);
+            adicionar(posicao, Codificacao.lerVarint(dados, pos));
+        }
+        if (pos[0] > tamanho) throw new IllegalArgumentException("Matriz serializada incompleta.");
+    }
+
+    /**
+     * Pares mais frequentes num instante.
+     */
+    public static final class Resumo {
+        public final Map<String, Long> maiores;
+        public final int paresPresentes;
+        public final long linhas;
+
+        public Resumo(Map<String, Long> maiores, int paresPresentes, long linhas) {
+            this.maiores = maiores;
+            this.paresPresentes = paresPresentes;
+            this.linhas = linhas;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package br.edu.ifce.ppd.mom.contagem;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Motor multi-padrão baseado no autômato de Aho-Corasick.
+ * Todas as palavras-chave são procuradas em uma única passagem pela linha, de modo que o custo
+ * cresce com o tamanho do texto e não com a quantidade de palavras.
+ * As transições de cada estado ficam em vetores ordenados (busca binária) para economizar memória.
+ *
+ * Frases (palavras-chave com mais de um termo, como "message oriented middleware") fazem parte do mesmo
+ * autômato: com alguma frase na lista, cada sequência de espaços da linha é lida como um único ' ', de
+ * modo que tabulações e espaços repetidos entre os termos não impedem a ocorrência, e as posições
+ * originais dos caracteres são guardadas para conferir os limites de palavra nas pontas da frase.
+ *
+ * NOTA: Palavras-chave vazias são ignoradas (contagem sempre zero).
+ */
+public class MotorAhoCorasick implements MotorContagem {
+    private static final int[] SEM_SAIDA = new int[0];
+
+    private final List<String> palavras;
+    private final int[] comprimentos;
+
+    // Há alguma frase na lista; posição na linha de cada caractere lido pelo autômato (espaços agrupados)
+    private boolean temFrases;
+    private int[] posicoes = new int[0];
+
+    // Representação compacta do autômato, indexada pelo número do estado (0 = raiz)
+    private char[][] rotulos;
+    private int[][] destinos;
+    private int[] falha;
+    private int[][] saidas;
+
+    // Controle de ocorrências não sobrepostas: fim da última ocorrência aceita de cada palavra.
+    // A "geração" evita zerar o vetor a cada linha.
+    private final int[] ultimoFim;
+    private final int[] geracaoUltimoFim;
+    private int geracao;
+
+    public MotorAhoCorasick(List<String> palavras) {
+        this.palavras = Collections.unmodifiableList(new ArrayList<>(palavras));
+        this.comprimentos = new int[palavras.size()];
+        this.ultimoFim = new int[palavras.size()];
+        this.geracaoUltimoFim = new int[palavras.size()];
+        construir();
+    }
+
+    @Override
+    public List<String> getPalavras() {
+        return palavras;
+    }
+
+    @Override
+    public void contar(String linha, int[] ocorrencias) {
+        contarPresentes(linha, ocorrencias, null);
+    }
+
+    /**
+     * Uma palavra está presente quando tem a sua primeira ocorrência aceita na linha (geração do último
+     * fim diferente da atual), sem custo adicional por palavra.
+     */
+    @Override
+    public int contarPresentes(String linha, int[] ocorrencias, int[] presentes) {
+        if (linha == null) return 0;
+        int quantidade = 0;
+        geracao++;
+        int estado = 0;
+        int n = linha.length();
+        if (temFrases && posicoes.length < n) posicoes = new int[Math.max(n, 2 * posicoes.length)];
+        // Quantidade de caracteres lidos pelo autômato (menor que i quando há espaços agrupados)
+        int lidos = 0;
+        boolean espacoAnterior = false;
+        for (int i = 0; i < n; i++) {
+            char c = linha.charAt(i);
+            if (temFrases) {
+                if (Caracteres.ehEspaco(c)) {
+                    if (espacoAnterior) continue;
+                    espacoAnterior = true;
+                    c = ' ';
+                } else {
+                    espacoAnterior = false;
+                }
+                posicoes[lidos] = i;
+            }
+            lidos++;
+            c = Caracteres.minusculoAscii(c);
+            int proximo;
+            // Segue os links de falha até encontrar um estado com transição para o caractere
+            while ((proximo = transicao(estado, c)) < 0 && estado != 0) {
+                estado = falha[estado];
+            }
+            estado = proximo < 0 ? 0 : proximo;
+
+            for (int indice : saidas[estado]) {
+                int fim = i + 1;
+                int inicio = temFrases ? posicoes[lidos - comprimentos[indice]] : fim - comprimentos[indice];
+                if (geracaoUltimoFim[indice] == geracao && inicio < ultimoFim[indice]) continue;
+                if (Caracteres.ehLimite(linha, inicio) && Caracteres.ehLimite(linha, fim)) {
+                    ocorrencias[indice]++;
+                    if (presentes != null && geracaoUltimoFim[indice] != geracao) presentes[quantidade++] = indice;
+                    ultimoFim[indice] = fim;
+                    geracaoUltimoFim[indice] = geracao;
+                }
+            }
+        }
+        return quantidade;
+    }
+
+    private int transicao(int estado, char c) {
+        char[] r = rotulos[estado];
+        int baixo = 0, alto = r.length - 1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (r[meio] < c) baixo = meio + 1;
+            else if (r[meio] > c) alto = meio - 1;
+            else return destinos[estado][meio];
+        }
+        return -1;
+    }
+
+    /**
+     * Monta a trie das palavras (normalizadas para minúsculas ASCII e, nas frases, com um único espaço
+     * entre os termos), calcula os links de falha
+     * por busca em largura e propaga as saídas dos estados sufixo.
+     */
+    private void construir() {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> saidasTrie = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        saidasTrie.add(new ArrayList<>());
+
+        for (int p = 0; p < palavras.size(); p++) {
+            String palavra = palavras.get(p) == null ? null : Caracteres.normalizarEspacos(palavras.get(p));
+            if (palavra == null || palavra.isEmpty()) continue;
+            comprimentos[p] = palavra.length();
+            if (palavra.indexOf(' ') >= 0) temFrases = true;
+            int estado = 0;
+            for (int i = 0; i < palavra.length(); i++) {
+                char c = Caracteres.minusculoAscii(palavra.charAt(i));
+                Integer proximo = trie.get(estado).get(c);
+                if (proximo == null) {
+                    proximo = trie.size();
+                    trie.add(new TreeMap<>());
+                    saidasTrie.add(new ArrayList<>());
+                    trie.get(estado).put(c, proximo);
+                }
+                estado = proximo;
+            }
+            saidasTrie.get(estado).add(p);
+        }
+
+        int total = trie.size();
+        rotulos = new char[total][];
+        destinos = new int[total][];
+        falha = new int[total];
+        saidas = new int[total][];
+        for (int s = 0; s < total; s++) {
+            TreeMap<Character, Integer> filhos = trie.get(s);
+            rotulos[s] = new char[filhos.size()];
+            destinos[s] = new int[filhos.size()];
+            int k = 0;
+            for (Map.Entry<Character, Integer> e : filhos.entrySet()) {
+                rotulos[s][k] = e.getKey();
+                destinos[s][k] = e.getValue();
+                k++;
+            }
+        }
+
+        // Busca em largura: o link de falha de um estado é o maior sufixo próprio que também é prefixo
+        ArrayDeque<Integer> fila = new ArrayDeque<>();
+        for (int filho : destinos[0]) {
+            falha[filho] = 0;
+            fila.add(filho);
+        }
+        while (!fila.isEmpty()) {
+            int s = fila.poll();
+            for (int k = 0; k < rotulos[s].length; k++) {
+                char c = rotulos[s][k];
+                int filho = destinos[s][k];
+                int f = falha[s];
+                int alvo;
+                while ((alvo = transicao(f, c)) < 0 && f != 0) f = falha[f];
+                falha[filho] = (alvo < 0 || alvo == filho) ? 0 : alvo;
+                // Estados processados em largura: o estado de falha já tem suas saídas completas
+                saidasTrie.get(filho).addAll(saidasTrie.get(falha[filho]));
+                fila.add(filho);
+            }
+        }
+
+        for (int s = 0; s < total; s++) {
+            List<Integer> lista = saidasTrie.get(s);
+            if (lista.isEmpty()) {
+                saidas[s] = SEM_SAIDA;
+            } else {
+                saidas[s] = lista.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+    }
+}
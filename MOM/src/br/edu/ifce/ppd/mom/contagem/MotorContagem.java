@@ -0,0 +1,48 @@
+package br.edu.ifce.ppd.mom.contagem;
+
+import java.util.List;
+
+/**
+ * Contrato dos mecanismos de contagem de palavras-chave em uma linha de texto.
+ * Todas as implementações seguem a mesma semântica da busca original por regex:
+ * limites de palavra (\b), comparação sem distinção de maiúsculas/minúsculas apenas
+ * para caracteres ASCII e ocorrências não sobrepostas de uma mesma palavra-chave.
+ *
+ * NOTA: As instâncias guardam buffers de trabalho internos e NÃO são thread-safe.
+ * Cada Worker deve possuir o seu próprio motor.
+ */
+public interface MotorContagem {
+
+    /**
+     * Palavras-chave na ordem utilizada pelos índices do vetor de ocorrências.
+     */
+    List<String> getPalavras();
+
+    /**
+     * Conta as palavras-chave presentes na linha.
+     * Soma em ocorrencias[i] a quantidade de vezes que a palavra i aparece no texto,
+     * sem zerar o vetor, o que permite acumular várias linhas no mesmo vetor.
+     *
+     * @param linha Texto a ser analisado.
+     * @param ocorrencias Vetor com o mesmo tamanho de {@link #getPalavras()}.
+     */
+    void contar(String linha, int[] ocorrencias);
+
+    /**
+     * Conta como {@link #contar} e grava em presentes os índices das palavras encontradas na linha, cada
+     * um uma única vez. A implementação padrão compara o vetor antes e depois da contagem; os motores de
+     * passagem única a sobrescrevem para registrar os índices durante a própria varredura.
+     *
+     * @param presentes Vetor com pelo menos o tamanho de {@link #getPalavras()}.
+     * @return Quantidade de índices gravados em presentes.
+     */
+    default int contarPresentes(String linha, int[] ocorrencias, int[] presentes) {
+        int[] antes = ocorrencias.clone();
+        contar(linha, ocorrencias);
+        int quantidade = 0;
+        for (int i = 0; i < ocorrencias.length; i++) {
+            if (ocorrencias[i] != antes[i]) presentes[quantidade++] = i;
+        }
+        return quantidade;
+    }
+}
@@ -0,0 +1,68 @@
+package br.edu.ifce.ppd.mom.contagem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Motor baseado em Expressões Regulares (abordagem original do ProcessadorPalavras).
+ * Utiliza limites de palavra (\b) para evitar falsos positivos em substrings.
+ * Compilado uma única vez, o motor aceita nas frases qualquer sequência de espaços entre os termos
+ * (\s+), como os demais motores. O modo que compila a cada linha mantém o padrão original, em que a
+ * frase precisa aparecer com os espaços exatamente como foi informada.
+ */
+public class MotorRegex implements MotorContagem {
+    private final List<String> palavras;
+    private final Pattern[] padroes;
+    private final boolean compilarPorChamada;
+
+    /**
+     * @param compilarPorChamada Quando verdadeiro, compila o padrão a cada linha,
+     *                           tal como o método contarNoTexto original (usado como referência).
+     */
+    public MotorRegex(List<String> palavras, boolean compilarPorChamada) {
+        this.palavras = Collections.unmodifiableList(new ArrayList<>(palavras));
+        this.compilarPorChamada = compilarPorChamada;
+        this.padroes = new Pattern[palavras.size()];
+        if (!compilarPorChamada) {
+            for (int i = 0; i < padroes.length; i++) {
+                padroes[i] = compilarFrase(palavras.get(i));
+            }
+        }
+    }
+
+    @Override
+    public List<String> getPalavras() {
+        return palavras;
+    }
+
+    @Override
+    public void contar(String linha, int[] ocorrencias) {
+        if (linha == null) return;
+        for (int i = 0; i < padroes.length; i++) {
+            String alvo = palavras.get(i);
+            if (alvo == null) continue;
+            Pattern p = compilarPorChamada ? compilar(alvo) : padroes[i];
+            Matcher m = p.matcher(linha);
+            while (m.find()) ocorrencias[i]++;
+        }
+    }
+
+    // Compila o padrão regex ignorando maiúsculas/minúsculas (padrão original)
+    private static Pattern compilar(String alvo) {
+        return Pattern.compile("\\b" + Pattern.quote(alvo) + "\\b", Pattern.CASE_INSENSITIVE);
+    }
+
+    // Como compilar(), com os termos de uma frase separados por \s+
+    private static Pattern compilarFrase(String alvo) {
+        StringBuilder padrao = new StringBuilder("\\b");
+        String[] termos = Caracteres.normalizarEspacos(alvo).split(" ");
+        for (int t = 0; t < termos.length; t++) {
+            if (t > 0) padrao.append("\\s+");
+            padrao.append(Pattern.quote(termos[t]));
+        }
+        return Pattern.compile(padrao.append("\\b").toString(), Pattern.CASE_INSENSITIVE);
+    }
+}
@@ -0,0 +1,187 @@
+package br.edu.ifce.ppd.mom.contagem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Motor de varredura sequencial: percorre a linha uma única vez, delimitando os tokens
+ * (sequências máximas de caracteres de palavra) e consultando cada um em uma tabela hash
+ * de endereçamento aberto, sem criar Strings intermediárias.
+ *
+ * Palavras-chave compostas por mais de um token (ex: "C++" ou a frase "message oriented middleware") não
+ * podem ser resolvidas por consulta de token e são delegadas a um {@link MotorAhoCorasick} interno, que
+ * procura todas elas numa única passagem adicional pela linha (em vez de uma regex por palavra).
+ */
+public class MotorVarreduraTokens implements MotorContagem {
+    private final List<String> palavras;
+
+    // Tabela hash: chaves normalizadas (minúsculas ASCII) e índices das palavras correspondentes
+    private final char[][] chaves;
+    private final int[][] indices;
+    private final int mascara;
+
+    // Palavras que não são um único token e o motor auxiliar que as trata
+    private final int[] indicesComplexos;
+    private final MotorContagem motorComplexo;
+    private final int[] bufferComplexo;
+
+    // Palavras já encontradas na linha atual (para contarPresentes); a "geração" evita zerar o vetor
+    private final int[] geracaoPresente;
+    private int geracao;
+
+    public MotorVarreduraTokens(List<String> palavras) {
+        this.palavras = Collections.unmodifiableList(new ArrayList<>(palavras));
+
+        int capacidade = 16;
+        while (capacidade < palavras.size() * 2) capacidade <<= 1;
+        this.chaves = new char[capacidade][];
+        this.indices = new int[capacidade][];
+        this.mascara = capacidade - 1;
+
+        List<Integer> complexos = new ArrayList<>();
+        for (int p = 0; p < palavras.size(); p++) {
+            String palavra = palavras.get(p);
+            if (palavra == null || palavra.isEmpty()) continue;
+            if (ehTokenSimples(palavra)) {
+                inserir(palavra, p);
+            } else {
+                complexos.add(p);
+            }
+        }
+
+        this.indicesComplexos = complexos.stream().mapToInt(Integer::intValue).toArray();
+        List<String> palavrasComplexas = new ArrayList<>();
+        for (int p : indicesComplexos) palavrasComplexas.add(palavras.get(p));
+        this.motorComplexo = indicesComplexos.length == 0 ? null : new MotorAhoCorasick(palavrasComplexas);
+        this.bufferComplexo = new int[indicesComplexos.length];
+        this.geracaoPresente = new int[palavras.size()];
+    }
+
+    @Override
+    public List<String> getPalavras() {
+        return palavras;
+    }
+
+    @Override
+    public void contar(String linha, int[] ocorrencias) {
+        contarPresentes(linha, ocorrencias, null);
+    }
+
+    @Override
+    public int contarPresentes(String linha, int[] ocorrencias, int[] presentes) {
+        if (linha == null) return 0;
+        int quantidade = 0;
+        geracao++;
+        int n = linha.length();
+        int i = 0;
+        while (i < n) {
+            // Avança até o início do próximo token
+            int cp = linha.codePointAt(i);
+            if (!Caracteres.ehPalavra(cp)) {
+                i += Character.charCount(cp);
+                continue;
+            }
+            int inicio = i;
+            int hash = 0;
+            boolean apoiada = false;
+            while (i < n) {
+                cp = linha.codePointAt(i);
+                if (!continuaToken(cp, apoiada)) break;
+                apoiada = apoiaMarca(cp, apoiada);
+                int fim = i + Character.charCount(cp);
+                for (int j = i; j < fim; j++) {
+                    hash = 31 * hash + Caracteres.minusculoAscii(linha.charAt(j));
+                }
+                i = fim;
+            }
+            int[] encontrados = buscar(linha, inicio, i, hash);
+            if (encontrados != null) {
+                for (int indice : encontrados) {
+                    ocorrencias[indice]++;
+                    if (presentes != null && geracaoPresente[indice] != geracao) {
+                        geracaoPresente[indice] = geracao;
+                        presentes[quantidade++] = indice;
+                    }
+                }
+            }
+        }
+
+        if (motorComplexo != null) {
+            Arrays.fill(bufferComplexo, 0);
+            motorComplexo.contar(linha, bufferComplexo);
+            for (int k = 0; k < indicesComplexos.length; k++) {
+                ocorrencias[indicesComplexos[k]] += bufferComplexo[k];
+                if (presentes != null && bufferComplexo[k] > 0) presentes[quantidade++] = indicesComplexos[k];
+            }
+        }
+        return quantidade;
+    }
+
+    private int[] buscar(String linha, int inicio, int fim, int hash) {
+        int tamanho = fim - inicio;
+        for (int slot = espalhar(hash) & mascara; chaves[slot] != null; slot = (slot + 1) & mascara) {
+            char[] chave = chaves[slot];
+            if (chave.length != tamanho) continue;
+            boolean igual = true;
+            for (int k = 0; k < tamanho && igual; k++) {
+                igual = chave[k] == Caracteres.minusculoAscii(linha.charAt(inicio + k));
+            }
+            if (igual) return indices[slot];
+        }
+        return null;
+    }
+
+    private void inserir(String palavra, int indice) {
+        char[] chave = new char[palavra.length()];
+        int hash = 0;
+        for (int k = 0; k < chave.length; k++) {
+            chave[k] = Caracteres.minusculoAscii(palavra.charAt(k));
+            hash = 31 * hash + chave[k];
+        }
+        int slot = espalhar(hash) & mascara;
+        while (chaves[slot] != null) {
+            if (Arrays.equals(chaves[slot], chave)) {
+                // Palavra repetida na lista: ambos os índices recebem a contagem
+                int[] atual = indices[slot];
+                int[] novo = Arrays.copyOf(atual, atual.length + 1);
+                novo[atual.length] = indice;
+                indices[slot] = novo;
+                return;
+            }
+            slot = (slot + 1) & mascara;
+        }
+        chaves[slot] = chave;
+        indices[slot] = new int[] { indice };
+    }
+
+    private static int espalhar(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Um caractere continua o token se for de palavra ou se for uma marca combinante
+     * apoiada em letra/dígito (mesma regra do \b da regex).
+     */
+    private static boolean continuaToken(int cp, boolean apoiada) {
+        return Caracteres.ehPalavra(cp) || (apoiada && Character.getType(cp) == Character.NON_SPACING_MARK);
+    }
+
+    // Indica se uma marca combinante logo após este caractere teria uma letra/dígito como base
+    private static boolean apoiaMarca(int cp, boolean apoiada) {
+        return Character.isLetterOrDigit(cp) || (apoiada && Character.getType(cp) == Character.NON_SPACING_MARK);
+    }
+
+    // Um token simples começa com caractere de palavra e contém apenas caracteres de palavra
+    private static boolean ehTokenSimples(String palavra) {
+        boolean apoiada = false;
+        for (int i = 0; i < palavra.length(); ) {
+            int cp = palavra.codePointAt(i);
+            if (!continuaToken(cp, apoiada)) return false;
+            apoiada = apoiaMarca(cp, apoiada);
+            i += Character.charCount(cp);
+        }
+        return true;
+    }
+}
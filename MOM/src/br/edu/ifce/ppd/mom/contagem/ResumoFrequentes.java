@@ -0,0 +1,314 @@
+package br.edu.ifce.ppd.mom.contagem;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Termos mais frequentes pelo algoritmo Space-Saving: no máximo "capacidade" termos monitorados, cada um
+ * com uma contagem e o erro máximo dela. Um termo novo com a estrutura cheia substitui o de menor
+ * contagem e herda essa contagem como erro, de modo que a contagem de um termo monitorado nunca é
+ * menor que a real nem a excede em mais que o erro dele, e qualquer termo com frequência maior que
+ * N / capacidade está entre os monitorados.
+ *
+ * A soma de dois resumos (ex: o de cada Worker no Monitor) preserva essas garantias: os termos ausentes
+ * de um resumo cheio recebem a menor contagem dele como contagem e erro adicionais.
+ *
+ * NOTA TÉCNICA: As contagens ficam num heap mínimo (o termo a substituir é sempre a raiz) e os termos
+ * num índice de endereçamento aberto com remoção por deslocamento. Os vetores das chaves são reutilizados
+ * nas substituições, então a estrutura não aloca memória depois de cheia.
+ */
+public class ResumoFrequentes {
+    private final int capacidade;
+
+    // Entradas: bytes do termo (vetor reaproveitado), hash, contagem e erro máximo
+    private final byte[][] chaves;
+    private final int[] tamanhos;
+    private final long[] hashes;
+    private final long[] contagens;
+    private final long[] erros;
+    private int quantidade;
+    private long total;
+
+    // Heap mínimo por contagem (índices das entradas) e posição de cada entrada no heap
+    private final int[] heap;
+    private final int[] posicaoHeap;
+
+    // Índice hash: entrada + 1 (0 = posição livre)
+    private final int[] indice;
+    private final int mascaraIndice;
+
+    public ResumoFrequentes(int capacidade) {
+        if (capacidade < 1) throw new IllegalArgumentException("O resumo precisa monitorar pelo menos 1 termo.");
+        this.capacidade = capacidade;
+        this.chaves = new byte[capacidade][];
+        this.tamanhos = new int[capacidade];
+        this.hashes = new long[capacidade];
+        this.contagens = new long[capacidade];
+        this.erros = new long[capacidade];
+        this.heap = new int[capacidade];
+        this.posicaoHeap = new int[capacidade];
+        int tamanhoIndice = Integer.highestOneBit(capacidade * 2 - 1) << 1;
+        this.indice = new int[tamanhoIndice];
+        this.mascaraIndice = tamanhoIndice - 1;
+    }
+
+    /**
+     * Capacidade usada para acompanhar os k termos mais frequentes com folga para a disputa entre eles.
+     */
+    public static int capacidadePara(int k) {
+        return Math.max(256, 8 * k);
+    }
+
+    public void adicionar(byte[] chave, int inicio, int tamanho, long valor) {
+        adicionarHash(chave, inicio, tamanho, Codificacao.hash64(chave, inicio, tamanho), valor, 0);
+    }
+
+    /**
+     * Atualização do Space-Saving com peso: soma ao termo, se monitorado; senão ocupa uma entrada livre
+     * ou substitui o termo de menor contagem, herdando-a como contagem e erro adicionais.
+     */
+    void adicionarHash(byte[] chave, int inicio, int tamanho, long hash, long valor, long erro) {
+        total += valor;
+        int entrada = buscar(chave, inicio, tamanho, hash);
+        if (entrada >= 0) {
+            contagens[entrada] += valor;
+            erros[entrada] += erro;
+            descer(posicaoHeap[entrada]);
+            return;
+        }
+        if (quantidade < capacidade) {
+            entrada = quantidade++;
+            gravar(entrada, chave, inicio, tamanho, hash);
+            contagens[entrada] = valor;
+            erros[entrada] = erro;
+            heap[entrada] = entrada;
+            posicaoHeap[entrada] = entrada;
+            subir(entrada);
+            return;
+        }
+        entrada = heap[0];
+        long minimo = contagens[entrada];
+        removerIndice(entrada);
+        gravar(entrada, chave, inicio, tamanho, hash);
+        contagens[entrada] = minimo + valor;
+        erros[entrada] = minimo + erro;
+        descer(0);
+    }
+
+    /**
+     * Limite superior da contagem de um termo não monitorado: a menor contagem, se a estrutura estiver
+     * cheia, ou zero (enquanto há entradas livres todos os termos vistos estão monitorados).
+     */
+    public long getMinimo() {
+        return quantidade < capacidade ? 0 : contagens[heap[0]];
+    }
+
+    public int getCapacidade() { return capacidade; }
+
+    public int getQuantidade() { return quantidade; }
+
+    public long getTotal() { return total; }
+
+    public long getBytesOcupados() {
+        long bytes = (4L + 8 + 8 + 8 + 4 + 4) * capacidade + 4L * indice.length;
+        for (int e = 0; e < quantidade; e++) bytes += chaves[e].length;
+        return bytes;
+    }
+
+    /**
+     * Soma outro resumo a este, preservando as garantias de ambos.
+     */
+    public void somar(ResumoFrequentes outro) {
+        long totalSomado = total + outro.total;
+        // Termos daqui que o outro não monitora podem ter ocorrido até outro.getMinimo() vezes nele
+        long minimoOutro = outro.getMinimo();
+        if (minimoOutro > 0) {
+            for (int e = 0; e < quantidade; e++) {
+                if (outro.buscar(chaves[e], 0, tamanhos[e], hashes[e]) < 0) {
+                    contagens[e] += minimoOutro;
+                    erros[e] += minimoOutro;
+                }
+            }
+            for (int i = quantidade / 2 - 1; i >= 0; i--) descer(i);
+        }
+        for (int e = 0; e < outro.quantidade; e++) {
+            adicionarHash(outro.chaves[e], 0, outro.tamanhos[e], outro.hashes[e], outro.contagens[e], outro.erros[e]);
+        }
+        // As contagens herdadas não são ocorrências novas: o total é a soma dos dois totais
+        total = totalSomado;
+    }
+
+    /**
+     * Os k termos de maior estimativa, em ordem decrescente. Com um sketch dos mesmos dados, a estimativa
+     * é a menor entre a contagem do resumo e a do sketch (ambas limites superiores).
+     */
+    public List<Estimativa> maiores(int k, SketchContagem sketch) {
+        long[] estimativas = new long[quantidade];
+        Integer[] ordem = new Integer[quantidade];
+        for (int e = 0; e < quantidade; e++) {
+            estimativas[e] = sketch == null ? contagens[e] : Math.min(contagens[e], sketch.estimarHash(hashes[e]));
+            ordem[e] = e;
+        }
+        Arrays.sort(ordem, (a, b) -> estimativas[a] != estimativas[b]
+                ? Long.compare(estimativas[b], estimativas[a])
+                : Arrays.compareUnsigned(chaves[a], 0, tamanhos[a], chaves[b], 0, tamanhos[b]));
+        List<Estimativa> resultado = new ArrayList<>();
+        for (int i = 0; i < Math.min(k, quantidade); i++) {
+            int e = ordem[i];
+            String termo = new String(chaves[e], 0, tamanhos[e], StandardCharsets.UTF_8);
+            resultado.add(new Estimativa(termo, estimativas[e], Math.max(contagens[e] - erros[e], 0)));
+        }
+        return resultado;
+    }
+
+    public void limpar() {
+        Arrays.fill(indice, 0);
+        quantidade = 0;
+        total = 0;
+    }
+
+    // --- Serialização ---
+
+    int tamanhoMaximoSerializado() {
+        int bytes = 3 * Codificacao.MAXIMO_VARINT;
+        for (int e = 0; e < quantidade; e++) bytes += 5 + tamanhos[e] + 2 * Codificacao.MAXIMO_VARINT;
+        return bytes;
+    }
+
+    /**
+     * Grava capacidade, total, quantidade e, por termo, tamanho, bytes, contagem e erro (inteiros em varint).
+     */
+    int serializar(byte[] saida, int pos) {
+        pos = Codificacao.escreverVarint(saida, pos, capacidade);
+        pos = Codificacao.escreverVarint(saida, pos, total);
+        pos = Codificacao.escreverVarint(saida, pos, quantidade);
+        for (int e = 0; e < quantidade; e++) {
+            pos = Codificacao.escreverVarint(saida, pos, tamanhos[e]);
+            System.arraycopy(chaves[e], 0, saida, pos, tamanhos[e]);
+            pos += tamanhos[e];
+            pos = Codificacao.escreverVarint(saida, pos, contagens[e]);
+            pos = Codificacao.escreverVarint(saida, pos, erros[e]);
+        }
+        return pos;
+    }
+
+    /**
+     * Capacidade de um resumo serializado a partir de pos[0] (sem avançar a posição).
+     */
+    static int lerCapacidade(byte[] dados, int[] pos) {
+        return (int) Codificacao.lerVarint(dados, new int[] {pos[0]});
+    }
+
+    /**
+     * Substitui o conteúdo deste resumo pelo serializado a partir de pos[0], que deve ter a mesma capacidade
+     * (dela depende o limite dos termos não monitorados, {@link #getMinimo()}).
+     */
+    void lerSerializado(byte[] dados, int[] pos) {
+        int capacidadeRecebida = (int) Codificacao.lerVarint(dados, pos);
+        if (capacidadeRecebida != capacidade) {
+            throw new IllegalArgumentException("Resumo serializado de capacidade " + capacidadeRecebida
+                    + " lido num resumo de capacidade " + capacidade);
+        }
+        limpar();
+        long totalRecebido = Codificacao.lerVarint(dados, pos);
+        int entradas = (int) Codificacao.lerVarint(dados, pos);
+        for (int i = 0; i < entradas; i++) {
+            int tamanho = (int) Codificacao.lerVarint(dados, pos);
+            int inicio = pos[0];
+            pos[0] += tamanho;
+            long contagem = Codificacao.lerVarint(dados, pos);
+            long erro = Codificacao.lerVarint(dados, pos);
+            adicionarHash(dados, inicio, tamanho, Codificacao.hash64(dados, inicio, tamanho), contagem, erro);
+        }
+        total = totalRecebido;
+    }
+
+    // --- Estrutura interna ---
+
+    private int buscar(byte[] chave, int inicio, int tamanho, long hash) {
+        for (int pos = (int) hash & mascaraIndice, ocupante; (ocupante = indice[pos]) != 0; pos = (pos + 1) & mascaraIndice) {
+            int e = ocupante - 1;
+            if (hashes[e] == hash && tamanhos[e] == tamanho
+                    && Arrays.equals(chaves[e], 0, tamanho, chave, inicio, inicio + tamanho)) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    // Copia a chave para o vetor da entrada (reaproveitado se couber) e a inclui no índice
+    private void gravar(int entrada, byte[] chave, int inicio, int tamanho, long hash) {
+        if (chaves[entrada] == null || chaves[entrada].length < tamanho) chaves[entrada] = new byte[Math.max(tamanho, 16)];
+        System.arraycopy(chave, inicio, chaves[entrada], 0, tamanho);
+        tamanhos[entrada] = tamanho;
+        hashes[entrada] = hash;
+        int pos = (int) hash & mascaraIndice;
+        while (indice[pos] != 0) pos = (pos + 1) & mascaraIndice;
+        indice[pos] = entrada + 1;
+    }
+
+    // Remoção com deslocamento para trás: as entradas seguintes voltam para perto da posição ideal
+    private void removerIndice(int entrada) {
+        int livre = (int) hashes[entrada] & mascaraIndice;
+        while (indice[livre] != entrada + 1) livre = (livre + 1) & mascaraIndice;
+        indice[livre] = 0;
+        for (int j = (livre + 1) & mascaraIndice; indice[j] != 0; j = (j + 1) & mascaraIndice) {
+            int ideal = (int) hashes[indice[j] - 1] & mascaraIndice;
+            if (((j - ideal) & mascaraIndice) >= ((j - livre) & mascaraIndice)) {
+                indice[livre] = indice[j];
+                indice[j] = 0;
+                livre = j;
+            }
+        }
+    }
+
+    private void subir(int i) {
+        while (i > 0) {
+            int pai = (i - 1) / 2;
+            if (contagens[heap[i]] >= contagens[heap[pai]]) return;
+            trocar(i, pai);
+            i = pai;
+        }
+    }
+
+    private void descer(int i) {
+        while (true) {
+            int menor = 2 * i + 1;
+            if (menor >= quantidade) return;
+            if (menor + 1 < quantidade && contagens[heap[menor + 1]] < contagens[heap[menor]]) menor++;
+            if (contagens[heap[menor]] >= contagens[heap[i]]) return;
+            trocar(i, menor);
+            i = menor;
+        }
+    }
+
+    private void trocar(int a, int b) {
+        int t = heap[a];
+        heap[a] = heap[b];
+        heap[b] = t;
+        posicaoHeap[heap[a]] = a;
+        posicaoHeap[heap[b]] = b;
+    }
+
+    /**
+     * Estimativa da frequência de um termo: limite superior ("estimativa") e inferior ("minimo").
+     */
+    public static final class Estimativa {
+        public final String termo;
+        public final long estimativa;
+        public final long minimo;
+
+        public Estimativa(String termo, long estimativa, long minimo) {
+            this.termo = termo;
+            this.estimativa = estimativa;
+            this.minimo = minimo;
+        }
+
+        @Override
+        public String toString() {
+            return termo + "=" + estimativa + (minimo < estimativa ? " (mín. " + minimo + ")" : "");
+        }
+    }
+}
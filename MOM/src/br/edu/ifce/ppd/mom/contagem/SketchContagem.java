@@ -0,0 +1,161 @@
+package br.edu.ifce.ppd.mom.contagem;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Count-Min Sketch: "profundidade" linhas de "largura" contadores, cada linha com a sua função de hash.
+ * Um termo soma o seu valor em um contador de cada linha, e a estimativa é o menor dos contadores dele.
+ *
+ * A estimativa nunca é menor que o valor real e, com probabilidade 1 - e^(-profundidade), excede-o em no
+ * máximo (e / largura) * N, sendo N o total somado. A memória é fixa (largura x profundidade longs),
+ * qualquer que seja o número de termos distintos.
+ *
+ * Dois sketches de mesmas dimensões são somados contador a contador, e a soma é o sketch que se teria
+ * obtido com todos os termos num só; por isso cada Worker mantém o seu e o Monitor soma os recebidos.
+ *
+ * NOTA TÉCNICA: As funções de hash das linhas derivam de um único hash de 64 bits (h1 + i * h2, técnica
+ * de Kirsch e Mitzenmacher), então cada token é percorrido uma única vez.
+ */
+public class SketchContagem {
+    private final int largura;
+    private final int profundidade;
+    private final int mascara;
+    private final long[] contadores;
+    private long total;
+
+    /**
+     * @param largura Contadores por linha (potência de 2).
+     */
+    public SketchContagem(int largura, int profundidade) {
+        if (largura < 2 || Integer.bitCount(largura) != 1) {
+            throw new IllegalArgumentException("A largura do sketch deve ser uma potência de 2: " + largura);
+        }
+        if (profundidade < 1) throw new IllegalArgumentException("O sketch precisa de pelo menos 1 linha.");
+        this.largura = largura;
+        this.profundidade = profundidade;
+        this.mascara = largura - 1;
+        this.contadores = new long[largura * profundidade];
+    }
+
+    public void adicionar(byte[] chave, int inicio, int tamanho, long valor) {
+        adicionarHash(Codificacao.hash64(chave, inicio, tamanho), valor);
+    }
+
+    void adicionarHash(long hash, long valor) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < profundidade; i++) {
+            contadores[i * largura + ((h1 + i * h2) & mascara)] += valor;
+        }
+        total += valor;
+    }
+
+    public long estimar(String termo) {
+        byte[] chave = termo.getBytes(StandardCharsets.UTF_8);
+        return estimarHash(Codificacao.hash64(chave, 0, chave.length));
+    }
+
+    long estimarHash(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        long menor = Long.MAX_VALUE;
+        for (int i = 0; i < profundidade; i++) {
+            menor = Math.min(menor, contadores[i * largura + ((h1 + i * h2) & mascara)]);
+        }
+        return menor;
+    }
+
+    public int getLargura() { return largura; }
+
+    public int getProfundidade() { return profundidade; }
+
+    /**
+     * Soma de todos os valores adicionados (exata).
+     */
+    public long getTotal() { return total; }
+
+    /**
+     * Excesso máximo de uma estimativa, (e / largura) * N, válido com a probabilidade de {@link #getConfianca()}.
+     */
+    public long getErroMaximo() {
+        return (long) Math.ceil(Math.E / largura * total);
+    }
+
+    public double getConfianca() {
+        return 1 - Math.exp(-profundidade);
+    }
+
+    public long getBytesOcupados() {
+        return 8L * contadores.length;
+    }
+
+    public void somar(SketchContagem outro) {
+        verificarDimensoes(outro.largura, outro.profundidade);
+        for (int i = 0; i < contadores.length; i++) contadores[i] += outro.contadores[i];
+        total += outro.total;
+    }
+
+    public void limpar() {
+        Arrays.fill(contadores, 0);
+        total = 0;
+    }
+
+    // --- Serialização ---
+
+    /**
+     * Maior tamanho possível do sketch serializado.
+     */
+    int tamanhoMaximoSerializado() {
+        return 3 * Codificacao.MAXIMO_VARINT + contadores.length * Codificacao.MAXIMO_VARINT;
+    }
+
+    /**
+     * Grava largura, profundidade, total e os contadores em varint; sequências de zeros (comuns no sketch
+     * de um intervalo curto) viram um zero seguido do tamanho da sequência.
+     *
+     * @return Posição seguinte ao sketch.
+     */
+    int serializar(byte[] saida, int pos) {
+        pos = Codificacao.escreverVarint(saida, pos, largura);
+        pos = Codificacao.escreverVarint(saida, pos, profundidade);
+        pos = Codificacao.escreverVarint(saida, pos, total);
+        for (int i = 0; i < contadores.length; ) {
+            if (contadores[i] != 0) {
+                pos = Codificacao.escreverVarint(saida, pos, contadores[i++]);
+                continue;
+            }
+            int fim = i;
+            while (fim < contadores.length && contadores[fim] == 0) fim++;
+            saida[pos++] = 0;
+            pos = Codificacao.escreverVarint(saida, pos, fim - i);
+            i = fim;
+        }
+        return pos;
+    }
+
+    /**
+     * Soma a este um sketch serializado de mesmas dimensões, lendo a partir de pos[0].
+     */
+    void somarSerializado(byte[] dados, int[] pos) {
+        int larguraRecebida = (int) Codificacao.lerVarint(dados, pos);
+        int profundidadeRecebida = (int) Codificacao.lerVarint(dados, pos);
+        verificarDimensoes(larguraRecebida, profundidadeRecebida);
+        total += Codificacao.lerVarint(dados, pos);
+        for (int i = 0; i < contadores.length; ) {
+            long valor = Codificacao.lerVarint(dados, pos);
+            if (valor != 0) {
+                contadores[i++] += valor;
+            } else {
+                i += (int) Codificacao.lerVarint(dados, pos);
+            }
+        }
+    }
+
+    private void verificarDimensoes(int outraLargura, int outraProfundidade) {
+        if (outraLargura != largura || outraProfundidade != profundidade) {
+            throw new IllegalArgumentException("Sketches de dimensões diferentes: " + largura + "x" + profundidade
+                    + " e " + outraLargura + "x" + outraProfundidade);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package br.edu.ifce.ppd.mom.contagem;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tabela hash de endereçamento aberto de sequências de bytes (termos em UTF-8) para contadores long,
+ * usada na contagem do vocabulário completo, em que o número de termos distintos chega a milhões.
+ *
+ * Os bytes das chaves ficam todos num único vetor (arena) e cada entrada ocupa apenas posições em
+ * vetores primitivos (início e tamanho da chave, hash e valor), sem objetos por termo: cerca de
+ * 30 bytes por termo além dos próprios bytes, contra mais de 100 de um HashMap<String, Integer>.
+ * Inserções e somas não alocam memória, exceto quando a tabela ou a arena precisam crescer.
+ *
+ * O formato serializado (quantidade de entradas e, para cada uma, tamanho, bytes e valor, todos os
+ * inteiros em varint) permite somar tabelas de outros processos diretamente, sem criar Strings.
+ *
+ * NOTA: Não é thread-safe. Cada Worker tem a sua tabela; o Monitor sincroniza o acesso à dele.
+ */
+public class TabelaContagem implements DestinoTokens {
+    private static final int CAPACIDADE_INICIAL = 1024;
+
+    // Posições da tabela: índice da entrada + 1 (0 = posição livre); carga máxima de 50%
+    private int[] posicoes = new int[CAPACIDADE_INICIAL];
+    private int mascara = CAPACIDADE_INICIAL - 1;
+
+    // Entradas, na ordem de inserção
+    private int[] inicioChave = new int[CAPACIDADE_INICIAL / 2];
+    private int[] tamanhoChave = new int[CAPACIDADE_INICIAL / 2];
+    private int[] hashChave = new int[CAPACIDADE_INICIAL / 2];
+    private long[] valores = new long[CAPACIDADE_INICIAL / 2];
+    private int quantidade;
+
+    private byte[] arena = new byte[CAPACIDADE_INICIAL * 8];
+    private int usoArena;
+    private long total;
+
+    /**
+     * Soma "valor" ao contador do termo formado por chave[inicio, inicio + tamanho).
+     */
+    @Override
+    public void adicionar(byte[] chave, int inicio, int tamanho, long valor) {
+        int hash = hash(chave, inicio, tamanho);
+        int posicao = hash & mascara;
+        int entrada;
+        while ((entrada = posicoes[posicao]) != 0) {
+            entrada--;
+            if (hashChave[entrada] == hash && igual(entrada, chave, inicio, tamanho)) {
+                valores[entrada] += valor;
+                total += valor;
+                return;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+        entrada = novaEntrada(chave, inicio, tamanho, hash, valor);
+        posicoes[posicao] = entrada + 1;
+        total += valor;
+        if (quantidade * 2 > posicoes.length) redimensionar();
+    }
+
+    public void adicionar(String termo, long valor) {
+        byte[] bytes = termo.getBytes(StandardCharsets.UTF_8);
+        adicionar(bytes, 0, bytes.length, valor);
+    }
+
+    public long obter(String termo) {
+        byte[] chave = termo.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(chave, 0, chave.length);
+        for (int posicao = hash & mascara, entrada; (entrada = posicoes[posicao]) != 0; posicao = (posicao + 1) & mascara) {
+            entrada--;
+            if (hashChave[entrada] == hash && igual(entrada, chave, 0, chave.length)) return valores[entrada];
+        }
+        return 0;
+    }
+
+    /**
+     * Quantidade de termos distintos.
+     */
+    public int getTamanho() {
+        return quantidade;
+    }
+
+    /**
+     * Soma de todos os contadores.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Memória ocupada pelos vetores da tabela, em bytes (aproximada).
+     */
+    public long getBytesOcupados() {
+        return 4L * posicoes.length + (4L + 4L + 4L + 8L) * valores.length + arena.length;
+    }
+
+    /**
+     * Os k termos mais frequentes, do maior para o menor (empates em ordem crescente dos bytes do termo,
+     * para que tabelas com o mesmo conteúdo deem o mesmo resultado, qualquer que seja a ordem de inserção).
+     *
+     * NOTA TÉCNICA: Um heap mínimo com os k maiores vistos até o momento percorre as entradas uma única
+     * vez (O(n log k)); apenas os k termos escolhidos são convertidos em String.
+     */
+    public Map<String, Long> maiores(int k) {
+        int[] heap = new int[Math.min(k, quantidade)];
+        int tamanhoHeap = 0;
+        for (int e = 0; e < quantidade; e++) {
+            if (tamanhoHeap < heap.length) {
+                heap[tamanhoHeap] = e;
+                subir(heap, tamanhoHeap++);
+            } else if (heap.length > 0 && menor(heap[0], e)) {
+                heap[0] = e;
+                descer(heap, tamanhoHeap);
+            }
+        }
+        // Retira do heap (do menor para o maior) e preenche o resultado de trás para frente
+        int[] ordenadas = new int[tamanhoHeap];
+        for (int i = tamanhoHeap - 1; i >= 0; i--) {
+            ordenadas[i] = heap[0];
+            heap[0] = heap[--tamanhoHeap];
+            descer(heap, tamanhoHeap);
+        }
+        Map<String, Long> resultado = new LinkedHashMap<>();
+        for (int e : ordenadas) resultado.put(getTermo(e), valores[e]);
+        return resultado;
+    }
+
+    public String getTermo(int entrada) {
+        return new String(arena, inicioChave[entrada], tamanhoChave[entrada], StandardCharsets.UTF_8);
+    }
+
+    public long getValor(int entrada) {
+        return valores[entrada];
+    }
+
+    /**
+     * Soma todos os contadores de outra tabela nesta.
+     */
+    public void somar(TabelaContagem outra) {
+        for (int e = 0; e < outra.quantidade; e++) {
+            adicionar(outra.arena, outra.inicioChave[e], outra.tamanhoChave[e], outra.valores[e]);
+        }
+    }
+
+    /**
+     * Esvazia a tabela mantendo a capacidade já alocada (para reutilização a cada lote).
+     */
+    public void limpar() {
+        Arrays.fill(posicoes, 0);
+        quantidade = 0;
+        usoArena = 0;
+        total = 0;
+    }
+
+    // --- Serialização ---
+
+    /**
+     * Tabela no formato binário: varint(entradas) e, por entrada, varint(tamanho), bytes, varint(valor).
+     */
+    public byte[] serializar() {
+        byte[] saida = new byte[5 + usoArena + quantidade * (5 + Codificacao.MAXIMO_VARINT)];
+        int pos = Codificacao.escreverVarint(saida, 0, quantidade);
+        for (int e = 0; e < quantidade; e++) {
+            pos = Codificacao.escreverVarint(saida, pos, tamanhoChave[e]);
+            System.arraycopy(arena, inicioChave[e], saida, pos, tamanhoChave[e]);
+            pos += tamanhoChave[e];
+            pos = Codificacao.escreverVarint(saida, pos, valores[e]);
+        }
+        return Arrays.copyOf(saida, pos);
+    }
+
+    /**
+     * A tabela serializada dividida em "particoes" tabelas, no mesmo formato, pelo hash dos bytes de cada
+     * termo: o hash não depende da ordem de inserção nem do processo, então um termo fica sempre na mesma
+     * parte. As partes sem termos são null.
+     */
+    public byte[][] serializarParticoes(int particoes) {
+        int[] entradas = new int[particoes];
+        int[] bytes = new int[particoes];
+        for (int e = 0; e < quantidade; e++) {
+            int p = particao(e, particoes);
+            entradas[p]++;
+            bytes[p] += tamanhoChave[e];
+        }
+        byte[][] saidas = new byte[particoes][];
+        int[] pos = new int[particoes];
+        for (int p = 0; p < particoes; p++) {
+            if (entradas[p] == 0) continue;
+            saidas[p] = new byte[5 + bytes[p] + entradas[p] * (5 + Codificacao.MAXIMO_VARINT)];
+            pos[p] = Codificacao.escreverVarint(saidas[p], 0, entradas[p]);
+        }
+        for (int e = 0; e < quantidade; e++) {
+            int p = particao(e, particoes);
+            pos[p] = Codificacao.escreverVarint(saidas[p], pos[p], tamanhoChave[e]);
+            System.arraycopy(arena, inicioChave[e], saidas[p], pos[p], tamanhoChave[e]);
+            pos[p] += tamanhoChave[e];
+            pos[p] = Codificacao.escreverVarint(saidas[p], pos[p], valores[e]);
+        }
+        for (int p = 0; p < particoes; p++) {
+            if (saidas[p] != null) saidas[p] = Arrays.copyOf(saidas[p], pos[p]);
+        }
+        return saidas;
+    }
+
+    private int particao(int entrada, int particoes) {
+        return (hashChave[entrada] & 0x7fffffff) % particoes;
+    }
+
+    /**
+     * Soma nesta tabela uma tabela serializada, lendo as chaves direto do vetor recebido.
+     *
+     * @return Quantidade de entradas lidas.
+     */
+    public int somarSerializado(byte[] dados, int tamanho) {
+        int[] pos = {0};
+        int entradas = (int) Codificacao.lerVarint(dados, pos);
+        for (int i = 0; i < entradas; i++) {
+            int tamanhoChave = (int) Codificacao.lerVarint(dados, pos);
+            int inicio = pos[0];
+            pos[0] += tamanhoChave;
+            adicionar(dados, inicio, tamanhoChave, Codificacao.lerVarint(dados, pos));
+        }
+        if (pos[0] > tamanho) throw new IllegalArgumentException("Tabela serializada incompleta.");
+        return entradas;
+    }
+
+    // --- Estrutura interna ---
+
+    private int novaEntrada(byte[] chave, int inicio, int tamanho, int hash, long valor) {
+        if (quantidade == valores.length) {
+            int novo = valores.length * 2;
+            inicioChave = Arrays.copyOf(inicioChave, novo);
+            tamanhoChave = Arrays.copyOf(tamanhoChave, novo);
+            hashChave = Arrays.copyOf(hashChave, novo);
+            valores = Arrays.copyOf(valores, novo);
+        }
+        if (usoArena + tamanho > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, usoArena + tamanho));
+        }
+        System.arraycopy(chave, inicio, arena, usoArena, tamanho);
+        int entrada = quantidade++;
+        inicioChave[entrada] = usoArena;
+        tamanhoChave[entrada] = tamanho;
+        hashChave[entrada] = hash;
+        valores[entrada] = valor;
+        usoArena += tamanho;
+        return entrada;
+    }
+
+    private void redimensionar() {
+        posicoes = new int[posicoes.length * 2];
+        mascara = posicoes.length - 1;
+        for (int e = 0; e < quantidade; e++) {
+            int posicao = hashChave[e] & mascara;
+            while (posicoes[posicao] != 0) posicao = (posicao + 1) & mascara;
+            posicoes[posicao] = e + 1;
+        }
+    }
+
+    private boolean igual(int entrada, byte[] chave, int inicio, int tamanho) {
+        int inicioEntrada = inicioChave[entrada];
+        return tamanhoChave[entrada] == tamanho
+                && Arrays.equals(arena, inicioEntrada, inicioEntrada + tamanho, chave, inicio, inicio + tamanho);
+    }
+
+    // FNV-1a seguido da mistura final do MurmurHash3, para espalhar bem termos parecidos
+    private static int hash(byte[] chave, int inicio, int tamanho) {
+        int h = 0x811C9DC5;
+        for (int i = inicio; i < inicio + tamanho; i++) {
+            h = (h ^ (chave[i] & 0xFF)) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+    // Ordem do heap: menor contagem primeiro; em empate, o termo de bytes maiores é o "menor"
+    private boolean menor(int a, int b) {
+        if (valores[a] != valores[b]) return valores[a] < valores[b];
+        return Arrays.compareUnsigned(arena, inicioChave[a], inicioChave[a] + tamanhoChave[a],
+                arena, inicioChave[b], inicioChave[b] + tamanhoChave[b]) > 0;
+    }
+
+    private void subir(int[] heap, int i) {
+        while (i > 0) {
+            int pai = (i - 1) / 2;
+            if (!menor(heap[i], heap[pai])) return;
+            int t = heap[i]; heap[i] = heap[pai]; heap[pai] = t;
+            i = pai;
+        }
+    }
+
+    private void descer(int[] heap, int tamanho) {
+        int i = 0;
+        while (true) {
+            int menorFilho = 2 * i + 1;
+            if (menorFilho >= tamanho) return;
+            if (menorFilho + 1 < tamanho && menor(heap[menorFilho + 1], heap[menorFilho])) menorFilho++;
+            if (!menor(heap[menorFilho], heap[i])) return;
+            int t = heap[i]; heap[i] = heap[menorFilho]; heap[menorFilho] = t;
+            i = menorFilho;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package br.edu.ifce.ppd.mom.contagem;
+
+import java.util.List;
+
+/**
+ * Catálogo dos motores de contagem disponíveis.
+ * Centraliza a criação para que Workers e benchmarks escolham a implementação pelo nome.
+ */
+public enum TipoMotor {
+
+    // Reproduz exatamente o método original: compila um Pattern por palavra a cada linha
+    REGEX_LEGADO {
+        @Override
+        public MotorContagem criar(List<String> palavras) { return new MotorRegex(palavras, true); }
+    },
+
+    // Mesma regex, porém compilada uma única vez na criação do motor e com as frases aceitando
+    // qualquer sequência de espaços entre os termos, como os demais motores
+    REGEX {
+        @Override
+        public MotorContagem criar(List<String> palavras) { return new MotorRegex(palavras, false); }
+    },
+
+    // Autômato multi-padrão: percorre a linha uma única vez para todas as palavras
+    AHO_CORASICK {
+        @Override
+        public MotorContagem criar(List<String> palavras) { return new MotorAhoCorasick(palavras); }
+    },
+
+    // Separa a linha em tokens e consulta uma tabela hash de palavras-chave
+    VARREDURA_TOKENS {
+        @Override
+        public MotorContagem criar(List<String> palavras) { return new MotorVarreduraTokens(palavras); }
+    };
+
+    public abstract MotorContagem criar(List<String> palavras);
+}
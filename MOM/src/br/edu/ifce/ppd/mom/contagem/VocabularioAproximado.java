@@ -0,0 +1,98 @@
+package br.edu.ifce.ppd.mom.contagem;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Contagem aproximada do vocabulário em memória fixa: um {@link SketchContagem} estima a frequência de
+ * qualquer termo e um {@link ResumoFrequentes} guarda os candidatos a mais frequentes. O top K combina os
+ * dois: a estimativa de cada candidato é o menor dos limites superiores, e o resumo dá o limite inferior.
+ *
+ * A estrutura inteira é serializável e somável, então cada Worker envia a sua periodicamente e o
+ * Monitor soma as recebidas na dele.
+ *
+ * NOTA: Não é thread-safe.
+ */
+public class VocabularioAproximado implements DestinoTokens {
+    // Linhas do sketch: confiança de 1 - e^-4 (98%) no limite de erro
+    public static final int PROFUNDIDADE_SKETCH = 4;
+
+    private final SketchContagem sketch;
+    private final ResumoFrequentes frequentes;
+
+    // Resumo recebido, reutilizado entre as somas (recriado se a capacidade recebida mudar)
+    private ResumoFrequentes recebido;
+
+    public VocabularioAproximado(int larguraSketch, int capacidadeFrequentes) {
+        this.sketch = new SketchContagem(larguraSketch, PROFUNDIDADE_SKETCH);
+        this.frequentes = new ResumoFrequentes(capacidadeFrequentes);
+    }
+
+    @Override
+    public void adicionar(byte[] chave, int inicio, int tamanho, long valor) {
+        // Um único hash alimenta as linhas do sketch e o índice do resumo
+        long hash = Codificacao.hash64(chave, inicio, tamanho);
+        sketch.adicionarHash(hash, valor);
+        frequentes.adicionarHash(chave, inicio, tamanho, hash, valor, 0);
+    }
+
+    /**
+     * Os k termos mais frequentes, com limites superior (estimativa) e inferior de cada um.
+     */
+    public List<ResumoFrequentes.Estimativa> maiores(int k) {
+        return frequentes.maiores(k, sketch);
+    }
+
+    public long estimar(String termo) {
+        return sketch.estimar(termo);
+    }
+
+    /**
+     * Total de tokens somados (exato).
+     */
+    public long getTotal() {
+        return sketch.getTotal();
+    }
+
+    public SketchContagem getSketch() { return sketch; }
+
+    public ResumoFrequentes getFrequentes() { return frequentes; }
+
+    public long getBytesOcupados() {
+        return sketch.getBytesOcupados() + frequentes.getBytesOcupados();
+    }
+
+    public boolean isVazio() {
+        return sketch.getTotal() == 0;
+    }
+
+    public void limpar() {
+        sketch.limpar();
+        frequentes.limpar();
+    }
+
+    /**
+     * Sketch seguido do resumo, no formato de {@link SketchContagem} e {@link ResumoFrequentes}.
+     */
+    public byte[] serializar() {
+        byte[] saida = new byte[sketch.tamanhoMaximoSerializado() + frequentes.tamanhoMaximoSerializado()];
+        int pos = sketch.serializar(saida, 0);
+        pos = frequentes.serializar(saida, pos);
+        return Arrays.copyOf(saida, pos);
+    }
+
+    /**
+     * Soma a esta estrutura uma serializada (de sketch com as mesmas dimensões).
+     */
+    public void somarSerializado(byte[] dados, int tamanho) {
+        int[] pos = {0};
+        sketch.somarSerializado(dados, pos);
+        int capacidadeRecebida = ResumoFrequentes.lerCapacidade(dados, pos);
+        if (recebido == null || recebido.getCapacidade() != capacidadeRecebida) {
+            recebido = new ResumoFrequentes(capacidadeRecebida);
+        }
+        recebido.lerSerializado(dados, pos);
+        if (pos[0] > tamanho) throw new IllegalArgumentException("Vocabulário serializado incompleto.");
+        frequentes.somar(recebido);
+    }
+}
@@ -0,0 +1,34 @@
+package br.edu.ifce.ppd.mom.eventos;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento JFR: resultado aplicado ao total global pelo MonitorResultado.
+ * Desabilitado por padrão pelo mesmo motivo de EventoResultadoPublicado.
+ */
+@Name("br.edu.ifce.ppd.mom.AgregacaoAplicada")
+@Label("Agregação Aplicada")
+@Category({"MOM", "Monitor"})
+@Description("Soma de um resultado recebido do Tópico ao contador global")
+@StackTrace(false)
+@Enabled(false)
+public class EventoAgregacaoAplicada extends jdk.jfr.Event {
+    @Label("Worker de Origem")
+    public int workerId;
+
+    @Label("Termo")
+    public String termo;
+
+    @Label("Ocorrências")
+    public long ocorrencias;
+
+    @Label("Latência Ponta a Ponta")
+    @Timespan(Timespan.MICROSECONDS)
+    public long latenciaPontaAPonta;
+}
\ No newline at end of file
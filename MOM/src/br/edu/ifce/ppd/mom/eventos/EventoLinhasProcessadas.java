@@ -0,0 +1,32 @@
+package br.edu.ifce.ppd.mom.eventos;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR: contagem das palavras-chave de uma mensagem da Fila (uma linha ou um lote)
+ * por um ProcessadorPalavras. A duração cobre apenas o trabalho do motor de contagem.
+ */
+@Name("br.edu.ifce.ppd.mom.LinhasProcessadas")
+@Label("Linhas Processadas")
+@Category({"MOM", "Worker"})
+@Description("Contagem de palavras-chave de uma mensagem recebida da Fila")
+@StackTrace(false)
+public class EventoLinhasProcessadas extends jdk.jfr.Event {
+    @Label("Worker")
+    public int workerId;
+
+    @Label("Linhas")
+    public int linhas;
+
+    @Label("Caracteres")
+    @DataAmount(DataAmount.BYTES)
+    public long caracteres;
+
+    @Label("Ocorrências Encontradas")
+    public long ocorrencias;
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package br.edu.ifce.ppd.mom.eventos;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento JFR: um lote de linhas lido do arquivo e enviado à Fila pelo ProdutorLinhas.
+ * A duração vai da leitura da primeira linha do lote até o fim do envio ao Broker.
+ */
+@Name("br.edu.ifce.ppd.mom.LoteLido")
+@Label("Lote Lido")
+@Category({"MOM", "Produtor"})
+@Description("Linhas lidas do arquivo e enviadas em uma mensagem da Fila")
+@StackTrace(false)
+public class EventoLoteLido extends jdk.jfr.Event {
+    @Label("Partição")
+    public String particao;
+
+    @Label("Primeira Linha")
+    public long primeiraLinha;
+
+    @Label("Linhas")
+    public int linhas;
+
+    @Label("Caracteres")
+    @DataAmount(DataAmount.BYTES)
+    public long caracteres;
+
+    @Label("Duração do Envio")
+    @Timespan(Timespan.MICROSECONDS)
+    public long envio;
+}
\ No newline at end of file
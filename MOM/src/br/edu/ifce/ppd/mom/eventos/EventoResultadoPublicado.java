@@ -0,0 +1,30 @@
+package br.edu.ifce.ppd.mom.eventos;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR: publicação de um resultado no Tópico por um ProcessadorPalavras.
+ * Desabilitado por padrão (há um por ocorrência no modo de linha única); o perfil
+ * jfr/mom-pipeline.jfc o habilita com limiar de duração.
+ */
+@Name("br.edu.ifce.ppd.mom.ResultadoPublicado")
+@Label("Resultado Publicado")
+@Category({"MOM", "Worker"})
+@Description("Envio de uma mensagem de resultado ao Tópico")
+@StackTrace(false)
+@Enabled(false)
+public class EventoResultadoPublicado extends jdk.jfr.Event {
+    @Label("Worker")
+    public int workerId;
+
+    @Label("Termo")
+    public String termo;
+
+    @Label("Ocorrências")
+    public int ocorrencias;
+}
\ No newline at end of file
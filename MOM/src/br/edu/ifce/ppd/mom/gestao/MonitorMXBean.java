@@ -0,0 +1,25 @@
+package br.edu.ifce.ppd.mom.gestao;
+
+import java.util.Map;
+
+/**
+ * Estado do Monitor (MonitorResultado) exposto via JMX.
+ */
+public interface MonitorMXBean {
+    long getTotalGeral();
+
+    Map<String, Long> getTotaisPorTermo();
+
+    long getMensagensRecebidas();
+
+    double getResultadosPorSegundo();
+
+    /**
+     * Resultados já agregados que ainda não foram exibidos no painel.
+     */
+    long getAtualizacoesPendentes();
+
+    long getIdadeUltimaMensagemMs();
+
+    long getLatenciaPontaAPontaP99Us();
+}
@@ -0,0 +1,64 @@
+package br.edu.ifce.ppd.mom.gestao;
+
+/**
+ * Visão geral do pipeline e parâmetros ajustáveis sem reiniciar a execução.
+ */
+public interface PipelineMXBean {
+    int getQuantidadeWorkers();
+
+    /**
+     * Inicia ou encerra Workers até atingir a quantidade pedida.
+     */
+    void setQuantidadeWorkers(int quantidade);
+
+    long getIntervaloAtualizacaoMs();
+
+    void setIntervaloAtualizacaoMs(long intervaloMs);
+
+    int getAmostragemLog();
+
+    void setAmostragemLog(int umACada);
+
+    /**
+     * Limite inferior da faixa alvo de mensagens na Fila (os Produtores retomam abaixo dele).
+     */
+    long getFilaAlvoMinima();
+
+    void setFilaAlvoMinima(long mensagens);
+
+    /**
+     * Limite superior da faixa alvo (os Produtores pausam acima dele). 0 desliga o controle de vazão.
+     */
+    long getFilaAlvoMaxima();
+
+    void setFilaAlvoMaxima(long mensagens);
+
+    int getMemoriaMaximaBroker();
+
+    void setMemoriaMaximaBroker(int percentual);
+
+    boolean isAutoescalonamento();
+
+    void setAutoescalonamento(boolean ativo);
+
+    int getMinimoWorkers();
+
+    void setMinimoWorkers(int minimo);
+
+    int getMaximoWorkers();
+
+    void setMaximoWorkers(int maximo);
+
+    long getLatenciaAlvoMs();
+
+    void setLatenciaAlvoMs(long latenciaMs);
+
+    double getLinhasLidasPorSegundo();
+
+    double getLinhasProcessadasPorSegundo();
+
+    /**
+     * Mensagens enviadas pelos Produtores e ainda não recebidas por nenhum Worker.
+     */
+    long getMensagensEmTransito();
+}
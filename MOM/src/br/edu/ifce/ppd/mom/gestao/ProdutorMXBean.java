@@ -0,0 +1,16 @@
+package br.edu.ifce.ppd.mom.gestao;
+
+/**
+ * Estado de um Produtor (ProdutorLinhas) exposto via JMX.
+ */
+public interface ProdutorMXBean {
+    String getDescricao();
+
+    long getLinhasEnviadas();
+
+    long getMensagensEnviadas();
+
+    double getLinhasPorSegundo();
+
+    long getIdadeUltimoEnvioMs();
+}
@@ -0,0 +1,48 @@
+package br.edu.ifce.ppd.mom.gestao;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Registro dos MBeans do pipeline no MBeanServer da plataforma, visíveis no JConsole/VisualVM
+ * sob o domínio "br.edu.ifce.ppd.mom".
+ *
+ * NOTA TÉCNICA: Falhas de registro nunca interrompem o processamento; o componente apenas
+ * deixa de ser observável.
+ */
+public final class RegistroJMX {
+    public static final String DOMINIO = "br.edu.ifce.ppd.mom";
+
+    private RegistroJMX() {}
+
+    /**
+     * Registra o objeto sob o nome "br.edu.ifce.ppd.mom:tipo=...,nome=...", substituindo
+     * um registro anterior com o mesmo nome (ex: componente de uma execução já encerrada).
+     *
+     * @return O nome registrado, ou null se o registro falhou.
+     */
+    public static ObjectName registrar(String tipo, String nome, Object mbean) {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objeto = new ObjectName(DOMINIO + ":tipo=" + tipo + ",nome=" + ObjectName.quote(nome));
+            if (servidor.isRegistered(objeto)) servidor.unregisterMBean(objeto);
+            servidor.registerMBean(mbean, objeto);
+            return objeto;
+        } catch (Exception e) {
+            System.err.println("[JMX] Não foi possível registrar " + tipo + " " + nome + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Remove o registro, se ainda existir.
+     */
+    public static void remover(ObjectName objeto) {
+        if (objeto == null) return;
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            if (servidor.isRegistered(objeto)) servidor.unregisterMBean(objeto);
+        } catch (Exception ignored) {}
+    }
+}
@@ -0,0 +1,28 @@
+package br.edu.ifce.ppd.mom.gestao;
+
+/**
+ * Estado de um Worker (ProcessadorPalavras) exposto via JMX.
+ */
+public interface WorkerMXBean {
+    int getIdWorker();
+
+    String getMotor();
+
+    long getMensagensRecebidas();
+
+    long getLinhasProcessadas();
+
+    long getResultadosPublicados();
+
+    double getLinhasPorSegundo();
+
+    /**
+     * 1 enquanto o Worker processa uma mensagem, 0 quando está aguardando a Fila.
+     */
+    int getMensagensEmProcessamento();
+
+    /**
+     * Tempo desde a última mensagem recebida (-1 se nenhuma chegou ainda).
+     */
+    long getIdadeUltimaMensagemMs();
+}
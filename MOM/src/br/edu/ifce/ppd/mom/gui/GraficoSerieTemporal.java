@@ -0,0 +1,168 @@
+package br.edu.ifce.ppd.mom.gui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Gráfico de linhas com janela deslizante: guarda as últimas N amostras de cada série
+ * em vetores circulares e redesenha tudo a cada nova amostra.
+ *
+ * NOTA TÉCNICA: Deve ser alimentado pela Event Dispatch Thread, em intervalos fixos
+ * (o PainelDashboard usa um Timer do Swing), nunca a partir dos Listeners JMS.
+ */
+public class GraficoSerieTemporal extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    private static final Color[] CORES = {
+            new Color(31, 119, 180), new Color(255, 127, 14), new Color(44, 160, 44), new Color(214, 39, 40),
+            new Color(148, 103, 189), new Color(140, 86, 75), new Color(227, 119, 194), new Color(127, 127, 127)
+    };
+    private static final int MARGEM_ESQUERDA = 55;
+    private static final int MARGEM_DIREITA = 10;
+    private static final int MARGEM_TOPO = 8;
+    private static final int MARGEM_BASE = 18;
+
+    private final int capacidade;
+    private final int intervaloSegundos;
+
+    // Cada série ocupa um vetor circular; posições sem amostra ficam com NaN (não desenhadas)
+    private final Map<String, double[]> series = new LinkedHashMap<>();
+    private int proximaPosicao;
+    private int amostras;
+
+    /**
+     * @param titulo            Título exibido na borda do gráfico.
+     * @param capacidade        Quantidade de amostras visíveis (tamanho da janela).
+     * @param intervaloSegundos Intervalo entre amostras, usado apenas na legenda do eixo do tempo.
+     */
+    public GraficoSerieTemporal(String titulo, int capacidade, int intervaloSegundos) {
+        this.capacidade = capacidade;
+        this.intervaloSegundos = intervaloSegundos;
+        setBorder(BorderFactory.createTitledBorder(titulo));
+        setPreferredSize(new Dimension(300, 180));
+    }
+
+    /**
+     * Acrescenta uma amostra (um valor por série) e descarta a mais antiga se a janela estiver cheia.
+     * Séries ausentes no mapa recebem NaN nesta posição.
+     */
+    public void adicionarAmostra(Map<String, Double> valores) {
+        for (String nome : valores.keySet()) {
+            series.computeIfAbsent(nome, n -> {
+                double[] vetor = new double[capacidade];
+                Arrays.fill(vetor, Double.NaN);
+                return vetor;
+            });
+        }
+        for (Map.Entry<String, double[]> serie : series.entrySet()) {
+            Double valor = valores.get(serie.getKey());
+            serie.getValue()[proximaPosicao] = valor == null ? Double.NaN : valor;
+        }
+        proximaPosicao = (proximaPosicao + 1) % capacidade;
+        amostras = Math.min(amostras + 1, capacidade);
+        repaint();
+    }
+
+    /**
+     * Remove todas as séries (ex: ao reiniciar o processamento).
+     */
+    public void limpar() {
+        series.clear();
+        proximaPosicao = 0;
+        amostras = 0;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        Insets bordas = getInsets();
+        int x0 = bordas.left + MARGEM_ESQUERDA;
+        int y0 = bordas.top + MARGEM_TOPO;
+        int largura = getWidth() - bordas.right - MARGEM_DIREITA - x0;
+        int altura = getHeight() - bordas.bottom - MARGEM_BASE - y0;
+        if (largura <= 0 || altura <= 0) {
+            g2.dispose();
+            return;
+        }
+
+        // Escala vertical: maior valor visível, arredondado para cima
+        double maximo = 0;
+        for (double[] vetor : series.values()) {
+            for (double v : vetor) if (!Double.isNaN(v) && v > maximo) maximo = v;
+        }
+        maximo = escalaArredondada(maximo);
+
+        // Grade e rótulos do eixo vertical
+        g2.setFont(g2.getFont().deriveFont(10f));
+        FontMetrics fm = g2.getFontMetrics();
+        for (int i = 0; i <= 4; i++) {
+            int y = y0 + altura - altura * i / 4;
+            g2.setColor(new Color(225, 225, 225));
+            g2.drawLine(x0, y, x0 + largura, y);
+            g2.setColor(Color.DARK_GRAY);
+            String rotulo = formatar(maximo * i / 4);
+            g2.drawString(rotulo, x0 - fm.stringWidth(rotulo) - 4, y + fm.getAscent() / 2);
+        }
+        g2.setColor(Color.GRAY);
+        g2.drawRect(x0, y0, largura, altura);
+        String inicio = "-" + (capacidade * intervaloSegundos) + "s";
+        g2.drawString(inicio, x0, y0 + altura + fm.getAscent() + 2);
+        g2.drawString("agora", x0 + largura - fm.stringWidth("agora"), y0 + altura + fm.getAscent() + 2);
+
+        // Séries: a amostra mais antiga fica à esquerda, a mais recente na borda direita
+        int indiceCor = 0;
+        int legendaY = y0 + fm.getAscent();
+        g2.setStroke(new BasicStroke(1.5f));
+        for (Map.Entry<String, double[]> serie : series.entrySet()) {
+            Color cor = CORES[indiceCor++ % CORES.length];
+            g2.setColor(cor);
+            double[] vetor = serie.getValue();
+            int xAnterior = -1;
+            int yAnterior = -1;
+            for (int k = 0; k < amostras; k++) {
+                int posicao = Math.floorMod(proximaPosicao - amostras + k, capacidade);
+                double v = vetor[posicao];
+                if (Double.isNaN(v)) {
+                    xAnterior = -1;
+                    continue;
+                }
+                int x = x0 + largura - (int) ((long) largura * (amostras - 1 - k) / Math.max(1, capacidade - 1));
+                int y = y0 + altura - (int) (altura * v / maximo);
+                if (xAnterior >= 0) g2.drawLine(xAnterior, yAnterior, x, y);
+                xAnterior = x;
+                yAnterior = y;
+            }
+            // Legenda no canto superior esquerdo da área de desenho
+            g2.fillRect(x0 + 6, legendaY - fm.getAscent() + 2, 8, 8);
+            g2.setColor(Color.DARK_GRAY);
+            g2.drawString(serie.getKey(), x0 + 18, legendaY + 1);
+            legendaY += fm.getHeight();
+        }
+        g2.dispose();
+    }
+
+    /**
+     * Arredonda o máximo para 1, 2 ou 5 vezes uma potência de 10 (mínimo 1), evitando
+     * que a escala mude a cada amostra.
+     */
+    private static double escalaArredondada(double maximo) {
+        if (maximo <= 1) return 1;
+        double potencia = Math.pow(10, Math.floor(Math.log10(maximo)));
+        for (double fator : new double[]{1, 2, 5, 10}) {
+            if (fator * potencia >= maximo) return fator * potencia;
+        }
+        return 10 * potencia;
+    }
+
+    private static String formatar(double valor) {
+        if (valor >= 1_000_000) return String.format("%.1fM", valor / 1_000_000);
+        if (valor >= 1_000) return String.format("%.1fk", valor / 1_000);
+        return String.format("%.0f", valor);
+    }
+}
@@ -1,14 +1,17 @@
 package br.edu.ifce.ppd.mom.gui;
 
+import br.edu.ifce.ppd.mom.metricas.SnapshotMetricas;
+
 import javax.swing.*;
 import java.awt.*;
+import java.util.function.Supplier;
 
 /**
  * Interface Gráfica do Usuário para monitoramento do sistema MOM.
  * Esta classe atua como o painel de controle visual, exibindo logs de execução
  * em tempo real e as estatísticas consolidadas provenientes do Tópico.
  */
-public class PainelDashboard extends JFrame {
+public class PainelDashboard extends JFrame implements SaidaMonitoramento {
     
     // Área de texto para logs: mostra o que cada thread está fazendo
     private JTextArea areaLogs;
@@ -16,19 +19,28 @@ public class PainelDashboard extends JFrame {
     // Área de texto para estatísticas: mostra a contagem final das palavras
     private JTextArea areaEstatisticas;
 
+    // Área de métricas internas, atualizada por amostragem periódica (nunca por mensagem)
+    private JTextArea areaMetricas;
+    private Supplier<SnapshotMetricas> fonteMetricas;
+    private final Timer timerMetricas;
+
+    // Gráficos de vazão alimentados pelos mesmos snapshots (janela de 2 minutos, 1 amostra/s)
+    private final PainelGraficos graficos = new PainelGraficos(120, 1);
+
     /**
      * Construtor: Configura o layout e os componentes visuais da janela.
      */
     public PainelDashboard() {
         setTitle("Dashboard - Projeto MOM (Monitoramento Distribuído)");
-        setSize(800, 600);
+        setSize(1100, 760);
         
         // Define que a janela será apenas fechada visualmente, permitindo que a aplicação principal controle o encerramento
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         setLocationRelativeTo(null); // Centraliza na tela
         
-        // Divide a tela em 2 colunas: logs a esquerda, estatísticas a direita
-        setLayout(new GridLayout(1, 2));
+        // Divide a parte de cima em 2 colunas: logs a esquerda, estatísticas a direita;
+        // os gráficos ocupam a parte de baixo da janela
+        JPanel colunas = new JPanel(new GridLayout(1, 2));
 
         // Configuração da área de Logs
         areaLogs = new JTextArea();
@@ -42,9 +54,51 @@ public class PainelDashboard extends JFrame {
         // Usa fonte para garantir que os números fiquem alinhados verticalmente
         areaEstatisticas.setFont(new Font("Monospaced", Font.BOLD, 14));
 
+        // Configuração da área de Métricas (snapshots do registro de métricas)
+        areaMetricas = new JTextArea();
+        areaMetricas.setEditable(false);
+        areaMetricas.setBorder(BorderFactory.createTitledBorder("Métricas Internas (snapshot)"));
+        areaMetricas.setFont(new Font("Monospaced", Font.PLAIN, 11));
+
         // Adiciona barras de rolagem (scroll) caso o texto ultrapasse o tamanho da janela
-        add(new JScrollPane(areaLogs));
-        add(new JScrollPane(areaEstatisticas));
+        // A coluna da direita é dividida: estatísticas em cima, métricas embaixo
+        colunas.add(new JScrollPane(areaLogs));
+        JSplitPane colunaDireita = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(areaEstatisticas), new JScrollPane(areaMetricas));
+        colunaDireita.setResizeWeight(0.6);
+        colunas.add(colunaDireita);
+
+        JSplitPane divisao = new JSplitPane(JSplitPane.VERTICAL_SPLIT, colunas, graficos);
+        divisao.setResizeWeight(0.65);
+        add(divisao);
+
+        // Timer do Swing: a leitura das métricas já ocorre na EDT, uma vez por segundo
+        // (taxa fixa, independente do volume de mensagens)
+        timerMetricas = new Timer(1000, e -> atualizarMetricas());
+        timerMetricas.start();
+    }
+
+    /**
+     * Define de onde vêm os snapshots exibidos (registro em memória ou arquivo exportado
+     * por outro processo, via SnapshotMetricas.lerUltimo).
+     */
+    public void setFonteMetricas(Supplier<SnapshotMetricas> fonteMetricas) {
+        this.fonteMetricas = fonteMetricas;
+    }
+
+    private void atualizarMetricas() {
+        if (fonteMetricas == null) return;
+        SnapshotMetricas snapshot = fonteMetricas.get();
+        if (snapshot != null) {
+            areaMetricas.setText(snapshot.formatar());
+            graficos.atualizar(snapshot);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        timerMetricas.stop();
+        super.dispose();
     }
 
     /**
@@ -55,6 +109,7 @@ public class PainelDashboard extends JFrame {
      * prevenindo condições de corrida e travamentos da interface.
      * * @param mensagem Texto a ser registrado no log.
      */
+    @Override
     public void registrarLog(String mensagem) {
         SwingUtilities.invokeLater(() -> {
             areaLogs.append(mensagem + "\n");
@@ -68,6 +123,7 @@ public class PainelDashboard extends JFrame {
      * Substitui todo o conteúdo atual pelo novo relatório gerado pelo Monitor.
      * * @param texto O relatório formatado contendo as contagens atuais.
      */
+    @Override
     public void atualizarEstatisticas(String texto) {
         SwingUtilities.invokeLater(() -> areaEstatisticas.setText(texto));
     }
@@ -80,6 +136,7 @@ public class PainelDashboard extends JFrame {
         SwingUtilities.invokeLater(() -> {
             areaLogs.setText("");
             areaEstatisticas.setText("");
+            graficos.limpar();
             registrarLog("=== PRONTO PARA NOVA BUSCA ===");
         });
     }
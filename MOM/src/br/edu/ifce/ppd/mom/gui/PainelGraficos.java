@@ -0,0 +1,97 @@
+package br.edu.ifce.ppd.mom.gui;
+
+import br.edu.ifce.ppd.mom.metricas.RegistroMetricas;
+import br.edu.ifce.ppd.mom.metricas.SnapshotMetricas;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Painel com os gráficos de vazão, profundidade da Fila e linhas/s por Worker.
+ * As taxas são calculadas pela diferença entre dois snapshots consecutivos do registro de
+ * métricas, de modo que nenhum componente do pipeline é consultado diretamente.
+ */
+public class PainelGraficos extends JPanel {
+    private static final long serialVersionUID = 1L;
+
+    private static final Pattern LINHAS_WORKER = Pattern.compile("worker\\.(\\d+)\\.linhasProcessadas");
+
+    private final GraficoSerieTemporal vazao;
+    private final GraficoSerieTemporal fila;
+    private final GraficoSerieTemporal porWorker;
+
+    private SnapshotMetricas anterior;
+
+    /**
+     * @param janela            Quantidade de amostras mantidas em cada gráfico.
+     * @param intervaloSegundos Intervalo entre snapshots.
+     */
+    public PainelGraficos(int janela, int intervaloSegundos) {
+        setLayout(new GridLayout(1, 3));
+        vazao = new GraficoSerieTemporal("Vazão (por segundo)", janela, intervaloSegundos);
+        fila = new GraficoSerieTemporal("Profundidade da Fila (mensagens)", janela, intervaloSegundos);
+        porWorker = new GraficoSerieTemporal("Linhas/s por Worker", janela, intervaloSegundos);
+        add(vazao);
+        add(fila);
+        add(porWorker);
+    }
+
+    /**
+     * Acrescenta um ponto a cada gráfico a partir do snapshot mais recente.
+     * O primeiro snapshot (ou o primeiro após as métricas serem zeradas) serve apenas de base.
+     */
+    public void atualizar(SnapshotMetricas atual) {
+        SnapshotMetricas base = anterior;
+        anterior = atual;
+        if (base == null || atual.getInstante() <= base.getInstante()
+                || atual.getContador(RegistroMetricas.LINHAS_LIDAS) < base.getContador(RegistroMetricas.LINHAS_LIDAS)) {
+            return;
+        }
+        double segundos = (atual.getInstante() - base.getInstante()) / 1000.0;
+
+        Map<String, Double> taxas = new LinkedHashMap<>();
+        taxas.put("linhas lidas/s", taxa(base, atual, RegistroMetricas.LINHAS_LIDAS, segundos));
+        taxas.put("linhas processadas/s", taxa(base, atual, RegistroMetricas.LINHAS_PROCESSADAS, segundos));
+        taxas.put("resultados/s", taxa(base, atual, RegistroMetricas.MENSAGENS_RECEBIDAS_MONITOR, segundos));
+        vazao.adicionarAmostra(taxas);
+
+        // Profundidade informada pelo Broker (quando o plugin de estatísticas responde) e a
+        // estimativa pelos contadores: enviadas pelos Produtores menos retiradas pelos Workers
+        Map<String, Double> profundidade = new LinkedHashMap<>();
+        if (atual.getContadores().containsKey(RegistroMetricas.FILA_TAMANHO)) {
+            profundidade.put("fila (broker)", (double) atual.getContador(RegistroMetricas.FILA_TAMANHO));
+            profundidade.put("tópico em voo (broker)", (double) atual.getContador(RegistroMetricas.TOPICO_EM_VOO));
+        }
+        profundidade.put("em trânsito (estimado)", (double) Math.max(0, atual.getContador(RegistroMetricas.MENSAGENS_ENVIADAS)
+                - atual.getContador(RegistroMetricas.MENSAGENS_RECEBIDAS_WORKER)));
+        fila.adicionarAmostra(profundidade);
+
+        Map<String, Double> workers = new TreeMap<>();
+        for (String nome : atual.getContadores().keySet()) {
+            Matcher m = LINHAS_WORKER.matcher(nome);
+            if (m.matches()) {
+                workers.put(String.format("worker %2s", m.group(1)), taxa(base, atual, nome, segundos));
+            }
+        }
+        porWorker.adicionarAmostra(workers);
+    }
+
+    /**
+     * Descarta o histórico (ex: ao reiniciar o processamento).
+     */
+    public void limpar() {
+        anterior = null;
+        vazao.limpar();
+        fila.limpar();
+        porWorker.limpar();
+    }
+
+    private static double taxa(SnapshotMetricas base, SnapshotMetricas atual, String nome, double segundos) {
+        return Math.max(0, atual.getContador(nome) - base.getContador(nome)) / segundos;
+    }
+}
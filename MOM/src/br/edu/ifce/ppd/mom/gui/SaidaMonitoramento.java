@@ -0,0 +1,44 @@
+package br.edu.ifce.ppd.mom.gui;
+
+/**
+ * Destino das mensagens de log e das estatísticas produzidas pelos componentes.
+ * O {@link PainelDashboard} é a implementação gráfica; execuções sem interface
+ * (benchmarks, processos Worker dedicados) fornecem implementações próprias.
+ */
+public interface SaidaMonitoramento {
+
+    /**
+     * Registra uma mensagem de acompanhamento da execução.
+     */
+    void registrarLog(String mensagem);
+
+    /**
+     * Substitui o relatório de estatísticas exibido pelo novo texto.
+     */
+    void atualizarEstatisticas(String texto);
+
+    /**
+     * Saída que descarta tudo, útil quando apenas os números finais interessam.
+     */
+    SaidaMonitoramento SILENCIOSA = new SaidaMonitoramento() {
+        @Override
+        public void registrarLog(String mensagem) {}
+
+        @Override
+        public void atualizarEstatisticas(String texto) {}
+    };
+
+    /**
+     * Saída para processos sem interface gráfica: o log vai para o console e o relatório
+     * de estatísticas (atualizado com frequência) é descartado.
+     */
+    SaidaMonitoramento CONSOLE = new SaidaMonitoramento() {
+        @Override
+        public void registrarLog(String mensagem) {
+            System.out.println(mensagem);
+        }
+
+        @Override
+        public void atualizarEstatisticas(String texto) {}
+    };
+}
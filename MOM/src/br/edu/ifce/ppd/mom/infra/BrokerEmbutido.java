@@ -0,0 +1,127 @@
+package br.edu.ifce.ppd.mom.infra;
+
+import org.apache.activemq.broker.BrokerPlugin;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.broker.region.policy.PolicyEntry;
+import org.apache.activemq.broker.region.policy.PolicyMap;
+import org.apache.activemq.plugin.StatisticsBrokerPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Broker ActiveMQ executado dentro da própria JVM.
+ * Utilizado pelos benchmarks (conexão "vm://", sem rede) e para testes locais com vários
+ * processos, quando também é aberto um conector TCP.
+ *
+ * Uso standalone: java -cp SistemaMOM.jar br.edu.ifce.ppd.mom.infra.BrokerEmbutido [tcp://0.0.0.0:61616]
+ */
+public class BrokerEmbutido implements AutoCloseable {
+    private final BrokerService broker;
+    private final File diretorioDados;
+    private final String nome;
+
+    /**
+     * @param nome Nome do Broker (forma a URL "vm://nome").
+     * @param persistente Quando verdadeiro, usa o KahaDB em um diretório temporário.
+     * @param urlTcp Conector TCP adicional (ex: tcp://localhost:61616) ou null para apenas vm://.
+     */
+    public BrokerEmbutido(String nome, boolean persistente, String urlTcp) throws Exception {
+        this.nome = nome;
+        this.broker = new BrokerService();
+        broker.setBrokerName(nome);
+        broker.setUseJmx(false);
+        broker.setPersistent(persistente);
+        broker.setDeleteAllMessagesOnStartup(true);
+        // Responde às consultas de EstatisticasBroker (profundidade da Fila, consumidores, memória)
+        broker.setPlugins(new BrokerPlugin[]{new StatisticsBrokerPlugin()});
+        broker.setDestinationPolicy(politicaFilasJobs());
+        broker.setSchedulePeriodForDestinationPurge(10_000);
+        if (persistente) {
+            diretorioDados = Files.createTempDirectory("mom-broker-").toFile();
+            broker.setDataDirectoryFile(diretorioDados);
+        } else {
+            diretorioDados = null;
+        }
+        if (urlTcp != null) {
+            broker.addConnector(urlTcp);
+        }
+        broker.start();
+        broker.waitUntilStarted();
+    }
+
+    /**
+     * As Filas exclusivas dos jobs (MOM_FILA_LINHAS.<jobId>) são removidas pelo Broker depois de
+     * 30 s vazias e sem consumidores, para não se acumularem nas estatísticas a cada novo job.
+     */
+    private static PolicyMap politicaFilasJobs() {
+        PolicyEntry filasJobs = new PolicyEntry();
+        filasJobs.setQueue(ConfiguracaoJMS.NOME_FILA_LINHAS + ".>");
+        filasJobs.setGcInactiveDestinations(true);
+        filasJobs.setInactiveTimeoutBeforeGC(30_000);
+        PolicyMap politica = new PolicyMap();
+        politica.setPolicyEntries(List.of(filasJobs));
+        return politica;
+    }
+
+    /**
+     * URL de conexão intra-JVM, que dispensa a pilha de rede.
+     */
+    public String getUrlVm() {
+        return "vm://" + nome + "?create=false";
+    }
+
+    public BrokerService getBrokerService() {
+        return broker;
+    }
+
+    /**
+     * Bytes de memória atualmente ocupados por mensagens no Broker.
+     */
+    public long getUsoMemoria() {
+        return broker.getSystemUsage().getMemoryUsage().getUsage();
+    }
+
+    public long getLimiteMemoria() {
+        return broker.getSystemUsage().getMemoryUsage().getLimit();
+    }
+
+    /**
+     * Para o Broker e apaga os dados temporários. Uma interrupção durante a parada é preservada na thread
+     * (não propagada), para que o fechamento em try-with-resources não engula o sinal de interrupção.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            broker.stop();
+            broker.waitUntilStopped();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Falha ao parar o Broker embutido: " + e.getMessage(), e);
+        }
+        if (diretorioDados != null) apagar(diretorioDados);
+    }
+
+    private static void apagar(File arquivo) throws IOException {
+        File[] filhos = arquivo.listFiles();
+        if (filhos != null) {
+            for (File filho : filhos) apagar(filho);
+        }
+        Files.deleteIfExists(arquivo.toPath());
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : ConfiguracaoJMS.URL_BROKER;
+        BrokerEmbutido broker = new BrokerEmbutido("mom-local", false, url);
+        System.out.println("Broker embutido ativo em " + url + " (Ctrl+C para encerrar)");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try { broker.close(); } catch (Exception ignored) {}
+        }));
+        broker.getBrokerService().waitUntilStopped();
+    }
+}
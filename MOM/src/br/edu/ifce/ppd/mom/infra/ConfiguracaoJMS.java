@@ -21,6 +21,59 @@ public class ConfiguracaoJMS {
     // Nome do Tópico (Topic) utilizado para publicar os resultados.
     // O modelo de Tópico permite a subscrição de múltiplos interessados (Pub/Sub).
     public static final String NOME_TOPICO_RESULTADOS = "MOM_CONTADOR_PALAVRAS";
+    // Valor da propriedade "tipoResultado" dos avisos de progresso (MapMessage com "mensagens"): quantas
+    // mensagens de linhas de um job um Worker processou, publicados depois dos resultados delas
+    public static final String TIPO_RESULTADO_PROGRESSO = "PROGRESSO";
+
+    // Tópico de controle: anúncio do job corrente (palavras-chave, motor) para processos Worker dedicados
+    public static final String NOME_TOPICO_CONTROLE = "MOM_CONTROLE_JOBS";
+
+    // Tópico em que os processos Worker dedicados publicam periodicamente que estão ativos
+    public static final String NOME_TOPICO_HEARTBEAT = "MOM_HEARTBEAT_WORKERS";
+
+    // Fila das consultas de contagem síncronas (pedido/resposta): cada mensagem traz um trecho do texto,
+    // as palavras-chave e o motor, e a contagem volta para a Fila temporária indicada no JMSReplyTo
+    public static final String NOME_FILA_CONSULTAS = "MOM_FILA_CONSULTAS";
+
+    // Fila dos resultados parciais dos Workers quando há agregadores intermediários entre eles e o Monitor
+    public static final String NOME_FILA_PARCIAIS = "MOM_FILA_PARCIAIS";
+
+    // Valor da propriedade "tipoResultado" das mensagens binárias com a tabela de vocabulário de um lote
+    public static final String TIPO_RESULTADO_VOCABULARIO = "VOCABULARIO";
+    // ... e com o sketch e o resumo de termos frequentes acumulados por um Worker (vocabulário aproximado)
+    public static final String TIPO_RESULTADO_VOCABULARIO_APROXIMADO = "VOCABULARIO_APROXIMADO";
+    // ... e com os registradores HyperLogLog das palavras distintas vistas por um Worker
+    public static final String TIPO_RESULTADO_DISTINTAS = "DISTINTAS";
+    // ... e com os pares de palavras-chave na mesma linha contados por um Worker desde o último envio
+    public static final String TIPO_RESULTADO_COOCORRENCIAS = "COOCORRENCIAS";
+    // Valor de "tipoResultado" das mensagens (MapMessage) com as ocorrências de todas as palavras-chave
+    // num bloco do arquivo, enviadas na agregação online
+    public static final String TIPO_RESULTADO_AMOSTRA = "AMOSTRA";
+
+    /**
+     * Fila exclusiva de um job, usada quando vários jobs são processados ao mesmo tempo
+     * (ex: MOM_FILA_LINHAS.job-1a2b3c4d). O curinga "MOM_FILA_LINHAS.>" abrange todas elas.
+     */
+    public static String nomeFilaJob(String jobId) {
+        return NOME_FILA_LINHAS + "." + jobId;
+    }
+
+    /**
+     * Fila de resultados parciais de um grupo de Workers (ex: MOM_FILA_PARCIAIS.no-1), agregada apenas
+     * pelos agregadores do mesmo grupo. Sem grupo, todos os agregadores disputam a Fila comum.
+     */
+    public static String nomeFilaParciais(String grupo) {
+        return grupo == null ? NOME_FILA_PARCIAIS : NOME_FILA_PARCIAIS + "." + grupo;
+    }
+
+    /**
+     * Hash do termo enviado na propriedade "hashTermo" de cada resultado, usado para particionar a agregação
+     * (seletor "hashTermo % M = k"). String.hashCode() é definido pela especificação da linguagem, então o
+     * valor é o mesmo em todas as JVMs.
+     */
+    public static int hashTermo(String termo) {
+        return termo.hashCode() & 0x7fffffff;
+    }
 
     /**
      * Cria e retorna a fábrica de conexões do ActiveMQ.
@@ -28,6 +81,21 @@ public class ConfiguracaoJMS {
      * a sessão de comunicação com o Broker.
      */
     public static ConnectionFactory criarFabricaConexao() {
-        return new ActiveMQConnectionFactory(URL_BROKER);
+        return criarFabricaConexao(getUrlBroker());
+    }
+
+    /**
+     * Cria a fábrica de conexões para um Broker específico (ex: Broker embutido em benchmarks).
+     */
+    public static ConnectionFactory criarFabricaConexao(String urlBroker) {
+        return new ActiveMQConnectionFactory(urlBroker);
+    }
+
+    /**
+     * Endereço do Broker em uso. Pode ser substituído pela propriedade de sistema
+     * "mom.broker.url" (ex: -Dmom.broker.url=tcp://servidor:61616) sem recompilar.
+     */
+    public static String getUrlBroker() {
+        return System.getProperty("mom.broker.url", URL_BROKER);
     }
 }
\ No newline at end of file
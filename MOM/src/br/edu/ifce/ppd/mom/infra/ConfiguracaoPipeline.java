@@ -0,0 +1,429 @@
+package br.edu.ifce.ppd.mom.infra;
+
+import br.edu.ifce.ppd.mom.contagem.ContadorNGramas;
+import br.edu.ifce.ppd.mom.contagem.TipoMotor;
+
+import javax.jms.Session;
+
+/**
+ * Parâmetros de execução compartilhados pelos componentes do pipeline
+ * (Produtores, Workers e Monitor).
+ * Os valores padrão reproduzem o comportamento original do sistema: uma linha por mensagem,
+ * entrega persistente, confirmação automática, 2 produtores e 4 Workers.
+ */
+public class ConfiguracaoPipeline {
+    // Prefetch dos Workers com autoescalonamento
+    public static final int PREFETCH_AUTOESCALONAMENTO = 100;
+
+    private String urlBroker = ConfiguracaoJMS.getUrlBroker();
+
+    // Identificador do job em execução, propagado nas mensagens (null = sem identificação)
+    private volatile String jobId;
+
+    // Fila em que os Produtores publicam as linhas (a Fila exclusiva do job, com vários jobs simultâneos)
+    private String filaLinhas = ConfiguracaoJMS.NOME_FILA_LINHAS;
+
+    // Quantidade de linhas agrupadas em uma única mensagem da Fila
+    private int tamanhoLote = 1;
+
+    // Define se as mensagens sobrevivem a um reinício do Broker (DeliveryMode.PERSISTENT)
+    private boolean entregaPersistente = true;
+
+    // Modo de confirmação das sessões consumidoras (constantes de javax.jms.Session)
+    private int modoConfirmacao = Session.AUTO_ACKNOWLEDGE;
+
+    private TipoMotor tipoMotor = TipoMotor.REGEX;
+    private int quantidadeProdutores = 2;
+
+    // Parâmetros ajustáveis em tempo de execução (via JMX), por isso voláteis
+    private volatile int quantidadeWorkers = 4;
+
+    // Intervalo mínimo entre atualizações do painel de estatísticas (0 = a cada mensagem)
+    private volatile long intervaloAtualizacaoMs = 250;
+
+    // Registra no log apenas 1 a cada N mensagens de resultado (1 = todas)
+    private volatile int amostragemLog = 1;
+
+    // Controle de vazão dos Produtores: ao ultrapassar o limite superior de mensagens na Fila,
+    // os Produtores aguardam até a profundidade voltar ao limite inferior (0 = sem controle, o padrão;
+    // definir só a máxima pelo JMX, ex: 2000, liga a faixa 500..2000)
+    private volatile long filaAlvoMinima = 500;
+    private volatile long filaAlvoMaxima = 0;
+
+    // Percentual de memória do Broker a partir do qual os Produtores também aguardam
+    private volatile int memoriaMaximaBroker = 70;
+
+    // Mensagens da Fila entregues antecipadamente a cada Worker (prefetch do ActiveMQ, padrão 1000).
+    // Um valor menor distribui melhor a carga quando Workers entram ou saem durante a execução
+    private int prefetchWorkers = 1000;
+
+    // Autoescalonamento dos Workers entre os limites abaixo, guiado pela Fila, ocupação e latência
+    // (desligado por padrão; ver habilitarAutoescalonamento)
+    private volatile boolean autoescalonamento = false;
+    private volatile int minimoWorkers = 1;
+    private volatile int maximoWorkers = 8;
+    private volatile long latenciaAlvoMs = 1000;
+
+    // Agregadores intermediários (0 = os Workers publicam direto no Tópico): somam os resultados parciais
+    // de um grupo de Workers e encaminham ao Tópico um total por job e palavra a cada intervalo
+    private int agregadoresIntermediarios = 0;
+    private long intervaloAgregacaoMs = 200;
+    private String grupoAgregacao;
+
+    // Partições do Monitor: cada uma agrega apenas os termos cujo hash cai nela (1 = Monitor único)
+    private int particoesMonitor = 1;
+
+    // Vocabulário completo (0 = conta apenas as palavras-chave): todos os tokens são contados e o
+    // Monitor exibe os "topVocabulario" termos mais frequentes
+    private int topVocabulario = 0;
+    // Vocabulário aproximado: largura do Count-Min Sketch de cada Worker e do Monitor (0 = contagem exata)
+    private int larguraSketch = 0;
+    // N-gramas no lugar dos tokens do vocabulário: maior n-grama contado (0 = tokens, 2 ou 3), sempre na
+    // contagem aproximada
+    private int nGramas = 0;
+    // Palavras distintas estimadas por HyperLogLog nos jobs de palavras-chave (todo o texto e as linhas
+    // com palavra-chave), sem guardar o vocabulário
+    private boolean estimarDistintas = false;
+    // Coocorrência: quantas linhas contêm cada par de palavras-chave (matriz triangular no Monitor)
+    private boolean contarCoocorrencias = false;
+    // Agregação online: os Produtores enviam o arquivo em blocos de bytes em ordem aleatória e o Monitor
+    // extrapola os totais finais, com intervalos de confiança, a partir dos blocos já processados
+    private boolean agregacaoOnline = false;
+    private int tamanhoBlocoOnline = 64 * 1024;
+
+    public String getUrlBroker() { return urlBroker; }
+
+    public ConfiguracaoPipeline setUrlBroker(String urlBroker) {
+        this.urlBroker = urlBroker;
+        return this;
+    }
+
+    public String getJobId() { return jobId; }
+
+    public ConfiguracaoPipeline setJobId(String jobId) {
+        this.jobId = jobId;
+        return this;
+    }
+
+    public String getFilaLinhas() { return filaLinhas; }
+
+    public ConfiguracaoPipeline setFilaLinhas(String filaLinhas) {
+        this.filaLinhas = filaLinhas;
+        return this;
+    }
+
+    /**
+     * Cópia independente dos parâmetros, para um job que roda ao lado de outros
+     * (cada um com seu identificador e sua Fila).
+     */
+    public ConfiguracaoPipeline copiar() {
+        ConfiguracaoPipeline copia = new ConfiguracaoPipeline();
+        copia.urlBroker = urlBroker;
+        copia.jobId = jobId;
+        copia.filaLinhas = filaLinhas;
+        copia.tamanhoLote = tamanhoLote;
+        copia.entregaPersistente = entregaPersistente;
+        copia.modoConfirmacao = modoConfirmacao;
+        copia.tipoMotor = tipoMotor;
+        copia.quantidadeProdutores = quantidadeProdutores;
+        copia.quantidadeWorkers = quantidadeWorkers;
+        copia.intervaloAtualizacaoMs = intervaloAtualizacaoMs;
+        copia.amostragemLog = amostragemLog;
+        copia.filaAlvoMinima = filaAlvoMinima;
+        copia.filaAlvoMaxima = filaAlvoMaxima;
+        copia.memoriaMaximaBroker = memoriaMaximaBroker;
+        copia.prefetchWorkers = prefetchWorkers;
+        copia.autoescalonamento = autoescalonamento;
+        copia.minimoWorkers = minimoWorkers;
+        copia.maximoWorkers = maximoWorkers;
+        copia.latenciaAlvoMs = latenciaAlvoMs;
+        copia.agregadoresIntermediarios = agregadoresIntermediarios;
+        copia.intervaloAgregacaoMs = intervaloAgregacaoMs;
+        copia.grupoAgregacao = grupoAgregacao;
+        copia.particoesMonitor = particoesMonitor;
+        copia.topVocabulario = topVocabulario;
+        copia.larguraSketch = larguraSketch;
+        copia.nGramas = nGramas;
+        copia.estimarDistintas = estimarDistintas;
+        copia.contarCoocorrencias = contarCoocorrencias;
+        copia.agregacaoOnline = agregacaoOnline;
+        copia.tamanhoBlocoOnline = tamanhoBlocoOnline;
+        return copia;
+    }
+
+    public int getTamanhoLote() { return tamanhoLote; }
+
+    public ConfiguracaoPipeline setTamanhoLote(int tamanhoLote) {
+        if (tamanhoLote < 1) throw new IllegalArgumentException("O lote deve ter pelo menos 1 linha.");
+        this.tamanhoLote = tamanhoLote;
+        return this;
+    }
+
+    public boolean isEntregaPersistente() { return entregaPersistente; }
+
+    public ConfiguracaoPipeline setEntregaPersistente(boolean entregaPersistente) {
+        this.entregaPersistente = entregaPersistente;
+        return this;
+    }
+
+    public int getModoConfirmacao() { return modoConfirmacao; }
+
+    public ConfiguracaoPipeline setModoConfirmacao(int modoConfirmacao) {
+        this.modoConfirmacao = modoConfirmacao;
+        return this;
+    }
+
+    public boolean isSessaoTransacionada() { return modoConfirmacao == Session.SESSION_TRANSACTED; }
+
+    public TipoMotor getTipoMotor() { return tipoMotor; }
+
+    public ConfiguracaoPipeline setTipoMotor(TipoMotor tipoMotor) {
+        this.tipoMotor = tipoMotor;
+        return this;
+    }
+
+    public int getQuantidadeProdutores() { return quantidadeProdutores; }
+
+    public ConfiguracaoPipeline setQuantidadeProdutores(int quantidadeProdutores) {
+        this.quantidadeProdutores = quantidadeProdutores;
+        return this;
+    }
+
+    public int getQuantidadeWorkers() { return quantidadeWorkers; }
+
+    public ConfiguracaoPipeline setQuantidadeWorkers(int quantidadeWorkers) {
+        this.quantidadeWorkers = quantidadeWorkers;
+        return this;
+    }
+
+    public long getIntervaloAtualizacaoMs() { return intervaloAtualizacaoMs; }
+
+    public ConfiguracaoPipeline setIntervaloAtualizacaoMs(long intervaloAtualizacaoMs) {
+        if (intervaloAtualizacaoMs < 0) throw new IllegalArgumentException("O intervalo não pode ser negativo.");
+        this.intervaloAtualizacaoMs = intervaloAtualizacaoMs;
+        return this;
+    }
+
+    public int getAmostragemLog() { return amostragemLog; }
+
+    public ConfiguracaoPipeline setAmostragemLog(int amostragemLog) {
+        if (amostragemLog < 1) throw new IllegalArgumentException("A amostragem do log deve ser pelo menos 1.");
+        this.amostragemLog = amostragemLog;
+        return this;
+    }
+
+    public long getFilaAlvoMinima() { return filaAlvoMinima; }
+
+    public long getFilaAlvoMaxima() { return filaAlvoMaxima; }
+
+    /**
+     * Define a faixa alvo de mensagens na Fila. Com máxima 0 o controle de vazão é desligado.
+     */
+    public ConfiguracaoPipeline setFaixaFila(long minima, long maxima) {
+        if (minima < 0 || (maxima > 0 && minima > maxima)) {
+            throw new IllegalArgumentException("Faixa da Fila inválida: " + minima + ".." + maxima);
+        }
+        this.filaAlvoMinima = minima;
+        this.filaAlvoMaxima = maxima;
+        return this;
+    }
+
+    public boolean isControleVazaoAtivo() { return filaAlvoMaxima > 0; }
+
+    public int getMemoriaMaximaBroker() { return memoriaMaximaBroker; }
+
+    public ConfiguracaoPipeline setMemoriaMaximaBroker(int percentual) {
+        if (percentual < 1 || percentual > 100) throw new IllegalArgumentException("Percentual inválido: " + percentual);
+        this.memoriaMaximaBroker = percentual;
+        return this;
+    }
+
+    public int getPrefetchWorkers() { return prefetchWorkers; }
+
+    public ConfiguracaoPipeline setPrefetchWorkers(int prefetchWorkers) {
+        if (prefetchWorkers < 1) throw new IllegalArgumentException("O prefetch deve ser pelo menos 1.");
+        this.prefetchWorkers = prefetchWorkers;
+        return this;
+    }
+
+    public boolean isAutoescalonamento() { return autoescalonamento; }
+
+    public ConfiguracaoPipeline setAutoescalonamento(boolean autoescalonamento) {
+        this.autoescalonamento = autoescalonamento;
+        return this;
+    }
+
+    /**
+     * Liga o autoescalonamento com o prefetch reduzido a {@link #PREFETCH_AUTOESCALONAMENTO}, para que os
+     * Workers criados durante a execução recebam trabalho logo. O prefetch vale para os Workers criados
+     * depois da chamada; ligar apenas o autoescalonamento (ex: pelo JMX) mantém o prefetch atual.
+     */
+    public ConfiguracaoPipeline habilitarAutoescalonamento() {
+        this.autoescalonamento = true;
+        this.prefetchWorkers = PREFETCH_AUTOESCALONAMENTO;
+        return this;
+    }
+
+    public int getMinimoWorkers() { return minimoWorkers; }
+
+    public int getMaximoWorkers() { return maximoWorkers; }
+
+    /**
+     * Limites do autoescalonamento (a quantidade inicial continua sendo getQuantidadeWorkers()).
+     */
+    public ConfiguracaoPipeline setLimitesWorkers(int minimo, int maximo) {
+        if (minimo < 1 || maximo < minimo) throw new IllegalArgumentException("Limites de Workers inválidos: " + minimo + ".." + maximo);
+        this.minimoWorkers = minimo;
+        this.maximoWorkers = maximo;
+        return this;
+    }
+
+    public long getLatenciaAlvoMs() { return latenciaAlvoMs; }
+
+    public ConfiguracaoPipeline setLatenciaAlvoMs(long latenciaAlvoMs) {
+        if (latenciaAlvoMs < 1) throw new IllegalArgumentException("A latência alvo deve ser positiva.");
+        this.latenciaAlvoMs = latenciaAlvoMs;
+        return this;
+    }
+
+    public int getAgregadoresIntermediarios() { return agregadoresIntermediarios; }
+
+    public ConfiguracaoPipeline setAgregadoresIntermediarios(int agregadoresIntermediarios) {
+        if (agregadoresIntermediarios < 0) throw new IllegalArgumentException("Quantidade de agregadores inválida.");
+        this.agregadoresIntermediarios = agregadoresIntermediarios;
+        return this;
+    }
+
+    public long getIntervaloAgregacaoMs() { return intervaloAgregacaoMs; }
+
+    public ConfiguracaoPipeline setIntervaloAgregacaoMs(long intervaloAgregacaoMs) {
+        if (intervaloAgregacaoMs < 1) throw new IllegalArgumentException("O intervalo de agregação deve ser positivo.");
+        this.intervaloAgregacaoMs = intervaloAgregacaoMs;
+        return this;
+    }
+
+    public String getGrupoAgregacao() { return grupoAgregacao; }
+
+    /**
+     * Grupo de Workers atendido pelos agregadores desta configuração (ex: o nome do nó; null = grupo comum).
+     */
+    public ConfiguracaoPipeline setGrupoAgregacao(String grupoAgregacao) {
+        this.grupoAgregacao = grupoAgregacao;
+        return this;
+    }
+
+    /**
+     * Fila em que os Workers publicam os resultados parciais, ou null quando publicam direto no Tópico.
+     */
+    public String getFilaParciais() {
+        return agregadoresIntermediarios > 0 ? ConfiguracaoJMS.nomeFilaParciais(grupoAgregacao) : null;
+    }
+
+    public int getParticoesMonitor() { return particoesMonitor; }
+
+    public ConfiguracaoPipeline setParticoesMonitor(int particoesMonitor) {
+        if (particoesMonitor < 1) throw new IllegalArgumentException("O Monitor precisa de pelo menos 1 partição.");
+        this.particoesMonitor = particoesMonitor;
+        return this;
+    }
+
+    public int getTopVocabulario() { return topVocabulario; }
+
+    public boolean isVocabularioCompleto() { return topVocabulario > 0; }
+
+    public ConfiguracaoPipeline setTopVocabulario(int topVocabulario) {
+        if (topVocabulario < 0) throw new IllegalArgumentException("O top do vocabulário não pode ser negativo.");
+        this.topVocabulario = topVocabulario;
+        return this;
+    }
+
+    /**
+     * Largura do sketch do vocabulário aproximado; os n-gramas, sem largura informada, usam a padrão.
+     */
+    public int getLarguraSketch() {
+        return larguraSketch == 0 && getNGramas() > 0 ? ContadorNGramas.LARGURA_SKETCH_PADRAO : larguraSketch;
+    }
+
+    public ConfiguracaoPipeline setLarguraSketch(int larguraSketch) {
+        if (larguraSketch != 0 && (larguraSketch < 64 || Integer.bitCount(larguraSketch) != 1)) {
+            throw new IllegalArgumentException("A largura do sketch deve ser 0 ou uma potência de 2 a partir de 64.");
+        }
+        this.larguraSketch = larguraSketch;
+        return this;
+    }
+
+    /**
+     * Maior n-grama contado no vocabulário (0 = tokens, também fora do modo de vocabulário).
+     */
+    public int getNGramas() { return topVocabulario > 0 ? nGramas : 0; }
+
+    public ConfiguracaoPipeline setNGramas(int nGramas) {
+        if (nGramas != 0 && (nGramas < 2 || nGramas > ContadorNGramas.TAMANHO_MAXIMO)) {
+            throw new IllegalArgumentException("Os n-gramas devem ter tamanho 0 (desligados), 2 ou " + ContadorNGramas.TAMANHO_MAXIMO + ".");
+        }
+        this.nGramas = nGramas;
+        return this;
+    }
+
+    /**
+     * Verdadeiro se as palavras distintas devem ser estimadas (nunca no modo de vocabulário, que já as conta).
+     */
+    public boolean isEstimarDistintas() { return estimarDistintas && topVocabulario == 0; }
+
+    public ConfiguracaoPipeline setEstimarDistintas(boolean estimarDistintas) {
+        this.estimarDistintas = estimarDistintas;
+        return this;
+    }
+
+    /**
+     * Verdadeiro se os pares de palavras-chave na mesma linha devem ser contados (apenas nos jobs de
+     * palavras-chave).
+     */
+    public boolean isContarCoocorrencias() { return contarCoocorrencias && topVocabulario == 0; }
+
+    public ConfiguracaoPipeline setContarCoocorrencias(boolean contarCoocorrencias) {
+        this.contarCoocorrencias = contarCoocorrencias;
+        return this;
+    }
+
+    /**
+     * Verdadeiro se o job usa agregação online (apenas nos jobs de palavras-chave).
+     */
+    public boolean isAgregacaoOnline() { return agregacaoOnline && topVocabulario == 0; }
+
+    public ConfiguracaoPipeline setAgregacaoOnline(boolean agregacaoOnline) {
+        this.agregacaoOnline = agregacaoOnline;
+        return this;
+    }
+
+    public int getTamanhoBlocoOnline() { return tamanhoBlocoOnline; }
+
+    public ConfiguracaoPipeline setTamanhoBlocoOnline(int tamanhoBlocoOnline) {
+        if (tamanhoBlocoOnline < 1024) throw new IllegalArgumentException("O bloco da agregação online deve ter pelo menos 1 KB.");
+        this.tamanhoBlocoOnline = tamanhoBlocoOnline;
+        return this;
+    }
+
+    /**
+     * Converte o nome de um modo de confirmação (AUTO, CLIENT, DUPS_OK, TRANSACTED) na constante JMS.
+     */
+    public static int modoConfirmacaoPorNome(String nome) {
+        switch (nome.trim().toUpperCase()) {
+            case "AUTO": return Session.AUTO_ACKNOWLEDGE;
+            case "CLIENT": return Session.CLIENT_ACKNOWLEDGE;
+            case "DUPS_OK": return Session.DUPS_OK_ACKNOWLEDGE;
+            case "TRANSACTED": return Session.SESSION_TRANSACTED;
+            default: throw new IllegalArgumentException("Modo de confirmação desconhecido: " + nome);
+        }
+    }
+
+    public static String nomeModoConfirmacao(int modo) {
+        switch (modo) {
+            case Session.AUTO_ACKNOWLEDGE: return "AUTO";
+            case Session.CLIENT_ACKNOWLEDGE: return "CLIENT";
+            case Session.DUPS_OK_ACKNOWLEDGE: return "DUPS_OK";
+            case Session.SESSION_TRANSACTED: return "TRANSACTED";
+            default: return String.valueOf(modo);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package br.edu.ifce.ppd.mom.infra;
+
+import javax.jms.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cliente do plugin de estatísticas do ActiveMQ (statisticsBrokerPlugin).
+ * Cada consulta é uma requisição/resposta: uma mensagem vazia é enviada ao destino especial
+ * "ActiveMQ.Statistics.Destination.<nome>" (ou "ActiveMQ.Statistics.Broker") com JMSReplyTo
+ * apontando para uma fila temporária, e o Broker responde com um MapMessage.
+ *
+ * NOTA TÉCNICA: O plugin precisa estar habilitado no Broker. O BrokerEmbutido já o habilita; num Broker
+ * externo, basta incluir {@code <statisticsBrokerPlugin/>} em {@code <plugins>} na sua configuração.
+ * Sem ele as consultas expiram e retornam null.
+ */
+public class EstatisticasBroker implements AutoCloseable {
+    private static final String PREFIXO_DESTINO = "ActiveMQ.Statistics.Destination.";
+    private static final String DESTINO_BROKER = "ActiveMQ.Statistics.Broker";
+
+    /**
+     * Valores devolvidos pelo plugin para um destino (ou para o Broker inteiro).
+     */
+    public static class Estatisticas {
+        public final String destino;
+        public final long tamanho;
+        public final long enfileiradas;
+        public final long retiradas;
+        public final long emVoo;
+        public final long consumidores;
+        public final long produtores;
+        public final long usoMemoria;
+        public final long limiteMemoria;
+        public final int percentualMemoria;
+
+        Estatisticas(String destino, long tamanho, long enfileiradas, long retiradas, long emVoo,
+                     long consumidores, long produtores, long usoMemoria, long limiteMemoria, int percentualMemoria) {
+            this.destino = destino;
+            this.tamanho = tamanho;
+            this.enfileiradas = enfileiradas;
+            this.retiradas = retiradas;
+            this.emVoo = emVoo;
+            this.consumidores = consumidores;
+            this.produtores = produtores;
+            this.usoMemoria = usoMemoria;
+            this.limiteMemoria = limiteMemoria;
+            this.percentualMemoria = percentualMemoria;
+        }
+
+        Estatisticas(MapMessage resposta) throws JMSException {
+            destino = resposta.itemExists("destinationName") ? resposta.getString("destinationName") : DESTINO_BROKER;
+            tamanho = resposta.getLong("size");
+            enfileiradas = resposta.getLong("enqueueCount");
+            retiradas = resposta.getLong("dequeueCount");
+            emVoo = resposta.getLong("inflightCount");
+            consumidores = resposta.getLong("consumerCount");
+            produtores = resposta.getLong("producerCount");
+            usoMemoria = resposta.getLong("memoryUsage");
+            limiteMemoria = resposta.getLong("memoryLimit");
+            percentualMemoria = resposta.getInt("memoryPercentUsage");
+        }
+
+        /**
+         * Nome do destino sem o prefixo de tipo que o plugin acrescenta (ex: "queue://").
+         */
+        public String getNome() {
+            int separador = destino.indexOf("://");
+            return separador < 0 ? destino : destino.substring(separador + 3);
+        }
+
+        /**
+         * Consolida várias Filas como se fossem uma só: as contagens de mensagens são somadas e as de
+         * consumidores/produtores usam o maior valor (os mesmos Workers consomem todas as Filas).
+         */
+        public static Estatisticas somar(String destino, List<Estatisticas> filas) {
+            long tamanho = 0, enfileiradas = 0, retiradas = 0, emVoo = 0, consumidores = 0, produtores = 0;
+            long usoMemoria = 0, limiteMemoria = 0;
+            int percentualMemoria = 0;
+            for (Estatisticas f : filas) {
+                tamanho += f.tamanho;
+                enfileiradas += f.enfileiradas;
+                retiradas += f.retiradas;
+                emVoo += f.emVoo;
+                consumidores = Math.max(consumidores, f.consumidores);
+                produtores = Math.max(produtores, f.produtores);
+                usoMemoria += f.usoMemoria;
+                limiteMemoria = Math.max(limiteMemoria, f.limiteMemoria);
+                percentualMemoria = Math.max(percentualMemoria, f.percentualMemoria);
+            }
+            return new Estatisticas(destino, tamanho, enfileiradas, retiradas, emVoo, consumidores, produtores,
+                    usoMemoria, limiteMemoria, percentualMemoria);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: tamanho=%d enfileiradas=%d retiradas=%d emVoo=%d consumidores=%d produtores=%d memoria=%d%%",
+                    destino, tamanho, enfileiradas, retiradas, emVoo, consumidores, produtores, percentualMemoria);
+        }
+    }
+
+    private final Connection conexao;
+    private final Session sessao;
+    private final MessageProducer requisitante;
+    private final Destination filaRespostas;
+    private final MessageConsumer respostas;
+    private final long timeoutMs;
+
+    public EstatisticasBroker(String urlBroker, long timeoutMs) throws JMSException {
+        this.timeoutMs = timeoutMs;
+        conexao = ConfiguracaoJMS.criarFabricaConexao(urlBroker).createConnection();
+        try {
+            conexao.start();
+            sessao = conexao.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            // Produtor sem destino fixo: cada consulta informa o destino especial
+            requisitante = sessao.createProducer(null);
+            requisitante.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+            filaRespostas = sessao.createTemporaryQueue();
+            respostas = sessao.createConsumer(filaRespostas);
+        } catch (JMSException e) {
+            conexao.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Estatísticas de uma Fila (ex: MOM_FILA_LINHAS), ou null se o Broker não respondeu a tempo.
+     */
+    public synchronized Estatisticas consultarFila(String nome) throws JMSException {
+        return consultar(sessao.createQueue(PREFIXO_DESTINO + nome));
+    }
+
+    /**
+     * Estatísticas de todas as Filas que casam com o curinga (ex: "MOM_FILA_LINHAS.>", que inclui a
+     * própria MOM_FILA_LINHAS). Lista vazia se nenhuma Fila casar, ou null se o Broker não respondeu a tempo.
+     *
+     * NOTA TÉCNICA: O plugin envia uma resposta por Fila e nenhuma quando não há Filas, então não há
+     * como saber quantas esperar. Logo após a consulta é enviada uma consulta do Broker, que sempre é
+     * respondida e chega depois das demais: a resposta dela marca o fim da lista.
+     */
+    public synchronized List<Estatisticas> consultarFilas(String curinga) throws JMSException {
+        descartarRespostasAtrasadas();
+        Message requisicao = sessao.createMessage();
+        requisicao.setJMSReplyTo(filaRespostas);
+        requisicao.setJMSCorrelationID("filas");
+        requisitante.send(sessao.createQueue(PREFIXO_DESTINO + curinga), requisicao);
+        Message marcador = sessao.createMessage();
+        marcador.setJMSReplyTo(filaRespostas);
+        marcador.setJMSCorrelationID("fim");
+        requisitante.send(sessao.createQueue(DESTINO_BROKER), marcador);
+
+        List<Estatisticas> filas = new ArrayList<>();
+        long limite = System.currentTimeMillis() + timeoutMs;
+        long restante;
+        while ((restante = limite - System.currentTimeMillis()) > 0) {
+            Message resposta = respostas.receive(restante);
+            if (resposta == null) break;
+            if ("fim".equals(resposta.getJMSCorrelationID())) return filas;
+            if (resposta instanceof MapMessage) filas.add(new Estatisticas((MapMessage) resposta));
+        }
+        return null;
+    }
+
+    /**
+     * Estatísticas de um Tópico (ex: MOM_CONTADOR_PALAVRAS), ou null se o Broker não respondeu a tempo.
+     */
+    public synchronized Estatisticas consultarTopico(String nome) throws JMSException {
+        return consultar(sessao.createTopic(PREFIXO_DESTINO + nome));
+    }
+
+    /**
+     * Totais do Broker (todos os destinos), incluindo o uso de memória.
+     */
+    public synchronized Estatisticas consultarBroker() throws JMSException {
+        return consultar(sessao.createQueue(DESTINO_BROKER));
+    }
+
+    private Estatisticas consultar(Destination destinoConsulta) throws JMSException {
+        descartarRespostasAtrasadas();
+        Message requisicao = sessao.createMessage();
+        requisicao.setJMSReplyTo(filaRespostas);
+        requisitante.send(destinoConsulta, requisicao);
+        Message resposta = respostas.receive(timeoutMs);
+        return resposta instanceof MapMessage ? new Estatisticas((MapMessage) resposta) : null;
+    }
+
+    // Descarta respostas atrasadas de consultas anteriores que expiraram
+    private void descartarRespostasAtrasadas() throws JMSException {
+        while (respostas.receiveNoWait() != null) {
+            // nada a fazer
+        }
+    }
+
+    @Override
+    public void close() throws JMSException {
+        conexao.close();
+    }
+}
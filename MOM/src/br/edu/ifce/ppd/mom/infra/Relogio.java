@@ -0,0 +1,20 @@
+package br.edu.ifce.ppd.mom.infra;
+
+/**
+ * Relógio de parede com resolução de microssegundos para carimbar as mensagens.
+ * Ancora o System.nanoTime() no horário do sistema no carregamento da classe, obtendo
+ * precisão de nanoTime com valores comparáveis entre threads e entre processos da mesma máquina.
+ */
+public final class Relogio {
+    private static final long BASE_MICROS = System.currentTimeMillis() * 1000L;
+    private static final long BASE_NANOS = System.nanoTime();
+
+    private Relogio() {}
+
+    /**
+     * Microssegundos desde a época Unix.
+     */
+    public static long agoraMicros() {
+        return BASE_MICROS + (System.nanoTime() - BASE_NANOS) / 1000L;
+    }
+}
@@ -0,0 +1,167 @@
+package br.edu.ifce.ppd.mom.metricas;
+
+import br.edu.ifce.ppd.mom.infra.ConfiguracaoJMS;
+import br.edu.ifce.ppd.mom.infra.EstatisticasBroker;
+
+import javax.jms.JMSException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consulta periodicamente o plugin de estatísticas do Broker e publica os valores da Fila de
+ * linhas, do Tópico de resultados e da memória do Broker como medidores no registro de métricas
+ * (e, portanto, no painel, nos gráficos e no arquivo de snapshots).
+ * Os valores "da Fila" somam a MOM_FILA_LINHAS e as Filas exclusivas dos jobs simultâneos;
+ * as estatísticas de cada Fila ficam disponíveis em {@link #getUltimasFilas()}.
+ *
+ * NOTA TÉCNICA: Usa uma conexão própria, em thread de baixa frequência; se o Broker estiver
+ * indisponível ou sem o plugin, a amostra é ignorada e a conexão é refeita na próxima rodada.
+ */
+public class AmostradorBroker implements AutoCloseable {
+    private final String urlBroker;
+    private final ScheduledExecutorService agendador;
+
+    private final Medidor filaTamanho;
+    private final Medidor filaEnfileiradas;
+    private final Medidor filaRetiradas;
+    private final Medidor filaConsumidores;
+    private final Medidor filaProdutores;
+    private final Medidor topicoEnfileiradas;
+    private final Medidor topicoRetiradas;
+    private final Medidor topicoEmVoo;
+    private final Medidor topicoConsumidores;
+    private final Medidor memoriaUso;
+    private final Medidor memoriaPercentual;
+
+    private EstatisticasBroker cliente;
+    private volatile EstatisticasBroker.Estatisticas ultimaFila;
+    private volatile Map<String, EstatisticasBroker.Estatisticas> ultimasFilas = Collections.emptyMap();
+    private volatile EstatisticasBroker.Estatisticas ultimoTopico;
+    private volatile EstatisticasBroker.Estatisticas ultimoBroker;
+    private volatile long picoFila;
+    private volatile long picoTopicoEmVoo;
+    private volatile boolean disponivel;
+
+    public AmostradorBroker(String urlBroker, RegistroMetricas registro, long intervaloMs) {
+        this.urlBroker = urlBroker;
+        filaTamanho = registro.medidor(RegistroMetricas.FILA_TAMANHO);
+        filaEnfileiradas = registro.medidor(RegistroMetricas.FILA_ENFILEIRADAS);
+        filaRetiradas = registro.medidor(RegistroMetricas.FILA_RETIRADAS);
+        filaConsumidores = registro.medidor(RegistroMetricas.FILA_CONSUMIDORES);
+        filaProdutores = registro.medidor(RegistroMetricas.FILA_PRODUTORES);
+        topicoEnfileiradas = registro.medidor(RegistroMetricas.TOPICO_ENFILEIRADAS);
+        topicoRetiradas = registro.medidor(RegistroMetricas.TOPICO_RETIRADAS);
+        topicoEmVoo = registro.medidor(RegistroMetricas.TOPICO_EM_VOO);
+        topicoConsumidores = registro.medidor(RegistroMetricas.TOPICO_CONSUMIDORES);
+        memoriaUso = registro.medidor(RegistroMetricas.MEMORIA_USO);
+        memoriaPercentual = registro.medidor(RegistroMetricas.MEMORIA_PERCENTUAL);
+
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "amostrador-broker");
+            t.setDaemon(true);
+            return t;
+        });
+        agendador.scheduleWithFixedDelay(this::amostrar, 0, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Faz uma amostra imediata (além das periódicas), ex: para registrar os valores finais de uma execução.
+     *
+     * @return As estatísticas somadas das Filas de linhas, ou null se o Broker não respondeu.
+     */
+    public synchronized EstatisticasBroker.Estatisticas amostrar() {
+        EstatisticasBroker.Estatisticas fila = null;
+        try {
+            if (cliente == null) cliente = new EstatisticasBroker(urlBroker, 1000);
+            List<EstatisticasBroker.Estatisticas> filas = cliente.consultarFilas(ConfiguracaoJMS.NOME_FILA_LINHAS + ".>");
+            if (filas != null) {
+                Map<String, EstatisticasBroker.Estatisticas> porNome = new HashMap<>();
+                for (EstatisticasBroker.Estatisticas f : filas) porNome.put(f.getNome(), f);
+                ultimasFilas = porNome;
+                fila = EstatisticasBroker.Estatisticas.somar(ConfiguracaoJMS.NOME_FILA_LINHAS, filas);
+            }
+            EstatisticasBroker.Estatisticas topico = cliente.consultarTopico(ConfiguracaoJMS.NOME_TOPICO_RESULTADOS);
+            EstatisticasBroker.Estatisticas broker = cliente.consultarBroker();
+            disponivel = fila != null || broker != null;
+            if (fila != null) {
+                filaTamanho.definir(fila.tamanho);
+                filaEnfileiradas.definir(fila.enfileiradas);
+                filaRetiradas.definir(fila.retiradas);
+                filaConsumidores.definir(fila.consumidores);
+                filaProdutores.definir(fila.produtores);
+                picoFila = Math.max(picoFila, fila.tamanho);
+                ultimaFila = fila;
+            }
+            if (topico != null) {
+                topicoEnfileiradas.definir(topico.enfileiradas);
+                topicoRetiradas.definir(topico.retiradas);
+                topicoEmVoo.definir(topico.emVoo);
+                topicoConsumidores.definir(topico.consumidores);
+                picoTopicoEmVoo = Math.max(picoTopicoEmVoo, topico.emVoo);
+                ultimoTopico = topico;
+            }
+            if (broker != null) {
+                memoriaUso.definir(broker.usoMemoria);
+                memoriaPercentual.definir(broker.percentualMemoria);
+                ultimoBroker = broker;
+            }
+        } catch (JMSException e) {
+            // Broker fora do ar: descarta a conexão e tenta de novo na próxima amostra
+            disponivel = false;
+            fecharCliente();
+        }
+        return fila;
+    }
+
+    /**
+     * Indica se a última amostra obteve resposta do plugin de estatísticas.
+     */
+    public boolean isDisponivel() { return disponivel; }
+
+    /**
+     * Últimas estatísticas da Fila de linhas (null se ainda não houve resposta).
+     */
+    public EstatisticasBroker.Estatisticas getUltimaFila() { return ultimaFila; }
+
+    /**
+     * Últimas estatísticas de cada Fila de linhas, pelo nome (ex: a Fila exclusiva de um job).
+     */
+    public Map<String, EstatisticasBroker.Estatisticas> getUltimasFilas() { return ultimasFilas; }
+
+    public EstatisticasBroker.Estatisticas getUltimoTopico() { return ultimoTopico; }
+
+    /**
+     * Últimos totais do Broker (inclui o percentual de memória ocupada).
+     */
+    public EstatisticasBroker.Estatisticas getUltimoBroker() { return ultimoBroker; }
+
+    /**
+     * Maior profundidade da Fila observada desde a criação do amostrador.
+     */
+    public long getPicoFila() { return picoFila; }
+
+    public long getPicoTopicoEmVoo() { return picoTopicoEmVoo; }
+
+    private synchronized void fecharCliente() {
+        if (cliente != null) {
+            try { cliente.close(); } catch (JMSException ignored) {}
+            cliente = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        agendador.shutdownNow();
+        try {
+            agendador.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        fecharCliente();
+    }
+}
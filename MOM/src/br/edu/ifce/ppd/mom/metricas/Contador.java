@@ -0,0 +1,28 @@
+package br.edu.ifce.ppd.mom.metricas;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contador monotônico de baixo custo para o caminho crítico.
+ * Baseado em LongAdder: cada thread incrementa a sua própria célula (contador "listrado"),
+ * evitando disputa entre Workers; a soma das células só é feita na leitura.
+ */
+public class Contador {
+    private final LongAdder valor = new LongAdder();
+
+    public void incrementar() {
+        valor.increment();
+    }
+
+    public void adicionar(long quantidade) {
+        valor.add(quantidade);
+    }
+
+    public long getValor() {
+        return valor.sum();
+    }
+
+    public void zerar() {
+        valor.reset();
+    }
+}
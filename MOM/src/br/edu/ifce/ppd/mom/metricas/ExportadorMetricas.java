@@ -0,0 +1,61 @@
+package br.edu.ifce.ppd.mom.metricas;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grava periodicamente snapshots do registro de métricas em arquivo (formato JSON Lines).
+ * Executa em uma thread própria de baixa frequência, fora do caminho crítico das mensagens.
+ */
+public class ExportadorMetricas implements AutoCloseable {
+    private final RegistroMetricas registro;
+    private final Path arquivo;
+    private final ScheduledExecutorService agendador;
+    private final BufferedWriter escritor;
+
+    public ExportadorMetricas(RegistroMetricas registro, Path arquivo, long intervaloMs) throws IOException {
+        this.registro = registro;
+        this.arquivo = arquivo;
+        this.escritor = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "exportador-metricas");
+            t.setDaemon(true);
+            return t;
+        });
+        agendador.scheduleAtFixedRate(this::exportar, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    public Path getArquivo() {
+        return arquivo;
+    }
+
+    private synchronized void exportar() {
+        try {
+            escritor.write(registro.snapshot().paraJson());
+            escritor.newLine();
+            escritor.flush();
+        } catch (IOException e) {
+            System.err.println("[Métricas] Falha ao exportar snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Grava um último snapshot e encerra a exportação.
+     */
+    @Override
+    public void close() throws IOException {
+        agendador.shutdownNow();
+        exportar();
+        synchronized (this) {
+            escritor.close();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package br.edu.ifce.ppd.mom.metricas;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma log-linear de latências, no estilo do HdrHistogram.
+ * Cada potência de 2 é dividida em 32 faixas lineares, o que garante erro relativo
+ * máximo de ~3% em qualquer escala, usando um vetor fixo de contadores.
+ *
+ * NOTA TÉCNICA: O registro é livre de bloqueios (apenas incrementos atômicos), podendo ser
+ * chamado concorrentemente por várias threads sem sincronização. O total e a soma usam
+ * LongAdder (células por thread) para não disputarem a mesma linha de cache no caminho crítico.
+ * A unidade dos valores é definida por quem registra (a maioria dos componentes usa microssegundos).
+ */
+public class HistogramaLatencia {
+    private static final int BITS_SUB_FAIXA = 5;
+    private static final int SUB_FAIXAS = 1 << BITS_SUB_FAIXA;
+    private static final int TOTAL_FAIXAS = indice(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray contagens = new AtomicLongArray(TOTAL_FAIXAS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder soma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Registra um valor (valores negativos, possíveis com relógios de máquinas diferentes, contam como zero).
+     */
+    public void registrar(long valor) {
+        if (valor < 0) valor = 0;
+        contagens.incrementAndGet(indice(valor));
+        total.increment();
+        soma.add(valor);
+        long atual;
+        while (valor > (atual = maximo.get()) && !maximo.compareAndSet(atual, valor)) {
+            // Outra thread atualizou o máximo; tenta novamente com o novo valor
+        }
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * Soma de todos os valores registrados (permite calcular a média de um intervalo por diferença).
+     */
+    public long getSoma() {
+        return soma.sum();
+    }
+
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    public double getMedia() {
+        long n = total.sum();
+        return n == 0 ? 0 : (double) soma.sum() / n;
+    }
+
+    /**
+     * Retorna o valor abaixo do qual se encontra a fração pedida das amostras.
+     * O resultado é o limite superior da faixa que contém o percentil.
+     *
+     * @param percentil Valor entre 0 e 100 (ex: 99.9).
+     */
+    public long getPercentil(double percentil) {
+        long n = total.sum();
+        if (n == 0) return 0;
+        long alvo = Math.max(1, (long) Math.ceil(n * percentil / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < TOTAL_FAIXAS; i++) {
+            acumulado += contagens.get(i);
+            if (acumulado >= alvo) {
+                return Math.min(limiteSuperior(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+
+    /**
+     * Soma as amostras de outro histograma neste (ex: consolidar histogramas de vários Workers).
+     */
+    public void somar(HistogramaLatencia outro) {
+        for (int i = 0; i < TOTAL_FAIXAS; i++) {
+            long c = outro.contagens.get(i);
+            if (c != 0) contagens.addAndGet(i, c);
+        }
+        total.add(outro.total.sum());
+        soma.add(outro.soma.sum());
+        long m = outro.maximo.get();
+        long atual;
+        while (m > (atual = maximo.get()) && !maximo.compareAndSet(atual, m)) {
+            // Repete até publicar o maior valor
+        }
+    }
+
+    public void zerar() {
+        for (int i = 0; i < TOTAL_FAIXAS; i++) contagens.set(i, 0);
+        total.reset();
+        soma.reset();
+        maximo.set(0);
+    }
+
+    /**
+     * Resumo textual com os percentis mais usados.
+     */
+    public String resumo(String unidade) {
+        return String.format("n=%d p50=%d%s p99=%d%s p99.9=%d%s max=%d%s",
+                getTotal(), getPercentil(50), unidade, getPercentil(99), unidade,
+                getPercentil(99.9), unidade, getMaximo(), unidade);
+    }
+
+    /**
+     * Valores menores que 64 têm faixa própria; acima disso, a faixa é definida pelo expoente
+     * (posição do bit mais significativo) e pelos 5 bits seguintes.
+     */
+    static int indice(long valor) {
+        int msb = 63 - Long.numberOfLeadingZeros(valor | 1);
+        if (msb < BITS_SUB_FAIXA) return (int) valor;
+        int deslocamento = msb - BITS_SUB_FAIXA;
+        return deslocamento * SUB_FAIXAS + (int) (valor >>> deslocamento);
+    }
+
+    static long limiteSuperior(int indice) {
+        if (indice < 2 * SUB_FAIXAS) return indice;
+        int deslocamento = indice / SUB_FAIXAS - 1;
+        long mantissa = indice - (long) deslocamento * SUB_FAIXAS;
+        return ((mantissa + 1) << deslocamento) - 1;
+    }
+}
@@ -0,0 +1,110 @@
+package br.edu.ifce.ppd.mom.metricas;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+/**
+ * Decomposição da latência do pipeline a partir dos carimbos de tempo (microssegundos)
+ * gravados como propriedades JMS em cada etapa:
+ *
+ *   tsLeitura (Produtor leu a linha) -> tsEnvio (Produtor enviou à Fila)
+ *   -> tsRecebimento (Worker retirou da Fila) -> tsContagem (motor terminou a contagem)
+ *   -> tsPublicacao (Worker publicou no Tópico) -> agregação no Monitor.
+ *
+ * Cada intervalo alimenta um histograma próprio, o que permite identificar se o tempo é
+ * gasto na fila do Broker, na contagem ou na agregação.
+ */
+public class LatenciaPorEtapa {
+
+    /**
+     * Intervalos medidos, na ordem em que acontecem no pipeline.
+     */
+    public enum Etapa {
+        LOTE_PRODUTOR("Leitura/lote (Produtor)", "tsLeitura", "tsEnvio"),
+        FILA_BROKER("Fila no Broker", "tsEnvio", "tsRecebimento"),
+        CONTAGEM("Contagem (motor)", "tsRecebimento", "tsContagem"),
+        PUBLICACAO("Publicação (Worker)", "tsContagem", "tsPublicacao"),
+        TOPICO_AGREGACAO("Tópico + agregação", "tsPublicacao", null);
+
+        private final String descricao;
+        private final String propriedadeInicio;
+        private final String propriedadeFim;
+
+        Etapa(String descricao, String propriedadeInicio, String propriedadeFim) {
+            this.descricao = descricao;
+            this.propriedadeInicio = propriedadeInicio;
+            this.propriedadeFim = propriedadeFim;
+        }
+
+        public String getDescricao() { return descricao; }
+    }
+
+    private final HistogramaLatencia[] porEtapa = new HistogramaLatencia[Etapa.values().length];
+    private final HistogramaLatencia pontaAPonta = new HistogramaLatencia();
+
+    public LatenciaPorEtapa() {
+        for (int i = 0; i < porEtapa.length; i++) porEtapa[i] = new HistogramaLatencia();
+    }
+
+    /**
+     * Registra os intervalos presentes na mensagem de resultado recebida pelo Monitor.
+     * Mensagens sem carimbos (ex: de versões antigas dos Workers) são ignoradas.
+     *
+     * @param agregadoEm Momento (microssegundos) em que o resultado foi aplicado ao total.
+     */
+    public void registrar(Message msg, long agregadoEm) throws JMSException {
+        if (msg.propertyExists("tsLeitura")) {
+            pontaAPonta.registrar(agregadoEm - msg.getLongProperty("tsLeitura"));
+        }
+        // Apenas a primeira mensagem de resultado de cada linha carrega o rastreio completo,
+        // para que uma linha com muitas ocorrências não pese mais que as outras nas etapas
+        if (!msg.propertyExists("tsPublicacao")) return;
+        for (Etapa etapa : Etapa.values()) {
+            if (!msg.propertyExists(etapa.propriedadeInicio)) continue;
+            long inicio = msg.getLongProperty(etapa.propriedadeInicio);
+            long fim;
+            if (etapa.propriedadeFim == null) {
+                fim = agregadoEm;
+            } else if (msg.propertyExists(etapa.propriedadeFim)) {
+                fim = msg.getLongProperty(etapa.propriedadeFim);
+            } else {
+                continue;
+            }
+            porEtapa[etapa.ordinal()].registrar(fim - inicio);
+        }
+    }
+
+    public HistogramaLatencia getPontaAPonta() {
+        return pontaAPonta;
+    }
+
+    public HistogramaLatencia getEtapa(Etapa etapa) {
+        return porEtapa[etapa.ordinal()];
+    }
+
+    public void zerar() {
+        pontaAPonta.zerar();
+        for (HistogramaLatencia h : porEtapa) h.zerar();
+    }
+
+    /**
+     * Tabela com p50/p99 de cada etapa (em milissegundos) e a participação da mediana de cada
+     * etapa na soma das medianas, destacando onde o tempo é gasto.
+     */
+    public String resumo() {
+        StringBuilder sb = new StringBuilder();
+        double somaMedianas = 0;
+        for (HistogramaLatencia h : porEtapa) somaMedianas += h.getPercentil(50);
+
+        sb.append(String.format("%-24s %9s %9s %6s\n", "Etapa", "p50(ms)", "p99(ms)", "%"));
+        for (Etapa etapa : Etapa.values()) {
+            HistogramaLatencia h = porEtapa[etapa.ordinal()];
+            double p50 = h.getPercentil(50);
+            sb.append(String.format("%-24s %9.2f %9.2f %5.1f%%\n", etapa.getDescricao(),
+                    p50 / 1000.0, h.getPercentil(99) / 1000.0, somaMedianas == 0 ? 0 : 100.0 * p50 / somaMedianas));
+        }
+        sb.append(String.format("%-24s %9.2f %9.2f\n", "Ponta a ponta",
+                pontaAPonta.getPercentil(50) / 1000.0, pontaAPonta.getPercentil(99) / 1000.0));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,21 @@
+package br.edu.ifce.ppd.mom.metricas;
+
+/**
+ * Valor instantâneo (ex: profundidade da Fila), substituído a cada amostra,
+ * ao contrário do Contador, que apenas cresce.
+ */
+public class Medidor {
+    private volatile long valor;
+
+    public void definir(long valor) {
+        this.valor = valor;
+    }
+
+    public long getValor() {
+        return valor;
+    }
+
+    public void zerar() {
+        valor = 0;
+    }
+}
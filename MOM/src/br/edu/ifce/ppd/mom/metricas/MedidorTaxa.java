@@ -0,0 +1,29 @@
+package br.edu.ifce.ppd.mom.metricas;
+
+/**
+ * Converte um total crescente (ex: linhas processadas) em taxa por segundo.
+ * A taxa é recalculada quando a leitura ocorre pelo menos meio segundo após a anterior;
+ * leituras mais frequentes (ex: vários atributos lidos pelo JConsole de uma vez) devolvem
+ * o último valor calculado.
+ *
+ * NOTA TÉCNICA: Pensado para ser consultado por ferramentas de observação, nunca no caminho crítico.
+ */
+public class MedidorTaxa {
+    private static final long JANELA_MINIMA_NS = 500_000_000L;
+
+    private long instanteAnterior = System.nanoTime();
+    private long valorAnterior;
+    private double taxa;
+
+    public synchronized double taxa(long valorAtual) {
+        long agora = System.nanoTime();
+        long decorrido = agora - instanteAnterior;
+        if (decorrido >= JANELA_MINIMA_NS) {
+            // Um total que diminuiu indica que as métricas foram zeradas: recomeça a medição
+            taxa = valorAtual < valorAnterior ? 0 : (valorAtual - valorAnterior) * 1e9 / decorrido;
+            instanteAnterior = agora;
+            valorAnterior = valorAtual;
+        }
+        return taxa;
+    }
+}
@@ -0,0 +1,104 @@
+package br.edu.ifce.ppd.mom.metricas;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro central de métricas do processo, no qual todos os componentes reportam.
+ * Os componentes obtêm os contadores/histogramas uma única vez (na construção) e guardam a
+ * referência, de modo que o caminho crítico nunca consulta o mapa: apenas incrementa células.
+ */
+public class RegistroMetricas {
+
+    // Nomes das métricas padrão do pipeline
+    public static final String LINHAS_LIDAS = "produtor.linhasLidas";
+    public static final String BYTES_LIDOS = "produtor.bytesLidos";
+    public static final String MENSAGENS_ENVIADAS = "produtor.mensagensEnviadas";
+    public static final String LATENCIA_ENVIO = "produtor.latenciaEnvioUs";
+    public static final String PAUSAS_PRODUTOR = "produtor.pausasControleVazao";
+    public static final String TEMPO_PAUSA_PRODUTOR = "produtor.tempoPausaUs";
+    public static final String MENSAGENS_RECEBIDAS_WORKER = "worker.mensagensRecebidas";
+    public static final String LINHAS_PROCESSADAS = "worker.linhasProcessadas";
+    public static final String RESULTADOS_PUBLICADOS = "worker.resultadosPublicados";
+    public static final String TEMPO_CONTAGEM_LINHA = "worker.tempoContagemLinhaNs";
+    public static final String TEMPO_OCUPADO_WORKERS = "worker.tempoOcupadoNs";
+    public static final String TROCAS_JOB = "worker.trocasJob";
+    public static final String MOTORES_COMPILADOS = "worker.motoresCompilados";
+    public static final String LINHAS_DESCARTADAS = "worker.linhasDescartadas";
+    public static final String CONSULTAS_RESPONDIDAS = "worker.consultasRespondidas";
+    public static final String LATENCIA_CONSULTA = "consulta.latenciaUs";
+    public static final String PARCIAIS_AGREGADAS = "agregador.parciaisRecebidas";
+    public static final String DELTAS_ENCAMINHADOS = "agregador.deltasEncaminhados";
+    public static final String MENSAGENS_RECEBIDAS_MONITOR = "monitor.mensagensRecebidas";
+    public static final String ATRASO_AGREGACAO = "monitor.atrasoAgregacaoUs";
+    public static final String LATENCIA_PONTA_A_PONTA = "monitor.latenciaPontaAPontaUs";
+
+    // Medidores preenchidos pelo AmostradorBroker a partir do plugin de estatísticas do ActiveMQ
+    public static final String FILA_TAMANHO = "broker.fila.tamanho";
+    public static final String FILA_ENFILEIRADAS = "broker.fila.enfileiradas";
+    public static final String FILA_RETIRADAS = "broker.fila.retiradas";
+    public static final String FILA_CONSUMIDORES = "broker.fila.consumidores";
+    public static final String FILA_PRODUTORES = "broker.fila.produtores";
+    public static final String TOPICO_ENFILEIRADAS = "broker.topico.enfileiradas";
+    public static final String TOPICO_RETIRADAS = "broker.topico.retiradas";
+    public static final String TOPICO_EM_VOO = "broker.topico.emVoo";
+    public static final String TOPICO_CONSUMIDORES = "broker.topico.consumidores";
+    public static final String MEMORIA_USO = "broker.memoria.uso";
+    public static final String MEMORIA_PERCENTUAL = "broker.memoria.percentual";
+
+    private static final RegistroMetricas GLOBAL = new RegistroMetricas();
+
+    private final Map<String, Contador> contadores = new ConcurrentHashMap<>();
+    private final Map<String, HistogramaLatencia> histogramas = new ConcurrentHashMap<>();
+    private final Map<String, Medidor> medidores = new ConcurrentHashMap<>();
+
+    /**
+     * Registro compartilhado por todos os componentes do processo.
+     */
+    public static RegistroMetricas global() {
+        return GLOBAL;
+    }
+
+    public Contador contador(String nome) {
+        return contadores.computeIfAbsent(nome, n -> new Contador());
+    }
+
+    public HistogramaLatencia histograma(String nome) {
+        return histogramas.computeIfAbsent(nome, n -> new HistogramaLatencia());
+    }
+
+    public Medidor medidor(String nome) {
+        return medidores.computeIfAbsent(nome, n -> new Medidor());
+    }
+
+    /**
+     * Nome do contador de linhas processadas por um Worker específico.
+     */
+    public static String linhasProcessadasWorker(int idWorker) {
+        return "worker." + idWorker + ".linhasProcessadas";
+    }
+
+    /**
+     * Zera os valores mantendo as instâncias, já referenciadas pelos componentes.
+     */
+    public void zerar() {
+        contadores.values().forEach(Contador::zerar);
+        histogramas.values().forEach(HistogramaLatencia::zerar);
+        medidores.values().forEach(Medidor::zerar);
+    }
+
+    /**
+     * Fotografia dos valores atuais (ordenada por nome).
+     * Os medidores são exportados junto com os contadores, pois também são valores inteiros.
+     */
+    public SnapshotMetricas snapshot() {
+        Map<String, Long> valores = new TreeMap<>();
+        contadores.forEach((nome, c) -> valores.put(nome, c.getValor()));
+        medidores.forEach((nome, m) -> valores.put(nome, m.getValor()));
+        Map<String, SnapshotMetricas.ResumoHistograma> resumos = new TreeMap<>();
+        histogramas.forEach((nome, h) -> resumos.put(nome, new SnapshotMetricas.ResumoHistograma(
+                h.getTotal(), h.getMedia(), h.getPercentil(50), h.getPercentil(99), h.getPercentil(99.9), h.getMaximo())));
+        return new SnapshotMetricas(System.currentTimeMillis(), valores, resumos);
+    }
+}
@@ -0,0 +1,141 @@
+package br.edu.ifce.ppd.mom.metricas;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Valores das métricas em um instante, já resumidos (contadores e percentis dos histogramas).
+ * É o formato gravado periodicamente em arquivo (uma linha JSON por snapshot) e lido pelo Dashboard.
+ */
+public class SnapshotMetricas {
+    private static final Pattern CONTADOR = Pattern.compile("\"([^\"]+)\":(\\d+)");
+    private static final Pattern HISTOGRAMA = Pattern.compile(
+            "\"([^\"]+)\":\\{\"n\":(\\d+),\"media\":([0-9.]+),\"p50\":(\\d+),\"p99\":(\\d+),\"p999\":(\\d+),\"max\":(\\d+)\\}");
+
+    /**
+     * Resumo imutável de um histograma.
+     */
+    public static class ResumoHistograma {
+        public final long total;
+        public final double media;
+        public final long p50;
+        public final long p99;
+        public final long p999;
+        public final long maximo;
+
+        public ResumoHistograma(long total, double media, long p50, long p99, long p999, long maximo) {
+            this.total = total;
+            this.media = media;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.maximo = maximo;
+        }
+    }
+
+    private final long instante;
+    private final Map<String, Long> contadores;
+    private final Map<String, ResumoHistograma> histogramas;
+
+    public SnapshotMetricas(long instante, Map<String, Long> contadores, Map<String, ResumoHistograma> histogramas) {
+        this.instante = instante;
+        this.contadores = Collections.unmodifiableMap(contadores);
+        this.histogramas = Collections.unmodifiableMap(histogramas);
+    }
+
+    public long getInstante() { return instante; }
+
+    public Map<String, Long> getContadores() { return contadores; }
+
+    public Map<String, ResumoHistograma> getHistogramas() { return histogramas; }
+
+    public long getContador(String nome) {
+        return contadores.getOrDefault(nome, 0L);
+    }
+
+    /**
+     * Serializa em uma única linha JSON.
+     */
+    public String paraJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"ts\":").append(instante).append(",\"contadores\":{");
+        boolean primeiro = true;
+        for (Map.Entry<String, Long> e : contadores.entrySet()) {
+            if (!primeiro) sb.append(',');
+            sb.append('"').append(e.getKey()).append("\":").append(e.getValue());
+            primeiro = false;
+        }
+        sb.append("},\"histogramas\":{");
+        primeiro = true;
+        for (Map.Entry<String, ResumoHistograma> e : histogramas.entrySet()) {
+            ResumoHistograma h = e.getValue();
+            if (!primeiro) sb.append(',');
+            sb.append(String.format(Locale.ROOT, "\"%s\":{\"n\":%d,\"media\":%.1f,\"p50\":%d,\"p99\":%d,\"p999\":%d,\"max\":%d}",
+                    e.getKey(), h.total, h.media, h.p50, h.p99, h.p999, h.maximo));
+            primeiro = false;
+        }
+        return sb.append("}}").toString();
+    }
+
+    /**
+     * Reconstrói um snapshot a partir de uma linha gerada por {@link #paraJson()}.
+     */
+    public static SnapshotMetricas deJson(String json) {
+        int inicioHistogramas = json.indexOf("\"histogramas\"");
+        long instante = Long.parseLong(json.substring(json.indexOf(':') + 1, json.indexOf(',')));
+
+        Map<String, Long> contadores = new TreeMap<>();
+        String trechoContadores = json.substring(json.indexOf("\"contadores\""), inicioHistogramas);
+        Matcher m = CONTADOR.matcher(trechoContadores.substring(trechoContadores.indexOf('{')));
+        while (m.find()) contadores.put(m.group(1), Long.parseLong(m.group(2)));
+
+        Map<String, ResumoHistograma> histogramas = new TreeMap<>();
+        m = HISTOGRAMA.matcher(json.substring(inicioHistogramas));
+        while (m.find()) {
+            histogramas.put(m.group(1), new ResumoHistograma(Long.parseLong(m.group(2)), Double.parseDouble(m.group(3)),
+                    Long.parseLong(m.group(4)), Long.parseLong(m.group(5)), Long.parseLong(m.group(6)), Long.parseLong(m.group(7))));
+        }
+        return new SnapshotMetricas(instante, contadores, histogramas);
+    }
+
+    /**
+     * Lê o snapshot mais recente de um arquivo exportado, sem percorrer o arquivo inteiro.
+     *
+     * @return O último snapshot ou null se o arquivo ainda estiver vazio.
+     */
+    public static SnapshotMetricas lerUltimo(Path arquivo) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(arquivo.toFile(), "r")) {
+            long tamanho = raf.length();
+            if (tamanho == 0) return null;
+            int janela = (int) Math.min(tamanho, 1 << 16);
+            byte[] buffer = new byte[janela];
+            raf.seek(tamanho - janela);
+            raf.readFully(buffer);
+            String trecho = new String(buffer, StandardCharsets.UTF_8).trim();
+            int inicio = trecho.lastIndexOf('\n') + 1;
+            return deJson(trecho.substring(inicio));
+        }
+    }
+
+    /**
+     * Texto tabular para exibição no Dashboard.
+     */
+    public String formatar() {
+        StringBuilder sb = new StringBuilder();
+        contadores.forEach((nome, valor) -> sb.append(String.format("%-32s %12d\n", nome, valor)));
+        if (!histogramas.isEmpty()) {
+            sb.append(String.format("\n%-32s %8s %8s %8s %8s %8s\n", "histograma", "n", "p50", "p99", "p99.9", "max"));
+            histogramas.forEach((nome, h) -> sb.append(String.format("%-32s %8d %8d %8d %8d %8d\n",
+                    nome, h.total, h.p50, h.p99, h.p999, h.maximo)));
+        }
+        return sb.toString();
+    }
+}